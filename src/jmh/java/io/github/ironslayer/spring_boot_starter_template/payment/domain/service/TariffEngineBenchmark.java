@@ -0,0 +1,78 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.domain.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmark JMH del motor de tarifas contra el cálculo anterior con BigDecimal/double.
+ * Vive fuera de src/test (perfil benchmark del pom) y se lanza con:
+ *   mvn -Pbenchmark test-compile exec:exec
+ * Los valores devueltos los consume JMH, así el JIT no descarta el cálculo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TariffEngineBenchmark {
+
+    // Estadías de 0 a ~3 días, para pasar por el mínimo, el tope y varios días
+    private static final long MAX_MINUTES = 4_320;
+
+    private static final BigDecimal RATE_PER_HOUR = new BigDecimal("2000.00");
+    private static final int MINIMUM_CHARGE_HOURS = 1;
+    private static final BigDecimal MAXIMUM_DAILY_RATE = new BigDecimal("15000.00");
+
+    private Tariff tariff;
+    private long minutes;
+
+    @Setup
+    public void setUp() {
+        tariff = new Tariff(
+                TariffEngine.toMinorUnits(RATE_PER_HOUR), MINIMUM_CHARGE_HOURS, TariffEngine.toMinorUnits(MAXIMUM_DAILY_RATE));
+    }
+
+    @Benchmark
+    public long tariffEngine() {
+        return tariff.priceMinor(nextMinutes());
+    }
+
+    @Benchmark
+    public BigDecimal legacyBigDecimal() {
+        return legacyPrice(nextMinutes());
+    }
+
+    private long nextMinutes() {
+        minutes = minutes == MAX_MINUTES ? 0 : minutes + 1;
+        return minutes;
+    }
+
+    /**
+     * El cálculo que tenían ProcessPaymentHandler y CalculateAmountHandler
+     */
+    private static BigDecimal legacyPrice(long minutes) {
+        BigDecimal hoursParked = BigDecimal.valueOf(minutes).divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP);
+        BigDecimal minimumHours = BigDecimal.valueOf(MINIMUM_CHARGE_HOURS);
+        if (hoursParked.compareTo(minimumHours) < 0) {
+            hoursParked = minimumHours;
+        }
+        BigDecimal totalAmount = BigDecimal.valueOf(Math.ceil(hoursParked.doubleValue())).multiply(RATE_PER_HOUR);
+        if (totalAmount.compareTo(MAXIMUM_DAILY_RATE) > 0) {
+            totalAmount = MAXIMUM_DAILY_RATE;
+        }
+        return totalAmount.setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.ironslayer.spring_boot_starter_template.common.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Small read-through cache whose entries expire after a fixed time-to-live.
+ * Meant for tiny, rarely changing data sets (display names, lookups);
+ * empty loads are not cached so a missing key is retried on the next call.
+ */
+public class TtlCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+
+    public TtlCache(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Returns the cached value for the key, loading it when missing or expired.
+     */
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        long now = System.nanoTime();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && now - entry.loadedAt() < ttlNanos) {
+            return Optional.of(entry.value());
+        }
+
+        Optional<V> loaded = loader.apply(key);
+        loaded.ifPresentOrElse(
+                value -> entries.put(key, new Entry<>(value, now)),
+                () -> entries.remove(key));
+        return loaded;
+    }
+
+    public void evict(K key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
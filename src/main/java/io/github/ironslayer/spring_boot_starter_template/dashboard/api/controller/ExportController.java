@@ -0,0 +1,133 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.api.controller;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.application.usecase.ExportDataUseCase;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.ExportFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+/**
+ * Controlador REST para exportar pagos y sesiones como archivos CSV o NDJSON comprimidos con gzip.
+ * La respuesta se escribe mientras se recorre la consulta (StreamingResponseBody),
+ * así que una exportación de un año no se arma en memoria.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/reports/export")
+@RequiredArgsConstructor
+@Tag(name = "Exports", description = "Streaming data export endpoints")
+@SecurityRequirement(name = "Bearer Authentication")
+public class ExportController {
+    
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+    
+    private final ExportDataUseCase exportDataUseCase;
+    
+    /**
+     * Exporta los pagos creados en un rango de fechas
+     * 
+     * ADMIN: Acceso completo (máximo 366 días por descarga)
+     * OPERATOR: No tiene acceso a exportaciones
+     */
+    @GetMapping("/payments")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(
+        summary = "Export payments",
+        description = "Stream the payments created between two dates (both included, maximum 366 days) " +
+                     "as a gzip-compressed CSV or NDJSON file. Only available for ADMIN users."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export file streamed successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid date range or unsupported format"),
+        @ApiResponse(responseCode = "401", description = "Authentication required"),
+        @ApiResponse(responseCode = "403", description = "Access denied - ADMIN role required")
+    })
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @Parameter(description = "Start date in YYYY-MM-DD format", example = "2025-07-01", required = true)
+            @RequestParam("startDate")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            
+            @Parameter(description = "End date in YYYY-MM-DD format", example = "2025-07-31", required = true)
+            @RequestParam("endDate")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            
+            @Parameter(description = "File format: csv or ndjson", example = "csv")
+            @RequestParam(value = "format", defaultValue = "csv") String format) {
+        
+        log.info("Received request to export payments from {} to {} as {}", startDate, endDate, format);
+        
+        ExportFormat exportFormat = ExportFormat.from(format);
+        exportDataUseCase.validateRange(startDate, endDate);
+        
+        return download("payments", startDate, endDate, exportFormat,
+                out -> exportDataUseCase.exportPayments(startDate, endDate, exportFormat, out));
+    }
+    
+    /**
+     * Exporta las sesiones de parqueo que entraron en un rango de fechas
+     * 
+     * ADMIN: Acceso completo (máximo 366 días por descarga)
+     * OPERATOR: No tiene acceso a exportaciones
+     */
+    @GetMapping("/sessions")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(
+        summary = "Export parking sessions",
+        description = "Stream the parking sessions that entered between two dates (both included, maximum 366 days) " +
+                     "as a gzip-compressed CSV or NDJSON file. Only available for ADMIN users."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export file streamed successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid date range or unsupported format"),
+        @ApiResponse(responseCode = "401", description = "Authentication required"),
+        @ApiResponse(responseCode = "403", description = "Access denied - ADMIN role required")
+    })
+    public ResponseEntity<StreamingResponseBody> exportSessions(
+            @Parameter(description = "Start date in YYYY-MM-DD format", example = "2025-07-01", required = true)
+            @RequestParam("startDate")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            
+            @Parameter(description = "End date in YYYY-MM-DD format", example = "2025-07-31", required = true)
+            @RequestParam("endDate")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            
+            @Parameter(description = "File format: csv or ndjson", example = "csv")
+            @RequestParam(value = "format", defaultValue = "csv") String format) {
+        
+        log.info("Received request to export parking sessions from {} to {} as {}", startDate, endDate, format);
+        
+        ExportFormat exportFormat = ExportFormat.from(format);
+        exportDataUseCase.validateRange(startDate, endDate);
+        
+        return download("parking_sessions", startDate, endDate, exportFormat,
+                out -> exportDataUseCase.exportSessions(startDate, endDate, exportFormat, out));
+    }
+    
+    private ResponseEntity<StreamingResponseBody> download(String name, LocalDate startDate, LocalDate endDate,
+                                                           ExportFormat format, StreamingResponseBody body) {
+        String filename = name + "_" + startDate + "_" + endDate + "." + format.getExtension() + ".gz";
+        
+        return ResponseEntity.ok()
+                .contentType(GZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.ironslayer.spring_boot_starter_template.dashboard.api.controller;
 
+import io.github.ironslayer.spring_boot_starter_template.dashboard.application.dto.HourlyOccupancyReportDto;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.application.dto.OccupancyReportDto;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.application.dto.RevenueReportDto;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.application.usecase.GenerateOccupancyReportUseCase;
@@ -103,17 +104,79 @@ public class ReportsController {
         }
     }
     
+    /**
+     * Obtiene la ocupación hora por hora de una fecha, con el pico exacto de sesiones simultáneas
+     * 
+     * ADMIN: Acceso completo a todas las fechas
+     * OPERATOR: Acceso solo al día actual
+     */
+    @GetMapping("/occupancy/hourly")
+    @PreAuthorize("hasAuthority('ADMIN') or (hasAuthority('OPERATOR') and #date == T(java.time.LocalDate).now())")
+    @Operation(
+        summary = "Get hourly occupancy report by date",
+        description = "Exact peak of simultaneous sessions and an hour-by-hour occupancy histogram for a specific date. " +
+                     "ADMIN users can access any date. " +
+                     "OPERATOR users can only access today's report."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200", 
+            description = "Hourly occupancy report generated successfully"
+        ),
+        @ApiResponse(
+            responseCode = "400", 
+            description = "Invalid date parameter or future date requested"
+        ),
+        @ApiResponse(
+            responseCode = "401", 
+            description = "Authentication required"
+        ),
+        @ApiResponse(
+            responseCode = "403", 
+            description = "Access denied - ADMIN role required for historical reports, OPERATOR can only access today's data"
+        ),
+        @ApiResponse(
+            responseCode = "500", 
+            description = "Internal server error while generating report"
+        )
+    })
+    public ResponseEntity<HourlyOccupancyReportDto> getHourlyOccupancyReport(
+            @Parameter(description = "Report date in YYYY-MM-DD format", example = "2025-07-29", required = true)
+            @RequestParam("date") 
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            @NotNull(message = "Date parameter is required")
+            @Valid LocalDate date) {
+        
+        log.info("Received request for hourly occupancy report on date: {}", date);
+        
+        try {
+            HourlyOccupancyReportDto report = generateOccupancyReportUseCase.executeHourlyForDate(date);
+            
+            log.info("Hourly occupancy report generated successfully for {}: peak of {}",
+                    date, report.getPeakOccupancy());
+            
+            return ResponseEntity.ok(report);
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid request for hourly occupancy report: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Error generating hourly occupancy report for date: {}", date, e);
+            throw e;
+        }
+    }
+    
     /**
      * Obtiene reportes de ocupación para un rango de fechas
      * 
-     * ADMIN: Acceso completo a rangos de fechas (máximo 90 días)
+     * ADMIN: Acceso completo a rangos de fechas (máximo 3660 días)
      * OPERATOR: No tiene acceso a reportes por rango
      */
     @GetMapping("/occupancy/range")
     @PreAuthorize("hasAuthority('ADMIN')")
     @Operation(
         summary = "Get occupancy reports by date range",
-        description = "Generate occupancy reports for a date range (maximum 90 days). " +
+        description = "Generate occupancy reports for a date range (maximum 3660 days). " +
                      "Only available for ADMIN users."
     )
     @ApiResponses(value = {
@@ -123,7 +186,7 @@ public class ReportsController {
         ),
         @ApiResponse(
             responseCode = "400", 
-            description = "Invalid date range (start > end, future dates, or range > 90 days)"
+            description = "Invalid date range (start > end, future dates, or range > 3660 days)"
         ),
         @ApiResponse(
             responseCode = "401", 
@@ -235,14 +298,14 @@ public class ReportsController {
     /**
      * Obtiene reportes de ingresos para un rango de fechas
      * 
-     * ADMIN: Acceso completo a rangos de fechas (máximo 90 días)
+     * ADMIN: Acceso completo a rangos de fechas (máximo 3660 días)
      * OPERATOR: No tiene acceso a reportes por rango
      */
     @GetMapping("/revenue/range")
     @PreAuthorize("hasAuthority('ADMIN')")
     @Operation(
         summary = "Get revenue reports by date range",
-        description = "Generate revenue reports for a date range (maximum 90 days). " +
+        description = "Generate revenue reports for a date range (maximum 3660 days). " +
                      "Only available for ADMIN users."
     )
     @ApiResponses(value = {
@@ -252,7 +315,7 @@ public class ReportsController {
         ),
         @ApiResponse(
             responseCode = "400", 
-            description = "Invalid date range (start > end, future dates, or range > 90 days)"
+            description = "Invalid date range (start > end, future dates, or range > 3660 days)"
         ),
         @ApiResponse(
             responseCode = "401", 
@@ -0,0 +1,225 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.application.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Reportes diarios (ocupación, ingresos) ya armados, por (tipo, día).
+ *
+ * Un día cerrado no cambia más, así que su reporte se guarda sin vencimiento: en memoria y en el
+ * ReportCacheStore compartido (Redis), de donde lo toman las otras instancias y esta misma después
+ * de reiniciar. Los días que todavía pueden cambiar (hoy, o ayer antes del cierre nocturno) solo se
+ * guardan en memoria por app.reports.cache.open-day-ttl. Qué día está cerrado lo decide quien llama.
+ *
+ * Un rango se arma día por día desde la caché; los días que faltan se calculan con una sola llamada
+ * al loader, desde el primero hasta el último que falta. Los reportes guardados se comparten entre
+ * pedidos: quien los recibe no debe modificarlos.
+ *
+ * Si cambian los datos de días ya cerrados (por ejemplo, al recalcular el resumen de recaudación)
+ * invalidate descarta los reportes de ese tipo, en memoria y en el ReportCacheStore. Una carga que
+ * empezó antes de invalidar no guarda lo que calculó.
+ *
+ * Acotada por cantidad de entradas en memoria (app.reports.cache.max-size): al superarla se descarta
+ * la usada hace más tiempo.
+ * Métricas: dashboard.report.cache.size, dashboard.report.cache.hits y dashboard.report.cache.misses.
+ */
+@Component
+@Slf4j
+public class ReportCache {
+
+    static final String METRIC_PREFIX = "dashboard.report.cache";
+
+    private final ReportCacheStore store;
+    private final Duration openDayTtl;
+    private final Clock clock;
+    private final int maxSize;
+    private final Map<ReportKey, Entry> reports;
+    // Cuántas veces se invalidó cada tipo; protegido por el candado de reports
+    private final Map<ReportType, Long> generations = new EnumMap<>(ReportType.class);
+    private final Counter hits;
+    private final Counter misses;
+
+    public ReportCache(ReportCacheStore store,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.reports.cache.max-size:20000}") int maxSize,
+                       @Value("${app.reports.cache.open-day-ttl:PT30S}") Duration openDayTtl) {
+        this(store, meterRegistry, maxSize, openDayTtl, Clock.systemUTC());
+    }
+
+    ReportCache(ReportCacheStore store, MeterRegistry meterRegistry, int maxSize, Duration openDayTtl, Clock clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Report cache max size must be greater than 0");
+        }
+        this.store = store;
+        this.openDayTtl = openDayTtl;
+        this.clock = clock;
+        this.maxSize = maxSize;
+        // LinkedHashMap en orden de acceso: la primera entrada es la usada hace más tiempo
+        this.reports = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ReportKey, Entry> eldest) {
+                return size() > ReportCache.this.maxSize;
+            }
+        };
+
+        Gauge.builder(METRIC_PREFIX + ".size", this, ReportCache::size)
+                .description("Daily reports held in memory")
+                .register(meterRegistry);
+        this.hits = Counter.builder(METRIC_PREFIX + ".hits")
+                .description("Daily reports answered from the cache (memory or shared store)")
+                .register(meterRegistry);
+        this.misses = Counter.builder(METRIC_PREFIX + ".misses")
+                .description("Daily reports that had to be calculated")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reportes de [startDate, endDate], uno por día y en orden
+     *
+     * @param closed días que ya no cambian (se guardan sin vencimiento)
+     * @param loader calcula los reportes de un rango [desde, hasta], uno por día; corre fuera del candado
+     * @param dateOf día de un reporte
+     */
+    public <T> List<T> getRange(ReportType type, LocalDate startDate, LocalDate endDate,
+                                Predicate<LocalDate> closed,
+                                BiFunction<LocalDate, LocalDate, List<T>> loader,
+                                Function<T, LocalDate> dateOf) {
+        Map<LocalDate, Object> found = new HashMap<>();
+        List<LocalDate> missing = new ArrayList<>();
+        Instant now = clock.instant();
+        long generation;
+        synchronized (reports) {
+            generation = generations.getOrDefault(type, 0L);
+            for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+                ReportKey key = new ReportKey(type, day);
+                Entry entry = reports.get(key);
+                if (entry != null && entry.isExpired(now)) {
+                    reports.remove(key);
+                    entry = null;
+                }
+                if (entry != null) {
+                    found.put(day, entry.report());
+                } else {
+                    missing.add(day);
+                }
+            }
+        }
+
+        // Segundo nivel: solo tiene días cerrados
+        List<LocalDate> closedMissing = missing.stream().filter(closed).toList();
+        if (!closedMissing.isEmpty()) {
+            Map<LocalDate, Object> shared = store.findAll(type, closedMissing);
+            putAll(type, generation, shared, null);
+            found.putAll(shared);
+            missing.removeAll(shared.keySet());
+        }
+
+        hits.increment(found.size());
+        misses.increment(missing.size());
+        if (!missing.isEmpty()) {
+            load(type, generation, missing, closed, loader, dateOf, found);
+        }
+
+        List<T> result = new ArrayList<>(found.size());
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            result.add(cast(found.get(day)));
+        }
+        return result;
+    }
+
+    /**
+     * Descarta todos los reportes de un tipo, en memoria y en el ReportCacheStore
+     */
+    public void invalidate(ReportType type) {
+        synchronized (reports) {
+            generations.merge(type, 1L, Long::sum);
+            reports.keySet().removeIf(key -> key.type() == type);
+        }
+        store.deleteAll(type);
+        log.info("{} reports invalidated", type);
+    }
+
+    public int size() {
+        synchronized (reports) {
+            return reports.size();
+        }
+    }
+
+    private <T> void load(ReportType type, long generation, List<LocalDate> missing, Predicate<LocalDate> closed,
+                          BiFunction<LocalDate, LocalDate, List<T>> loader, Function<T, LocalDate> dateOf,
+                          Map<LocalDate, Object> found) {
+        LocalDate from = missing.get(0);
+        LocalDate to = missing.get(missing.size() - 1);
+        Map<LocalDate, Object> closedReports = new HashMap<>();
+        Map<LocalDate, Object> openReports = new HashMap<>();
+        for (T report : loader.apply(from, to)) {
+            LocalDate day = dateOf.apply(report);
+            // El loader trae el rango completo; los días que ya estaban se dejan como estaban
+            if (!found.containsKey(day)) {
+                found.put(day, report);
+                (closed.test(day) ? closedReports : openReports).put(day, report);
+            }
+        }
+
+        if (!putAll(type, generation, closedReports, null)) {
+            log.debug("{} reports for {} to {} not cached: invalidated while loading", type, from, to);
+            return;
+        }
+        putAll(type, generation, openReports, clock.instant().plus(openDayTtl));
+        if (!closedReports.isEmpty()) {
+            store.saveAll(type, closedReports);
+        }
+        log.debug("{} reports calculated for {} to {}: {} closed days, {} open days",
+                type, from, to, closedReports.size(), openReports.size());
+    }
+
+    /**
+     * Guarda en memoria los reportes leídos o calculados en la generación dada;
+     * si el tipo se invalidó mientras tanto no guarda nada y devuelve false
+     */
+    private boolean putAll(ReportType type, long generation, Map<LocalDate, Object> dayReports, Instant expiresAt) {
+        synchronized (reports) {
+            if (generations.getOrDefault(type, 0L) != generation) {
+                return false;
+            }
+            dayReports.forEach((day, report) -> reports.put(new ReportKey(type, day), new Entry(report, expiresAt)));
+            return true;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object report) {
+        return (T) report;
+    }
+
+    private record ReportKey(ReportType type, LocalDate date) {
+    }
+
+    /**
+     * expiresAt null: día cerrado, no vence
+     */
+    private record Entry(Object report, Instant expiresAt) {
+
+        private boolean isExpired(Instant now) {
+            return expiresAt != null && expiresAt.isBefore(now);
+        }
+    }
+}
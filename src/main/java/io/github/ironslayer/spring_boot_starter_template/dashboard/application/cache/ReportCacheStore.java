@@ -0,0 +1,29 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.application.cache;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Puerto para el segundo nivel de ReportCache, compartido entre instancias.
+ * Solo recibe reportes de días cerrados, que no cambian: se guardan sin vencimiento.
+ * Implementaciones: Redis (por defecto) y ninguna (app.reports.cache.store=memory).
+ */
+public interface ReportCacheStore {
+
+    /**
+     * Busca los reportes guardados de varios días en una sola consulta
+     * @return reportes encontrados por día; los que faltan no aparecen
+     */
+    Map<LocalDate, Object> findAll(ReportType type, Collection<LocalDate> dates);
+
+    /**
+     * Guarda reportes de días cerrados
+     */
+    void saveAll(ReportType type, Map<LocalDate, Object> reports);
+
+    /**
+     * Borra todos los reportes guardados de un tipo (ver ReportCache.invalidate)
+     */
+    void deleteAll(ReportType type);
+}
@@ -0,0 +1,22 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.application.cache;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.application.dto.OccupancyReportDto;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.application.dto.RevenueReportDto;
+
+/**
+ * Tipos de reporte diario que guarda ReportCache, con la clase del DTO que se guarda
+ */
+public enum ReportType {
+    OCCUPANCY(OccupancyReportDto.class),
+    REVENUE(RevenueReportDto.class);
+
+    private final Class<?> reportClass;
+
+    ReportType(Class<?> reportClass) {
+        this.reportClass = reportClass;
+    }
+
+    public Class<?> reportClass() {
+        return reportClass;
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.application.cache;
+
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.event.RevenueRollupRebuiltEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Descarta los reportes de recaudación guardados en ReportCache cuando se recalcula el resumen diario.
+ * Corre después del commit del recálculo, así nadie vuelve a guardar un reporte armado con el resumen viejo.
+ */
+@Component
+@RequiredArgsConstructor
+public class RevenueReportInvalidator {
+
+    private final ReportCache reportCache;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRevenueRollupRebuilt(RevenueRollupRebuiltEvent event) {
+        reportCache.invalidate(ReportType.REVENUE);
+    }
+}
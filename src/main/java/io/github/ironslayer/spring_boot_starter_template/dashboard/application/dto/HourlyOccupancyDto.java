@@ -0,0 +1,43 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO con la ocupación de una hora del día
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HourlyOccupancyDto {
+    
+    /**
+     * Inicio de la hora
+     */
+    private LocalDateTime hourStart;
+    
+    /**
+     * Sesiones dentro al empezar la hora
+     */
+    private Integer occupiedAtStart;
+    
+    /**
+     * Máximo de sesiones simultáneas dentro de la hora
+     */
+    private Integer peakOccupancy;
+    
+    /**
+     * Número de vehículos que entraron en la hora
+     */
+    private Integer vehiclesEntered;
+    
+    /**
+     * Número de vehículos que salieron en la hora
+     */
+    private Integer vehiclesExited;
+}
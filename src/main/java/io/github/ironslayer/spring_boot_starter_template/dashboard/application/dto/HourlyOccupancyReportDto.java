@@ -0,0 +1,45 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO para el reporte de ocupación por hora de un día
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HourlyOccupancyReportDto {
+    
+    /**
+     * Fecha del reporte
+     */
+    private LocalDate reportDate;
+    
+    /**
+     * Total de espacios disponibles en el sistema
+     */
+    private Integer totalSpaces;
+    
+    /**
+     * Máximo de sesiones simultáneas en el día
+     */
+    private Integer peakOccupancy;
+    
+    /**
+     * Momento en que se alcanzó el pico por primera vez
+     */
+    private LocalDateTime peakTime;
+    
+    /**
+     * Ocupación hora por hora desde la medianoche
+     */
+    private List<HourlyOccupancyDto> hours;
+}
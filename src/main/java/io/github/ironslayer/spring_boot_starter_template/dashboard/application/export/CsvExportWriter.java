@@ -0,0 +1,66 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.application.export;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * CSV según RFC 4180: separador coma, fin de línea CRLF y comillas dobles solo en los valores que lo necesitan.
+ * Los valores nulos quedan vacíos.
+ */
+class CsvExportWriter extends ExportWriter {
+    
+    private static final char SEPARATOR = ',';
+    private static final String LINE_END = "\r\n";
+    
+    CsvExportWriter(Writer out) {
+        super(out);
+    }
+    
+    @Override
+    public void columns(List<String> columns) {
+        writeLine(columns.toArray());
+    }
+    
+    @Override
+    public void row(Object[] values) {
+        writeLine(values);
+    }
+    
+    private void writeLine(Object[] values) {
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(SEPARATOR);
+                }
+                if (values[i] != null) {
+                    writeValue(toText(values[i]));
+                }
+            }
+            out.write(LINE_END);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void writeValue(String text) throws IOException {
+        if (!needsQuotes(text)) {
+            out.write(text);
+            return;
+        }
+        out.write('"');
+        out.write(text.replace("\"", "\"\""));
+        out.write('"');
+    }
+    
+    private static boolean needsQuotes(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == SEPARATOR || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
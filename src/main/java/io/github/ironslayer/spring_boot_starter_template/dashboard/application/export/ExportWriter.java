@@ -0,0 +1,61 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.application.export;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.ExportFormat;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.repository.ExportRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Escribe las filas de una exportación en el formato pedido a medida que llegan,
+ * sin acumularlas: la memoria usada no depende de la cantidad de filas.
+ * Los errores de escritura (p. ej. el cliente cortó la descarga) se lanzan como UncheckedIOException
+ * para cortar el recorrido del cursor.
+ */
+public abstract class ExportWriter implements ExportRepository.RowSink {
+    
+    protected final Writer out;
+    
+    protected ExportWriter(Writer out) {
+        this.out = out;
+    }
+    
+    public static ExportWriter create(ExportFormat format, Writer out) {
+        return switch (format) {
+            case CSV -> new CsvExportWriter(out);
+            case NDJSON -> new NdjsonExportWriter(out);
+        };
+    }
+    
+    /**
+     * Vacía lo que quede en los buffers; se llama una vez al terminar
+     */
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Texto de un valor: fechas en ISO-8601 y montos sin notación científica
+     */
+    protected static String toText(Object value) {
+        if (value instanceof LocalDateTime dateTime) {
+            return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime);
+        }
+        if (value instanceof LocalDate date) {
+            return DateTimeFormatter.ISO_LOCAL_DATE.format(date);
+        }
+        if (value instanceof BigDecimal amount) {
+            return amount.toPlainString();
+        }
+        return String.valueOf(value);
+    }
+}
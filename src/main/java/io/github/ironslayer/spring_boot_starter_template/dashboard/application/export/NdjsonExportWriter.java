@@ -0,0 +1,80 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.application.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * NDJSON: un objeto JSON por línea con los nombres de las columnas como claves.
+ * Se escribe con el generador de streaming de Jackson, sin armar mapas por fila.
+ */
+class NdjsonExportWriter extends ExportWriter {
+    
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .enable(StreamWriteFeature.WRITE_BIGDECIMAL_AS_PLAIN)
+            .build();
+    
+    private final JsonGenerator generator;
+    private List<String> columns = List.of();
+    
+    NdjsonExportWriter(Writer out) {
+        super(out);
+        try {
+            this.generator = JSON_FACTORY.createGenerator(out);
+            this.generator.setRootValueSeparator(null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Override
+    public void columns(List<String> columns) {
+        this.columns = List.copyOf(columns);
+    }
+    
+    @Override
+    public void row(Object[] values) {
+        try {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.size(); i++) {
+                generator.writeFieldName(columns.get(i));
+                writeValue(values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Override
+    public void flush() {
+        try {
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        super.flush();
+    }
+    
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof BigDecimal amount) {
+            generator.writeNumber(amount);
+        } else if (value instanceof Long || value instanceof Integer) {
+            generator.writeNumber(((Number) value).longValue());
+        } else if (value instanceof Boolean flag) {
+            generator.writeBoolean(flag);
+        } else {
+            generator.writeString(toText(value));
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package io.github.ironslayer.spring_boot_starter_template.dashboard.application.mapper;
 
 import io.github.ironslayer.spring_boot_starter_template.dashboard.application.dto.DashboardSummaryDto;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.application.dto.HourlyOccupancyReportDto;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.application.dto.OccupancyReportDto;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.application.dto.RevenueReportDto;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.DashboardSummary;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.HourlyOccupancyReport;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.OccupancyReport;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.RevenueReport;
 import org.mapstruct.Mapper;
@@ -60,4 +62,12 @@ public interface DashboardMapper {
      * @return lista de DTOs
      */
     List<RevenueReportDto> toDtoList(List<RevenueReport> revenueReports);
+    
+    /**
+     * Convierte HourlyOccupancyReport a HourlyOccupancyReportDto
+     *
+     * @param hourlyOccupancyReport modelo de dominio
+     * @return DTO
+     */
+    HourlyOccupancyReportDto toDto(HourlyOccupancyReport hourlyOccupancyReport);
 }
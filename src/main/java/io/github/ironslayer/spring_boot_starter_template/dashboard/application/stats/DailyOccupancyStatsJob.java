@@ -0,0 +1,135 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.application.stats;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.OccupancyReport;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.repository.DailyOccupancyStatsRepository;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.repository.DashboardRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cierra la ocupación de los días pasados en daily_occupancy_stats.
+ *
+ * Al arrancar cierra todos los días que falten (desde el día siguiente al último cerrado, o desde
+ * la primera sesión) hasta ayer, y después corre cada noche CLOSE_DELAY después de la medianoche
+ * local, para que alcancen a confirmarse las salidas de último momento. Cada día se calcula una vez
+ * desde las sesiones (DashboardRepository.getOccupancyReportByDate) y se guarda en su propia
+ * transacción, así un cierre interrumpido sigue donde quedó. El día en curso no se cierra:
+ * lo responden los contadores en vivo del dashboard.
+ */
+@Component
+@Slf4j
+public class DailyOccupancyStatsJob {
+
+    static final Duration CLOSE_DELAY = Duration.ofMinutes(5);
+
+    private final DashboardRepository dashboardRepository;
+    private final DailyOccupancyStatsRepository statsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private ScheduledExecutorService executor;
+
+    public DailyOccupancyStatsJob(DashboardRepository dashboardRepository,
+                                  DailyOccupancyStatsRepository statsRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this(dashboardRepository, statsRepository, transactionManager, Clock.systemDefaultZone());
+    }
+
+    DailyOccupancyStatsJob(DashboardRepository dashboardRepository,
+                           DailyOccupancyStatsRepository statsRepository,
+                           PlatformTransactionManager transactionManager,
+                           Clock clock) {
+        this.dashboardRepository = dashboardRepository;
+        this.statsRepository = statsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+    }
+
+    /**
+     * Cierra lo pendiente en segundo plano (puede ser mucho la primera vez) y programa el cierre nocturno
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "daily-occupancy-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::runAndReschedule);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Cierra los días pendientes hasta ayer
+     *
+     * @return número de días cerrados
+     */
+    int closePastDays() {
+        LocalDate yesterday = LocalDate.now(clock).minusDays(1);
+        Optional<LocalDate> firstPending = statsRepository.findLastClosedDay()
+                .map(lastClosed -> lastClosed.plusDays(1))
+                .or(statsRepository::findFirstSessionDay);
+        if (firstPending.isEmpty()) {
+            return 0;
+        }
+
+        int closed = 0;
+        for (LocalDate day = firstPending.get(); !day.isAfter(yesterday); day = day.plusDays(1)) {
+            LocalDate dayToClose = day;
+            transactionTemplate.executeWithoutResult(status -> {
+                OccupancyReport report = dashboardRepository.getOccupancyReportByDate(dayToClose);
+                statsRepository.save(report);
+            });
+            closed++;
+        }
+        if (closed > 0) {
+            log.info("Daily occupancy stats closed for {} day(s) up to {}", closed, yesterday);
+        }
+        return closed;
+    }
+
+    /**
+     * Tiempo hasta el próximo cierre: la medianoche local siguiente más CLOSE_DELAY
+     */
+    Duration untilNextRun() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime nextRun = now.toLocalDate().atStartOfDay().plus(CLOSE_DELAY);
+        if (!nextRun.isAfter(now)) {
+            nextRun = now.toLocalDate().plusDays(1).atStartOfDay().plus(CLOSE_DELAY);
+        }
+        return Duration.between(now, nextRun);
+    }
+
+    private void runAndReschedule() {
+        try {
+            closePastDays();
+        } catch (Exception e) {
+            // Lo que no se cerró se reintenta en la próxima corrida
+            log.error("Error closing daily occupancy stats", e);
+        } finally {
+            // Se reprograma cada vez: la hora local de la medianoche cambia con el horario de verano
+            if (!executor.isShutdown()) {
+                executor.schedule(this::runAndReschedule, untilNextRun().toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+}
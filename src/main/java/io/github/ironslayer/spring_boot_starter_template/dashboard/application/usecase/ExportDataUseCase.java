@@ -0,0 +1,102 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.application.usecase;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.application.export.ExportWriter;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.ExportFormat;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.repository.ExportRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caso de uso para exportar pagos y sesiones de parqueo (descargas mensuales/anuales de finanzas).
+ * Las filas van del cursor JDBC al gzip sin pasar por listas, así que la memoria no depende del rango.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportDataUseCase {
+    
+    /**
+     * Un año completo (bisiesto incluido) es el rango más largo que se exporta de una vez
+     */
+    static final int MAX_EXPORT_DAYS = 366;
+    
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    
+    private final ExportRepository exportRepository;
+    
+    /**
+     * Valida el rango antes de empezar a responder: una vez que la descarga empezó
+     * ya no se puede devolver un 400
+     */
+    public void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date cannot be after end date");
+        }
+        
+        if (startDate.plusDays(MAX_EXPORT_DAYS).isBefore(endDate.plusDays(1))) {
+            throw new IllegalArgumentException("Date range cannot exceed " + MAX_EXPORT_DAYS + " days");
+        }
+    }
+    
+    /**
+     * Escribe en out los pagos creados entre startDate y endDate (ambos incluidos), comprimidos con gzip
+     */
+    @Transactional(readOnly = true)
+    public long exportPayments(LocalDate startDate, LocalDate endDate, ExportFormat format, OutputStream out) throws IOException {
+        validateRange(startDate, endDate);
+        log.info("Exporting payments from {} to {} as {}", startDate, endDate, format);
+        
+        long rows = export(format, out, writer ->
+                exportRepository.streamPayments(startOf(startDate), startOf(endDate.plusDays(1)), writer));
+        
+        log.info("Exported {} payments from {} to {}", rows, startDate, endDate);
+        return rows;
+    }
+    
+    /**
+     * Escribe en out las sesiones que entraron entre startDate y endDate (ambos incluidos), comprimidas con gzip
+     */
+    @Transactional(readOnly = true)
+    public long exportSessions(LocalDate startDate, LocalDate endDate, ExportFormat format, OutputStream out) throws IOException {
+        validateRange(startDate, endDate);
+        log.info("Exporting parking sessions from {} to {} as {}", startDate, endDate, format);
+        
+        long rows = export(format, out, writer ->
+                exportRepository.streamSessions(startOf(startDate), startOf(endDate.plusDays(1)), writer));
+        
+        log.info("Exported {} parking sessions from {} to {}", rows, startDate, endDate);
+        return rows;
+    }
+    
+    private long export(ExportFormat format, OutputStream out, Export export) throws IOException {
+        // El gzip se termina (finish) pero out no se cierra: es el stream de la respuesta
+        GZIPOutputStream gzip = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+        ExportWriter writer = ExportWriter.create(format,
+                new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), GZIP_BUFFER_SIZE));
+        
+        long rows = export.run(writer);
+        writer.flush();
+        gzip.finish();
+        return rows;
+    }
+    
+    private static LocalDateTime startOf(LocalDate date) {
+        return date.atStartOfDay();
+    }
+    
+    @FunctionalInterface
+    private interface Export {
+        long run(ExportWriter writer);
+    }
+}
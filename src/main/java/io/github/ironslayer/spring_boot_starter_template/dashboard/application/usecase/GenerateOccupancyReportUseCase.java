@@ -1,27 +1,48 @@
 package io.github.ironslayer.spring_boot_starter_template.dashboard.application.usecase;
 
+import io.github.ironslayer.spring_boot_starter_template.dashboard.application.cache.ReportCache;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.application.cache.ReportType;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.application.dto.HourlyOccupancyReportDto;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.application.dto.OccupancyReportDto;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.application.mapper.DashboardMapper;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.HourlyOccupancyReport;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.OccupancyReport;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.port.DashboardCounters;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.repository.DailyOccupancyStatsRepository;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.repository.DashboardRepository;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.service.OccupancySweep;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Caso de uso para generar reportes de ocupación del parqueadero
+ * Caso de uso para generar reportes de ocupación del parqueadero.
+ * Los días cerrados se leen de la ocupación diaria materializada, el día en curso de los
+ * contadores en vivo y los días pasados que todavía no se cerraron se calculan desde las sesiones.
+ * Los reportes diarios pasan por ReportCache.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class GenerateOccupancyReportUseCase {
     
+    /**
+     * Rango máximo de un reporte: una fila por día, unos diez años
+     */
+    static final int MAX_RANGE_DAYS = 3660;
+    
     private final DashboardRepository dashboardRepository;
+    private final DailyOccupancyStatsRepository dailyOccupancyStatsRepository;
+    private final DashboardCounters dashboardCounters;
     private final DashboardMapper dashboardMapper;
+    private final ReportCache reportCache;
     
     /**
      * Genera un reporte de ocupación para una fecha específica
@@ -39,11 +60,8 @@ public class GenerateOccupancyReportUseCase {
                 throw new IllegalArgumentException("Cannot generate report for future date: " + date);
             }
             
-            // Obtener reporte desde el repositorio
-            OccupancyReport occupancyReport = dashboardRepository.getOccupancyReportByDate(date);
-            
-            // Convertir a DTO
-            OccupancyReportDto result = dashboardMapper.toDto(occupancyReport);
+            // Obtener reporte del día (cerrado, en curso o por cerrar), desde la caché si ya está
+            OccupancyReportDto result = cachedReportsFor(date, date).get(0);
             
             log.info("Occupancy report generated for {}: {}% occupancy, {} vehicles entered",
                     date, result.getOccupancyPercentage(), result.getVehiclesEntered());
@@ -80,17 +98,13 @@ public class GenerateOccupancyReportUseCase {
                 throw new IllegalArgumentException("End date cannot be in the future");
             }
             
-            // Limitar el rango a máximo 90 días para evitar sobrecarga
-            if (startDate.plusDays(90).isBefore(endDate)) {
-                throw new IllegalArgumentException("Date range cannot exceed 90 days");
+            // Cada día es una fila ya agregada; el límite solo acota el tamaño de la respuesta
+            if (startDate.plusDays(MAX_RANGE_DAYS).isBefore(endDate)) {
+                throw new IllegalArgumentException("Date range cannot exceed " + MAX_RANGE_DAYS + " days");
             }
             
-            // Obtener reportes desde el repositorio
-            List<OccupancyReport> occupancyReports = dashboardRepository
-                    .getOccupancyReportsByDateRange(startDate, endDate);
-            
-            // Convertir a DTOs
-            List<OccupancyReportDto> result = dashboardMapper.toDto(occupancyReports);
+            // Obtener reportes (días cerrados, en curso o por cerrar), armados desde la caché día por día
+            List<OccupancyReportDto> result = cachedReportsFor(startDate, endDate);
             
             log.info("Generated {} occupancy reports for date range {} to {}",
                     result.size(), startDate, endDate);
@@ -105,4 +119,84 @@ public class GenerateOccupancyReportUseCase {
             throw new RuntimeException("Failed to generate occupancy reports", e);
         }
     }
+    
+    /**
+     * Genera el reporte de ocupación por hora de una fecha: pico exacto de sesiones simultáneas
+     * e histograma por hora, barriendo las entradas y salidas del día (ver OccupancySweep).
+     * El día en curso llega hasta la hora actual.
+     *
+     * @param date fecha del reporte
+     * @return reporte de ocupación por hora
+     */
+    @Transactional(readOnly = true)
+    public HourlyOccupancyReportDto executeHourlyForDate(LocalDate date) {
+        log.info("Generating hourly occupancy report for date: {}", date);
+        
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (date.isAfter(now.toLocalDate())) {
+                throw new IllegalArgumentException("Cannot generate report for future date: " + date);
+            }
+            
+            LocalDateTime from = date.atStartOfDay();
+            LocalDateTime to = date.equals(now.toLocalDate())
+                    ? now.truncatedTo(ChronoUnit.HOURS).plusHours(1)
+                    : date.plusDays(1).atStartOfDay();
+            
+            // Transacción de solo lectura: el cursor de eventos avanza de a bloques sin cargar el día completo
+            OccupancySweep sweep = new OccupancySweep(from, to, dashboardRepository.countOccupiedAt(from));
+            dashboardRepository.streamOccupancyEvents(from, to, sweep::event);
+            
+            HourlyOccupancyReport report = HourlyOccupancyReport.builder()
+                    .reportDate(date)
+                    .totalSpaces(dashboardRepository.getTotalSpaces())
+                    .peakOccupancy(Math.toIntExact(sweep.peakOccupancy()))
+                    .peakTime(sweep.peakTime())
+                    .hours(sweep.hours())
+                    .build();
+            
+            HourlyOccupancyReportDto result = dashboardMapper.toDto(report);
+            
+            log.info("Hourly occupancy report generated for {}: peak of {} at {}",
+                    date, result.getPeakOccupancy(), result.getPeakTime());
+            
+            return result;
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid request for hourly occupancy report: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Error generating hourly occupancy report for date: {}", date, e);
+            throw new RuntimeException("Failed to generate hourly occupancy report", e);
+        }
+    }
+    
+    /**
+     * Los días ya cerrados en daily_occupancy_stats no cambian más y quedan en caché sin vencimiento
+     */
+    private List<OccupancyReportDto> cachedReportsFor(LocalDate startDate, LocalDate endDate) {
+        LocalDate lastClosed = dailyOccupancyStatsRepository.findLastClosedDay().orElse(LocalDate.MIN);
+        return reportCache.getRange(ReportType.OCCUPANCY, startDate, endDate,
+                day -> !day.isAfter(lastClosed),
+                (from, to) -> dashboardMapper.toDto(reportsFor(from, to)),
+                OccupancyReportDto::getReportDate);
+    }
+    
+    private List<OccupancyReport> reportsFor(LocalDate startDate, LocalDate endDate) {
+        LocalDate today = LocalDate.now();
+        LocalDate lastClosed = dailyOccupancyStatsRepository.findLastClosedDay().orElse(LocalDate.MIN);
+        
+        // Una lectura de la tabla para todo el rango; solo se reemplazan los días que no están cerrados
+        List<OccupancyReport> reports = new ArrayList<>(dashboardRepository.getOccupancyReportsByDateRange(startDate, endDate));
+        for (int i = 0; i < reports.size(); i++) {
+            LocalDate day = reports.get(i).getReportDate();
+            if (day.equals(today)) {
+                reports.set(i, dashboardCounters.snapshot().toOccupancyReport());
+            } else if (day.isAfter(lastClosed) && day.isBefore(today)) {
+                // Normalmente solo ayer, entre la medianoche y el cierre nocturno
+                reports.set(i, dashboardRepository.getOccupancyReportByDate(day));
+            }
+        }
+        return reports;
+    }
 }
@@ -1,5 +1,7 @@
 package io.github.ironslayer.spring_boot_starter_template.dashboard.application.usecase;
 
+import io.github.ironslayer.spring_boot_starter_template.dashboard.application.cache.ReportCache;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.application.cache.ReportType;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.application.dto.RevenueReportDto;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.application.mapper.DashboardMapper;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.RevenueReport;
@@ -13,15 +15,27 @@ import java.time.LocalDate;
 import java.util.List;
 
 /**
- * Caso de uso para generar reportes de ingresos del parqueadero
+ * Caso de uso para generar reportes de ingresos del parqueadero.
+ * Los reportes diarios pasan por ReportCache.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class GenerateRevenueReportUseCase {
     
+    /**
+     * Rango máximo de un reporte: una fila por día, unos diez años
+     */
+    static final int MAX_RANGE_DAYS = 3660;
+    
+    /**
+     * Días completos que un día cerrado sigue abierto en la caché, para los pagos que se confirman tarde
+     */
+    static final int REVENUE_GRACE_DAYS = 1;
+    
     private final DashboardRepository dashboardRepository;
     private final DashboardMapper dashboardMapper;
+    private final ReportCache reportCache;
     
     /**
      * Genera un reporte de ingresos para una fecha específica
@@ -39,11 +53,8 @@ public class GenerateRevenueReportUseCase {
                 throw new IllegalArgumentException("Cannot generate report for future date: " + date);
             }
             
-            // Obtener reporte desde el repositorio
-            RevenueReport revenueReport = dashboardRepository.getRevenueReportByDate(date);
-            
-            // Convertir a DTO
-            RevenueReportDto result = dashboardMapper.toDto(revenueReport);
+            // Obtener reporte desde la caché o el resumen diario
+            RevenueReportDto result = cachedReportsFor(date, date).get(0);
             
             log.info("Revenue report generated for {}: ${} total revenue, {} payments",
                     date, result.getTotalRevenue(), result.getTotalPayments());
@@ -80,17 +91,13 @@ public class GenerateRevenueReportUseCase {
                 throw new IllegalArgumentException("End date cannot be in the future");
             }
             
-            // Limitar el rango a máximo 90 días para evitar sobrecarga
-            if (startDate.plusDays(90).isBefore(endDate)) {
-                throw new IllegalArgumentException("Date range cannot exceed 90 days");
+            // Cada día sale del resumen diario de recaudación; el límite solo acota el tamaño de la respuesta
+            if (startDate.plusDays(MAX_RANGE_DAYS).isBefore(endDate)) {
+                throw new IllegalArgumentException("Date range cannot exceed " + MAX_RANGE_DAYS + " days");
             }
             
-            // Obtener reportes desde el repositorio
-            List<RevenueReport> revenueReports = dashboardRepository
-                    .getRevenueReportsByDateRange(startDate, endDate);
-            
-            // Convertir a DTOs
-            List<RevenueReportDto> result = dashboardMapper.toDtoList(revenueReports);
+            // Obtener reportes armados desde la caché día por día
+            List<RevenueReportDto> result = cachedReportsFor(startDate, endDate);
             
             log.info("Generated {} revenue reports for date range {} to {}",
                     result.size(), startDate, endDate);
@@ -105,4 +112,20 @@ public class GenerateRevenueReportUseCase {
             throw new RuntimeException("Failed to generate revenue reports", e);
         }
     }
+    
+    /**
+     * Cada pago cuenta en el día de paid_at, pero un pago cobrado antes de medianoche puede
+     * confirmarse después: ayer se trata como abierto (vence enseguida) durante todo el día de hoy
+     * y solo los días anteriores quedan en caché sin vencimiento
+     */
+    private List<RevenueReportDto> cachedReportsFor(LocalDate startDate, LocalDate endDate) {
+        LocalDate lastClosed = LocalDate.now().minusDays(REVENUE_GRACE_DAYS + 1);
+        return reportCache.getRange(ReportType.REVENUE, startDate, endDate,
+                day -> !day.isAfter(lastClosed),
+                (from, to) -> {
+                    List<RevenueReport> revenueReports = dashboardRepository.getRevenueReportsByDateRange(from, to);
+                    return dashboardMapper.toDtoList(revenueReports);
+                },
+                RevenueReportDto::getReportDate);
+    }
 }
@@ -2,22 +2,25 @@ package io.github.ironslayer.spring_boot_starter_template.dashboard.application.
 
 import io.github.ironslayer.spring_boot_starter_template.dashboard.application.dto.DashboardSummaryDto;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.application.mapper.DashboardMapper;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.DashboardCounts;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.DashboardSummary;
-import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.repository.DashboardRepository;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.port.DashboardCounters;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 /**
- * Caso de uso para obtener el resumen del dashboard principal
+ * Caso de uso para obtener el resumen del dashboard principal.
+ * Se arma con los contadores en memoria (DashboardCounters), sin consultar la BD.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class GetDashboardSummaryUseCase {
     
-    private final DashboardRepository dashboardRepository;
+    private final DashboardCounters dashboardCounters;
     private final DashboardMapper dashboardMapper;
     
     /**
@@ -25,18 +28,17 @@ public class GetDashboardSummaryUseCase {
      *
      * @return resumen del dashboard
      */
-    @Transactional(readOnly = true)
     public DashboardSummaryDto execute() {
-        log.info("Generating dashboard summary");
+        log.debug("Generating dashboard summary");
         
         try {
-            // Obtener resumen del dashboard desde el repositorio
-            DashboardSummary dashboardSummary = dashboardRepository.getDashboardSummary();
+            // Armar el resumen desde los contadores en vivo
+            DashboardSummary dashboardSummary = toSummary(dashboardCounters.snapshot());
             
             // Convertir a DTO
             DashboardSummaryDto result = dashboardMapper.toDto(dashboardSummary);
             
-            log.info("Dashboard summary generated successfully. Occupancy: {}%, Revenue: ${}",
+            log.debug("Dashboard summary generated successfully. Occupancy: {}%, Revenue: ${}",
                     result.getCurrentOccupancyPercentage(),
                     result.getTodayRevenue());
                     
@@ -47,4 +49,25 @@ public class GetDashboardSummaryUseCase {
             throw new RuntimeException("Failed to generate dashboard summary", e);
         }
     }
+    
+    private DashboardSummary toSummary(DashboardCounts counts) {
+        int totalSpaces = Math.toIntExact(counts.totalSpaces());
+        int occupiedSpaces = Math.toIntExact(counts.activeSessions());
+        
+        DashboardSummary summary = DashboardSummary.builder()
+                .generatedAt(LocalDateTime.now())
+                .totalSpaces(totalSpaces)
+                .occupiedSpaces(occupiedSpaces)
+                .availableSpaces(totalSpaces - occupiedSpaces)
+                .todayEntries(Math.toIntExact(counts.entries()))
+                .todayExits(Math.toIntExact(counts.exits()))
+                .todayRevenue(counts.revenue())
+                .todayPayments(Math.toIntExact(counts.payments()))
+                .averageStayDuration(counts.averageStayHours())
+                .activeSessions(occupiedSpaces)
+                .systemHealthy(true)
+                .build();
+        summary.setCurrentOccupancyPercentage(summary.calculateOccupancyPercentage());
+        return summary;
+    }
 }
@@ -0,0 +1,55 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Contadores crudos del dashboard para un día: lo que hay ahora (espacios, sesiones activas)
+ * y lo acumulado en el día (entradas, salidas, segundos de estadía de las salidas, pico de sesiones
+ * activas, pagos y recaudación).
+ * Es lo que mantiene DashboardCounters en memoria y lo que devuelve la BD al reconciliar.
+ */
+public record DashboardCounts(LocalDate day,
+                              long totalSpaces,
+                              long activeSessions,
+                              long entries,
+                              long exits,
+                              long staySeconds,
+                              long peakOccupancy,
+                              long payments,
+                              BigDecimal revenue) {
+
+    private static final BigDecimal SECONDS_PER_HOUR = BigDecimal.valueOf(3600);
+
+    /**
+     * Reporte de ocupación del día en curso: ocupados son las sesiones que estuvieron en el día,
+     * las activas más las que ya salieron
+     */
+    public OccupancyReport toOccupancyReport() {
+        int total = Math.toIntExact(totalSpaces);
+        int occupied = Math.toIntExact(activeSessions + exits);
+        OccupancyReport report = OccupancyReport.builder()
+                .reportDate(day)
+                .totalSpaces(total)
+                .occupiedSpaces(occupied)
+                .availableSpaces(total - occupied)
+                .vehiclesEntered(Math.toIntExact(entries))
+                .vehiclesExited(Math.toIntExact(exits))
+                .peakOccupancy(Math.toIntExact(peakOccupancy))
+                .build();
+        report.setOccupancyPercentage(report.calculateCurrentOccupancyPercentage());
+        return report;
+    }
+
+    /**
+     * Promedio de estadía en horas de las sesiones que salieron en el día
+     */
+    public BigDecimal averageStayHours() {
+        if (exits == 0) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(staySeconds)
+                .divide(BigDecimal.valueOf(exits).multiply(SECONDS_PER_HOUR), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model;
+
+import java.util.Locale;
+
+/**
+ * Formatos de exportación de datos (siempre comprimidos con gzip)
+ */
+public enum ExportFormat {
+    
+    CSV("csv", "text/csv"),
+    NDJSON("ndjson", "application/x-ndjson");
+    
+    private final String extension;
+    private final String mediaType;
+    
+    ExportFormat(String extension, String mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+    
+    /**
+     * Tipo del contenido antes de comprimir
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+    
+    /**
+     * Convierte el parámetro de la petición (csv / ndjson, sin importar mayúsculas)
+     */
+    public static ExportFormat from(String value) {
+        if (value == null || value.isBlank()) {
+            return CSV;
+        }
+        for (ExportFormat format : values()) {
+            if (format.extension.equals(value.trim().toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + value + ". Use csv or ndjson");
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ocupación de una hora del día: sesiones simultáneas al empezar la hora, máximo dentro de la hora
+ * y movimientos de la hora
+ */
+@Data
+@Builder
+public class HourlyOccupancy {
+    
+    /**
+     * Inicio de la hora
+     */
+    private LocalDateTime hourStart;
+    
+    /**
+     * Sesiones dentro al empezar la hora
+     */
+    private Integer occupiedAtStart;
+    
+    /**
+     * Máximo de sesiones simultáneas dentro de la hora
+     */
+    private Integer peakOccupancy;
+    
+    /**
+     * Número de vehículos que entraron en la hora
+     */
+    private Integer vehiclesEntered;
+    
+    /**
+     * Número de vehículos que salieron en la hora
+     */
+    private Integer vehiclesExited;
+}
@@ -0,0 +1,41 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ocupación de un día hora por hora, con el pico exacto de sesiones simultáneas (ver OccupancySweep)
+ */
+@Data
+@Builder
+public class HourlyOccupancyReport {
+    
+    /**
+     * Fecha del reporte
+     */
+    private LocalDate reportDate;
+    
+    /**
+     * Total de espacios disponibles en el sistema
+     */
+    private Integer totalSpaces;
+    
+    /**
+     * Máximo de sesiones simultáneas en el día
+     */
+    private Integer peakOccupancy;
+    
+    /**
+     * Momento en que se alcanzó el pico por primera vez
+     */
+    private LocalDateTime peakTime;
+    
+    /**
+     * Una entrada por hora, desde la medianoche (el día en curso llega hasta la hora actual)
+     */
+    private List<HourlyOccupancy> hours;
+}
@@ -0,0 +1,35 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.domain.port;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.DashboardCounts;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Puerto de los contadores en vivo del dashboard.
+ * Los handlers que abren y cierran sesiones o cobran pagos avisan cada hecho, que se aplica
+ * al confirmar la transacción; el resumen del dashboard se lee de aquí sin consultar la BD.
+ * Los contadores del día vuelven a cero a la medianoche local y se reconcilian con la BD periódicamente.
+ */
+public interface DashboardCounters {
+
+    /**
+     * Sesión abierta (después del commit si hay transacción activa)
+     */
+    void sessionStarted(LocalDateTime entryTime);
+
+    /**
+     * Sesión cerrada (después del commit si hay transacción activa)
+     */
+    void sessionEnded(LocalDateTime entryTime, LocalDateTime exitTime);
+
+    /**
+     * Pago cobrado (después del commit si hay transacción activa)
+     */
+    void paymentCollected(LocalDateTime paidAt, BigDecimal amount);
+
+    /**
+     * Contadores del día actual
+     */
+    DashboardCounts snapshot();
+}
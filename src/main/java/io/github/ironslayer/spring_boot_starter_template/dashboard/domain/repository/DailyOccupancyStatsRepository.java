@@ -0,0 +1,29 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.domain.repository;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.OccupancyReport;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Puerto de la ocupación diaria materializada (daily_occupancy_stats).
+ * Cada día pasado se cierra una vez (ver DailyOccupancyStatsJob) y los reportes por rango
+ * leen esas filas en lugar de recorrer las sesiones.
+ */
+public interface DailyOccupancyStatsRepository {
+    
+    /**
+     * Último día cerrado, vacío si todavía no se cerró ninguno
+     */
+    Optional<LocalDate> findLastClosedDay();
+    
+    /**
+     * Día de la primera entrada registrada, vacío si no hay sesiones
+     */
+    Optional<LocalDate> findFirstSessionDay();
+    
+    /**
+     * Guarda (o reemplaza) la ocupación de un día cerrado
+     */
+    void save(OccupancyReport report);
+}
@@ -1,11 +1,13 @@
 package io.github.ironslayer.spring_boot_starter_template.dashboard.domain.repository;
 
-import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.DashboardSummary;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.DashboardCounts;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.OccupancyReport;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.RevenueReport;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.ObjIntConsumer;
 
 /**
  * Puerto de salida para operaciones de dashboard y reportes
@@ -13,11 +15,12 @@ import java.util.List;
 public interface DashboardRepository {
     
     /**
-     * Obtiene el resumen del dashboard con métricas en tiempo real
+     * Cuenta en la BD los contadores del dashboard para un día (ver DashboardCounters)
      *
-     * @return resumen del dashboard actual
+     * @param day día de entradas, salidas y pagos
+     * @return contadores del día y el estado actual de espacios y sesiones
      */
-    DashboardSummary getDashboardSummary();
+    DashboardCounts countDay(LocalDate day);
     
     /**
      * Genera un reporte de ocupación para una fecha específica
@@ -27,6 +30,24 @@ public interface DashboardRepository {
      */
     OccupancyReport getOccupancyReportByDate(LocalDate date);
     
+    /**
+     * Cuenta las sesiones que estaban dentro en un instante (entraron antes y no habían salido)
+     *
+     * @param instant instante
+     * @return sesiones simultáneas en ese instante
+     */
+    long countOccupiedAt(LocalDateTime instant);
+    
+    /**
+     * Recorre con un solo cursor las entradas (+1) y salidas (-1) ocurridas en [from, to),
+     * ordenadas por hora y, a igual hora, con las salidas primero (ver OccupancySweep)
+     *
+     * @param from inicio del período (incluido)
+     * @param to fin del período (excluido)
+     * @param sink recibe la hora y el delta de cada evento
+     */
+    void streamOccupancyEvents(LocalDateTime from, LocalDateTime to, ObjIntConsumer<LocalDateTime> sink);
+    
     /**
      * Genera reportes de ocupación para un rango de fechas
      *
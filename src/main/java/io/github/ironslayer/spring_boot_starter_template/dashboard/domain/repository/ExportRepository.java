@@ -0,0 +1,35 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.domain.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Puerto de salida para exportar datos fila por fila, sin cargar el resultado completo en memoria
+ */
+public interface ExportRepository {
+    
+    /**
+     * Recorre los pagos creados en [from, to) ordenados por id
+     *
+     * @return cantidad de filas exportadas
+     */
+    long streamPayments(LocalDateTime from, LocalDateTime to, RowSink sink);
+    
+    /**
+     * Recorre las sesiones de parqueo que entraron en [from, to) ordenadas por id
+     *
+     * @return cantidad de filas exportadas
+     */
+    long streamSessions(LocalDateTime from, LocalDateTime to, RowSink sink);
+    
+    /**
+     * Destino de las filas: recibe primero los nombres de las columnas y después cada fila
+     * con los valores en el mismo orden
+     */
+    interface RowSink {
+        
+        void columns(List<String> columns);
+        
+        void row(Object[] values);
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.domain.service;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.HourlyOccupancy;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Barrido de ocupación sobre los eventos de un período [from, to): cada entrada suma 1 y cada salida
+ * resta 1 al nivel de sesiones simultáneas, partiendo de las que ya estaban dentro al empezar.
+ *
+ * Los eventos tienen que llegar ordenados por hora y, a igual hora, las salidas antes que las entradas
+ * (un espacio que se libera y se vuelve a ocupar en el mismo instante no cuenta dos veces).
+ * Ordenarlos es O(n log n) y lo hace la BD; el barrido es una sola pasada O(n) en memoria constante,
+ * así que puede ir consumiendo un cursor sin cargar los eventos.
+ *
+ * Además del pico exacto lleva un histograma por hora: nivel al empezar la hora, máximo dentro
+ * de la hora, entradas y salidas.
+ */
+public final class OccupancySweep {
+
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final long[] occupiedAtStart;
+    private final long[] peakInHour;
+    private final long[] entries;
+    private final long[] exits;
+
+    private int hour;
+    private long level;
+    private long peak;
+    private LocalDateTime peakTime;
+    private LocalDateTime lastEvent;
+
+    /**
+     * @param occupiedAtStart sesiones que ya estaban dentro en from
+     */
+    public OccupancySweep(LocalDateTime from, LocalDateTime to, long occupiedAtStart) {
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("Sweep period must end after it starts: [" + from + ", " + to + ")");
+        }
+        long minutes = Duration.between(from, to).toMinutes();
+        int hours = Math.toIntExact((minutes + HOUR.toMinutes() - 1) / HOUR.toMinutes());
+
+        this.from = from;
+        this.to = to;
+        this.occupiedAtStart = new long[hours];
+        this.peakInHour = new long[hours];
+        this.entries = new long[hours];
+        this.exits = new long[hours];
+        this.level = Math.max(0, occupiedAtStart);
+        this.peak = level;
+        this.peakTime = from;
+        this.occupiedAtStart[0] = level;
+        this.peakInHour[0] = level;
+    }
+
+    /**
+     * Aplica una entrada (delta 1) o una salida (delta -1)
+     *
+     * @throws IllegalArgumentException si el evento está fuera del período o llega desordenado
+     */
+    public void event(LocalDateTime time, int delta) {
+        if (time.isBefore(from) || !time.isBefore(to)) {
+            throw new IllegalArgumentException("Event at " + time + " is outside [" + from + ", " + to + ")");
+        }
+        if (lastEvent != null && time.isBefore(lastEvent)) {
+            throw new IllegalArgumentException("Events must be ordered by time: " + time + " after " + lastEvent);
+        }
+        lastEvent = time;
+
+        advanceTo((int) (Duration.between(from, time).toMinutes() / HOUR.toMinutes()));
+        if (delta > 0) {
+            entries[hour]++;
+        } else {
+            exits[hour]++;
+        }
+        // Nunca por debajo de cero: una salida sin su entrada (datos inconsistentes) no deja niveles negativos
+        level = Math.max(0, level + delta);
+        if (level > peakInHour[hour]) {
+            peakInHour[hour] = level;
+        }
+        if (level > peak) {
+            peak = level;
+            peakTime = time;
+        }
+    }
+
+    public long peakOccupancy() {
+        return peak;
+    }
+
+    public LocalDateTime peakTime() {
+        return peakTime;
+    }
+
+    /**
+     * Histograma por hora; las horas sin eventos quedan con el nivel que traían
+     */
+    public List<HourlyOccupancy> hours() {
+        advanceTo(occupiedAtStart.length - 1);
+        List<HourlyOccupancy> result = new ArrayList<>(occupiedAtStart.length);
+        for (int i = 0; i < occupiedAtStart.length; i++) {
+            result.add(HourlyOccupancy.builder()
+                    .hourStart(from.plusHours(i))
+                    .occupiedAtStart(Math.toIntExact(occupiedAtStart[i]))
+                    .peakOccupancy(Math.toIntExact(peakInHour[i]))
+                    .vehiclesEntered(Math.toIntExact(entries[i]))
+                    .vehiclesExited(Math.toIntExact(exits[i]))
+                    .build());
+        }
+        return result;
+    }
+
+    private void advanceTo(int target) {
+        while (hour < target) {
+            hour++;
+            occupiedAtStart[hour] = level;
+            peakInHour[hour] = level;
+        }
+    }
+}
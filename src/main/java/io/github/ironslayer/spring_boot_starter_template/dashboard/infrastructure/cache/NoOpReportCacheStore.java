@@ -0,0 +1,31 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.infrastructure.cache;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.application.cache.ReportCacheStore;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.application.cache.ReportType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Sin segundo nivel (app.reports.cache.store=memory): ReportCache queda solo en memoria
+ */
+@Component
+@ConditionalOnProperty(name = "app.reports.cache.store", havingValue = "memory")
+public class NoOpReportCacheStore implements ReportCacheStore {
+
+    @Override
+    public Map<LocalDate, Object> findAll(ReportType type, Collection<LocalDate> dates) {
+        return Map.of();
+    }
+
+    @Override
+    public void saveAll(ReportType type, Map<LocalDate, Object> reports) {
+    }
+
+    @Override
+    public void deleteAll(ReportType type) {
+    }
+}
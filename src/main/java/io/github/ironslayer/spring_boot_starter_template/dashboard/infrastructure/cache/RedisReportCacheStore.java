@@ -0,0 +1,113 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.infrastructure.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.application.cache.ReportCacheStore;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.application.cache.ReportType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reportes de días cerrados en Redis, compartidos entre instancias (app.reports.cache.store=redis,
+ * por defecto). Una clave por (tipo, día) con el DTO en JSON y sin vencimiento; un rango se lee
+ * con un solo MGET y se escribe con un solo MSET. deleteAll recorre las claves del tipo con SCAN
+ * (no KEYS, que bloquea Redis) y las borra por bloques de DELETE_BATCH_SIZE.
+ *
+ * Si Redis no responde el reporte no falla: la lectura se toma como "no guardado" (se calcula
+ * desde la BD) y la escritura se registra en el log.
+ */
+@Component
+@ConditionalOnProperty(name = "app.reports.cache.store", havingValue = "redis", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class RedisReportCacheStore implements ReportCacheStore {
+
+    static final String KEY_PREFIX = "reports:daily:";
+    static final int DELETE_BATCH_SIZE = 500;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Map<LocalDate, Object> findAll(ReportType type, Collection<LocalDate> dates) {
+        List<LocalDate> days = new ArrayList<>(dates);
+        Map<LocalDate, Object> found = new HashMap<>();
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(days.stream().map(day -> key(type, day)).toList());
+            if (values == null) {
+                return found;
+            }
+            for (int i = 0; i < days.size(); i++) {
+                String json = values.get(i);
+                if (json != null) {
+                    found.put(days.get(i), objectMapper.readValue(json, type.reportClass()));
+                }
+            }
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Could not read {} reports from Redis: {}", type, e.getMessage());
+        }
+        return found;
+    }
+
+    @Override
+    public void saveAll(ReportType type, Map<LocalDate, Object> reports) {
+        try {
+            Map<String, String> values = new HashMap<>();
+            for (Map.Entry<LocalDate, Object> entry : reports.entrySet()) {
+                values.put(key(type, entry.getKey()), objectMapper.writeValueAsString(entry.getValue()));
+            }
+            redisTemplate.opsForValue().multiSet(values);
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Could not store {} reports in Redis: {}", type, e.getMessage());
+        }
+    }
+
+    @Override
+    public void deleteAll(ReportType type) {
+        ScanOptions options = ScanOptions.scanOptions().match(typePrefix(type) + "*").count(DELETE_BATCH_SIZE).build();
+        int deleted = 0;
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            List<String> batch = new ArrayList<>(DELETE_BATCH_SIZE);
+            while (keys.hasNext()) {
+                batch.add(keys.next());
+                if (batch.size() == DELETE_BATCH_SIZE) {
+                    deleted += delete(batch);
+                }
+            }
+            deleted += delete(batch);
+            log.info("Deleted {} {} reports from Redis", deleted, type);
+        } catch (DataAccessException e) {
+            log.warn("Could not delete {} reports from Redis: {}", type, e.getMessage());
+        }
+    }
+
+    private int delete(List<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        Long deleted = redisTemplate.delete(keys);
+        keys.clear();
+        return deleted != null ? deleted.intValue() : 0;
+    }
+
+    private static String key(ReportType type, LocalDate day) {
+        return typePrefix(type) + day;
+    }
+
+    private static String typePrefix(ReportType type) {
+        return KEY_PREFIX + type.name().toLowerCase() + ":";
+    }
+}
@@ -0,0 +1,255 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.infrastructure.counters;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.DashboardCounts;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.port.DashboardCounters;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.repository.DashboardRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.TariffEngine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * In-memory implementation of DashboardCounters.
+ * Session and payment handlers report each fact after commit; a fact only counts for the day
+ * it happened (entry time, exit time, paid time), so the day counters start from zero when the
+ * first call after local midnight swaps in a new day. Active sessions are not tied to a day; the
+ * day's peak starts at the sessions active at midnight and rises with each entry.
+ *
+ * Once the application is ready, and then every app.dashboard.counters.reconcile-interval, the
+ * counters are checked against the database: each one is moved by (database - value seen before
+ * the query), so facts applied while the query runs are kept. The total of spaces only comes
+ * from reconciliation. Corrected drift is logged and counted (dashboard.counters.corrections).
+ */
+@Component
+@Slf4j
+public class InMemoryDashboardCounters implements DashboardCounters {
+
+    static final String METRIC_PREFIX = "dashboard.counters";
+
+    private final DashboardRepository dashboardRepository;
+    private final Duration reconcileInterval;
+    private final Clock clock;
+
+    private final AtomicLong totalSpaces = new AtomicLong();
+    private final LongAdder activeSessions = new LongAdder();
+    private final AtomicReference<DayCounters> today;
+    private volatile boolean reconciled;
+    private ScheduledExecutorService executor;
+
+    private final Counter corrections;
+
+    public InMemoryDashboardCounters(DashboardRepository dashboardRepository,
+                                     @Value("${app.dashboard.counters.reconcile-interval:PT1M}") Duration reconcileInterval,
+                                     MeterRegistry meterRegistry) {
+        this(dashboardRepository, reconcileInterval, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    InMemoryDashboardCounters(DashboardRepository dashboardRepository,
+                              Duration reconcileInterval,
+                              MeterRegistry meterRegistry,
+                              Clock clock) {
+        this.dashboardRepository = dashboardRepository;
+        this.reconcileInterval = reconcileInterval;
+        this.clock = clock;
+        this.today = new AtomicReference<>(new DayCounters(LocalDate.now(clock), 0));
+
+        corrections = Counter.builder(METRIC_PREFIX + ".corrections")
+                .description("Reconciliations that found the in-memory dashboard counters out of step with the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Carga los contadores desde la BD y programa la reconciliación periódica
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reconcile();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-counters");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = reconcileInterval.toMillis();
+        executor.scheduleWithFixedDelay(this::reconcileSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void sessionStarted(LocalDateTime entryTime) {
+        afterCommit(() -> {
+            activeSessions.increment();
+            current().raisePeak(activeSessions.sum());
+            onDay(entryTime, day -> day.entries.increment());
+        });
+    }
+
+    @Override
+    public void sessionEnded(LocalDateTime entryTime, LocalDateTime exitTime) {
+        afterCommit(() -> {
+            activeSessions.decrement();
+            onDay(exitTime, day -> {
+                day.exits.increment();
+                if (entryTime != null) {
+                    day.staySeconds.add(Duration.between(entryTime, exitTime).getSeconds());
+                }
+            });
+        });
+    }
+
+    @Override
+    public void paymentCollected(LocalDateTime paidAt, BigDecimal amount) {
+        long amountMinor = TariffEngine.toMinorUnits(amount);
+        afterCommit(() -> onDay(paidAt, day -> {
+            day.payments.increment();
+            day.revenueMinor.add(amountMinor);
+        }));
+    }
+
+    @Override
+    public DashboardCounts snapshot() {
+        if (!reconciled) {
+            // Consultado antes de que la aplicación termine de arrancar
+            reconcile();
+        }
+        DayCounters day = current();
+        return new DashboardCounts(
+                day.date,
+                totalSpaces.get(),
+                activeSessions.sum(),
+                day.entries.sum(),
+                day.exits.sum(),
+                day.staySeconds.sum(),
+                day.peakOccupancy.get(),
+                day.payments.sum(),
+                TariffEngine.toAmount(day.revenueMinor.sum()));
+    }
+
+    /**
+     * Ajusta cada contador a lo que dice la BD, conservando lo aplicado mientras corría la consulta
+     */
+    synchronized void reconcile() {
+        DayCounters day = current();
+        long activeSeen = activeSessions.sum();
+        long entriesSeen = day.entries.sum();
+        long exitsSeen = day.exits.sum();
+        long staySecondsSeen = day.staySeconds.sum();
+        long paymentsSeen = day.payments.sum();
+        long revenueMinorSeen = day.revenueMinor.sum();
+
+        DashboardCounts actual = dashboardRepository.countDay(day.date);
+
+        totalSpaces.set(actual.totalSpaces());
+        long drift = correct(activeSessions, activeSeen, actual.activeSessions())
+                + correct(day.entries, entriesSeen, actual.entries())
+                + correct(day.exits, exitsSeen, actual.exits())
+                + correct(day.staySeconds, staySecondsSeen, actual.staySeconds())
+                + correct(day.payments, paymentsSeen, actual.payments())
+                + correct(day.revenueMinor, revenueMinorSeen, TariffEngine.toMinorUnits(actual.revenue()));
+        // El pico solo sube: el de la BD cubre lo que pasó antes de arrancar
+        day.raisePeak(Math.max(actual.peakOccupancy(), activeSessions.sum()));
+
+        if (reconciled && drift != 0) {
+            corrections.increment();
+            log.warn("Dashboard counters for {} were out of step with the database and were corrected", day.date);
+        }
+        if (!reconciled) {
+            log.info("Dashboard counters loaded for {}: {} active sessions, {} entries, {} payments",
+                    day.date, actual.activeSessions(), actual.entries(), actual.payments());
+        }
+        reconciled = true;
+    }
+
+    private void reconcileSafely() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            // Si falla se reintenta en la próxima vuelta; los contadores siguen con los eventos
+            log.error("Error reconciling dashboard counters", e);
+        }
+    }
+
+    private static long correct(LongAdder counter, long seen, long actual) {
+        long drift = actual - seen;
+        counter.add(drift);
+        return Math.abs(drift);
+    }
+
+    private void onDay(LocalDateTime time, Consumer<DayCounters> action) {
+        DayCounters day = current();
+        // Un hecho de otro día (p. ej. confirmado justo después de medianoche) no suma al de hoy
+        if (time != null && time.toLocalDate().equals(day.date)) {
+            action.accept(day);
+        }
+    }
+
+    /**
+     * Contadores del día local actual; el primero que llega después de medianoche abre el día nuevo en cero
+     */
+    private DayCounters current() {
+        LocalDate date = LocalDate.now(clock);
+        DayCounters day = today.get();
+        while (day.date.isBefore(date)) {
+            today.compareAndSet(day, new DayCounters(date, activeSessions.sum()));
+            day = today.get();
+        }
+        return day;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class DayCounters {
+        private final LocalDate date;
+        private final LongAdder entries = new LongAdder();
+        private final LongAdder exits = new LongAdder();
+        private final LongAdder staySeconds = new LongAdder();
+        private final LongAdder payments = new LongAdder();
+        private final LongAdder revenueMinor = new LongAdder();
+        private final AtomicLong peakOccupancy;
+
+        private DayCounters(LocalDate date, long activeAtStart) {
+            this.date = date;
+            this.peakOccupancy = new AtomicLong(Math.max(0, activeAtStart));
+        }
+
+        private void raisePeak(long active) {
+            peakOccupancy.accumulateAndGet(active, Math::max);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad JPA para la tabla daily_occupancy_stats (ocupación de cada día ya cerrado).
+ * Se escribe con upserts JDBC (ver JdbcDailyOccupancyStatsRepository); la entidad define la tabla.
+ */
+@Entity
+@Table(name = "daily_occupancy_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyOccupancyStatsJpaEntity {
+    
+    @Id
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+    
+    @Column(name = "total_spaces", nullable = false)
+    private Integer totalSpaces;
+    
+    @Column(name = "occupied_spaces", nullable = false)
+    private Integer occupiedSpaces;
+    
+    @Column(name = "vehicles_entered", nullable = false)
+    private Integer vehiclesEntered;
+    
+    @Column(name = "vehicles_exited", nullable = false)
+    private Integer vehiclesExited;
+    
+    @Column(name = "peak_occupancy", nullable = false)
+    private Integer peakOccupancy;
+    
+    @Column(name = "closed_at", nullable = false)
+    private LocalDateTime closedAt;
+}
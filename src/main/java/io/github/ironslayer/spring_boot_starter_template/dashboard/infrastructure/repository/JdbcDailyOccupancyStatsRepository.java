@@ -0,0 +1,59 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.infrastructure.repository;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.OccupancyReport;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.repository.DailyOccupancyStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Implementación JDBC de la ocupación diaria materializada: un upsert por día cerrado
+ */
+@Repository
+@RequiredArgsConstructor
+public class JdbcDailyOccupancyStatsRepository implements DailyOccupancyStatsRepository {
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public Optional<LocalDate> findLastClosedDay() {
+        LocalDate lastClosed = jdbcTemplate.queryForObject(
+                "SELECT MAX(stat_date) FROM daily_occupancy_stats", LocalDate.class);
+        return Optional.ofNullable(lastClosed);
+    }
+    
+    @Override
+    public Optional<LocalDate> findFirstSessionDay() {
+        Timestamp firstEntry = jdbcTemplate.queryForObject(
+                "SELECT MIN(entry_time) FROM parking_sessions", Timestamp.class);
+        return Optional.ofNullable(firstEntry).map(entry -> entry.toLocalDateTime().toLocalDate());
+    }
+    
+    @Override
+    public void save(OccupancyReport report) {
+        jdbcTemplate.update("""
+                INSERT INTO daily_occupancy_stats
+                    (stat_date, total_spaces, occupied_spaces, vehicles_entered, vehicles_exited, peak_occupancy, closed_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT (stat_date) DO UPDATE SET
+                    total_spaces = EXCLUDED.total_spaces,
+                    occupied_spaces = EXCLUDED.occupied_spaces,
+                    vehicles_entered = EXCLUDED.vehicles_entered,
+                    vehicles_exited = EXCLUDED.vehicles_exited,
+                    peak_occupancy = EXCLUDED.peak_occupancy,
+                    closed_at = EXCLUDED.closed_at
+                """,
+                report.getReportDate(),
+                report.getTotalSpaces(),
+                report.getOccupiedSpaces(),
+                report.getVehiclesEntered(),
+                report.getVehiclesExited(),
+                report.getPeakOccupancy(),
+                LocalDateTime.now());
+    }
+}
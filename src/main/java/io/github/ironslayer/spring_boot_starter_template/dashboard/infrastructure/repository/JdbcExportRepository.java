@@ -0,0 +1,125 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.infrastructure.repository;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.repository.ExportRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Exportación con un cursor JDBC de solo avance: el driver trae FETCH_SIZE filas por viaje
+ * y cada fila se entrega al RowSink y se descarta.
+ * En PostgreSQL el cursor solo se usa dentro de una transacción (autocommit desactivado);
+ * fuera de ella el driver carga el resultado completo, por eso quien llama debe abrir una.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class JdbcExportRepository implements ExportRepository {
+    
+    static final int FETCH_SIZE = 1000;
+    
+    private static final List<String> PAYMENT_COLUMNS = List.of(
+            "payment_id", "parking_session_id", "ticket_code", "license_plate", "vehicle_type",
+            "total_amount", "hours_parked", "rate_applied", "payment_method", "payment_status",
+            "paid_at", "created_at", "operator_id");
+    
+    private static final String PAYMENTS_SQL = """
+            SELECT p.id, p.parking_session_id, ps.ticket_code, v.license_plate, vt.name,
+                   p.total_amount, p.hours_parked, p.rate_applied, p.payment_method, p.payment_status,
+                   p.paid_at, p.created_at, p.operator_id
+            FROM payments p
+            LEFT JOIN parking_sessions ps ON p.parking_session_id = ps.id
+            LEFT JOIN vehicles v ON ps.vehicle_id = v.id
+            LEFT JOIN vehicle_types vt ON v.vehicle_type_id = vt.id
+            WHERE p.created_at >= ? AND p.created_at < ?
+            ORDER BY p.id
+            """;
+    
+    private static final List<String> SESSION_COLUMNS = List.of(
+            "session_id", "ticket_code", "license_plate", "vehicle_type", "space_number",
+            "entry_time", "exit_time", "is_active", "operator_entry_id", "operator_exit_id");
+    
+    private static final String SESSIONS_SQL = """
+            SELECT ps.id, ps.ticket_code, v.license_plate, vt.name, sp.space_number,
+                   ps.entry_time, ps.exit_time, ps.is_active, ps.operator_entry_id, ps.operator_exit_id
+            FROM parking_sessions ps
+            LEFT JOIN vehicles v ON ps.vehicle_id = v.id
+            LEFT JOIN vehicle_types vt ON v.vehicle_type_id = vt.id
+            LEFT JOIN parking_spaces sp ON ps.parking_space_id = sp.id
+            WHERE ps.entry_time >= ? AND ps.entry_time < ?
+            ORDER BY ps.id
+            """;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public long streamPayments(LocalDateTime from, LocalDateTime to, RowSink sink) {
+        sink.columns(PAYMENT_COLUMNS);
+        return stream(PAYMENTS_SQL, from, to, sink, rs -> new Object[]{
+                rs.getLong(1),
+                rs.getLong(2),
+                rs.getString(3),
+                rs.getString(4),
+                rs.getString(5),
+                rs.getBigDecimal(6),
+                rs.getBigDecimal(7),
+                rs.getBigDecimal(8),
+                rs.getString(9),
+                rs.getString(10),
+                toLocalDateTime(rs.getTimestamp(11)),
+                toLocalDateTime(rs.getTimestamp(12)),
+                rs.getLong(13)
+        });
+    }
+    
+    @Override
+    public long streamSessions(LocalDateTime from, LocalDateTime to, RowSink sink) {
+        sink.columns(SESSION_COLUMNS);
+        return stream(SESSIONS_SQL, from, to, sink, rs -> new Object[]{
+                rs.getLong(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getString(4),
+                rs.getString(5),
+                toLocalDateTime(rs.getTimestamp(6)),
+                toLocalDateTime(rs.getTimestamp(7)),
+                rs.getBoolean(8),
+                rs.getLong(9),
+                (Long) rs.getObject(10, Long.class)
+        });
+    }
+    
+    private long stream(String sql, LocalDateTime from, LocalDateTime to, RowSink sink, RowReader reader) {
+        long[] count = {0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setTimestamp(1, Timestamp.valueOf(from));
+            statement.setTimestamp(2, Timestamp.valueOf(to));
+            return statement;
+        }, rs -> {
+            sink.row(reader.read(rs));
+            count[0]++;
+        });
+        log.debug("Exported {} rows from [{}, {})", count[0], from, to);
+        return count[0];
+    }
+    
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+    
+    @FunctionalInterface
+    private interface RowReader {
+        Object[] read(ResultSet rs) throws SQLException;
+    }
+}
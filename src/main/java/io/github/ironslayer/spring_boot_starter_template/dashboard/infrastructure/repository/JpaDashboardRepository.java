@@ -1,9 +1,10 @@
 package io.github.ironslayer.spring_boot_starter_template.dashboard.infrastructure.repository;
 
-import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.DashboardSummary;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.DashboardCounts;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.OccupancyReport;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.RevenueReport;
 import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.repository.DashboardRepository;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.service.OccupancySweep;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -11,11 +12,14 @@ import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.ObjIntConsumer;
 import org.springframework.lang.NonNull;
 
 /**
@@ -26,70 +30,62 @@ import org.springframework.lang.NonNull;
 @RequiredArgsConstructor
 public class JpaDashboardRepository implements DashboardRepository {
     
+    static final int EVENT_FETCH_SIZE = 1000;
+    
     private final JdbcTemplate jdbcTemplate;
     
     @Override
-    public DashboardSummary getDashboardSummary() {
-        log.debug("Getting dashboard summary");
+    public DashboardCounts countDay(LocalDate day) {
+        log.debug("Counting dashboard figures for date: {}", day);
         
-        // Consulta principal para métricas del dashboard
+        // Rangos semiabiertos [día, día + 1) sobre las columnas, y la recaudación desde el resumen diario
         String sql = """
             SELECT 
                 (SELECT COUNT(*) FROM parking_spaces) as total_spaces,
-                (SELECT COUNT(*) FROM parking_sessions WHERE exit_time IS NULL) as occupied_spaces,
                 (SELECT COUNT(*) FROM parking_sessions WHERE exit_time IS NULL) as active_sessions,
-                (SELECT COUNT(*) FROM parking_sessions WHERE DATE(entry_time) = CURRENT_DATE) as today_entries,
-                (SELECT COUNT(*) FROM parking_sessions WHERE DATE(exit_time) = CURRENT_DATE) as today_exits,
-                (SELECT COALESCE(SUM(total_amount), 0) FROM payments WHERE DATE(paid_at) = CURRENT_DATE) as today_revenue,
-                (SELECT COUNT(*) FROM payments WHERE DATE(paid_at) = CURRENT_DATE) as today_payments,
-                (SELECT COALESCE(AVG(EXTRACT(EPOCH FROM (exit_time - entry_time))/3600), 0) 
-                 FROM parking_sessions 
-                 WHERE exit_time IS NOT NULL AND DATE(exit_time) = CURRENT_DATE) as avg_stay_duration
+                (SELECT COUNT(*) FROM parking_sessions WHERE entry_time >= ? AND entry_time < ?) as entries,
+                (SELECT COUNT(*) FROM parking_sessions WHERE exit_time >= ? AND exit_time < ?) as exits,
+                (SELECT COALESCE(SUM(FLOOR(EXTRACT(EPOCH FROM (exit_time - entry_time)))), 0)
+                 FROM parking_sessions
+                 WHERE exit_time >= ? AND exit_time < ?) as stay_seconds,
+                (SELECT COALESCE(SUM(payment_count), 0) FROM daily_revenue_rollup WHERE rollup_date = ?) as payments,
+                (SELECT COALESCE(SUM(total_amount), 0) FROM daily_revenue_rollup WHERE rollup_date = ?) as revenue
             """;
         
-        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
-            Integer totalSpaces = rs.getInt("total_spaces");
-            Integer occupiedSpaces = rs.getInt("occupied_spaces");
-            Integer availableSpaces = totalSpaces - occupiedSpaces;
-            
-            return DashboardSummary.builder()
-                    .generatedAt(LocalDateTime.now())
-                    .totalSpaces(totalSpaces)
-                    .occupiedSpaces(occupiedSpaces)
-                    .availableSpaces(availableSpaces)
-                    .currentOccupancyPercentage(calculateOccupancyPercentage(occupiedSpaces, totalSpaces))
-                    .todayEntries(rs.getInt("today_entries"))
-                    .todayExits(rs.getInt("today_exits"))
-                    .todayRevenue(rs.getBigDecimal("today_revenue"))
-                    .todayPayments(rs.getInt("today_payments"))
-                    .averageStayDuration(rs.getBigDecimal("avg_stay_duration"))
-                    .activeSessions(rs.getInt("active_sessions"))
-                    .systemHealthy(true) // Podríamos implementar lógica más compleja aquí
-                    .build();
-        });
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = day.plusDays(1).atStartOfDay();
+        long peakOccupancy = peakOccupancy(from, to);
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> new DashboardCounts(
+                day,
+                rs.getLong("total_spaces"),
+                rs.getLong("active_sessions"),
+                rs.getLong("entries"),
+                rs.getLong("exits"),
+                rs.getLong("stay_seconds"),
+                peakOccupancy,
+                rs.getLong("payments"),
+                rs.getBigDecimal("revenue")
+        ), from, to, from, to, from, to, day, day);
     }
     
     @Override
     public OccupancyReport getOccupancyReportByDate(LocalDate date) {
         log.debug("Getting occupancy report for date: {}", date);
         
+        // Calculado desde las sesiones con rangos semiabiertos [día, día + 1);
+        // ocupados son las sesiones que estuvieron en algún momento del día
         String sql = """
             SELECT 
-                ? as report_date,
+                ?::date as report_date,
                 (SELECT COUNT(*) FROM parking_spaces) as total_spaces,
-                (SELECT COUNT(*) FROM parking_sessions WHERE DATE(entry_time) <= ? AND (exit_time IS NULL OR DATE(exit_time) >= ?)) as occupied_spaces,
-                (SELECT COUNT(*) FROM parking_sessions WHERE DATE(entry_time) = ?) as vehicles_entered,
-                (SELECT COUNT(*) FROM parking_sessions WHERE DATE(exit_time) = ?) as vehicles_exited,
-                (SELECT MAX(concurrent_sessions.session_count) 
-                 FROM (
-                     SELECT COUNT(*) as session_count
-                     FROM parking_sessions ps1
-                     WHERE ps1.entry_time <= ? + INTERVAL '1 day' 
-                       AND (ps1.exit_time IS NULL OR ps1.exit_time >= ?)
-                     GROUP BY DATE_TRUNC('hour', ps1.entry_time)
-                 ) concurrent_sessions) as peak_occupancy
+                (SELECT COUNT(*) FROM parking_sessions WHERE entry_time < ? AND (exit_time IS NULL OR exit_time >= ?)) as occupied_spaces,
+                (SELECT COUNT(*) FROM parking_sessions WHERE entry_time >= ? AND entry_time < ?) as vehicles_entered,
+                (SELECT COUNT(*) FROM parking_sessions WHERE exit_time >= ? AND exit_time < ?) as vehicles_exited
             """;
         
+        LocalDateTime from = date.atStartOfDay();
+        LocalDateTime to = date.plusDays(1).atStartOfDay();
+        long peakOccupancy = peakOccupancy(from, to);
         return jdbcTemplate.queryForObject(sql, 
             (rs, rowNum) -> {
                 Integer totalSpaces = rs.getInt("total_spaces");
@@ -105,63 +101,93 @@ public class JpaDashboardRepository implements DashboardRepository {
                         .occupancyPercentage(occupancyPercentage)
                         .vehiclesEntered(rs.getInt("vehicles_entered"))
                         .vehiclesExited(rs.getInt("vehicles_exited"))
-                        .peakOccupancy(rs.getInt("peak_occupancy"))
+                        .peakOccupancy(Math.toIntExact(peakOccupancy))
                         .build();
-            }, date, date, date, date, date, date, date);
+            }, date, to, from, from, to, from, to);
+    }
+    
+    @Override
+    public long countOccupiedAt(LocalDateTime instant) {
+        Long occupied = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM parking_sessions WHERE entry_time < ? AND (exit_time IS NULL OR exit_time >= ?)",
+            Long.class, instant, instant);
+        return occupied != null ? occupied : 0;
+    }
+    
+    @Override
+    public void streamOccupancyEvents(LocalDateTime from, LocalDateTime to, ObjIntConsumer<LocalDateTime> sink) {
+        // Cursor de solo avance (en PostgreSQL solo dentro de una transacción, ver JdbcExportRepository);
+        // a igual hora las salidas (-1) van antes que las entradas (+1)
+        String sql = """
+            SELECT entry_time as event_time, 1 as delta
+            FROM parking_sessions
+            WHERE entry_time >= ? AND entry_time < ?
+            UNION ALL
+            SELECT exit_time, -1
+            FROM parking_sessions
+            WHERE exit_time >= ? AND exit_time < ?
+            ORDER BY event_time, delta
+            """;
+        
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(EVENT_FETCH_SIZE);
+            statement.setTimestamp(1, Timestamp.valueOf(from));
+            statement.setTimestamp(2, Timestamp.valueOf(to));
+            statement.setTimestamp(3, Timestamp.valueOf(from));
+            statement.setTimestamp(4, Timestamp.valueOf(to));
+            return statement;
+        }, rs -> {
+            sink.accept(rs.getTimestamp(1).toLocalDateTime(), rs.getInt(2));
+        });
     }
     
     @Override
     public List<OccupancyReport> getOccupancyReportsByDateRange(LocalDate startDate, LocalDate endDate) {
         log.debug("Getting occupancy reports for date range: {} to {}", startDate, endDate);
         
+        // Lee los días cerrados de daily_occupancy_stats (una fila por día, ver DailyOccupancyStatsJob);
+        // los días sin cerrar salen en cero con el total de espacios actual
         String sql = """
             WITH date_series AS (
                 SELECT generate_series(?::date, ?::date, '1 day'::interval)::date as report_date
             )
             SELECT 
                 ds.report_date,
-                (SELECT COUNT(*) FROM parking_spaces) as total_spaces,
-                COALESCE(daily_stats.vehicles_entered, 0) as vehicles_entered,
-                COALESCE(daily_stats.vehicles_exited, 0) as vehicles_exited,
-                COALESCE(daily_stats.peak_occupancy, 0) as peak_occupancy
+                COALESCE(s.total_spaces, (SELECT COUNT(*) FROM parking_spaces)) as total_spaces,
+                COALESCE(s.occupied_spaces, 0) as occupied_spaces,
+                COALESCE(s.vehicles_entered, 0) as vehicles_entered,
+                COALESCE(s.vehicles_exited, 0) as vehicles_exited,
+                COALESCE(s.peak_occupancy, 0) as peak_occupancy
             FROM date_series ds
-            LEFT JOIN (
-                SELECT 
-                    DATE(entry_time) as date,
-                    COUNT(*) as vehicles_entered,
-                    COUNT(CASE WHEN exit_time IS NOT NULL AND DATE(exit_time) = DATE(entry_time) THEN 1 END) as vehicles_exited,
-                    MAX(CASE WHEN exit_time IS NULL THEN 1 ELSE 0 END) as peak_occupancy
-                FROM parking_sessions
-                WHERE DATE(entry_time) BETWEEN ? AND ?
-                GROUP BY DATE(entry_time)
-            ) daily_stats ON ds.report_date = daily_stats.date
+            LEFT JOIN daily_occupancy_stats s ON s.stat_date = ds.report_date
             ORDER BY ds.report_date
             """;
         
         return jdbcTemplate.query(sql, 
-            new OccupancyReportRowMapper(), startDate, endDate, startDate, endDate);
+            new OccupancyReportRowMapper(), startDate, endDate);
     }
     
     @Override
     public RevenueReport getRevenueReportByDate(LocalDate date) {
         log.debug("Getting revenue report for date: {}", date);
         
+        // Lee el resumen diario de recaudación (daily_revenue_rollup): unas pocas filas por día
         String sql = """
             SELECT 
                 ? as report_date,
-                COALESCE(SUM(p.total_amount), 0) as total_revenue,
-                COUNT(p.id) as total_payments,
-                COALESCE(SUM(CASE WHEN vt.name = 'CAR' THEN p.total_amount ELSE 0 END), 0) as car_revenue,
-                COALESCE(SUM(CASE WHEN vt.name = 'MOTORCYCLE' THEN p.total_amount ELSE 0 END), 0) as motorcycle_revenue,
-                COALESCE(SUM(CASE WHEN vt.name = 'TRUCK' THEN p.total_amount ELSE 0 END), 0) as truck_revenue,
-                COUNT(CASE WHEN vt.name = 'CAR' THEN 1 END) as car_payments,
-                COUNT(CASE WHEN vt.name = 'MOTORCYCLE' THEN 1 END) as motorcycle_payments,
-                COUNT(CASE WHEN vt.name = 'TRUCK' THEN 1 END) as truck_payments
-            FROM payments p
-            JOIN parking_sessions ps ON p.parking_session_id = ps.id
-            JOIN vehicles v ON ps.vehicle_id = v.id
-            JOIN vehicle_types vt ON v.vehicle_type_id = vt.id
-            WHERE DATE(p.paid_at) = ?
+                COALESCE(SUM(r.total_amount), 0) as total_revenue,
+                COALESCE(SUM(r.payment_count), 0) as total_payments,
+                COALESCE(SUM(CASE WHEN vt.name = 'CAR' THEN r.total_amount ELSE 0 END), 0) as car_revenue,
+                COALESCE(SUM(CASE WHEN vt.name = 'MOTORCYCLE' THEN r.total_amount ELSE 0 END), 0) as motorcycle_revenue,
+                COALESCE(SUM(CASE WHEN vt.name = 'TRUCK' THEN r.total_amount ELSE 0 END), 0) as truck_revenue,
+                COALESCE(SUM(CASE WHEN vt.name = 'CAR' THEN r.payment_count ELSE 0 END), 0) as car_payments,
+                COALESCE(SUM(CASE WHEN vt.name = 'MOTORCYCLE' THEN r.payment_count ELSE 0 END), 0) as motorcycle_payments,
+                COALESCE(SUM(CASE WHEN vt.name = 'TRUCK' THEN r.payment_count ELSE 0 END), 0) as truck_payments
+            FROM daily_revenue_rollup r
+            JOIN vehicle_types vt ON r.vehicle_type_id = vt.id
+            WHERE r.rollup_date = ?
             """;
         
         return jdbcTemplate.queryForObject(sql, 
@@ -205,21 +231,19 @@ public class JpaDashboardRepository implements DashboardRepository {
             FROM date_series ds
             LEFT JOIN (
                 SELECT 
-                    DATE(p.paid_at) as payment_date,
-                    SUM(p.total_amount) as total_revenue,
-                    COUNT(p.id) as total_payments,
-                    SUM(CASE WHEN vt.name = 'CAR' THEN p.total_amount ELSE 0 END) as car_revenue,
-                    SUM(CASE WHEN vt.name = 'MOTORCYCLE' THEN p.total_amount ELSE 0 END) as motorcycle_revenue,
-                    SUM(CASE WHEN vt.name = 'TRUCK' THEN p.total_amount ELSE 0 END) as truck_revenue,
-                    COUNT(CASE WHEN vt.name = 'CAR' THEN 1 END) as car_payments,
-                    COUNT(CASE WHEN vt.name = 'MOTORCYCLE' THEN 1 END) as motorcycle_payments,
-                    COUNT(CASE WHEN vt.name = 'TRUCK' THEN 1 END) as truck_payments
-                FROM payments p
-                JOIN parking_sessions ps ON p.parking_session_id = ps.id
-                JOIN vehicles v ON ps.vehicle_id = v.id
-                JOIN vehicle_types vt ON v.vehicle_type_id = vt.id
-                WHERE DATE(p.paid_at) BETWEEN ? AND ?
-                GROUP BY DATE(p.paid_at)
+                    r.rollup_date as payment_date,
+                    SUM(r.total_amount) as total_revenue,
+                    SUM(r.payment_count) as total_payments,
+                    SUM(CASE WHEN vt.name = 'CAR' THEN r.total_amount ELSE 0 END) as car_revenue,
+                    SUM(CASE WHEN vt.name = 'MOTORCYCLE' THEN r.total_amount ELSE 0 END) as motorcycle_revenue,
+                    SUM(CASE WHEN vt.name = 'TRUCK' THEN r.total_amount ELSE 0 END) as truck_revenue,
+                    SUM(CASE WHEN vt.name = 'CAR' THEN r.payment_count ELSE 0 END) as car_payments,
+                    SUM(CASE WHEN vt.name = 'MOTORCYCLE' THEN r.payment_count ELSE 0 END) as motorcycle_payments,
+                    SUM(CASE WHEN vt.name = 'TRUCK' THEN r.payment_count ELSE 0 END) as truck_payments
+                FROM daily_revenue_rollup r
+                JOIN vehicle_types vt ON r.vehicle_type_id = vt.id
+                WHERE r.rollup_date BETWEEN ? AND ?
+                GROUP BY r.rollup_date
             ) daily_revenue ON ds.report_date = daily_revenue.payment_date
             ORDER BY ds.report_date
             """;
@@ -247,6 +271,15 @@ public class JpaDashboardRepository implements DashboardRepository {
     
     // Métodos auxiliares
     
+    /**
+     * Máximo de sesiones simultáneas en [from, to), barriendo las entradas y salidas del período
+     */
+    private long peakOccupancy(LocalDateTime from, LocalDateTime to) {
+        OccupancySweep sweep = new OccupancySweep(from, to, countOccupiedAt(from));
+        streamOccupancyEvents(from, to, sweep::event);
+        return sweep.peakOccupancy();
+    }
+    
     private BigDecimal calculateOccupancyPercentage(Integer occupied, Integer total) {
         if (total == null || total == 0) {
             return BigDecimal.ZERO;
@@ -279,9 +312,7 @@ public class JpaDashboardRepository implements DashboardRepository {
             Integer vehiclesEntered = rs.getInt("vehicles_entered");
             Integer vehiclesExited = rs.getInt("vehicles_exited");
             Integer peakOccupancy = rs.getInt("peak_occupancy");
-            
-            // Para reportes históricos, ocupiedSpaces puede ser 0 si no hay sesiones activas
-            Integer occupiedSpaces = Math.max(0, vehiclesEntered - vehiclesExited);
+            Integer occupiedSpaces = rs.getInt("occupied_spaces");
             Integer availableSpaces = totalSpaces - occupiedSpaces;
             
             BigDecimal occupancyPercentage = totalSpaces > 0 
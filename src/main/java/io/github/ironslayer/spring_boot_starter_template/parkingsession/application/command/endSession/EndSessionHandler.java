@@ -1,15 +1,20 @@
 package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.endSession;
 
 import io.github.ironslayer.spring_boot_starter_template.common.mediator.RequestHandler;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.port.DashboardCounters;
 import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ActiveSessionSummary;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.exception.NoActiveSessionException;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.exception.ParkingSessionNotFoundException;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ActiveSessionRegistry;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.service.TicketCodeCodec;
 import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpace;
 import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpaceRepository;
-import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.entity.RateConfig;
-import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.port.RateConfigRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.Tariff;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.TariffEngine;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableCache;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.entity.User;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.exception.UserNotFoundException;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.port.UserRepository;
@@ -26,8 +31,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Handler para finalizar una sesión de parqueo.
@@ -41,11 +48,13 @@ import java.util.Optional;
 public class EndSessionHandler implements RequestHandler<EndSessionRequest, EndSessionResponse> {
     
     private final ParkingSessionRepository parkingSessionRepository;
+    private final ActiveSessionRegistry activeSessionRegistry;
+    private final DashboardCounters dashboardCounters;
     private final VehicleRepository vehicleRepository;
     private final ParkingSpaceRepository parkingSpaceRepository;
     private final UserRepository userRepository;
     private final VehicleTypeRepository vehicleTypeRepository;
-    private final RateConfigRepository rateConfigRepository;
+    private final RateTableCache rateTableCache;
     
     @Override
     public EndSessionResponse handle(EndSessionRequest request) {
@@ -62,13 +71,6 @@ public class EndSessionHandler implements RequestHandler<EndSessionRequest, EndS
         User operator = userRepository.findById(request.operatorId())
                 .orElseThrow(() -> new UserNotFoundException("User with ID '" + request.operatorId() + "' not found"));
         
-        // Registrar salida
-        session.markExit(operator.getId());
-        
-        // Calcular tiempo y monto
-        double hoursParked = session.calculateParkedHours();
-        BigDecimal totalAmount = calculateTotalAmount(session, hoursParked);
-        
         // Obtener información adicional
         Vehicle vehicle = vehicleRepository.findById(session.getVehicleId())
                 .orElseThrow(() -> new VehicleNotFoundException(session.getVehicleId()));
@@ -79,13 +81,23 @@ public class EndSessionHandler implements RequestHandler<EndSessionRequest, EndS
         VehicleType vehicleType = vehicleTypeRepository.findById(vehicle.getVehicleTypeId())
                 .orElseThrow(() -> new VehicleTypeNotFoundException(vehicle.getVehicleTypeId()));
         
+        // Registrar salida solo si la sesión sigue activa (UPDATE ... WHERE is_active RETURNING):
+        // de dos salidas concurrentes solo una cierra la sesión, libera el espacio y la cuenta
+        ParkingSession savedSession = parkingSessionRepository
+                .closeActiveSession(session.getId(), operator.getId(), LocalDateTime.now())
+                .orElseThrow(() -> new NoActiveSessionException());
+        activeSessionRegistry.unregister(savedSession);
+        dashboardCounters.sessionEnded(savedSession.getEntryTime(), savedSession.getExitTime());
+        
+        // Calcular tiempo y monto hasta la salida registrada
+        long minutesParked = savedSession.calculateParkedMinutes();
+        double hoursParked = minutesParked / (double) TariffEngine.MINUTES_PER_HOUR;
+        BigDecimal totalAmount = calculateTotalAmount(savedSession, minutesParked);
+        
         // Liberar espacio
         parkingSpace.free();
         parkingSpaceRepository.save(parkingSpace);
         
-        // Guardar sesión actualizada
-        ParkingSession savedSession = parkingSessionRepository.save(session);
-        
         log.info("Parking session ended with ID: {} for vehicle: {}, Total amount: {}", 
                 savedSession.getId(), vehicle.getLicensePlate(), totalAmount);
         
@@ -124,11 +136,24 @@ public class EndSessionHandler implements RequestHandler<EndSessionRequest, EndS
     
     private ParkingSession getActiveSession(EndSessionRequest request) {
         if (request.licensePlate() != null) {
-            // Buscar por placa
-            Vehicle vehicle = vehicleRepository.findByLicensePlate(request.licensePlate().toUpperCase().trim())
-                    .orElseThrow(() -> new VehicleNotFoundException(request.licensePlate()));
+            // Buscar por placa: el registro en memoria da el ID de la sesión activa
+            String licensePlate = request.licensePlate().toUpperCase().trim();
+            Optional<ActiveSessionSummary> active = activeSessionRegistry.findByLicensePlate(licensePlate);
+            if (active.isPresent()) {
+                Optional<ParkingSession> session = parkingSessionRepository.findById(active.get().sessionId())
+                        .filter(ParkingSession::canRegisterExit);
+                if (session.isPresent()) {
+                    return session.get();
+                }
+                // La sesión se cerró desde otra instancia
+                activeSessionRegistry.evict(active.get());
+            }
             
+            // El registro es local a la instancia: sin una entrada vigente se busca la sesión en la BD
+            Vehicle vehicle = vehicleRepository.findByLicensePlate(licensePlate)
+                    .orElseThrow(() -> new VehicleNotFoundException(request.licensePlate()));
             return parkingSessionRepository.findActiveSessionByVehicleId(vehicle.getId())
+                    .filter(ParkingSession::canRegisterExit)
                     .orElseThrow(() -> new NoActiveSessionException(request.licensePlate()));
                     
         } else if (request.sessionId() != null) {
@@ -142,9 +167,15 @@ public class EndSessionHandler implements RequestHandler<EndSessionRequest, EndS
             
             return session;
             
-                } else if (request.ticketCode() != null) {
-            // Buscar por código de ticket
-            return parkingSessionRepository.findByTicketCode(request.ticketCode())
+        } else if (request.ticketCode() != null) {
+            // El ticket lleva el ID de la sesión: se busca directo por clave primaria.
+            // Los tickets con el formato anterior (T-yyyyMMddHHmm-NNN) se siguen buscando por código
+            OptionalLong sessionId = TicketCodeCodec.decode(request.ticketCode());
+            Optional<ParkingSession> session = sessionId.isPresent()
+                    ? parkingSessionRepository.findById(sessionId.getAsLong())
+                    : parkingSessionRepository.findByTicketCode(request.ticketCode());
+            
+            return session
                     .filter(ParkingSession::canRegisterExit)
                     .orElseThrow(() -> new ParkingSessionNotFoundException(request.ticketCode()));
         }
@@ -152,32 +183,16 @@ public class EndSessionHandler implements RequestHandler<EndSessionRequest, EndS
         throw new BadRequestException("Invalid session identification");
     }
     
-    private BigDecimal calculateTotalAmount(ParkingSession session, double hoursParked) {
+    private BigDecimal calculateTotalAmount(ParkingSession session, long minutesParked) {
         // Obtener vehículo para conocer su tipo
         Vehicle vehicle = vehicleRepository.findById(session.getVehicleId())
                 .orElseThrow(() -> new VehicleNotFoundException(session.getVehicleId()));
         
-        // Obtener configuración de tarifa activa
-        Optional<RateConfig> rateConfig = rateConfigRepository.findActiveByVehicleTypeId(vehicle.getVehicleTypeId());
-        
-        if (rateConfig.isEmpty()) {
-            throw new RuntimeException("No active rate configuration found for vehicle type");
-        }
-        
-        RateConfig config = rateConfig.get();
-        
-        // Aplicar tiempo mínimo de cobro
-        double billableHours = Math.max(hoursParked, config.getMinimumChargeHours());
-        
-        // Calcular monto base
-        BigDecimal baseAmount = config.getRatePerHour().multiply(BigDecimal.valueOf(billableHours));
-        
-        // Aplicar límite máximo diario si existe
-        BigDecimal totalAmount = baseAmount;
-        if (config.getMaximumDailyRate() != null && baseAmount.compareTo(config.getMaximumDailyRate()) > 0) {
-            totalAmount = config.getMaximumDailyRate();
-        }
+        // Tarifa que regía cuando entró el vehículo
+        Tariff tariff = rateTableCache.findTariffAt(vehicle.getVehicleTypeId(), session.getEntryTime())
+                .orElseThrow(() -> new RuntimeException("No active rate configuration found for vehicle type"));
         
-        return totalAmount.setScale(2, RoundingMode.HALF_UP);
+        // Mínimo de horas, horas empezadas completas, horario y tope diario: mismas reglas que el pago
+        return tariff.price(session.getEntryTime(), minutesParked);
     }
 }
@@ -0,0 +1,347 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.endSessionsBatch;
+
+import io.github.ironslayer.spring_boot_starter_template.common.mediator.RequestHandler;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.port.DashboardCounters;
+import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.endSessionsBatch.EndSessionsBatchResponse.IdentifierType;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.endSessionsBatch.EndSessionsBatchResponse.ItemResult;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.endSessionsBatch.EndSessionsBatchResponse.Status;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ActiveSessionRegistry;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpace;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpaceRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.Payment;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.RevenueRollupEntry;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentMethod;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.PaymentRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.RevenueRollupRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.Tariff;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.TariffEngine;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableCache;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableSnapshot;
+import io.github.ironslayer.spring_boot_starter_template.user.application.cache.UserNameCache;
+import io.github.ironslayer.spring_boot_starter_template.user.domain.exception.UserNotFoundException;
+import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.entity.Vehicle;
+import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.port.VehicleRepository;
+import io.github.ironslayer.spring_boot_starter_template.vehicletype.application.cache.VehicleTypeNameCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Handler para registrar la salida y el pago de muchos vehículos en una sola llamada
+ * (la alternativa a EndSession + ProcessPayment por cada vehículo al final de un evento).
+ * Los vehículos se procesan por bloques de CHUNK_SIZE, cada bloque en su propia transacción:
+ * las sesiones se cierran en un único UPDATE, los espacios se liberan en otro y los pagos
+ * (ya en estado PAID) se insertan en un solo batch JDBC.
+ * ACCESIBLE para ADMIN y OPERATOR
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EndSessionsBatchHandler implements RequestHandler<EndSessionsBatchRequest, EndSessionsBatchResponse> {
+
+    static final int CHUNK_SIZE = 50;
+    static final int MAX_BATCH_SIZE = 500;
+
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final ParkingSessionRepository parkingSessionRepository;
+    private final ActiveSessionRegistry activeSessionRegistry;
+    private final DashboardCounters dashboardCounters;
+    private final VehicleRepository vehicleRepository;
+    private final ParkingSpaceRepository parkingSpaceRepository;
+    private final PaymentRepository paymentRepository;
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final RateTableCache rateTableCache;
+    private final UserNameCache userNameCache;
+    private final VehicleTypeNameCache vehicleTypeNameCache;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public EndSessionsBatchResponse handle(EndSessionsBatchRequest request) {
+        validateRequest(request);
+
+        String operatorName = userNameCache.getFullName(request.operatorId())
+                .orElseThrow(() -> new UserNotFoundException("User with ID '" + request.operatorId() + "' not found"));
+
+        List<ExitItem> items = toItems(request);
+        log.info("Ending {} parking sessions in batch by operator {}", items.size(), request.operatorId());
+
+        // Los identificadores vacíos o repetidos se resuelven sin tocar la BD
+        ItemResult[] results = new ItemResult[items.size()];
+        List<ExitItem> pending = new ArrayList<>();
+        Set<ExitItem> seen = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            ExitItem item = items.get(i);
+            if (item.value() == null) {
+                results[i] = ItemResult.failed(null, item.type(), "INVALID_IDENTIFIER", "License plate or ticket code is required");
+            } else if (!seen.add(item)) {
+                results[i] = ItemResult.failed(item.value(), item.type(), "DUPLICATE_IN_BATCH",
+                        "'" + item.value() + "' appears more than once in the batch");
+            } else {
+                pending.add(item);
+            }
+        }
+
+        Map<ExitItem, ItemResult> outcomes = new HashMap<>();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int from = 0; from < pending.size(); from += CHUNK_SIZE) {
+            List<ExitItem> chunk = pending.subList(from, Math.min(from + CHUNK_SIZE, pending.size()));
+            try {
+                outcomes.putAll(transactionTemplate.execute(status ->
+                        endChunk(chunk, request.operatorId(), request.paymentMethod())));
+            } catch (RuntimeException e) {
+                // El bloque se revirtió completo: ninguna de sus sesiones quedó cerrada ni cobrada
+                log.error("Batch exit chunk of {} sessions rolled back", chunk.size(), e);
+                chunk.forEach(item -> outcomes.put(item, ItemResult.failed(item.value(), item.type(),
+                        "INTERNAL_ERROR", "Exit could not be registered, please retry")));
+            }
+        }
+
+        List<ItemResult> ordered = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            ordered.add(results[i] != null ? results[i] : outcomes.get(items.get(i)));
+        }
+
+        List<ItemResult> completed = ordered.stream()
+                .filter(result -> result.status() == Status.COMPLETED)
+                .toList();
+        BigDecimal totalCollected = completed.stream()
+                .map(ItemResult::totalAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        log.info("Batch exit finished: {} completed, {} failed, total collected {}",
+                completed.size(), ordered.size() - completed.size(), totalCollected);
+
+        return new EndSessionsBatchResponse(ordered.size(), completed.size(), ordered.size() - completed.size(),
+                totalCollected, operatorName, ordered);
+    }
+
+    @Override
+    public Class<EndSessionsBatchRequest> getRequestType() {
+        return EndSessionsBatchRequest.class;
+    }
+
+    private void validateRequest(EndSessionsBatchRequest request) {
+        if (request.operatorId() == null) {
+            throw new BadRequestException("Operator ID is required");
+        }
+
+        if (request.paymentMethod() == null) {
+            throw new BadRequestException("Payment method is required");
+        }
+
+        int size = sizeOf(request.licensePlates()) + sizeOf(request.ticketCodes());
+        if (size == 0) {
+            throw new BadRequestException("At least one license plate or ticket code is required");
+        }
+
+        if (size > MAX_BATCH_SIZE) {
+            throw new BadRequestException("A batch can contain at most " + MAX_BATCH_SIZE + " license plates and ticket codes");
+        }
+    }
+
+    private int sizeOf(List<String> values) {
+        return values != null ? values.size() : 0;
+    }
+
+    private List<ExitItem> toItems(EndSessionsBatchRequest request) {
+        List<ExitItem> items = new ArrayList<>();
+        if (request.licensePlates() != null) {
+            request.licensePlates().forEach(plate -> items.add(new ExitItem(IdentifierType.LICENSE_PLATE,
+                    isBlank(plate) ? null : plate.toUpperCase().trim())));
+        }
+        if (request.ticketCodes() != null) {
+            request.ticketCodes().forEach(ticket -> items.add(new ExitItem(IdentifierType.TICKET_CODE,
+                    isBlank(ticket) ? null : ticket.trim())));
+        }
+        return items;
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    /**
+     * Cierra, libera y cobra un bloque de vehículos (identificadores ya únicos) dentro de la transacción actual
+     */
+    private Map<ExitItem, ItemResult> endChunk(List<ExitItem> items, Long operatorId, PaymentMethod paymentMethod) {
+        Map<ExitItem, ItemResult> outcomes = new HashMap<>();
+
+        List<String> plates = valuesOf(items, IdentifierType.LICENSE_PLATE);
+        List<String> ticketCodes = valuesOf(items, IdentifierType.TICKET_CODE);
+
+        Map<String, Vehicle> vehiclesByPlate = vehicleRepository.findAllByLicensePlates(plates).stream()
+                .collect(Collectors.toMap(Vehicle::getLicensePlate, Function.identity(), (first, second) -> first));
+        Map<Long, ParkingSession> activeByVehicleId = parkingSessionRepository.findActiveSessionsByVehicleIds(
+                        vehiclesByPlate.values().stream().map(Vehicle::getId).toList()).stream()
+                .collect(Collectors.toMap(ParkingSession::getVehicleId, Function.identity(), (first, second) -> first));
+        Map<String, ParkingSession> activeByTicket = parkingSessionRepository.findActiveSessionsByTicketCodes(ticketCodes).stream()
+                .collect(Collectors.toMap(ParkingSession::getTicketCode, Function.identity(), (first, second) -> first));
+
+        // Vehículos de las sesiones encontradas por ticket que no vinieron por placa
+        Map<Long, Vehicle> vehiclesById = vehiclesByPlate.values().stream()
+                .collect(Collectors.toMap(Vehicle::getId, Function.identity(), (first, second) -> first));
+        Set<Long> missingVehicleIds = activeByTicket.values().stream()
+                .map(ParkingSession::getVehicleId)
+                .filter(vehicleId -> !vehiclesById.containsKey(vehicleId))
+                .collect(Collectors.toSet());
+        vehicleRepository.findAllByIds(missingVehicleIds).forEach(vehicle -> vehiclesById.put(vehicle.getId(), vehicle));
+
+        // Resolver cada identificador a su sesión activa
+        Map<ExitItem, ParkingSession> sessionsByItem = new LinkedHashMap<>();
+        Set<Long> includedSessionIds = new HashSet<>();
+        for (ExitItem item : items) {
+            ParkingSession session;
+            if (item.type() == IdentifierType.LICENSE_PLATE) {
+                Vehicle vehicle = vehiclesByPlate.get(item.value());
+                if (vehicle == null) {
+                    outcomes.put(item, ItemResult.failed(item.value(), item.type(), "VEHICLE_NOT_FOUND",
+                            "Vehicle not found with license plate: " + item.value()));
+                    continue;
+                }
+                session = activeByVehicleId.get(vehicle.getId());
+                if (session == null) {
+                    outcomes.put(item, ItemResult.failed(item.value(), item.type(), "NO_ACTIVE_SESSION",
+                            "No active parking session found for vehicle: " + item.value()));
+                    continue;
+                }
+            } else {
+                session = activeByTicket.get(item.value());
+                if (session == null) {
+                    outcomes.put(item, ItemResult.failed(item.value(), item.type(), "SESSION_NOT_FOUND",
+                            "No active parking session found with ticket code: " + item.value()));
+                    continue;
+                }
+                if (!vehiclesById.containsKey(session.getVehicleId())) {
+                    outcomes.put(item, ItemResult.failed(item.value(), item.type(), "VEHICLE_NOT_FOUND",
+                            "Vehicle not found with ID: " + session.getVehicleId()));
+                    continue;
+                }
+            }
+
+            // La misma sesión pedida por placa y por ticket solo se cobra una vez
+            if (!includedSessionIds.add(session.getId())) {
+                outcomes.put(item, ItemResult.failed(item.value(), item.type(), "DUPLICATE_IN_BATCH",
+                        "Session " + session.getId() + " is already included in the batch"));
+                continue;
+            }
+            sessionsByItem.put(item, session);
+        }
+
+        // Tarifa activa por tipo de vehículo, todas de la misma versión de la tabla de tarifas
+        RateTableSnapshot rates = rateTableCache.snapshot();
+        Iterator<Map.Entry<ExitItem, ParkingSession>> iterator = sessionsByItem.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<ExitItem, ParkingSession> entry = iterator.next();
+            Long vehicleTypeId = vehiclesById.get(entry.getValue().getVehicleId()).getVehicleTypeId();
+            if (rates.findTariffByVehicleTypeId(vehicleTypeId).isEmpty()) {
+                ExitItem item = entry.getKey();
+                outcomes.put(item, ItemResult.failed(item.value(), item.type(), "RATE_NOT_CONFIGURED",
+                        "No active rate configuration found for vehicle type ID: " + vehicleTypeId));
+                iterator.remove();
+            }
+        }
+
+        if (sessionsByItem.isEmpty()) {
+            return outcomes;
+        }
+
+        // Cerrar sesiones y liberar espacios: un UPDATE para cada tabla
+        LocalDateTime exitTime = LocalDateTime.now();
+        Map<Long, ParkingSession> closedById = parkingSessionRepository.closeActiveSessions(
+                        sessionsByItem.values().stream().map(ParkingSession::getId).toList(), operatorId, exitTime).stream()
+                .collect(Collectors.toMap(ParkingSession::getId, Function.identity()));
+        closedById.values().forEach(activeSessionRegistry::unregister);
+        closedById.values().forEach(closed -> dashboardCounters.sessionEnded(closed.getEntryTime(), closed.getExitTime()));
+        Map<Long, ParkingSpace> releasedById = parkingSpaceRepository.releaseAll(
+                        closedById.values().stream().map(ParkingSession::getParkingSpaceId).toList()).stream()
+                .collect(Collectors.toMap(ParkingSpace::getId, Function.identity()));
+
+        // Pagos ya cobrados, insertados en un solo batch
+        List<ExitItem> paidItems = new ArrayList<>();
+        List<Payment> payments = new ArrayList<>();
+        sessionsByItem.forEach((item, session) -> {
+            ParkingSession closed = closedById.get(session.getId());
+            if (closed == null) {
+                outcomes.put(item, ItemResult.failed(item.value(), item.type(), "NO_ACTIVE_SESSION",
+                        "Session " + session.getId() + " was closed by another operation"));
+                return;
+            }
+
+            Tariff tariff = rates.findTariffAt(vehiclesById.get(closed.getVehicleId()).getVehicleTypeId(), closed.getEntryTime())
+                    .orElseThrow();
+            long minutesParked = TariffEngine.minutesBetween(closed.getEntryTime(), closed.getExitTime());
+            Payment payment = Payment.createPaidPayment(
+                    closed.getId(),
+                    tariff.price(closed.getEntryTime(), minutesParked),
+                    TariffEngine.toHours(minutesParked),
+                    tariff.ratePerHour(),
+                    paymentMethod,
+                    operatorId
+            );
+            paidItems.add(item);
+            payments.add(payment);
+        });
+
+        List<Payment> savedPayments = paymentRepository.insertAll(payments);
+        List<RevenueRollupEntry> revenue = new ArrayList<>(savedPayments.size());
+        for (int i = 0; i < savedPayments.size(); i++) {
+            ExitItem item = paidItems.get(i);
+            Payment payment = savedPayments.get(i);
+            ParkingSession closed = closedById.get(payment.getParkingSessionId());
+            Vehicle vehicle = vehiclesById.get(closed.getVehicleId());
+            ParkingSpace space = releasedById.get(closed.getParkingSpaceId());
+            revenue.add(RevenueRollupEntry.of(payment, vehicle.getVehicleTypeId()));
+            dashboardCounters.paymentCollected(payment.getPaidAt(), payment.getTotalAmount());
+
+            outcomes.put(item, new ItemResult(
+                    item.value(),
+                    item.type(),
+                    Status.COMPLETED,
+                    closed.getId(),
+                    closed.getTicketCode(),
+                    vehicle.getLicensePlate(),
+                    vehicleTypeNameCache.getName(vehicle.getVehicleTypeId()).orElse(null),
+                    space != null ? space.getSpaceNumber() : null,
+                    closed.getEntryTime().format(DATE_TIME_FORMAT),
+                    closed.getExitTime().format(DATE_TIME_FORMAT),
+                    payment.getHoursParked(),
+                    payment.getTotalAmount(),
+                    payment.getId(),
+                    null,
+                    null
+            ));
+        }
+        revenueRollupRepository.add(revenue);
+
+        return outcomes;
+    }
+
+    private List<String> valuesOf(List<ExitItem> items, IdentifierType type) {
+        return items.stream()
+                .filter(item -> item.type() == type)
+                .map(ExitItem::value)
+                .toList();
+    }
+
+    private record ExitItem(IdentifierType type, String value) {
+    }
+}
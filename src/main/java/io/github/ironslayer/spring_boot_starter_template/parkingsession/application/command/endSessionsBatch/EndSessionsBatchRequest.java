@@ -0,0 +1,17 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.endSessionsBatch;
+
+import io.github.ironslayer.spring_boot_starter_template.common.mediator.Request;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentMethod;
+
+import java.util.List;
+
+/**
+ * Request para registrar la salida y el pago de varios vehículos a la vez (p. ej. al terminar un evento).
+ * Cada vehículo se identifica por placa o por código de ticket; todos pagan con el mismo método.
+ */
+public record EndSessionsBatchRequest(
+    List<String> licensePlates,
+    List<String> ticketCodes,
+    PaymentMethod paymentMethod,
+    Long operatorId
+) implements Request<EndSessionsBatchResponse> {}
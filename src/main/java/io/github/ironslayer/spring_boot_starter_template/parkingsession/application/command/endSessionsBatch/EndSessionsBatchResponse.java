@@ -0,0 +1,54 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.endSessionsBatch;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Response de una salida masiva: un resultado por placa o ticket, en el orden de la solicitud
+ * (primero las placas y luego los tickets), más el total recaudado.
+ */
+public record EndSessionsBatchResponse(
+    int requested,
+    int completed,
+    int failed,
+    BigDecimal totalCollected,
+    String operatorName,
+    List<ItemResult> results
+) {
+    public enum IdentifierType {
+        LICENSE_PLATE,
+        TICKET_CODE
+    }
+
+    public enum Status {
+        COMPLETED,
+        FAILED
+    }
+
+    /**
+     * Resultado de un vehículo. Si salió y pagó trae el recibo; si no, errorType y message
+     * usan los mismos códigos que el endpoint individual (NO_ACTIVE_SESSION, SESSION_NOT_FOUND, ...)
+     */
+    public record ItemResult(
+        String identifier,
+        IdentifierType identifierType,
+        Status status,
+        Long sessionId,
+        String ticketCode,
+        String licensePlate,
+        String vehicleType,
+        String parkingSpace,
+        String entryTime,
+        String exitTime,
+        BigDecimal hoursParked,
+        BigDecimal totalAmount,
+        Long paymentId,
+        String errorType,
+        String message
+    ) {
+        static ItemResult failed(String identifier, IdentifierType identifierType, String errorType, String message) {
+            return new ItemResult(identifier, identifierType, Status.FAILED, null, null, null, null, null,
+                    null, null, null, null, null, errorType, message);
+        }
+    }
+}
@@ -1,34 +1,39 @@
 package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.startSession;
 
 import io.github.ironslayer.spring_boot_starter_template.common.mediator.RequestHandler;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.port.DashboardCounters;
 import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ActiveSessionSummary;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.exception.NoAvailableSpaceException;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.exception.VehicleAlreadyParkedException;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ActiveSessionRegistry;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.FreeSpaceAllocator;
 import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpace;
 import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpaceRepository;
-import io.github.ironslayer.spring_boot_starter_template.user.domain.entity.User;
+import io.github.ironslayer.spring_boot_starter_template.user.application.cache.UserNameCache;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.exception.UserNotFoundException;
-import io.github.ironslayer.spring_boot_starter_template.user.domain.port.UserRepository;
 import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.entity.Vehicle;
 import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.exception.VehicleNotFoundException;
 import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.port.VehicleRepository;
-import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.entity.VehicleType;
+import io.github.ironslayer.spring_boot_starter_template.vehicletype.application.cache.VehicleTypeNameCache;
 import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.exception.VehicleTypeNotFoundException;
-import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.port.VehicleTypeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Optional;
 
 /**
  * Handler para iniciar una nueva sesión de parqueo.
  * Valida que el vehículo no tenga sesión activa y que haya espacios disponibles.
+ * La sesión se inserta una sola vez: el ID se reserva antes (por bloques) y el ticket
+ * se genera antes del INSERT; los nombres de operador y tipo de vehículo salen de caché.
+ * La verificación de sesión activa se hace contra el registro en memoria, que se actualiza al confirmar;
+ * como el registro es local a la instancia, un acierto se confirma contra la BD antes de rechazar.
  * ACCESIBLE para ADMIN y OPERATOR
  */
 @Component
@@ -38,10 +43,13 @@ import java.util.List;
 public class StartSessionHandler implements RequestHandler<StartSessionRequest, StartSessionResponse> {
     
     private final ParkingSessionRepository parkingSessionRepository;
+    private final ActiveSessionRegistry activeSessionRegistry;
+    private final DashboardCounters dashboardCounters;
     private final VehicleRepository vehicleRepository;
     private final ParkingSpaceRepository parkingSpaceRepository;
-    private final UserRepository userRepository;
-    private final VehicleTypeRepository vehicleTypeRepository;
+    private final FreeSpaceAllocator freeSpaceAllocator;
+    private final UserNameCache userNameCache;
+    private final VehicleTypeNameCache vehicleTypeNameCache;
     
     @Override
     public StartSessionResponse handle(StartSessionRequest request) {
@@ -60,57 +68,51 @@ public class StartSessionHandler implements RequestHandler<StartSessionRequest,
             Vehicle vehicle = getVehicleByLicensePlate(request.licensePlate());
             log.info("2. Vehicle found: ID={}, Type={}", vehicle.getId(), vehicle.getVehicleTypeId());
 
-            // Verificar que no tenga sesión activa
+            // Verificar que no tenga sesión activa: el registro en memoria es la vía rápida y un acierto se
+            // confirma en la BD (la sesión pudo cerrarse desde otra instancia); el índice único de sesiones
+            // activas rechaza en el insert las entradas concurrentes desde otras instancias
             log.info("3. Checking for active session...");
-            if (parkingSessionRepository.hasActiveSession(vehicle.getId())) {
-                log.warn("3. Vehicle already has active session");
-                throw new VehicleAlreadyParkedException(vehicle.getLicensePlate());
+            Optional<ActiveSessionSummary> registered = activeSessionRegistry.findByVehicleId(vehicle.getId());
+            if (registered.isPresent()) {
+                if (parkingSessionRepository.hasActiveSession(vehicle.getId())) {
+                    log.warn("3. Vehicle already has active session");
+                    throw new VehicleAlreadyParkedException(vehicle.getLicensePlate());
+                }
+                log.info("3. Registered session {} is no longer active, evicting it", registered.get().sessionId());
+                activeSessionRegistry.evict(registered.get());
             }
             log.info("3. No active session found");
 
-            // Obtener espacio disponible
-            log.info("4. Finding available space for vehicle type: {}", vehicle.getVehicleTypeId());
-            ParkingSpace availableSpace = findAvailableSpace(vehicle.getVehicleTypeId());
-            log.info("4. Available space found: ID={}, Number={}", availableSpace.getId(), availableSpace.getSpaceNumber());
-
-            // Validar operador
-            log.info("5. Validating operator: {}", request.operatorId());
-            User operator = userRepository.findById(request.operatorId())
+            // Validar operador (nombre desde caché)
+            log.info("4. Validating operator: {}", request.operatorId());
+            String operatorName = userNameCache.getFullName(request.operatorId())
                     .orElseThrow(() -> new UserNotFoundException("User with ID '" + request.operatorId() + "' not found"));
-            log.info("5. Operator found: ID={}, Name={} {}", operator.getId(), operator.getFirstname(), operator.getLastname());
+            log.info("4. Operator found: ID={}, Name={}", request.operatorId(), operatorName);
+
+            // Reclamar espacio disponible (queda ocupado en la misma sentencia)
+            log.info("5. Claiming available space for vehicle type: {}", vehicle.getVehicleTypeId());
+            ParkingSpace availableSpace = claimAvailableSpace(vehicle.getVehicleTypeId(), vehicle.getLicensePlate());
+            log.info("5. Space claimed: ID={}, Number={}", availableSpace.getId(), availableSpace.getSpaceNumber());
 
-            // Crear sesión
+            // Crear sesión con ID y ticket asignados antes del INSERT
             log.info("6. Creating parking session...");
+            Long sessionId = parkingSessionRepository.nextId();
             ParkingSession session = new ParkingSession(
                     vehicle.getId(),
                     availableSpace.getId(),
-                    operator.getId()
+                    request.operatorId()
             );
-            log.info("6. Session created in memory");
-
-            // Guardar sesión
-            log.info("7. Saving session to database...");
-            ParkingSession savedSession = parkingSessionRepository.save(session);
-            log.info("7. Session saved with ID: {}", savedSession.getId());
-
-            // Generar y asignar ticket code
-            log.info("7.5. Generating ticket code...");
-            String ticketCode = generateTicketCode(savedSession.getId());
-            savedSession.setTicketCode(ticketCode);
-            savedSession = parkingSessionRepository.save(savedSession);
-            log.info("7.5. Ticket code generated and saved: {}", ticketCode);
+            session.setId(sessionId);
+            session.setTicketCode(session.generateTicketCode());
+            ParkingSession savedSession = parkingSessionRepository.insert(session);
+            log.info("6. Session saved with ID: {} and ticket: {}", savedSession.getId(), savedSession.getTicketCode());
+            activeSessionRegistry.register(ActiveSessionSummary.of(savedSession, vehicle.getLicensePlate(),
+                    vehicle.getVehicleTypeId(), availableSpace.getSpaceNumber()));
+            dashboardCounters.sessionStarted(savedSession.getEntryTime());
 
-            // Marcar espacio como ocupado
-            log.info("8. Marking space as occupied...");
-            availableSpace.occupy(vehicle.getLicensePlate());
-            parkingSpaceRepository.save(availableSpace);
-            log.info("8. Space marked as occupied");
-
-            // Obtener información adicional para la respuesta
-            log.info("9. Getting additional info...");
-            VehicleType vehicleType = vehicleTypeRepository.findById(vehicle.getVehicleTypeId())
+            // Nombre del tipo de vehículo para la respuesta (desde caché)
+            String vehicleTypeName = vehicleTypeNameCache.getName(vehicle.getVehicleTypeId())
                     .orElseThrow(() -> new VehicleTypeNotFoundException(vehicle.getVehicleTypeId()));
-            log.info("9. Vehicle type found: {}", vehicleType.getName());
 
             log.info("Parking session created with ID: {} for vehicle: {}", 
                     savedSession.getId(), vehicle.getLicensePlate());
@@ -119,10 +121,10 @@ public class StartSessionHandler implements RequestHandler<StartSessionRequest,
                     savedSession.getId(),
                     savedSession.getTicketCode(),
                     vehicle.getLicensePlate(),
-                    vehicleType.getName(),
+                    vehicleTypeName,
                     availableSpace.getSpaceNumber(),
                     savedSession.getEntryTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
-                    operator.getFirstname() + " " + operator.getLastname()
+                    operatorName
             );
             
             log.info("=== PARKING SESSION COMPLETED SUCCESSFULLY ===");
@@ -157,25 +159,24 @@ public class StartSessionHandler implements RequestHandler<StartSessionRequest,
                 .orElseThrow(() -> new VehicleNotFoundException(licensePlate));
     }
     
-    private ParkingSpace findAvailableSpace(Long vehicleTypeId) {
-        List<ParkingSpace> availableSpaces = parkingSpaceRepository.findAllAvailableByVehicleType(vehicleTypeId);
-        
-        if (availableSpaces.isEmpty()) {
-            VehicleType vehicleType = vehicleTypeRepository.findById(vehicleTypeId)
-                    .orElseThrow(() -> new VehicleTypeNotFoundException(vehicleTypeId));
-            throw new NoAvailableSpaceException(vehicleType.getName());
-        }
-        
-        // Retornar el primer espacio disponible
-        return availableSpaces.get(0);
-    }
-    
     /**
-     * Genera un código único para el ticket basado en el ID de sesión
-     * Formato: T-YYYYMMDDHHMM-{sessionId}
+     * Reclama atómicamente un espacio libre para el vehículo.
+     * Primero prueba los candidatos del pool en memoria (UPDATE condicional por id);
+     * si el pool está vacío o desfasado, reclama el primero libre en BD con SKIP LOCKED.
      */
-    private String generateTicketCode(Long sessionId) {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmm"));
-        return String.format("T-%s-%03d", timestamp, sessionId % 1000);
+    private ParkingSpace claimAvailableSpace(Long vehicleTypeId, String licensePlate) {
+        Optional<Long> candidateId;
+        while ((candidateId = freeSpaceAllocator.reserve(vehicleTypeId)).isPresent()) {
+            Optional<ParkingSpace> claimed = parkingSpaceRepository.claim(candidateId.get(), vehicleTypeId, licensePlate);
+            if (claimed.isPresent()) {
+                return claimed.get();
+            }
+            // Otro proceso lo ocupó antes o el pool estaba desfasado: se descarta y se prueba el siguiente
+            log.warn("Stale free space {} discarded from pool for vehicle type {}", candidateId.get(), vehicleTypeId);
+        }
+        
+        return parkingSpaceRepository.claimFirstAvailable(vehicleTypeId, licensePlate)
+                .orElseThrow(() -> new NoAvailableSpaceException(vehicleTypeNameCache.getName(vehicleTypeId)
+                        .orElseThrow(() -> new VehicleTypeNotFoundException(vehicleTypeId))));
     }
 }
@@ -0,0 +1,245 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.startSessionsBatch;
+
+import io.github.ironslayer.spring_boot_starter_template.common.mediator.RequestHandler;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.port.DashboardCounters;
+import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.startSessionsBatch.StartSessionsBatchResponse.PlateResult;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.startSessionsBatch.StartSessionsBatchResponse.Status;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ActiveSessionSummary;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.exception.VehicleAlreadyParkedException;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ActiveSessionRegistry;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpace;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpaceRepository;
+import io.github.ironslayer.spring_boot_starter_template.user.application.cache.UserNameCache;
+import io.github.ironslayer.spring_boot_starter_template.user.domain.exception.UserNotFoundException;
+import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.entity.Vehicle;
+import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.port.VehicleRepository;
+import io.github.ironslayer.spring_boot_starter_template.vehicletype.application.cache.VehicleTypeNameCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Handler para registrar la entrada de varios vehículos en una sola llamada.
+ * Las placas se procesan por bloques de CHUNK_SIZE, cada bloque en su propia transacción:
+ * una consulta para los vehículos, un UPDATE por tipo de vehículo para reclamar espacios y
+ * un único batch JDBC para insertar las sesiones. Las sesiones activas se verifican contra
+ * el registro en memoria; el índice único de sesiones activas respalda esa verificación
+ * cuando otra instancia registra la misma entrada al mismo tiempo.
+ * ACCESIBLE para ADMIN y OPERATOR
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StartSessionsBatchHandler implements RequestHandler<StartSessionsBatchRequest, StartSessionsBatchResponse> {
+
+    static final int CHUNK_SIZE = 50;
+    static final int MAX_BATCH_SIZE = 500;
+
+    private static final DateTimeFormatter ENTRY_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final ParkingSessionRepository parkingSessionRepository;
+    private final ActiveSessionRegistry activeSessionRegistry;
+    private final DashboardCounters dashboardCounters;
+    private final VehicleRepository vehicleRepository;
+    private final ParkingSpaceRepository parkingSpaceRepository;
+    private final UserNameCache userNameCache;
+    private final VehicleTypeNameCache vehicleTypeNameCache;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public StartSessionsBatchResponse handle(StartSessionsBatchRequest request) {
+        validateRequest(request);
+        log.info("Starting batch entry of {} plates by operator {}", request.licensePlates().size(), request.operatorId());
+
+        String operatorName = userNameCache.getFullName(request.operatorId())
+                .orElseThrow(() -> new UserNotFoundException("User with ID '" + request.operatorId() + "' not found"));
+
+        // Placas normalizadas y sin repetir, en el orden en que llegaron
+        Set<String> uniquePlates = new LinkedHashSet<>();
+        for (String licensePlate : request.licensePlates()) {
+            String plate = normalizePlate(licensePlate);
+            if (plate != null) {
+                uniquePlates.add(plate);
+            }
+        }
+
+        Map<String, PlateResult> outcomes = new HashMap<>();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<String> plates = new ArrayList<>(uniquePlates);
+        for (int from = 0; from < plates.size(); from += CHUNK_SIZE) {
+            List<String> chunk = plates.subList(from, Math.min(from + CHUNK_SIZE, plates.size()));
+            try {
+                outcomes.putAll(transactionTemplate.execute(status -> startChunk(chunk, request.operatorId())));
+            } catch (VehicleAlreadyParkedException e) {
+                // Otra instancia registró la entrada de alguna placa del bloque; el registro local aún no lo sabía
+                log.warn("Batch entry chunk of {} plates rolled back by a concurrent entry", chunk.size());
+                chunk.forEach(plate -> outcomes.put(plate,
+                        PlateResult.failed(plate, "CONCURRENT_ENTRY", "A vehicle in this block was registered concurrently, please retry")));
+            } catch (RuntimeException e) {
+                // El bloque se revirtió completo: ninguna de sus placas quedó registrada
+                log.error("Batch entry chunk of {} plates rolled back", chunk.size(), e);
+                chunk.forEach(plate -> outcomes.put(plate,
+                        PlateResult.failed(plate, "INTERNAL_ERROR", "Entry could not be registered, please retry")));
+            }
+        }
+
+        List<PlateResult> results = collectResults(request.licensePlates(), outcomes);
+        int started = (int) results.stream().filter(result -> result.status() == Status.STARTED).count();
+        log.info("Batch entry finished: {} started, {} failed", started, results.size() - started);
+
+        return new StartSessionsBatchResponse(results.size(), started, results.size() - started, operatorName, results);
+    }
+
+    @Override
+    public Class<StartSessionsBatchRequest> getRequestType() {
+        return StartSessionsBatchRequest.class;
+    }
+
+    private void validateRequest(StartSessionsBatchRequest request) {
+        if (request.operatorId() == null) {
+            throw new BadRequestException("Operator ID is required");
+        }
+
+        if (request.licensePlates() == null || request.licensePlates().isEmpty()) {
+            throw new BadRequestException("At least one license plate is required");
+        }
+
+        if (request.licensePlates().size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("A batch can contain at most " + MAX_BATCH_SIZE + " license plates");
+        }
+    }
+
+    /**
+     * Registra la entrada de un bloque de placas (ya normalizadas y únicas) dentro de la transacción actual
+     */
+    private Map<String, PlateResult> startChunk(List<String> plates, Long operatorId) {
+        Map<String, PlateResult> outcomes = new HashMap<>();
+
+        Map<String, Vehicle> vehiclesByPlate = vehicleRepository.findAllByLicensePlates(plates).stream()
+                .collect(Collectors.toMap(Vehicle::getLicensePlate, Function.identity(), (first, second) -> first));
+
+        Set<Long> parkedVehicleIds = findParkedVehicleIds(vehiclesByPlate.values());
+        Map<Long, List<Vehicle>> pendingByVehicleType = new LinkedHashMap<>();
+        for (String plate : plates) {
+            Vehicle vehicle = vehiclesByPlate.get(plate);
+            if (vehicle == null) {
+                outcomes.put(plate, PlateResult.failed(plate, "VEHICLE_NOT_FOUND",
+                        "Vehicle not found with license plate: " + plate));
+            } else if (parkedVehicleIds.contains(vehicle.getId())) {
+                outcomes.put(plate, PlateResult.failed(plate, "VEHICLE_ALREADY_PARKED",
+                        String.format("Vehicle with license plate '%s' already has an active parking session", plate)));
+            } else {
+                pendingByVehicleType.computeIfAbsent(vehicle.getVehicleTypeId(), typeId -> new ArrayList<>()).add(vehicle);
+            }
+        }
+
+        List<ParkingSession> sessions = new ArrayList<>();
+        List<ActiveSessionSummary> summaries = new ArrayList<>();
+        pendingByVehicleType.forEach((vehicleTypeId, vehicles) -> {
+            Optional<String> vehicleTypeName = vehicleTypeNameCache.getName(vehicleTypeId);
+            if (vehicleTypeName.isEmpty()) {
+                vehicles.forEach(vehicle -> outcomes.put(vehicle.getLicensePlate(), PlateResult.failed(vehicle.getLicensePlate(),
+                        "VEHICLE_TYPE_NOT_FOUND", "Vehicle type not found with ID: " + vehicleTypeId)));
+                return;
+            }
+
+            // Un solo UPDATE reclama un espacio por placa; las que sobran se quedan sin espacio
+            Map<String, ParkingSpace> spacesByPlate = parkingSpaceRepository.claimAvailable(vehicleTypeId,
+                            vehicles.stream().map(Vehicle::getLicensePlate).toList()).stream()
+                    .collect(Collectors.toMap(ParkingSpace::getOccupiedByVehiclePlate, Function.identity()));
+
+            for (Vehicle vehicle : vehicles) {
+                String plate = vehicle.getLicensePlate();
+                ParkingSpace space = spacesByPlate.get(plate);
+                if (space == null) {
+                    outcomes.put(plate, PlateResult.failed(plate, "NO_AVAILABLE_SPACE",
+                            String.format("No available parking spaces for vehicle type '%s'", vehicleTypeName.get())));
+                    continue;
+                }
+
+                ParkingSession session = new ParkingSession(vehicle.getId(), space.getId(), operatorId);
+                session.setId(parkingSessionRepository.nextId());
+                session.setTicketCode(session.generateTicketCode());
+                sessions.add(session);
+                summaries.add(ActiveSessionSummary.of(session, plate, vehicleTypeId, space.getSpaceNumber()));
+
+                outcomes.put(plate, PlateResult.started(plate, session.getId(), session.getTicketCode(),
+                        vehicleTypeName.get(), space.getSpaceNumber(), session.getEntryTime().format(ENTRY_TIME_FORMAT)));
+            }
+        });
+
+        parkingSessionRepository.insertAll(sessions);
+        summaries.forEach(activeSessionRegistry::register);
+        sessions.forEach(session -> dashboardCounters.sessionStarted(session.getEntryTime()));
+        return outcomes;
+    }
+
+    /**
+     * Vehículos con sesión activa: los aciertos del registro en memoria se confirman contra la BD en una
+     * sola consulta, porque el registro es local a la instancia y la sesión pudo cerrarse desde otra
+     */
+    private Set<Long> findParkedVehicleIds(Collection<Vehicle> vehicles) {
+        Map<Long, ActiveSessionSummary> registered = new HashMap<>();
+        for (Vehicle vehicle : vehicles) {
+            activeSessionRegistry.findByVehicleId(vehicle.getId())
+                    .ifPresent(summary -> registered.put(vehicle.getId(), summary));
+        }
+        if (registered.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<Long> parked = parkingSessionRepository.findVehicleIdsWithActiveSession(registered.keySet());
+        registered.forEach((vehicleId, summary) -> {
+            if (!parked.contains(vehicleId)) {
+                activeSessionRegistry.evict(summary);
+            }
+        });
+        return parked;
+    }
+
+    /**
+     * Arma la respuesta en el orden original; las placas vacías o repetidas se reportan aparte
+     */
+    private List<PlateResult> collectResults(List<String> licensePlates, Map<String, PlateResult> outcomes) {
+        List<PlateResult> results = new ArrayList<>(licensePlates.size());
+        Set<String> reported = new HashSet<>();
+        for (String licensePlate : licensePlates) {
+            String plate = normalizePlate(licensePlate);
+            if (plate == null) {
+                results.add(PlateResult.failed(licensePlate, "INVALID_LICENSE_PLATE", "License plate is required"));
+            } else if (!reported.add(plate)) {
+                results.add(PlateResult.failed(plate, "DUPLICATE_IN_BATCH",
+                        "License plate '" + plate + "' appears more than once in the batch"));
+            } else {
+                results.add(outcomes.get(plate));
+            }
+        }
+        return results;
+    }
+
+    private String normalizePlate(String licensePlate) {
+        if (licensePlate == null || licensePlate.trim().isEmpty()) {
+            return null;
+        }
+        return licensePlate.toUpperCase().trim();
+    }
+}
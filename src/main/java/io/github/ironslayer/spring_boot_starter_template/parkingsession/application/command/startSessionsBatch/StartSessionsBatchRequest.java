@@ -0,0 +1,14 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.startSessionsBatch;
+
+import io.github.ironslayer.spring_boot_starter_template.common.mediator.Request;
+
+import java.util.List;
+
+/**
+ * Request para registrar la entrada de varios vehículos a la vez (p. ej. una puerta con cola).
+ * Cada placa se procesa de forma independiente: un fallo no impide la entrada de las demás.
+ */
+public record StartSessionsBatchRequest(
+    List<String> licensePlates,
+    Long operatorId
+) implements Request<StartSessionsBatchResponse> {}
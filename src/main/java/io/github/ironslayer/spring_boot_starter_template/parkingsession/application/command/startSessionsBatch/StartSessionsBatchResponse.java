@@ -0,0 +1,45 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.startSessionsBatch;
+
+import java.util.List;
+
+/**
+ * Response de una entrada masiva: un resultado por placa, en el mismo orden de la solicitud.
+ */
+public record StartSessionsBatchResponse(
+    int requested,
+    int started,
+    int failed,
+    String operatorName,
+    List<PlateResult> results
+) {
+    public enum Status {
+        STARTED,
+        FAILED
+    }
+
+    /**
+     * Resultado de una placa. Si la sesión se inició trae sus datos; si no, errorType y message
+     * usan los mismos códigos que el endpoint individual (VEHICLE_NOT_FOUND, NO_AVAILABLE_SPACE, ...)
+     */
+    public record PlateResult(
+        String licensePlate,
+        Status status,
+        Long sessionId,
+        String ticketCode,
+        String vehicleType,
+        String assignedSpace,
+        String entryTime,
+        String errorType,
+        String message
+    ) {
+        static PlateResult started(String licensePlate, Long sessionId, String ticketCode,
+                                   String vehicleType, String assignedSpace, String entryTime) {
+            return new PlateResult(licensePlate, Status.STARTED, sessionId, ticketCode,
+                    vehicleType, assignedSpace, entryTime, null, null);
+        }
+
+        static PlateResult failed(String licensePlate, String errorType, String message) {
+            return new PlateResult(licensePlate, Status.FAILED, null, null, null, null, null, errorType, message);
+        }
+    }
+}
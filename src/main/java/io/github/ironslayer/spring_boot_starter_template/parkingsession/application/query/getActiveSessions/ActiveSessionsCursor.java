@@ -0,0 +1,34 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.query.getActiveSessions;
+
+import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición opaca dentro del listado de sesiones activas: la última sesión (entryTime, sessionId)
+ * de la página anterior, codificada en Base64 URL-safe para usarse como query param.
+ */
+record ActiveSessionsCursor(LocalDateTime entryTime, Long sessionId) {
+
+    private static final char SEPARATOR = '|';
+
+    String encode() {
+        String raw = entryTime.toString() + SEPARATOR + sessionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ActiveSessionsCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new ActiveSessionsCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -1,27 +1,21 @@
 package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.query.getActiveSessions;
 
 import io.github.ironslayer.spring_boot_starter_template.common.mediator.RequestHandler;
-import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
+import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.query.getActiveSessions.GetActiveSessionsResponse.ActiveSessionDTO;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ActiveSessionView;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
-import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpace;
-import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpaceRepository;
-import io.github.ironslayer.spring_boot_starter_template.user.domain.entity.User;
-import io.github.ironslayer.spring_boot_starter_template.user.domain.port.UserRepository;
-import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.entity.Vehicle;
-import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.port.VehicleRepository;
-import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.entity.VehicleType;
-import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.port.VehicleTypeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
- * Handler para obtener todas las sesiones activas de parqueo.
+ * Handler para obtener las sesiones activas de parqueo.
+ * Placa, tipo, espacio y operador llegan resueltos en una sola consulta (ver findActiveSessionViews).
+ * Con cursor o límite pagina por keyset sobre (entry_time, id): cada página cuesta lo mismo
+ * sin importar cuántas sesiones haya antes. Para recorrerlas todas ver StreamActiveSessionsHandler.
  * ACCESIBLE para ADMIN y OPERATOR
  */
 @Component
@@ -29,25 +23,26 @@ import java.util.List;
 @Slf4j
 public class GetActiveSessionsHandler implements RequestHandler<GetActiveSessionsRequest, GetActiveSessionsResponse> {
     
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    
     private final ParkingSessionRepository parkingSessionRepository;
-    private final VehicleRepository vehicleRepository;
-    private final VehicleTypeRepository vehicleTypeRepository;
-    private final ParkingSpaceRepository parkingSpaceRepository;
-    private final UserRepository userRepository;
     
     @Override
     public GetActiveSessionsResponse handle(GetActiveSessionsRequest request) {
-        log.info("Retrieving all active parking sessions");
+        if (request.isPaged()) {
+            return handlePage(request);
+        }
         
-        List<ParkingSession> activeSessions = parkingSessionRepository.findAllActiveSessions();
+        log.info("Retrieving all active parking sessions");
         
-        List<GetActiveSessionsResponse.ActiveSessionDTO> sessionDTOs = activeSessions.stream()
-                .map(this::mapToDTO)
+        List<ActiveSessionDTO> sessionDTOs = parkingSessionRepository.findActiveSessionViews().stream()
+                .map(ActiveSessionDTO::from)
                 .toList();
         
         log.info("Found {} active parking sessions", sessionDTOs.size());
         
-        return new GetActiveSessionsResponse(sessionDTOs, sessionDTOs.size());
+        return new GetActiveSessionsResponse(sessionDTOs, sessionDTOs.size(), null);
     }
     
     @Override
@@ -55,40 +50,32 @@ public class GetActiveSessionsHandler implements RequestHandler<GetActiveSession
         return GetActiveSessionsRequest.class;
     }
     
-    private GetActiveSessionsResponse.ActiveSessionDTO mapToDTO(ParkingSession session) {
-        // Obtener información del vehículo
-        Vehicle vehicle = vehicleRepository.findById(session.getVehicleId())
-                .orElse(null);
-        
-        // Obtener tipo de vehículo
-        VehicleType vehicleType = null;
-        if (vehicle != null) {
-            vehicleType = vehicleTypeRepository.findById(vehicle.getVehicleTypeId())
-                    .orElse(null);
+    private GetActiveSessionsResponse handlePage(GetActiveSessionsRequest request) {
+        int limit = request.limit() != null ? request.limit() : DEFAULT_PAGE_SIZE;
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
         }
+        ActiveSessionsCursor after = request.cursor() != null ? ActiveSessionsCursor.decode(request.cursor()) : null;
         
-        // Obtener espacio de parqueo
-        ParkingSpace parkingSpace = parkingSpaceRepository.findById(session.getParkingSpaceId())
-                .orElse(null);
+        log.info("Retrieving page of {} active parking sessions", limit);
         
-        // Obtener operador
-        User operator = userRepository.findById(session.getOperatorEntryId())
-                .orElse(null);
+        // Se pide una fila de más para saber si hay otra página sin una consulta adicional
+        List<ActiveSessionView> rows = parkingSessionRepository.findActiveSessionViewsPage(
+                after != null ? after.entryTime() : null,
+                after != null ? after.sessionId() : null,
+                limit + 1);
+        List<ActiveSessionView> page = rows.size() > limit ? rows.subList(0, limit) : rows;
         
-        // Calcular horas estacionado
-        double hoursParked = session.calculateParkedHours();
-        String hoursDisplay = BigDecimal.valueOf(hoursParked)
-                .setScale(2, RoundingMode.HALF_UP)
-                .toString() + " hours";
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            ActiveSessionView last = page.get(page.size() - 1);
+            nextCursor = new ActiveSessionsCursor(last.entryTime(), last.sessionId()).encode();
+        }
         
-        return new GetActiveSessionsResponse.ActiveSessionDTO(
-                session.getId(),
-                vehicle != null ? vehicle.getLicensePlate() : "Unknown",
-                vehicleType != null ? vehicleType.getName() : "Unknown",
-                parkingSpace != null ? parkingSpace.getSpaceNumber() : "Unknown",
-                session.getEntryTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
-                hoursDisplay,
-                operator != null ? operator.getFirstname() + " " + operator.getLastname() : "Unknown"
+        return new GetActiveSessionsResponse(
+                page.stream().map(ActiveSessionDTO::from).toList(),
+                parkingSessionRepository.countActiveSessions(),
+                nextCursor
         );
     }
 }
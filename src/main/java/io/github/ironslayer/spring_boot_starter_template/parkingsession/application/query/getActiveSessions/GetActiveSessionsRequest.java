@@ -3,7 +3,20 @@ package io.github.ironslayer.spring_boot_starter_template.parkingsession.applica
 import io.github.ironslayer.spring_boot_starter_template.common.mediator.Request;
 
 /**
- * Request para obtener todas las sesiones activas de parqueo.
+ * Request para obtener las sesiones activas de parqueo.
+ * Sin cursor ni límite devuelve la lista completa; con alguno de los dos, una página
+ * (el cursor es el nextCursor de la página anterior).
  */
-public record GetActiveSessionsRequest() implements Request<GetActiveSessionsResponse> {
+public record GetActiveSessionsRequest(
+    String cursor,
+    Integer limit
+) implements Request<GetActiveSessionsResponse> {
+
+    public GetActiveSessionsRequest() {
+        this(null, null);
+    }
+
+    public boolean isPaged() {
+        return cursor != null || limit != null;
+    }
 }
@@ -1,13 +1,21 @@
 package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.query.getActiveSessions;
 
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ActiveSessionView;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
- * Response con todas las sesiones activas.
+ * Response con las sesiones activas.
+ * totalCount es el total de sesiones activas; nextCursor es null en la última página
+ * (y siempre cuando se pidió la lista completa).
  */
 public record GetActiveSessionsResponse(
     List<ActiveSessionDTO> activeSessions,
-    int totalCount
+    long totalCount,
+    String nextCursor
 ) {
     /**
      * DTO para mostrar información resumida de una sesión activa
@@ -20,5 +28,26 @@ public record GetActiveSessionsResponse(
         String entryTime,
         String hoursParked,
         String operatorName
-    ) {}
+    ) {
+
+        private static final DateTimeFormatter ENTRY_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        private static final String UNKNOWN = "Unknown";
+
+        public static ActiveSessionDTO from(ActiveSessionView session) {
+            // Calcular horas estacionado
+            String hoursDisplay = BigDecimal.valueOf(session.calculateParkedHours())
+                    .setScale(2, RoundingMode.HALF_UP)
+                    .toString() + " hours";
+
+            return new ActiveSessionDTO(
+                    session.sessionId(),
+                    session.licensePlate() != null ? session.licensePlate() : UNKNOWN,
+                    session.vehicleType() != null ? session.vehicleType() : UNKNOWN,
+                    session.spaceNumber() != null ? session.spaceNumber() : UNKNOWN,
+                    session.entryTime().format(ENTRY_TIME_FORMAT),
+                    hoursDisplay,
+                    session.operatorName() != null ? session.operatorName() : UNKNOWN
+            );
+        }
+    }
 }
@@ -2,20 +2,15 @@ package io.github.ironslayer.spring_boot_starter_template.parkingsession.applica
 
 import io.github.ironslayer.spring_boot_starter_template.common.mediator.RequestHandler;
 import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
-import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ActiveSessionSummary;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.exception.NoActiveSessionException;
-import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
-import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpace;
-import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpaceRepository;
-import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.entity.RateConfig;
-import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.port.RateConfigRepository;
-import io.github.ironslayer.spring_boot_starter_template.user.domain.entity.User;
-import io.github.ironslayer.spring_boot_starter_template.user.domain.port.UserRepository;
-import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.entity.Vehicle;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ActiveSessionRegistry;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.TariffEngine;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableCache;
+import io.github.ironslayer.spring_boot_starter_template.user.application.cache.UserNameCache;
 import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.exception.VehicleNotFoundException;
 import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.port.VehicleRepository;
-import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.entity.VehicleType;
-import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.port.VehicleTypeRepository;
+import io.github.ironslayer.spring_boot_starter_template.vehicletype.application.cache.VehicleTypeNameCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -23,10 +18,11 @@ import org.springframework.stereotype.Component;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.format.DateTimeFormatter;
-import java.util.Optional;
 
 /**
  * Handler para obtener la sesión activa de un vehículo específico.
+ * La sesión sale del registro en memoria y los nombres de caché; solo se consulta
+ * la BD para distinguir un vehículo inexistente de uno sin sesión activa.
  * ACCESIBLE para ADMIN y OPERATOR
  */
 @Component
@@ -34,12 +30,11 @@ import java.util.Optional;
 @Slf4j
 public class GetSessionByVehicleHandler implements RequestHandler<GetSessionByVehicleRequest, GetSessionByVehicleResponse> {
     
-    private final ParkingSessionRepository parkingSessionRepository;
+    private final ActiveSessionRegistry activeSessionRegistry;
     private final VehicleRepository vehicleRepository;
-    private final VehicleTypeRepository vehicleTypeRepository;
-    private final ParkingSpaceRepository parkingSpaceRepository;
-    private final UserRepository userRepository;
-    private final RateConfigRepository rateConfigRepository;
+    private final RateTableCache rateTableCache;
+    private final UserNameCache userNameCache;
+    private final VehicleTypeNameCache vehicleTypeNameCache;
     
     @Override
     public GetSessionByVehicleResponse handle(GetSessionByVehicleRequest request) {
@@ -50,40 +45,34 @@ public class GetSessionByVehicleHandler implements RequestHandler<GetSessionByVe
             throw new BadRequestException("License plate is required");
         }
         
-        // Buscar vehículo
-        Vehicle vehicle = vehicleRepository.findByLicensePlate(request.licensePlate().toUpperCase().trim())
-                .orElseThrow(() -> new VehicleNotFoundException(request.licensePlate()));
+        // Buscar sesión activa en el registro en memoria
+        String licensePlate = request.licensePlate().toUpperCase().trim();
+        ActiveSessionSummary session = activeSessionRegistry.findByLicensePlate(licensePlate)
+                .orElseThrow(() -> vehicleRepository.existsByLicensePlate(licensePlate)
+                        ? new NoActiveSessionException(request.licensePlate())
+                        : new VehicleNotFoundException(request.licensePlate()));
         
-        // Buscar sesión activa
-        ParkingSession session = parkingSessionRepository.findActiveSessionByVehicleId(vehicle.getId())
-                .orElseThrow(() -> new NoActiveSessionException(request.licensePlate()));
-        
-        // Obtener información adicional
-        VehicleType vehicleType = vehicleTypeRepository.findById(vehicle.getVehicleTypeId())
-                .orElse(null);
-        
-        ParkingSpace parkingSpace = parkingSpaceRepository.findById(session.getParkingSpaceId())
-                .orElse(null);
-        
-        User operator = userRepository.findById(session.getOperatorEntryId())
-                .orElse(null);
+        // Obtener información adicional (desde caché)
+        String vehicleTypeName = vehicleTypeNameCache.getName(session.vehicleTypeId()).orElse("Unknown");
+        String operatorName = userNameCache.getFullName(session.operatorEntryId()).orElse("Unknown");
         
         // Calcular tiempo y monto estimado
-        double hoursParked = session.calculateParkedHours();
-        BigDecimal estimatedAmount = calculateEstimatedAmount(vehicle, hoursParked);
+        long minutesParked = session.calculateParkedMinutes();
+        double hoursParked = minutesParked / (double) TariffEngine.MINUTES_PER_HOUR;
+        BigDecimal estimatedAmount = calculateEstimatedAmount(session, minutesParked);
         
-        log.info("Found active session {} for vehicle: {}", session.getId(), request.licensePlate());
+        log.info("Found active session {} for vehicle: {}", session.sessionId(), request.licensePlate());
         
         return new GetSessionByVehicleResponse(
-                session.getId(),
-                vehicle.getLicensePlate(),
-                vehicleType != null ? vehicleType.getName() : "Unknown",
-                parkingSpace != null ? parkingSpace.getSpaceNumber() : "Unknown",
-                session.getEntryTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
+                session.sessionId(),
+                session.licensePlate(),
+                vehicleTypeName,
+                session.spaceNumber() != null ? session.spaceNumber() : "Unknown",
+                session.entryTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
                 BigDecimal.valueOf(hoursParked).setScale(2, RoundingMode.HALF_UP),
                 estimatedAmount,
-                operator != null ? operator.getFirstname() + " " + operator.getLastname() : "Unknown",
-                session.generateTicketCode()
+                operatorName,
+                session.ticketCode()
         );
     }
     
@@ -92,32 +81,15 @@ public class GetSessionByVehicleHandler implements RequestHandler<GetSessionByVe
         return GetSessionByVehicleRequest.class;
     }
     
-    private BigDecimal calculateEstimatedAmount(Vehicle vehicle, double hoursParked) {
+    private BigDecimal calculateEstimatedAmount(ActiveSessionSummary session, long minutesParked) {
         try {
-            Optional<RateConfig> rateConfig = rateConfigRepository.findActiveByVehicleTypeId(vehicle.getVehicleTypeId());
-            
-            if (rateConfig.isEmpty()) {
-                return BigDecimal.ZERO;
-            }
-            
-            RateConfig config = rateConfig.get();
-            
-            // Aplicar tiempo mínimo de cobro
-            double billableHours = Math.max(hoursParked, config.getMinimumChargeHours());
-            
-            // Calcular monto base
-            BigDecimal baseAmount = config.getRatePerHour().multiply(BigDecimal.valueOf(billableHours));
-            
-            // Aplicar límite máximo diario si existe
-            BigDecimal totalAmount = baseAmount;
-            if (config.getMaximumDailyRate() != null && baseAmount.compareTo(config.getMaximumDailyRate()) > 0) {
-                totalAmount = config.getMaximumDailyRate();
-            }
-            
-            return totalAmount.setScale(2, RoundingMode.HALF_UP);
+            // Lo que se cobraría si saliera ahora: mismas reglas que la salida y el pago
+            return rateTableCache.findTariffAt(session.vehicleTypeId(), session.entryTime())
+                    .map(tariff -> tariff.price(session.entryTime(), minutesParked))
+                    .orElse(BigDecimal.ZERO);
             
         } catch (Exception e) {
-            log.warn("Error calculating estimated amount for vehicle {}: {}", vehicle.getLicensePlate(), e.getMessage());
+            log.warn("Error calculating estimated amount for vehicle {}: {}", session.licensePlate(), e.getMessage());
             return BigDecimal.ZERO;
         }
     }
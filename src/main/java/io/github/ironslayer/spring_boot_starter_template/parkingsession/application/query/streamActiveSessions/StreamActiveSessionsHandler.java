@@ -0,0 +1,43 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.query.streamActiveSessions;
+
+import io.github.ironslayer.spring_boot_starter_template.common.mediator.RequestHandler;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.query.getActiveSessions.GetActiveSessionsResponse.ActiveSessionDTO;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Handler para exportar todas las sesiones activas fila por fila (NDJSON en la API).
+ * Las filas salen de un cursor JDBC con fetch size acotado, así que la memoria usada
+ * no depende de cuántos vehículos haya dentro.
+ * ACCESIBLE para ADMIN y OPERATOR
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StreamActiveSessionsHandler implements RequestHandler<StreamActiveSessionsRequest, Long> {
+
+    private final ParkingSessionRepository parkingSessionRepository;
+
+    @Override
+    public Long handle(StreamActiveSessionsRequest request) {
+        log.info("Streaming active parking sessions");
+
+        AtomicLong count = new AtomicLong();
+        parkingSessionRepository.streamActiveSessionViews(session -> {
+            request.consumer().accept(ActiveSessionDTO.from(session));
+            count.incrementAndGet();
+        });
+
+        log.info("Streamed {} active parking sessions", count.get());
+        return count.get();
+    }
+
+    @Override
+    public Class<StreamActiveSessionsRequest> getRequestType() {
+        return StreamActiveSessionsRequest.class;
+    }
+}
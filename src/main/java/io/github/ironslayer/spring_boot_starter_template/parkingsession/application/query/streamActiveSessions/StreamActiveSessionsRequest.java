@@ -0,0 +1,15 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.query.streamActiveSessions;
+
+import io.github.ironslayer.spring_boot_starter_template.common.mediator.Request;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.query.getActiveSessions.GetActiveSessionsResponse.ActiveSessionDTO;
+
+import java.util.function.Consumer;
+
+/**
+ * Request para recorrer todas las sesiones activas sin armar la lista en memoria:
+ * cada sesión se entrega al consumer a medida que se lee. Devuelve cuántas se entregaron.
+ */
+public record StreamActiveSessionsRequest(
+    Consumer<ActiveSessionDTO> consumer
+) implements Request<Long> {
+}
@@ -0,0 +1,50 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Resumen inmutable de una sesión activa: lo necesario para responder
+ * "¿está parqueado este vehículo?" y "¿dónde está?" sin ir a la BD.
+ */
+public record ActiveSessionSummary(
+        Long sessionId,
+        Long vehicleId,
+        String licensePlate,
+        Long vehicleTypeId,
+        Long parkingSpaceId,
+        String spaceNumber,
+        String ticketCode,
+        LocalDateTime entryTime,
+        Long operatorEntryId
+) {
+
+    public static ActiveSessionSummary of(ParkingSession session, String licensePlate,
+                                          Long vehicleTypeId, String spaceNumber) {
+        return new ActiveSessionSummary(
+                session.getId(),
+                session.getVehicleId(),
+                licensePlate,
+                vehicleTypeId,
+                session.getParkingSpaceId(),
+                spaceNumber,
+                session.getTicketCode(),
+                session.getEntryTime(),
+                session.getOperatorEntryId()
+        );
+    }
+
+    /**
+     * Horas estacionado desde la entrada hasta ahora (mismo cálculo que ParkingSession)
+     */
+    public double calculateParkedHours() {
+        return calculateParkedMinutes() / 60.0;
+    }
+
+    /**
+     * Minutos completos estacionado desde la entrada hasta ahora
+     */
+    public long calculateParkedMinutes() {
+        return Math.max(ChronoUnit.MINUTES.between(entryTime, LocalDateTime.now()), 0);
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Fila de solo lectura para el listado de sesiones activas: la sesión con los datos
+ * de vehículo, tipo, espacio y operador ya resueltos en una sola consulta.
+ * Los campos relacionados son null si la fila referenciada ya no existe.
+ */
+public record ActiveSessionView(
+        Long sessionId,
+        String licensePlate,
+        String vehicleType,
+        String spaceNumber,
+        LocalDateTime entryTime,
+        String operatorName
+) {
+
+    /**
+     * Horas estacionado desde la entrada hasta ahora (mismo cálculo que ParkingSession)
+     */
+    public double calculateParkedHours() {
+        long minutes = ChronoUnit.MINUTES.between(entryTime, LocalDateTime.now());
+        return Math.max(minutes / 60.0, 0.0);
+    }
+}
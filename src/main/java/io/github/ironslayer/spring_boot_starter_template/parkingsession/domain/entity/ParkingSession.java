@@ -1,5 +1,7 @@
 package io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity;
 
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.service.TicketCodeCodec;
+
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 
@@ -85,25 +87,28 @@ public class ParkingSession {
      * @return horas como decimal (ej: 1.5 para 1 hora y 30 minutos)
      */
     public double calculateParkedHours() {
+        return calculateParkedMinutes() / 60.0;
+    }
+
+    /**
+     * Minutos completos estacionado desde la entrada hasta ahora (o hasta la salida si existe)
+     * @return minutos, nunca negativos; es lo que recibe TariffEngine para cobrar
+     */
+    public long calculateParkedMinutes() {
         LocalDateTime endTime = (exitTime != null) ? exitTime : LocalDateTime.now();
-        long minutes = ChronoUnit.MINUTES.between(entryTime, endTime);
-        return Math.max(minutes / 60.0, 0.0);
+        return Math.max(ChronoUnit.MINUTES.between(entryTime, endTime), 0);
     }
 
     /**
-     * Genera un código único para el ticket basado en la sesión
-     * Formato: T-YYYYMMDDHHMM-{sessionId}
+     * Genera el código del ticket a partir del ID de la sesión (ver TicketCodeCodec)
+     * Formato: T-{sessionId en base 32}{control}
      */
     public String generateTicketCode() {
         if (id == null) {
             throw new IllegalStateException("Cannot generate ticket code without session ID");
         }
         
-        String timestamp = entryTime.toString()
-            .replaceAll("[^0-9]", "")
-            .substring(0, 12); // YYYYMMDDHHMM
-            
-        return String.format("T-%s-%03d", timestamp, id % 1000);
+        return TicketCodeCodec.encode(id);
     }
 
     /**
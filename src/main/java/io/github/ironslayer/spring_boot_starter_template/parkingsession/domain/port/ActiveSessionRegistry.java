@@ -0,0 +1,54 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port;
+
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ActiveSessionSummary;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
+
+import java.util.Optional;
+
+/**
+ * Puerto para el registro en memoria de las sesiones activas, indexado por placa y por vehículo.
+ * Responde las consultas de "vehículo parqueado" sin tocar la BD; los handlers que abren o
+ * cierran sesiones lo mantienen al día y los cambios se aplican al confirmar la transacción.
+ * El registro es local a cada instancia: no ve las sesiones que abren o cierran las demás, así que
+ * un acierto se confirma contra la BD antes de rechazar y un fallo se resuelve consultando la BD.
+ */
+public interface ActiveSessionRegistry {
+
+    /**
+     * Sesión activa del vehículo con la placa dada (se normaliza a mayúsculas)
+     */
+    Optional<ActiveSessionSummary> findByLicensePlate(String licensePlate);
+
+    /**
+     * Sesión activa del vehículo con el ID dado
+     */
+    Optional<ActiveSessionSummary> findByVehicleId(Long vehicleId);
+
+    /**
+     * Verifica si el vehículo tiene una sesión activa
+     */
+    default boolean isParked(Long vehicleId) {
+        return findByVehicleId(vehicleId).isPresent();
+    }
+
+    /**
+     * Agrega una sesión recién abierta (después del commit si hay transacción activa)
+     */
+    void register(ActiveSessionSummary summary);
+
+    /**
+     * Quita una sesión cerrada (después del commit si hay transacción activa)
+     */
+    void unregister(ParkingSession session);
+
+    /**
+     * Quita de inmediato una entrada que la BD ya no confirma como activa
+     * (p. ej. la sesión se cerró desde otra instancia); no hace nada si la entrada ya cambió
+     */
+    void evict(ActiveSessionSummary summary);
+
+    /**
+     * Número de sesiones activas registradas
+     */
+    int size();
+}
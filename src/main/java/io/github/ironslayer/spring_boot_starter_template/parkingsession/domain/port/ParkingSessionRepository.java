@@ -1,10 +1,14 @@
 package io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port;
 
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ActiveSessionView;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Puerto para el repositorio de sesiones de parqueo.
@@ -17,11 +21,32 @@ public interface ParkingSessionRepository {
      */
     ParkingSession save(ParkingSession parkingSession);
     
+    /**
+     * Reserva el ID de una nueva sesión antes de insertarla,
+     * para poder calcular valores que dependen de él (p. ej. el ticket)
+     */
+    Long nextId();
+    
+    /**
+     * Inserta una sesión nueva cuyo ID se reservó con nextId(), en un solo INSERT
+     */
+    ParkingSession insert(ParkingSession parkingSession);
+    
+    /**
+     * Inserta varias sesiones nuevas (IDs ya reservados con nextId()) en un único batch JDBC
+     */
+    void insertAll(List<ParkingSession> parkingSessions);
+    
     /**
      * Busca una sesión por su ID
      */
     Optional<ParkingSession> findById(Long id);
     
+    /**
+     * Sesiones con los IDs dados (una sola consulta)
+     */
+    List<ParkingSession> findAllByIds(Collection<Long> ids);
+    
     /**
      * Busca la sesión activa de un vehículo específico
      * @param vehicleId ID del vehículo
@@ -36,16 +61,63 @@ public interface ParkingSessionRepository {
      */
     Optional<ParkingSession> findByTicketCode(String ticketCode);
     
+    /**
+     * Sesiones activas de los vehículos dados (una sola consulta)
+     */
+    List<ParkingSession> findActiveSessionsByVehicleIds(Collection<Long> vehicleIds);
+    
+    /**
+     * Sesiones activas con alguno de los códigos de ticket dados (una sola consulta)
+     */
+    List<ParkingSession> findActiveSessionsByTicketCodes(Collection<String> ticketCodes);
+    
+    /**
+     * Cierra en un solo UPDATE las sesiones dadas que sigan activas.
+     * @return las sesiones realmente cerradas; las que otro proceso cerró antes no aparecen
+     */
+    List<ParkingSession> closeActiveSessions(Collection<Long> sessionIds, Long operatorExitId, LocalDateTime exitTime);
+    
+    /**
+     * Cierra la sesión dada si sigue activa (mismo UPDATE condicional que closeActiveSessions)
+     * @return la sesión cerrada, o vacío si otro proceso la cerró antes
+     */
+    default Optional<ParkingSession> closeActiveSession(Long sessionId, Long operatorExitId, LocalDateTime exitTime) {
+        return closeActiveSessions(List.of(sessionId), operatorExitId, exitTime).stream().findFirst();
+    }
+    
     /**
      * Verifica si un vehículo tiene una sesión activa
      */
     boolean hasActiveSession(Long vehicleId);
     
+    /**
+     * De los vehículos dados, devuelve los IDs de los que tienen una sesión activa (una sola consulta)
+     */
+    Set<Long> findVehicleIdsWithActiveSession(Collection<Long> vehicleIds);
+    
     /**
      * Obtiene todas las sesiones activas
      */
     List<ParkingSession> findAllActiveSessions();
     
+    /**
+     * Sesiones activas con placa, tipo de vehículo, espacio y operador ya resueltos (una sola consulta),
+     * ordenadas por fecha de entrada (más reciente primero)
+     */
+    List<ActiveSessionView> findActiveSessionViews();
+    
+    /**
+     * Página de findActiveSessionViews() por keyset: hasta limit sesiones que van después de
+     * la sesión (afterEntryTime, afterSessionId) en ese orden; con ambos null, la primera página
+     */
+    List<ActiveSessionView> findActiveSessionViewsPage(LocalDateTime afterEntryTime, Long afterSessionId, int limit);
+    
+    /**
+     * Entrega las filas de findActiveSessionViews() una a una a medida que se leen de la BD,
+     * sin acumular la lista completa en memoria
+     */
+    void streamActiveSessionViews(Consumer<ActiveSessionView> action);
+    
     /**
      * Obtiene todas las sesiones de un vehículo específico
      * @param vehicleId ID del vehículo
@@ -0,0 +1,131 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.service;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+/**
+ * Códigos de ticket compactos que llevan dentro el ID de la sesión.
+ *
+ * Formato: "T-" + ID en base 32 Crockford + un carácter de control (Luhn mod 32).
+ * Ej: la sesión 1234567 es "T-15NM7C" (C es el control). Como el ID es único, el ticket también lo es
+ * sin depender del reloj, y al salir basta decodificarlo para buscar la sesión por clave primaria.
+ * El control detecta cualquier carácter mal digitado y casi todas las transposiciones.
+ */
+public final class TicketCodeCodec {
+
+    public static final String PREFIX = "T-";
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int RADIX = 32;
+    private static final int BITS_PER_DIGIT = 5;
+    // Un long positivo cabe en 13 dígitos base 32; + prefijo + control
+    private static final int MAX_DIGITS = 13;
+    private static final int MAX_LENGTH = PREFIX.length() + MAX_DIGITS + 1;
+    private static final int[] DIGIT_VALUES = new int[128];
+
+    static {
+        Arrays.fill(DIGIT_VALUES, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DIGIT_VALUES[ALPHABET[i]] = i;
+            DIGIT_VALUES[Character.toLowerCase(ALPHABET[i])] = i;
+        }
+        // Alias de Crockford para lo que se lee mal en un ticket impreso
+        DIGIT_VALUES['O'] = DIGIT_VALUES['o'] = 0;
+        DIGIT_VALUES['I'] = DIGIT_VALUES['i'] = 1;
+        DIGIT_VALUES['L'] = DIGIT_VALUES['l'] = 1;
+    }
+
+    private TicketCodeCodec() {
+    }
+
+    /**
+     * Genera el ticket de una sesión. Una sola asignación (el String final).
+     */
+    public static String encode(long sessionId) {
+        if (sessionId <= 0) {
+            throw new IllegalArgumentException("Session ID must be positive to generate a ticket code");
+        }
+
+        char[] buffer = new char[MAX_LENGTH];
+        int checkPosition = buffer.length - 1;
+        int position = checkPosition;
+        int sum = 0;
+        boolean doubled = true; // el dígito más a la derecha (antes del control) se duplica
+        long remaining = sessionId;
+        do {
+            int digit = (int) (remaining & (RADIX - 1));
+            remaining >>>= BITS_PER_DIGIT;
+            buffer[--position] = ALPHABET[digit];
+            sum += luhnAddend(digit, doubled);
+            doubled = !doubled;
+        } while (remaining != 0);
+
+        buffer[checkPosition] = ALPHABET[(RADIX - sum % RADIX) % RADIX];
+        buffer[--position] = PREFIX.charAt(1);
+        buffer[--position] = PREFIX.charAt(0);
+        return new String(buffer, position, buffer.length - position);
+    }
+
+    /**
+     * Extrae el ID de sesión de un ticket. Vacío si el texto no tiene este formato
+     * (p. ej. tickets antiguos "T-yyyyMMddHHmm-NNN") o si el carácter de control no cuadra.
+     */
+    public static OptionalLong decode(String ticketCode) {
+        if (ticketCode == null) {
+            return OptionalLong.empty();
+        }
+
+        int start = 0;
+        int end = ticketCode.length();
+        while (start < end && Character.isWhitespace(ticketCode.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(ticketCode.charAt(end - 1))) {
+            end--;
+        }
+
+        int digitsStart = start + PREFIX.length();
+        int digitCount = end - digitsStart - 1;
+        if (digitCount < 1 || digitCount > MAX_DIGITS
+                || Character.toUpperCase(ticketCode.charAt(start)) != PREFIX.charAt(0)
+                || ticketCode.charAt(start + 1) != PREFIX.charAt(1)) {
+            return OptionalLong.empty();
+        }
+
+        // Validar el control de derecha a izquierda (el propio control no se duplica)
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = end - 1; i >= digitsStart; i--) {
+            int digit = digitValue(ticketCode.charAt(i));
+            if (digit < 0) {
+                return OptionalLong.empty();
+            }
+            sum += luhnAddend(digit, doubled);
+            doubled = !doubled;
+        }
+        if (sum % RADIX != 0) {
+            return OptionalLong.empty();
+        }
+
+        int firstDigit = digitValue(ticketCode.charAt(digitsStart));
+        // Sin ceros a la izquierda (un solo ticket por ID) y sin desbordar un long
+        if (firstDigit == 0 || (digitCount == MAX_DIGITS && firstDigit >= RADIX / 4)) {
+            return OptionalLong.empty();
+        }
+
+        long sessionId = 0;
+        for (int i = digitsStart; i < end - 1; i++) {
+            sessionId = (sessionId << BITS_PER_DIGIT) | digitValue(ticketCode.charAt(i));
+        }
+        return OptionalLong.of(sessionId);
+    }
+
+    private static int digitValue(char c) {
+        return c < DIGIT_VALUES.length ? DIGIT_VALUES[c] : -1;
+    }
+
+    private static int luhnAddend(int digit, boolean doubled) {
+        int addend = doubled ? digit * 2 : digit;
+        return addend / RADIX + addend % RADIX;
+    }
+}
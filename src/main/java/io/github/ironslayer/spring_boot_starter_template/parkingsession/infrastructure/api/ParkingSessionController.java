@@ -3,17 +3,25 @@ package io.github.ironslayer.spring_boot_starter_template.parkingsession.infrast
 import io.github.ironslayer.spring_boot_starter_template.common.mediator.Mediator;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.endSession.EndSessionRequest;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.endSession.EndSessionResponse;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.endSessionsBatch.EndSessionsBatchRequest;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.endSessionsBatch.EndSessionsBatchResponse;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.startSession.StartSessionRequest;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.startSession.StartSessionResponse;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.startSessionsBatch.StartSessionsBatchRequest;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.startSessionsBatch.StartSessionsBatchResponse;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.query.getActiveSessions.GetActiveSessionsRequest;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.query.getActiveSessions.GetActiveSessionsResponse;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.query.getSessionByVehicle.GetSessionByVehicleRequest;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.query.streamActiveSessions.StreamActiveSessionsRequest;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.query.getSessionByVehicle.GetSessionByVehicleResponse;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.api.dto.EndSessionRequestDTO;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.api.dto.EndSessionResponseDTO;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.api.dto.EndSessionsBatchRequestDTO;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.api.dto.StartSessionRequestDTO;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.api.dto.StartSessionResponseDTO;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.api.dto.StartSessionsBatchRequestDTO;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.api.mapper.ParkingSessionDTOMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -22,9 +30,16 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 
 /**
  * REST Controller para operaciones de sesiones de parqueo.
@@ -40,6 +55,7 @@ public class ParkingSessionController {
     
     private final Mediator mediator;
     private final ParkingSessionDTOMapper dtoMapper;
+    private final ObjectMapper objectMapper;
     
     @Operation(summary = "Start a parking session", description = "Register vehicle entry to parking lot (ADMIN and OPERATOR)")
     @PostMapping("/start")
@@ -67,6 +83,18 @@ public class ParkingSessionController {
         }
     }
     
+    @Operation(summary = "Start parking sessions in batch", description = "Register the entry of several vehicles at once, with a result per plate (ADMIN and OPERATOR)")
+    @PostMapping("/start/batch")
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('OPERATOR')")
+    public ResponseEntity<StartSessionsBatchResponse> startSessionsBatch(
+            @Valid @RequestBody StartSessionsBatchRequestDTO requestDTO) {
+        
+        StartSessionsBatchRequest request = dtoMapper.toStartSessionsBatchRequest(requestDTO);
+        StartSessionsBatchResponse response = mediator.dispatch(request);
+        
+        return ResponseEntity.ok(response);
+    }
+    
     @Operation(summary = "End a parking session", description = "Register vehicle exit from parking lot and calculate payment (ADMIN and OPERATOR)")
     @PostMapping("/end")
     @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('OPERATOR')")
@@ -81,17 +109,56 @@ public class ParkingSessionController {
         return ResponseEntity.ok(responseDTO);
     }
     
-    @Operation(summary = "Get all active parking sessions", description = "Get all currently active parking sessions (ADMIN and OPERATOR)")
+    @Operation(summary = "End and pay parking sessions in batch", description = "Register the exit and payment of several vehicles at once, with a result per plate or ticket (ADMIN and OPERATOR)")
+    @PostMapping("/end/batch")
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('OPERATOR')")
+    public ResponseEntity<EndSessionsBatchResponse> endSessionsBatch(
+            @Valid @RequestBody EndSessionsBatchRequestDTO requestDTO) {
+        
+        EndSessionsBatchRequest request = dtoMapper.toEndSessionsBatchRequest(requestDTO);
+        EndSessionsBatchResponse response = mediator.dispatch(request);
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    @Operation(summary = "Get active parking sessions", description = "Get currently active parking sessions, most recent first. Pass limit and/or cursor (nextCursor of the previous page) to paginate; without them the whole list is returned (ADMIN and OPERATOR)")
     @GetMapping("/active")
     @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('OPERATOR')")
-    public ResponseEntity<GetActiveSessionsResponse> getActiveSessions() {
+    public ResponseEntity<GetActiveSessionsResponse> getActiveSessions(
+            @Parameter(description = "Opaque position returned as nextCursor by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-1000, default 100 when only the cursor is given)")
+            @RequestParam(required = false) Integer limit) {
         
-        GetActiveSessionsRequest request = new GetActiveSessionsRequest();
+        GetActiveSessionsRequest request = new GetActiveSessionsRequest(cursor, limit);
         GetActiveSessionsResponse response = mediator.dispatch(request);
         
         return ResponseEntity.ok(response);
     }
     
+    @Operation(summary = "Stream all active parking sessions", description = "Stream every active parking session as newline-delimited JSON, one session per line, without building the whole list in memory (ADMIN and OPERATOR)")
+    @GetMapping(value = "/active/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('OPERATOR')")
+    public ResponseEntity<StreamingResponseBody> streamActiveSessions() {
+        
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            mediator.dispatch(new StreamActiveSessionsRequest(session -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(session));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            out.flush();
+        };
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
     @Operation(summary = "Get parking session by vehicle", description = "Get active parking session for a specific vehicle (ADMIN and OPERATOR)")
     @GetMapping("/vehicle/{licensePlate}")
     @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('OPERATOR')")
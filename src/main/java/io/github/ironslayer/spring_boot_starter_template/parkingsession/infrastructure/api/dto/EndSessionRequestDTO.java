@@ -15,7 +15,7 @@ public record EndSessionRequestDTO(
     @Schema(description = "Session ID (alternative to license plate)", example = "1")
     Long sessionId,
     
-    @Schema(description = "Ticket code (alternative to license plate and session ID)", example = "T-202507171030-001")
+    @Schema(description = "Ticket code (alternative to license plate and session ID)", example = "T-15NM7C")
     String ticketCode,
     
     @NotNull(message = "Operator ID is required")
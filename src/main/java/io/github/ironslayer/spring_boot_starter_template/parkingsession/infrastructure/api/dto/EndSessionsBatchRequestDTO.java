@@ -0,0 +1,31 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.api.dto;
+
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentMethod;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO para solicitud de salida y pago masivo de vehículos.
+ */
+@Schema(description = "Request to end and pay several parking sessions at once")
+public record EndSessionsBatchRequestDTO(
+    
+    @Size(max = 500, message = "A batch can contain at most 500 license plates")
+    @Schema(description = "Vehicle license plates", example = "[\"ABC-123\", \"XYZ-789\"]")
+    List<String> licensePlates,
+    
+    @Size(max = 500, message = "A batch can contain at most 500 ticket codes")
+    @Schema(description = "Ticket codes (alternative to license plates, can be combined)", example = "[\"T-15NM7C\"]")
+    List<String> ticketCodes,
+    
+    @NotNull(message = "Payment method is required")
+    @Schema(description = "Payment method used for every session in the batch", example = "CASH", required = true)
+    PaymentMethod paymentMethod,
+    
+    @NotNull(message = "Operator ID is required")
+    @Schema(description = "ID of the operator registering the exits", example = "2", required = true)
+    Long operatorId
+) {}
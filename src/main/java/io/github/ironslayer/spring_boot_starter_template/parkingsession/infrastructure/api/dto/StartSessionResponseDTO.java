@@ -11,7 +11,7 @@ public record StartSessionResponseDTO(
     @Schema(description = "Generated session ID", example = "1")
     Long sessionId,
     
-    @Schema(description = "Generated ticket code", example = "T-202507171030-001")
+    @Schema(description = "Generated ticket code", example = "T-15NM7C")
     String ticketCode,
     
     @Schema(description = "Vehicle license plate", example = "ABC-123")
@@ -0,0 +1,24 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO para solicitud de entrada masiva de vehículos.
+ */
+@Schema(description = "Request to start parking sessions for several vehicles at once")
+public record StartSessionsBatchRequestDTO(
+    
+    @NotEmpty(message = "At least one license plate is required")
+    @Size(max = 500, message = "A batch can contain at most 500 license plates")
+    @Schema(description = "Vehicle license plates, processed in order", example = "[\"ABC-123\", \"XYZ-789\"]", required = true)
+    List<String> licensePlates,
+    
+    @NotNull(message = "Operator ID is required")
+    @Schema(description = "ID of the operator registering the entries", example = "2", required = true)
+    Long operatorId
+) {}
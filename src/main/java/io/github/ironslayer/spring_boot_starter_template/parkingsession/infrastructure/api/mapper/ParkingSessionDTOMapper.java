@@ -2,12 +2,16 @@ package io.github.ironslayer.spring_boot_starter_template.parkingsession.infrast
 
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.endSession.EndSessionRequest;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.endSession.EndSessionResponse;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.endSessionsBatch.EndSessionsBatchRequest;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.startSession.StartSessionRequest;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.startSession.StartSessionResponse;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.startSessionsBatch.StartSessionsBatchRequest;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.api.dto.EndSessionRequestDTO;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.api.dto.EndSessionResponseDTO;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.api.dto.EndSessionsBatchRequestDTO;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.api.dto.StartSessionRequestDTO;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.api.dto.StartSessionResponseDTO;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.api.dto.StartSessionsBatchRequestDTO;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -32,6 +36,12 @@ public interface ParkingSessionDTOMapper {
     @Mapping(target = "operatorName", source = "operatorName")
     StartSessionResponseDTO toStartSessionResponseDTO(StartSessionResponse response);
     
+    // Mappers para StartSessionsBatch
+    
+    @Mapping(target = "licensePlates", source = "licensePlates")
+    @Mapping(target = "operatorId", source = "operatorId")
+    StartSessionsBatchRequest toStartSessionsBatchRequest(StartSessionsBatchRequestDTO dto);
+    
     // Mappers para EndSession
     
     @Mapping(target = "licensePlate", source = "licensePlate")
@@ -50,4 +60,12 @@ public interface ParkingSessionDTOMapper {
     @Mapping(target = "totalAmount", source = "totalAmount")
     @Mapping(target = "operatorName", source = "operatorName")
     EndSessionResponseDTO toEndSessionResponseDTO(EndSessionResponse response);
+    
+    // Mappers para EndSessionsBatch
+    
+    @Mapping(target = "licensePlates", source = "licensePlates")
+    @Mapping(target = "ticketCodes", source = "ticketCodes")
+    @Mapping(target = "paymentMethod", source = "paymentMethod")
+    @Mapping(target = "operatorId", source = "operatorId")
+    EndSessionsBatchRequest toEndSessionsBatchRequest(EndSessionsBatchRequestDTO dto);
 }
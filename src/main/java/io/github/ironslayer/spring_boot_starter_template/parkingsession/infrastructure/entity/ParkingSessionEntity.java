@@ -1,9 +1,15 @@
 package io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.entity;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -12,16 +18,18 @@ import java.time.ZoneOffset;
 /**
  * Entidad JPA para sesiones de parqueo.
  * Mapea la tabla parking_sessions en la base de datos.
+ *
+ * El ID lo asigna la aplicación (ParkingSessionIdGenerator) antes del INSERT, para poder
+ * generar el ticket en la misma escritura; Persistable evita el SELECT previo del merge.
  */
 @Entity
 @Table(name = "parking_sessions")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class ParkingSessionEntity {
+public class ParkingSessionEntity implements Persistable<Long> {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
     @Column(name = "vehicle_id", nullable = false)
@@ -54,6 +62,31 @@ public class ParkingSessionEntity {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean newEntity;
+    
+    /**
+     * Marca la entidad como nueva para que save() haga persist (un solo INSERT)
+     */
+    public void markNew() {
+        this.newEntity = true;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+    
+    @PostPersist
+    @PostLoad
+    protected void markNotNew() {
+        this.newEntity = false;
+    }
+    
     @PrePersist
     protected void onCreate() {
         // Usar UTC para evitar problemas de zona horaria
@@ -0,0 +1,179 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.registry;
+
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ActiveSessionSummary;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ActiveSessionRegistry;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpace;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpaceRepository;
+import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.entity.Vehicle;
+import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.port.VehicleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory implementation of ActiveSessionRegistry.
+ * Two concurrent maps (normalized plate and vehicle id) point to the same immutable summary,
+ * so gate and kiosk lookups are a single hash probe. The registry is rebuilt from the database
+ * once the application is ready; afterwards only the start/end handlers change it, after commit.
+ * A lookup counts as a hit when it finds an active session, which gives the share of
+ * "is this car parked" queries answered positively (parking.sessions.registry.hit.ratio).
+ */
+@Component
+@Slf4j
+public class InMemoryActiveSessionRegistry implements ActiveSessionRegistry {
+
+    static final String METRIC_PREFIX = "parking.sessions.registry";
+
+    private final ParkingSessionRepository parkingSessionRepository;
+    private final VehicleRepository vehicleRepository;
+    private final ParkingSpaceRepository parkingSpaceRepository;
+
+    private final Map<String, ActiveSessionSummary> byLicensePlate = new ConcurrentHashMap<>();
+    private final Map<Long, ActiveSessionSummary> byVehicleId = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public InMemoryActiveSessionRegistry(ParkingSessionRepository parkingSessionRepository,
+                                         VehicleRepository vehicleRepository,
+                                         ParkingSpaceRepository parkingSpaceRepository,
+                                         MeterRegistry meterRegistry) {
+        this.parkingSessionRepository = parkingSessionRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.parkingSpaceRepository = parkingSpaceRepository;
+
+        hits = Counter.builder(METRIC_PREFIX + ".lookups").tag("result", "hit")
+                .description("Active session lookups that found a session")
+                .register(meterRegistry);
+        misses = Counter.builder(METRIC_PREFIX + ".lookups").tag("result", "miss")
+                .description("Active session lookups that found no session")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".size", byVehicleId, Map::size)
+                .description("Active sessions held in memory")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".hit.ratio", this, InMemoryActiveSessionRegistry::hitRatio)
+                .description("Share of active session lookups that found a session")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rebuilds the registry from the database: active sessions, their vehicles and occupied spaces.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ParkingSession> sessions = parkingSessionRepository.findAllActiveSessions();
+        Map<Long, Vehicle> vehiclesById = vehicleRepository.findAllByIds(
+                        sessions.stream().map(ParkingSession::getVehicleId).toList()).stream()
+                .collect(Collectors.toMap(Vehicle::getId, Function.identity()));
+        Map<Long, String> spaceNumbersById = parkingSpaceRepository.findAllOccupied().stream()
+                .collect(Collectors.toMap(ParkingSpace::getId, ParkingSpace::getSpaceNumber));
+
+        byLicensePlate.clear();
+        byVehicleId.clear();
+        for (ParkingSession session : sessions) {
+            Vehicle vehicle = vehiclesById.get(session.getVehicleId());
+            if (vehicle == null) {
+                log.warn("Active session {} references missing vehicle {}, not registered",
+                        session.getId(), session.getVehicleId());
+                continue;
+            }
+            put(ActiveSessionSummary.of(session, vehicle.getLicensePlate(), vehicle.getVehicleTypeId(),
+                    spaceNumbersById.get(session.getParkingSpaceId())));
+        }
+        log.info("Active session registry rebuilt: {} active sessions", byVehicleId.size());
+    }
+
+    @Override
+    public Optional<ActiveSessionSummary> findByLicensePlate(String licensePlate) {
+        if (licensePlate == null) {
+            return Optional.empty();
+        }
+        return record(byLicensePlate.get(licensePlate.toUpperCase().trim()));
+    }
+
+    @Override
+    public Optional<ActiveSessionSummary> findByVehicleId(Long vehicleId) {
+        if (vehicleId == null) {
+            return Optional.empty();
+        }
+        return record(byVehicleId.get(vehicleId));
+    }
+
+    @Override
+    public void register(ActiveSessionSummary summary) {
+        afterCommit(() -> put(summary));
+    }
+
+    @Override
+    public void unregister(ParkingSession session) {
+        Long sessionId = session.getId();
+        Long vehicleId = session.getVehicleId();
+
+        afterCommit(() -> {
+            // Solo se quita si sigue siendo la misma sesión (no una más nueva del mismo vehículo)
+            ActiveSessionSummary current = byVehicleId.get(vehicleId);
+            if (current != null && current.sessionId().equals(sessionId) && byVehicleId.remove(vehicleId, current)) {
+                byLicensePlate.remove(current.licensePlate(), current);
+            }
+        });
+    }
+
+    @Override
+    public void evict(ActiveSessionSummary summary) {
+        if (byVehicleId.remove(summary.vehicleId(), summary)) {
+            byLicensePlate.remove(summary.licensePlate(), summary);
+            log.debug("Evicted stale active session {} of vehicle {}", summary.sessionId(), summary.vehicleId());
+        }
+    }
+
+    @Override
+    public int size() {
+        return byVehicleId.size();
+    }
+
+    double hitRatio() {
+        double lookups = hits.count() + misses.count();
+        return lookups == 0 ? 0.0 : hits.count() / lookups;
+    }
+
+    private void put(ActiveSessionSummary summary) {
+        ActiveSessionSummary previous = byVehicleId.put(summary.vehicleId(), summary);
+        if (previous != null) {
+            byLicensePlate.remove(previous.licensePlate(), previous);
+        }
+        byLicensePlate.put(summary.licensePlate(), summary);
+    }
+
+    private Optional<ActiveSessionSummary> record(ActiveSessionSummary summary) {
+        (summary != null ? hits : misses).increment();
+        return Optional.ofNullable(summary);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.repository;
+
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Escrituras masivas de sesiones de parqueo por JDBC, sin pasar por el contexto de persistencia.
+ * Las inserciones llegan con ID (ParkingSessionIdGenerator) y ticket ya asignados, así que todo
+ * el lote viaja en un solo batch; los cierres son un único UPDATE ... RETURNING sobre el conjunto.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ParkingSessionBatchJdbcRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO parking_sessions (id, vehicle_id, parking_space_id, entry_time, exit_time,
+                                          operator_entry_id, operator_exit_id, is_active, ticket_code,
+                                          created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // La condición is_active = true hace que dos cierres concurrentes no cierren dos veces la misma sesión
+    private static final String CLOSE_ACTIVE_SQL = """
+            UPDATE parking_sessions
+            SET is_active = false, exit_time = ?, operator_exit_id = ?, updated_at = ?
+            WHERE id = ANY(?) AND is_active = true
+            RETURNING id, vehicle_id, parking_space_id, entry_time, exit_time, operator_entry_id,
+                      operator_exit_id, is_active, ticket_code, created_at, updated_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<ParkingSession> sessions) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, sessions, sessions.size(), (ps, session) -> {
+            ps.setLong(1, session.getId());
+            ps.setLong(2, session.getVehicleId());
+            ps.setLong(3, session.getParkingSpaceId());
+            ps.setTimestamp(4, toTimestamp(session.getEntryTime()));
+            ps.setTimestamp(5, toTimestamp(session.getExitTime()));
+            ps.setLong(6, session.getOperatorEntryId());
+            ps.setObject(7, session.getOperatorExitId());
+            ps.setBoolean(8, session.getIsActive());
+            ps.setString(9, session.getTicketCode());
+            ps.setTimestamp(10, toTimestamp(session.getCreatedAt()));
+            ps.setTimestamp(11, toTimestamp(session.getUpdatedAt()));
+        });
+        log.debug("Inserted {} parking sessions in one batch", sessions.size());
+    }
+
+    public List<ParkingSession> closeActiveSessions(Collection<Long> sessionIds, Long operatorExitId, LocalDateTime exitTime) {
+        Timestamp exit = toTimestamp(exitTime);
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(CLOSE_ACTIVE_SQL);
+            ps.setTimestamp(1, exit);
+            ps.setLong(2, operatorExitId);
+            ps.setTimestamp(3, exit);
+            ps.setArray(4, connection.createArrayOf("bigint", sessionIds.toArray()));
+            return ps;
+        }, (rs, rowNum) -> mapSession(rs));
+    }
+
+    private ParkingSession mapSession(ResultSet rs) throws SQLException {
+        return new ParkingSession(
+                rs.getLong("id"),
+                rs.getLong("vehicle_id"),
+                rs.getLong("parking_space_id"),
+                toLocalDateTime(rs.getTimestamp("entry_time")),
+                toLocalDateTime(rs.getTimestamp("exit_time")),
+                rs.getLong("operator_entry_id"),
+                rs.getObject("operator_exit_id", Long.class),
+                rs.getBoolean("is_active"),
+                rs.getString("ticket_code"),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("updated_at"))
+        );
+    }
+
+    private LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+}
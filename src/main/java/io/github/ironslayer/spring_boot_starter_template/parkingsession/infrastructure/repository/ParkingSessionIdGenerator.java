@@ -0,0 +1,48 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Genera IDs de sesión por bloques a partir de la secuencia parking_sessions_seq.
+ * La secuencia avanza de BLOCK_SIZE en BLOCK_SIZE, así que solo se consulta la BD
+ * una vez cada BLOCK_SIZE sesiones (mismo esquema "pooled" que usa Hibernate).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ParkingSessionIdGenerator {
+
+    static final String SEQUENCE_NAME = "parking_sessions_seq";
+    static final int BLOCK_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private long nextId;
+    private long blockEnd = -1;
+
+    /**
+     * Si la secuencia (creada por la migración V1) nunca se ha usado, la alinea con los IDs
+     * ya presentes en parking_sessions (tablas creadas antes con IDENTITY).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareSequence() {
+        jdbcTemplate.query("SELECT setval('" + SEQUENCE_NAME + "', " +
+                "GREATEST((SELECT COALESCE(MAX(id), 0) + 1 FROM parking_sessions), last_value), false) " +
+                "FROM " + SEQUENCE_NAME + " WHERE NOT is_called", rs -> { });
+        log.info("Parking session id sequence ready (block size {})", BLOCK_SIZE);
+    }
+
+    public synchronized long nextId() {
+        if (nextId > blockEnd) {
+            Long blockStart = jdbcTemplate.queryForObject("SELECT nextval('" + SEQUENCE_NAME + "')", Long.class);
+            nextId = blockStart;
+            blockEnd = blockStart + BLOCK_SIZE - 1;
+        }
+        return nextId++;
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,12 +29,30 @@ public interface ParkingSessionJpaRepository extends JpaRepository<ParkingSessio
     @Query("SELECT ps FROM ParkingSessionEntity ps WHERE ps.ticketCode = :ticketCode")
     Optional<ParkingSessionEntity> findByTicketCode(@Param("ticketCode") String ticketCode);
     
+    /**
+     * Sesiones activas de varios vehículos
+     */
+    @Query("SELECT ps FROM ParkingSessionEntity ps WHERE ps.vehicleId IN :vehicleIds AND ps.isActive = true")
+    List<ParkingSessionEntity> findActiveSessionsByVehicleIds(@Param("vehicleIds") Collection<Long> vehicleIds);
+    
+    /**
+     * Sesiones activas con alguno de los códigos de ticket dados
+     */
+    @Query("SELECT ps FROM ParkingSessionEntity ps WHERE ps.ticketCode IN :ticketCodes AND ps.isActive = true")
+    List<ParkingSessionEntity> findActiveSessionsByTicketCodes(@Param("ticketCodes") Collection<String> ticketCodes);
+    
     /**
      * Verifica si un vehículo tiene una sesión activa
      */
     @Query("SELECT COUNT(ps) > 0 FROM ParkingSessionEntity ps WHERE ps.vehicleId = :vehicleId AND ps.isActive = true")
     boolean hasActiveSession(@Param("vehicleId") Long vehicleId);
     
+    /**
+     * IDs de los vehículos (de la colección dada) que tienen una sesión activa
+     */
+    @Query("SELECT ps.vehicleId FROM ParkingSessionEntity ps WHERE ps.vehicleId IN :vehicleIds AND ps.isActive = true")
+    List<Long> findVehicleIdsWithActiveSession(@Param("vehicleIds") Collection<Long> vehicleIds);
+    
     /**
      * Obtiene todas las sesiones activas
      */
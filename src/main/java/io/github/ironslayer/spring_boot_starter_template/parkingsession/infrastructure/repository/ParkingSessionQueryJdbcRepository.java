@@ -0,0 +1,100 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.repository;
+
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ActiveSessionView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Consultas de lectura de sesiones por JDBC que devuelven proyecciones listas para la API,
+ * resolviendo vehículo, tipo, espacio y operador con JOINs en lugar de una consulta por fila.
+ * Las páginas usan keyset sobre (entry_time, id), así que su costo no crece con la posición,
+ * y el recorrido completo lee con un cursor del servidor por bloques de STREAM_FETCH_SIZE filas.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ParkingSessionQueryJdbcRepository {
+
+    static final int STREAM_FETCH_SIZE = 500;
+
+    // LEFT JOIN: una referencia rota no oculta la sesión, el handler la muestra como "Unknown"
+    private static final String ACTIVE_SESSION_VIEWS_SELECT = """
+            SELECT s.id, s.entry_time, v.license_plate, vt.name AS vehicle_type, sp.space_number,
+                   u.firstname, u.lastname
+            FROM parking_sessions s
+            LEFT JOIN vehicles v ON v.id = s.vehicle_id
+            LEFT JOIN vehicle_types vt ON vt.id = v.vehicle_type_id
+            LEFT JOIN parking_spaces sp ON sp.id = s.parking_space_id
+            LEFT JOIN users u ON u.id = s.operator_entry_id
+            WHERE s.is_active = true
+            """;
+
+    private static final String ACTIVE_SESSION_VIEWS_ORDER = """
+            ORDER BY s.entry_time DESC, s.id DESC
+            """;
+
+    private static final String ACTIVE_SESSION_VIEWS_SQL = ACTIVE_SESSION_VIEWS_SELECT + ACTIVE_SESSION_VIEWS_ORDER;
+
+    private static final String ACTIVE_SESSION_VIEWS_FIRST_PAGE_SQL =
+            ACTIVE_SESSION_VIEWS_SELECT + ACTIVE_SESSION_VIEWS_ORDER + "LIMIT ?";
+
+    // Comparación de filas: sigue justo después de la última sesión devuelta, aunque compartan entry_time
+    private static final String ACTIVE_SESSION_VIEWS_NEXT_PAGE_SQL = ACTIVE_SESSION_VIEWS_SELECT + """
+            AND (s.entry_time, s.id) < (?, ?)
+            """ + ACTIVE_SESSION_VIEWS_ORDER + "LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<ActiveSessionView> findActiveSessionViews() {
+        return jdbcTemplate.query(ACTIVE_SESSION_VIEWS_SQL, (rs, rowNum) -> mapActiveSessionView(rs));
+    }
+
+    /**
+     * Página de sesiones activas posteriores (en orden descendente) a la sesión (entryTime, sessionId);
+     * sin posición de referencia devuelve la primera página.
+     */
+    public List<ActiveSessionView> findActiveSessionViewsPage(LocalDateTime afterEntryTime, Long afterSessionId, int limit) {
+        if (afterEntryTime == null || afterSessionId == null) {
+            return jdbcTemplate.query(ACTIVE_SESSION_VIEWS_FIRST_PAGE_SQL,
+                    (rs, rowNum) -> mapActiveSessionView(rs), limit);
+        }
+        return jdbcTemplate.query(ACTIVE_SESSION_VIEWS_NEXT_PAGE_SQL,
+                (rs, rowNum) -> mapActiveSessionView(rs), Timestamp.valueOf(afterEntryTime), afterSessionId, limit);
+    }
+
+    /**
+     * Recorre todas las sesiones activas sin cargarlas en memoria. PostgreSQL solo usa un cursor
+     * (fetch size) dentro de una transacción, de ahí el @Transactional de solo lectura.
+     */
+    @Transactional(readOnly = true)
+    public void streamActiveSessionViews(Consumer<ActiveSessionView> action) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(ACTIVE_SESSION_VIEWS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> action.accept(mapActiveSessionView(rs)));
+    }
+
+    private ActiveSessionView mapActiveSessionView(ResultSet rs) throws SQLException {
+        String firstname = rs.getString("firstname");
+        return new ActiveSessionView(
+                rs.getLong("id"),
+                rs.getString("license_plate"),
+                rs.getString("vehicle_type"),
+                rs.getString("space_number"),
+                rs.getTimestamp("entry_time").toLocalDateTime(),
+                firstname != null ? firstname + " " + rs.getString("lastname") : null
+        );
+    }
+}
@@ -1,15 +1,22 @@
 package io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.repository;
 
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ActiveSessionView;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.entity.ParkingSessionEntity;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.mapper.ParkingSessionMapper;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.exception.VehicleAlreadyParkedException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Implementación del repositorio de sesiones de parqueo.
@@ -19,22 +26,87 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class ParkingSessionRepositoryImpl implements ParkingSessionRepository {
     
+    private static final String ACTIVE_VEHICLE_INDEX = "idx_parking_sessions_active_vehicle";
+    
     private final ParkingSessionJpaRepository jpaRepository;
     private final ParkingSessionMapper mapper;
+    private final ParkingSessionIdGenerator idGenerator;
+    private final ParkingSessionBatchJdbcRepository batchRepository;
+    private final ParkingSessionQueryJdbcRepository queryRepository;
     
     @Override
     public ParkingSession save(ParkingSession parkingSession) {
+        if (parkingSession.getId() == null) {
+            parkingSession.setId(nextId());
+            return insert(parkingSession);
+        }
         ParkingSessionEntity entity = mapper.toEntity(parkingSession);
         ParkingSessionEntity savedEntity = jpaRepository.save(entity);
         return mapper.toDomain(savedEntity);
     }
     
+    @Override
+    public Long nextId() {
+        return idGenerator.nextId();
+    }
+    
+    @Override
+    public ParkingSession insert(ParkingSession parkingSession) {
+        ParkingSessionEntity entity = mapper.toEntity(parkingSession);
+        entity.markNew();
+        try {
+            // flush inmediato: la violación del índice único llega aquí y no al commit
+            ParkingSessionEntity savedEntity = jpaRepository.saveAndFlush(entity);
+            return mapper.toDomain(savedEntity);
+        } catch (DataIntegrityViolationException e) {
+            if (isActiveVehicleViolation(e)) {
+                throw new VehicleAlreadyParkedException(parkingSession.getVehicleId());
+            }
+            throw e;
+        }
+    }
+    
+    @Override
+    public void insertAll(List<ParkingSession> parkingSessions) {
+        if (parkingSessions.isEmpty()) {
+            return;
+        }
+        try {
+            batchRepository.insertAll(parkingSessions);
+        } catch (DataIntegrityViolationException e) {
+            if (isActiveVehicleViolation(e)) {
+                throw new VehicleAlreadyParkedException();
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * El índice único parcial idx_parking_sessions_active_vehicle (V2__hot_path_indexes.sql) es la
+     * garantía definitiva de una sola sesión activa por vehículo; ActiveSessionRegistry solo la adelanta.
+     */
+    private static boolean isActiveVehicleViolation(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.contains(ACTIVE_VEHICLE_INDEX);
+    }
+    
     @Override
     public Optional<ParkingSession> findById(Long id) {
         return jpaRepository.findById(id)
                 .map(mapper::toDomain);
     }
     
+    @Override
+    public List<ParkingSession> findAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jpaRepository.findAllById(ids)
+                .stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+    
     @Override
     public Optional<ParkingSession> findActiveSessionByVehicleId(Long vehicleId) {
         return jpaRepository.findActiveSessionByVehicleId(vehicleId)
@@ -47,11 +119,49 @@ public class ParkingSessionRepositoryImpl implements ParkingSessionRepository {
                 .map(mapper::toDomain);
     }
     
+    @Override
+    public List<ParkingSession> findActiveSessionsByVehicleIds(Collection<Long> vehicleIds) {
+        if (vehicleIds.isEmpty()) {
+            return List.of();
+        }
+        return jpaRepository.findActiveSessionsByVehicleIds(vehicleIds)
+                .stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+    
+    @Override
+    public List<ParkingSession> findActiveSessionsByTicketCodes(Collection<String> ticketCodes) {
+        if (ticketCodes.isEmpty()) {
+            return List.of();
+        }
+        return jpaRepository.findActiveSessionsByTicketCodes(ticketCodes)
+                .stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+    
+    @Override
+    public List<ParkingSession> closeActiveSessions(Collection<Long> sessionIds, Long operatorExitId, LocalDateTime exitTime) {
+        if (sessionIds.isEmpty()) {
+            return List.of();
+        }
+        return batchRepository.closeActiveSessions(sessionIds, operatorExitId, exitTime);
+    }
+    
     @Override
     public boolean hasActiveSession(Long vehicleId) {
         return jpaRepository.hasActiveSession(vehicleId);
     }
     
+    @Override
+    public Set<Long> findVehicleIdsWithActiveSession(Collection<Long> vehicleIds) {
+        if (vehicleIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jpaRepository.findVehicleIdsWithActiveSession(vehicleIds));
+    }
+    
     @Override
     public List<ParkingSession> findAllActiveSessions() {
         return jpaRepository.findAllActiveSessions()
@@ -60,6 +170,21 @@ public class ParkingSessionRepositoryImpl implements ParkingSessionRepository {
                 .toList();
     }
     
+    @Override
+    public List<ActiveSessionView> findActiveSessionViews() {
+        return queryRepository.findActiveSessionViews();
+    }
+    
+    @Override
+    public List<ActiveSessionView> findActiveSessionViewsPage(LocalDateTime afterEntryTime, Long afterSessionId, int limit) {
+        return queryRepository.findActiveSessionViewsPage(afterEntryTime, afterSessionId, limit);
+    }
+    
+    @Override
+    public void streamActiveSessionViews(Consumer<ActiveSessionView> action) {
+        queryRepository.streamActiveSessionViews(action);
+    }
+    
     @Override
     public List<ParkingSession> findSessionsByVehicleId(Long vehicleId) {
         return jpaRepository.findSessionsByVehicleId(vehicleId)
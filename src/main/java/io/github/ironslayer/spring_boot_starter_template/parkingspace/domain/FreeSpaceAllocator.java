@@ -0,0 +1,28 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingspace.domain;
+
+import java.util.Optional;
+
+/**
+ * Port for the pool of free parking spaces, grouped by vehicle type.
+ * Lets the entry flow pick a candidate space without scanning the parking_spaces table.
+ * The database remains the source of truth: callers must re-check the candidate they receive.
+ */
+public interface FreeSpaceAllocator {
+
+    /**
+     * Takes a free space for the given vehicle type out of the pool.
+     * If the surrounding transaction rolls back, the space is returned to the pool.
+     */
+    Optional<Long> reserve(Long vehicleTypeId);
+
+    /**
+     * Reflects the current state of a parking space in the pool (available spaces are added,
+     * occupied or inactive ones removed). Applied after commit when a transaction is active.
+     */
+    void sync(ParkingSpace parkingSpace);
+
+    /**
+     * Removes a parking space from the pool (e.g. after it has been deleted).
+     */
+    void evict(Long spaceId);
+}
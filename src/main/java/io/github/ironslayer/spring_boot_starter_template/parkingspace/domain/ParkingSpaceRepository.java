@@ -1,5 +1,6 @@
 package io.github.ironslayer.spring_boot_starter_template.parkingspace.domain;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -90,6 +91,33 @@ public interface ParkingSpaceRepository {
      */
     long countAvailableByVehicleType(Long vehicleTypeId);
     
+    /**
+     * Atomically claims a specific parking space for a vehicle, provided it is still active,
+     * free and assigned to the given vehicle type. Single conditional UPDATE: returns empty
+     * if a concurrent transaction claimed it first.
+     */
+    Optional<ParkingSpace> claim(Long spaceId, Long vehicleTypeId, String vehiclePlate);
+    
+    /**
+     * Atomically claims the first available parking space of a vehicle type.
+     * Rows locked by concurrent claims are skipped instead of waited on.
+     * Returns empty if no space is left.
+     */
+    Optional<ParkingSpace> claimFirstAvailable(Long vehicleTypeId, String vehiclePlate);
+    
+    /**
+     * Atomically claims one available space of a vehicle type for each given plate, in a single
+     * set-based UPDATE (lowest free ids first, locked rows skipped). Each returned space carries the
+     * plate it was assigned to; if fewer spaces are free than plates, the trailing plates get none.
+     */
+    List<ParkingSpace> claimAvailable(Long vehicleTypeId, List<String> vehiclePlates);
+    
+    /**
+     * Frees all the given parking spaces in a single UPDATE.
+     * Returns the spaces that were actually occupied and are now free.
+     */
+    List<ParkingSpace> releaseAll(Collection<Long> spaceIds);
+    
     /**
      * Deletes a parking space by ID.
      * Note: This should be used carefully and typically only when the space is not occupied.
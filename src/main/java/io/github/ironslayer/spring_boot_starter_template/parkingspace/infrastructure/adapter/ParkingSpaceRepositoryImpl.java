@@ -1,32 +1,41 @@
 package io.github.ironslayer.spring_boot_starter_template.parkingspace.infrastructure.adapter;
 
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.FreeSpaceAllocator;
 import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpace;
 import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpaceRepository;
 import io.github.ironslayer.spring_boot_starter_template.parkingspace.infrastructure.entity.ParkingSpaceEntity;
 import io.github.ironslayer.spring_boot_starter_template.parkingspace.infrastructure.mapper.ParkingSpaceMapper;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.infrastructure.repository.ParkingSpaceClaimJdbcRepository;
 import io.github.ironslayer.spring_boot_starter_template.parkingspace.infrastructure.repository.ParkingSpaceJpaRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Implementation of ParkingSpaceRepository using Spring Data JPA.
  * Adapts between domain and infrastructure layers.
+ * Every write is mirrored into the FreeSpaceAllocator so the free-space pool follows
+ * the create/occupy/free/update flows without each handler having to remember it.
  */
 @Component
 @RequiredArgsConstructor
 public class ParkingSpaceRepositoryImpl implements ParkingSpaceRepository {
     
     private final ParkingSpaceJpaRepository jpaRepository;
+    private final ParkingSpaceClaimJdbcRepository claimRepository;
     private final ParkingSpaceMapper mapper;
+    private final FreeSpaceAllocator freeSpaceAllocator;
     
     @Override
     public ParkingSpace save(ParkingSpace parkingSpace) {
         ParkingSpaceEntity entity = mapper.toEntity(parkingSpace);
         ParkingSpaceEntity saved = jpaRepository.save(entity);
-        return mapper.toDomain(saved);
+        ParkingSpace savedSpace = mapper.toDomain(saved);
+        freeSpaceAllocator.sync(savedSpace);
+        return savedSpace;
     }
     
     @Override
@@ -125,8 +134,53 @@ public class ParkingSpaceRepositoryImpl implements ParkingSpaceRepository {
         return jpaRepository.countAvailableByVehicleTypeId(vehicleTypeId);
     }
     
+    @Override
+    public Optional<ParkingSpace> claim(Long spaceId, Long vehicleTypeId, String vehiclePlate) {
+        Optional<ParkingSpace> claimed = claimRepository.claim(spaceId, vehicleTypeId, normalizePlate(vehiclePlate));
+        claimed.ifPresent(freeSpaceAllocator::sync);
+        return claimed;
+    }
+    
+    @Override
+    public Optional<ParkingSpace> claimFirstAvailable(Long vehicleTypeId, String vehiclePlate) {
+        Optional<ParkingSpace> claimed = claimRepository.claimFirstAvailable(vehicleTypeId, normalizePlate(vehiclePlate));
+        claimed.ifPresent(freeSpaceAllocator::sync);
+        return claimed;
+    }
+    
+    @Override
+    public List<ParkingSpace> claimAvailable(Long vehicleTypeId, List<String> vehiclePlates) {
+        if (vehiclePlates.isEmpty()) {
+            return List.of();
+        }
+        List<String> plates = vehiclePlates.stream()
+                .map(this::normalizePlate)
+                .toList();
+        List<ParkingSpace> claimed = claimRepository.claimAvailable(vehicleTypeId, plates);
+        claimed.forEach(freeSpaceAllocator::sync);
+        return claimed;
+    }
+    
+    @Override
+    public List<ParkingSpace> releaseAll(Collection<Long> spaceIds) {
+        if (spaceIds.isEmpty()) {
+            return List.of();
+        }
+        List<ParkingSpace> released = claimRepository.releaseAll(spaceIds);
+        released.forEach(freeSpaceAllocator::sync);
+        return released;
+    }
+    
     @Override
     public void deleteById(Long id) {
         jpaRepository.deleteById(id);
+        freeSpaceAllocator.evict(id);
+    }
+    
+    private String normalizePlate(String vehiclePlate) {
+        if (vehiclePlate == null || vehiclePlate.trim().isEmpty()) {
+            throw new IllegalArgumentException("Vehicle plate cannot be null or empty");
+        }
+        return vehiclePlate.toUpperCase().trim();
     }
 }
@@ -0,0 +1,211 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingspace.infrastructure.allocator;
+
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.FreeSpaceAllocator;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpace;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.infrastructure.repository.FreeSpaceRef;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.infrastructure.repository.ParkingSpaceJpaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory implementation of FreeSpaceAllocator.
+ * Keeps one free list per vehicle type so picking a candidate is O(1)
+ * instead of loading every available space from the database on each entry.
+ * The pool is rebuilt from the database once the application is ready.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryFreeSpaceAllocator implements FreeSpaceAllocator {
+
+    private final ParkingSpaceJpaRepository jpaRepository;
+
+    private final Map<Long, FreeList> freeListsByVehicleType = new ConcurrentHashMap<>();
+
+    /**
+     * Rebuilds the whole pool from the database.
+     * The free lists are refilled in place, never replaced: a pending rollback in reserve()
+     * still holds the list it took the space from.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<FreeSpaceRef> freeSpaces = jpaRepository.findAllFreeSpaceRefs();
+        Map<Long, Set<Long>> spaceIdsByVehicleType = freeSpaces.stream()
+                .collect(Collectors.groupingBy(FreeSpaceRef::vehicleTypeId,
+                        Collectors.mapping(FreeSpaceRef::spaceId, Collectors.toCollection(LinkedHashSet::new))));
+        freeListsByVehicleType.forEach((typeId, freeList) -> {
+            if (!spaceIdsByVehicleType.containsKey(typeId)) {
+                freeList.replaceWith(Set.of());
+            }
+        });
+        spaceIdsByVehicleType.forEach((typeId, spaceIds) -> freeList(typeId).replaceWith(spaceIds));
+        log.info("Free space pool rebuilt: {} free spaces in {} vehicle types",
+                freeSpaces.size(), freeListsByVehicleType.size());
+    }
+
+    @Override
+    public Optional<Long> reserve(Long vehicleTypeId) {
+        FreeList freeList = freeListsByVehicleType.get(vehicleTypeId);
+        Long spaceId = freeList != null ? freeList.poll() : null;
+        if (spaceId == null) {
+            return Optional.empty();
+        }
+
+        // Si la transacción no confirma, el espacio vuelve al pool
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        freeList.add(spaceId);
+                    }
+                }
+            });
+        }
+        return Optional.of(spaceId);
+    }
+
+    @Override
+    public void sync(ParkingSpace parkingSpace) {
+        if (parkingSpace.getId() == null) {
+            return;
+        }
+        Long spaceId = parkingSpace.getId();
+        Long vehicleTypeId = parkingSpace.getVehicleTypeId();
+        boolean available = parkingSpace.isAvailable();
+
+        afterCommit(() -> {
+            // El tipo de vehículo puede haber cambiado: se quita de cualquier otra lista
+            freeListsByVehicleType.forEach((typeId, freeList) -> {
+                if (!available || !typeId.equals(vehicleTypeId)) {
+                    freeList.remove(spaceId);
+                }
+            });
+            if (available && vehicleTypeId != null) {
+                freeList(vehicleTypeId).add(spaceId);
+            }
+        });
+    }
+
+    @Override
+    public void evict(Long spaceId) {
+        afterCommit(() -> freeListsByVehicleType.values().forEach(freeList -> freeList.remove(spaceId)));
+    }
+
+    /**
+     * Number of free spaces currently in the pool for a vehicle type.
+     */
+    public int availableCount(Long vehicleTypeId) {
+        FreeList freeList = freeListsByVehicleType.get(vehicleTypeId);
+        return freeList != null ? freeList.size() : 0;
+    }
+
+    private FreeList freeList(Long vehicleTypeId) {
+        return freeListsByVehicleType.computeIfAbsent(vehicleTypeId, id -> new FreeList());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Free list: the member set is the source of truth and the queue keeps FIFO order.
+     * Removals only touch the concurrent set and take no lock; the queue and its entry count are
+     * only changed under the list's monitor, so compaction never races with add or poll.
+     * Stale queue entries are skipped lazily by poll(), so add, remove and poll are all amortized O(1).
+     * A space removed and added again without a poll in between (sync, evict) leaves a stale entry
+     * behind; once the queue holds more than COMPACT_FACTOR times the members (plus COMPACT_SLACK)
+     * it is compacted, so it stays bounded even when nothing is polled.
+     */
+    static final class FreeList {
+
+        static final int COMPACT_FACTOR = 2;
+        static final int COMPACT_SLACK = 64;
+
+        private final Set<Long> members = ConcurrentHashMap.newKeySet();
+        // Protegidos por el monitor de la lista
+        private final Queue<Long> order = new ArrayDeque<>();
+        private int queued;
+
+        void add(Long spaceId) {
+            if (members.add(spaceId)) {
+                synchronized (this) {
+                    order.offer(spaceId);
+                    if (++queued > COMPACT_FACTOR * members.size() + COMPACT_SLACK) {
+                        compact();
+                    }
+                }
+            }
+        }
+
+        void remove(Long spaceId) {
+            members.remove(spaceId);
+        }
+
+        synchronized Long poll() {
+            Long spaceId;
+            while ((spaceId = order.poll()) != null) {
+                queued--;
+                // remove() no toma el monitor: solo cuenta si sigue en el conjunto
+                if (members.remove(spaceId)) {
+                    return spaceId;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Deja exactamente estos espacios, conservando el orden de los que ya estaban
+         */
+        void replaceWith(Set<Long> spaceIds) {
+            members.retainAll(spaceIds);
+            spaceIds.forEach(this::add);
+            synchronized (this) {
+                compact();
+            }
+        }
+
+        int size() {
+            return members.size();
+        }
+
+        synchronized int queuedEntries() {
+            return queued;
+        }
+
+        /**
+         * Quita del orden las entradas de espacios que ya no están y los duplicados,
+         * dejando la primera aparición de cada miembro. Se llama con el monitor tomado.
+         */
+        private void compact() {
+            Set<Long> seen = new HashSet<>();
+            order.removeIf(spaceId -> !members.contains(spaceId) || !seen.add(spaceId));
+            queued = order.size();
+        }
+    }
+}
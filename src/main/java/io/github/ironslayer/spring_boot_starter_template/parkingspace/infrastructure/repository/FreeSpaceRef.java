@@ -0,0 +1,7 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingspace.infrastructure.repository;
+
+/**
+ * Projection of a free parking space: just what the free-space pool needs.
+ */
+public record FreeSpaceRef(Long spaceId, Long vehicleTypeId) {
+}
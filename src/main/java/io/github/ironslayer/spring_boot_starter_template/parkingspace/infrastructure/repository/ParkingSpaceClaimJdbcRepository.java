@@ -0,0 +1,150 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingspace.infrastructure.repository;
+
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpace;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Claims and releases parking spaces with single-statement UPDATE ... RETURNING queries.
+ * The row lock taken by the UPDATE is what makes a claim race-free: no entity is loaded
+ * or merged, and concurrent claimers never end up with the same space.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ParkingSpaceClaimJdbcRepository {
+
+    private static final String RETURNING_COLUMNS = """
+            RETURNING id, space_number, vehicle_type_id, is_occupied, is_active,
+                      created_at, updated_at, occupied_by_vehicle_plate, occupied_at
+            """;
+
+    private static final String CLAIM_BY_ID_SQL = """
+            UPDATE parking_spaces
+            SET is_occupied = true, occupied_by_vehicle_plate = ?, occupied_at = ?, updated_at = ?
+            WHERE id = ? AND vehicle_type_id = ? AND is_active = true AND is_occupied = false
+            """ + RETURNING_COLUMNS;
+
+    // El subselect bloquea la fila elegida; las filas ya bloqueadas por otro claim se saltan
+    private static final String CLAIM_FIRST_AVAILABLE_SQL = """
+            UPDATE parking_spaces
+            SET is_occupied = true, occupied_by_vehicle_plate = ?, occupied_at = ?, updated_at = ?
+            WHERE id = (
+                SELECT id FROM parking_spaces
+                WHERE vehicle_type_id = ? AND is_active = true AND is_occupied = false
+                ORDER BY id
+                LIMIT 1
+                FOR UPDATE SKIP LOCKED
+            )
+            AND is_occupied = false
+            """ + RETURNING_COLUMNS;
+
+    // Numera los espacios libres bloqueados y los empareja por posición con las placas del array;
+    // row_number() va fuera del subselect porque no se puede combinar con FOR UPDATE
+    private static final String CLAIM_AVAILABLE_SQL = """
+            WITH picked AS (
+                SELECT id FROM parking_spaces
+                WHERE vehicle_type_id = ? AND is_active = true AND is_occupied = false
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ), numbered AS (
+                SELECT id, row_number() OVER (ORDER BY id) AS position FROM picked
+            ), plates AS (
+                SELECT plate, position FROM unnest(?::text[]) WITH ORDINALITY AS p(plate, position)
+            )
+            UPDATE parking_spaces ps
+            SET is_occupied = true, occupied_by_vehicle_plate = plates.plate, occupied_at = ?, updated_at = ?
+            FROM numbered JOIN plates ON plates.position = numbered.position
+            WHERE ps.id = numbered.id AND ps.is_occupied = false
+            RETURNING ps.id, ps.space_number, ps.vehicle_type_id, ps.is_occupied, ps.is_active,
+                      ps.created_at, ps.updated_at, ps.occupied_by_vehicle_plate, ps.occupied_at
+            """;
+
+    private static final String RELEASE_ALL_SQL = """
+            UPDATE parking_spaces
+            SET is_occupied = false, occupied_by_vehicle_plate = NULL, occupied_at = NULL, updated_at = ?
+            WHERE id = ANY(?) AND is_occupied = true
+            """ + RETURNING_COLUMNS;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<ParkingSpace> claim(Long spaceId, Long vehicleTypeId, String vehiclePlate) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<ParkingSpace> claimed = jdbcTemplate.query(CLAIM_BY_ID_SQL, new ParkingSpaceRowMapper(),
+                vehiclePlate, now, now, spaceId, vehicleTypeId);
+        return claimed.stream().findFirst();
+    }
+
+    public Optional<ParkingSpace> claimFirstAvailable(Long vehicleTypeId, String vehiclePlate) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<ParkingSpace> claimed = jdbcTemplate.query(CLAIM_FIRST_AVAILABLE_SQL, new ParkingSpaceRowMapper(),
+                vehiclePlate, now, now, vehicleTypeId);
+        if (claimed.isEmpty()) {
+            log.debug("No free parking space left to claim for vehicle type {}", vehicleTypeId);
+        }
+        return claimed.stream().findFirst();
+    }
+
+    public List<ParkingSpace> claimAvailable(Long vehicleTypeId, List<String> vehiclePlates) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<ParkingSpace> claimed = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(CLAIM_AVAILABLE_SQL);
+            ps.setLong(1, vehicleTypeId);
+            ps.setInt(2, vehiclePlates.size());
+            ps.setArray(3, connection.createArrayOf("text", vehiclePlates.toArray()));
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+            return ps;
+        }, new ParkingSpaceRowMapper());
+        if (claimed.size() < vehiclePlates.size()) {
+            log.debug("Only {} of {} parking spaces could be claimed for vehicle type {}",
+                    claimed.size(), vehiclePlates.size(), vehicleTypeId);
+        }
+        return claimed;
+    }
+
+    public List<ParkingSpace> releaseAll(Collection<Long> spaceIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(RELEASE_ALL_SQL);
+            ps.setTimestamp(1, now);
+            ps.setArray(2, connection.createArrayOf("bigint", spaceIds.toArray()));
+            return ps;
+        }, new ParkingSpaceRowMapper());
+    }
+
+    private static class ParkingSpaceRowMapper implements RowMapper<ParkingSpace> {
+        @Override
+        public ParkingSpace mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
+            return new ParkingSpace(
+                    rs.getLong("id"),
+                    rs.getString("space_number"),
+                    rs.getLong("vehicle_type_id"),
+                    rs.getBoolean("is_occupied"),
+                    rs.getBoolean("is_active"),
+                    toLocalDateTime(rs.getTimestamp("created_at")),
+                    toLocalDateTime(rs.getTimestamp("updated_at")),
+                    rs.getString("occupied_by_vehicle_plate"),
+                    toLocalDateTime(rs.getTimestamp("occupied_at"))
+            );
+        }
+
+        private LocalDateTime toLocalDateTime(Timestamp timestamp) {
+            return timestamp != null ? timestamp.toLocalDateTime() : null;
+        }
+    }
+}
@@ -78,4 +78,12 @@ public interface ParkingSpaceJpaRepository extends JpaRepository<ParkingSpaceEnt
      */
     @Query("SELECT COUNT(p) FROM ParkingSpaceEntity p WHERE p.isActive = true AND p.isOccupied = false AND p.vehicleTypeId = :vehicleTypeId")
     long countAvailableByVehicleTypeId(@Param("vehicleTypeId") Long vehicleTypeId);
+    
+    /**
+     * Find id and vehicle type of every available parking space, ordered by id.
+     * Lightweight projection used to rebuild the in-memory free-space pool.
+     */
+    @Query("SELECT new io.github.ironslayer.spring_boot_starter_template.parkingspace.infrastructure.repository.FreeSpaceRef(p.id, p.vehicleTypeId) " +
+           "FROM ParkingSpaceEntity p WHERE p.isActive = true AND p.isOccupied = false ORDER BY p.id")
+    List<FreeSpaceRef> findAllFreeSpaceRefs();
 }
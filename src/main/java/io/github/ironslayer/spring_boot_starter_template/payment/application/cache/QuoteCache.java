@@ -0,0 +1,101 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.application.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Cotizaciones de sesiones finalizadas en memoria.
+ * Kioscos y caja piden /payments/calculate varias veces por la misma sesión mientras
+ * el cliente está en el mostrador; una vez fijada la salida, la cotización solo cambia
+ * con la versión de la tabla de tarifas (RateTableSnapshot.version), que forma parte de la clave.
+ * Al cambiar las tarifas las entradas viejas dejan de consultarse y salen por tamaño.
+ *
+ * Acotada por cantidad de entradas (app.payments.quote-cache.max-size): al superarla
+ * se descarta la usada hace más tiempo.
+ * Métricas: payment.quote.cache.size, payment.quote.cache.hits y payment.quote.cache.misses.
+ */
+@Component
+@Slf4j
+public class QuoteCache {
+
+    static final String METRIC_PREFIX = "payment.quote.cache";
+
+    private final int maxSize;
+    private final Map<QuoteKey, SessionQuote> quotes;
+    private final Counter hits;
+    private final Counter misses;
+
+    public QuoteCache(MeterRegistry meterRegistry,
+                      @Value("${app.payments.quote-cache.max-size:10000}") int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Quote cache max size must be greater than 0");
+        }
+        this.maxSize = maxSize;
+        // LinkedHashMap en orden de acceso: la primera entrada es la usada hace más tiempo
+        this.quotes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<QuoteKey, SessionQuote> eldest) {
+                return size() > QuoteCache.this.maxSize;
+            }
+        };
+
+        Gauge.builder(METRIC_PREFIX + ".size", this, QuoteCache::size)
+                .description("Quotes of closed parking sessions held in memory")
+                .register(meterRegistry);
+        this.hits = Counter.builder(METRIC_PREFIX + ".hits")
+                .description("Quotes answered from memory")
+                .register(meterRegistry);
+        this.misses = Counter.builder(METRIC_PREFIX + ".misses")
+                .description("Quotes that had to be calculated")
+                .register(meterRegistry);
+    }
+
+    public Optional<SessionQuote> find(Long parkingSessionId, long rateVersion) {
+        SessionQuote quote;
+        synchronized (quotes) {
+            quote = quotes.get(new QuoteKey(parkingSessionId, rateVersion));
+        }
+        (quote != null ? hits : misses).increment();
+        return Optional.ofNullable(quote);
+    }
+
+    public void put(Long parkingSessionId, long rateVersion, SessionQuote quote) {
+        synchronized (quotes) {
+            quotes.put(new QuoteKey(parkingSessionId, rateVersion), quote);
+        }
+    }
+
+    /**
+     * Devuelve la cotización guardada o la calcula con loader y la guarda.
+     * loader corre fuera del candado (puede consultar la BD); si lanza una excepción no se guarda nada.
+     * Solo debe usarse con sesiones finalizadas.
+     */
+    public SessionQuote getOrCompute(Long parkingSessionId, long rateVersion, Supplier<SessionQuote> loader) {
+        Optional<SessionQuote> cached = find(parkingSessionId, rateVersion);
+        if (cached.isPresent()) {
+            log.debug("Quote for session {} (rate table v{}) served from cache", parkingSessionId, rateVersion);
+            return cached.get();
+        }
+        SessionQuote quote = loader.get();
+        put(parkingSessionId, rateVersion, quote);
+        return quote;
+    }
+
+    public int size() {
+        synchronized (quotes) {
+            return quotes.size();
+        }
+    }
+
+    private record QuoteKey(Long parkingSessionId, long rateVersion) {
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.application.cache;
+
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.Tariff;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.TariffEngine;
+
+import java.math.BigDecimal;
+
+/**
+ * Cotización de una sesión finalizada: lo que se cobra y con qué tarifa.
+ * Con la hora de salida fija, solo puede cambiar si cambia la tabla de tarifas,
+ * por eso QuoteCache la guarda por (sesión, versión de la tabla).
+ * Guarda el tipo de vehículo para registrar el pago en el resumen diario de recaudación.
+ */
+public record SessionQuote(Long parkingSessionId,
+                           Long vehicleTypeId,
+                           BigDecimal totalAmount,
+                           BigDecimal hoursParked,
+                           BigDecimal ratePerHour,
+                           Integer minimumChargeHours,
+                           BigDecimal maximumDailyRate) {
+
+    public static SessionQuote of(ParkingSession parkingSession, Long vehicleTypeId, Tariff tariff) {
+        long minutesParked = TariffEngine.minutesBetween(parkingSession.getEntryTime(), parkingSession.getExitTime());
+        return new SessionQuote(
+                parkingSession.getId(),
+                vehicleTypeId,
+                tariff.price(parkingSession.getEntryTime(), minutesParked),
+                TariffEngine.toHours(minutesParked),
+                tariff.ratePerHour(),
+                tariff.minimumChargeHours(),
+                tariff.maximumDailyRate());
+    }
+}
@@ -1,16 +1,22 @@
 package io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPayment;
 
 import io.github.ironslayer.spring_boot_starter_template.common.mediator.RequestHandler;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.port.DashboardCounters;
 import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.exception.ParkingSessionNotFoundException;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.cache.QuoteCache;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.cache.SessionQuote;
 import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.Payment;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.RevenueRollupEntry;
 import io.github.ironslayer.spring_boot_starter_template.payment.domain.exception.PaymentAlreadyExistsException;
 import io.github.ironslayer.spring_boot_starter_template.payment.domain.exception.PaymentCalculationException;
 import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.PaymentRepository;
-import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.entity.RateConfig;
-import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.port.RateConfigRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.RevenueRollupRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.Tariff;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableCache;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableSnapshot;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.entity.User;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.exception.UserNotFoundException;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.port.UserRepository;
@@ -23,9 +29,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.Duration;
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Handler para procesar un pago de una sesión de parqueo.
@@ -41,8 +46,11 @@ public class ProcessPaymentHandler implements RequestHandler<ProcessPaymentReque
     private final PaymentRepository paymentRepository;
     private final ParkingSessionRepository parkingSessionRepository;
     private final VehicleRepository vehicleRepository;
-    private final RateConfigRepository rateConfigRepository;
+    private final RateTableCache rateTableCache;
+    private final QuoteCache quoteCache;
     private final UserRepository userRepository;
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final DashboardCounters dashboardCounters;
     
     @Override
     public Class<ProcessPaymentRequest> getRequestType() {
@@ -65,36 +73,35 @@ public class ProcessPaymentHandler implements RequestHandler<ProcessPaymentReque
         // 4. Validar que la sesión esté finalizada
         validateSessionCompleted(parkingSession);
         
-        // 5. Obtener vehículo y configuración de tarifas
-        Vehicle vehicle = getVehicle(parkingSession.getVehicleId());
-        RateConfig rateConfig = getRateConfig(vehicle.getVehicleTypeId());
+        // 5. Cotización de la sesión: la misma que devolvió /calculate si las tarifas no cambiaron,
+        // si no se obtiene vehículo y tarifa y se calcula
+        RateTableSnapshot rates = rateTableCache.snapshot();
+        SessionQuote quote = quoteCache.getOrCompute(parkingSession.getId(), rates.version(),
+                () -> quoteSession(parkingSession, rates));
         
         // 6. Validar operador (importante para auditoría)
         getOperator(request.getOperatorId());
         
-        // 7. Calcular monto si no fue proporcionado
+        // 7. Usar el monto cotizado si no fue proporcionado
         BigDecimal totalAmount = request.getTotalAmount() != null ? 
             request.getTotalAmount() : 
-            calculatePaymentAmount(parkingSession, rateConfig);
-        
-        // 8. Calcular horas estacionado
-        BigDecimal hoursParked = calculateHoursParked(parkingSession);
+            quote.totalAmount();
         
-        // 9. Crear y guardar el pago
-        Payment payment = createPayment(
+        // 8. Crear el pago ya cobrado y guardarlo con un único INSERT
+        Payment payment = Payment.createPaidPayment(
             request.getParkingSessionId(),
             totalAmount,
-            hoursParked,
-            rateConfig.getRatePerHour(),
+            quote.hoursParked(),
+            quote.ratePerHour(),
             request.getPaymentMethod(),
             request.getOperatorId()
         );
         
         Payment savedPayment = paymentRepository.save(payment);
         
-        // 10. Marcar como pagado inmediatamente
-        savedPayment.markAsPaid();
-        savedPayment = paymentRepository.save(savedPayment);
+        // 9. Sumar el pago al resumen diario de recaudación en la misma transacción
+        revenueRollupRepository.add(List.of(RevenueRollupEntry.of(savedPayment, quote.vehicleTypeId())));
+        dashboardCounters.paymentCollected(savedPayment.getPaidAt(), savedPayment.getTotalAmount());
         
         log.info("Payment processed successfully with ID: {} for amount: {}", 
                 savedPayment.getId(), savedPayment.getTotalAmount());
@@ -142,12 +149,17 @@ public class ProcessPaymentHandler implements RequestHandler<ProcessPaymentReque
                 .orElseThrow(() -> new VehicleNotFoundException(vehicleId));
     }
     
-    private RateConfig getRateConfig(Long vehicleTypeId) {
-        Optional<RateConfig> rateConfigOpt = rateConfigRepository.findActiveByVehicleTypeId(vehicleTypeId);
-        if (rateConfigOpt.isEmpty()) {
-            throw new PaymentCalculationException("No active rate configuration found for vehicle type ID: " + vehicleTypeId);
-        }
-        return rateConfigOpt.get();
+    private SessionQuote quoteSession(ParkingSession parkingSession, RateTableSnapshot rates) {
+        Vehicle vehicle = getVehicle(parkingSession.getVehicleId());
+        Tariff tariff = getTariff(vehicle.getVehicleTypeId(), parkingSession.getEntryTime(), rates);
+        return calculateQuote(parkingSession, vehicle.getVehicleTypeId(), tariff);
+    }
+    
+    private Tariff getTariff(Long vehicleTypeId, LocalDateTime entryTime, RateTableSnapshot rates) {
+        // Tarifa que regía cuando entró el vehículo
+        return rates.findTariffAt(vehicleTypeId, entryTime)
+                .orElseThrow(() -> new PaymentCalculationException(
+                        "No active rate configuration found for vehicle type ID: " + vehicleTypeId));
     }
     
     private User getOperator(Long operatorId) {
@@ -155,55 +167,13 @@ public class ProcessPaymentHandler implements RequestHandler<ProcessPaymentReque
                 .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + operatorId));
     }
     
-    private BigDecimal calculatePaymentAmount(ParkingSession parkingSession, RateConfig rateConfig) {
+    private SessionQuote calculateQuote(ParkingSession parkingSession, Long vehicleTypeId, Tariff tariff) {
         try {
-            // Calcular horas estacionado
-            Duration duration = Duration.between(parkingSession.getEntryTime(), parkingSession.getExitTime());
-            BigDecimal hoursParked = BigDecimal.valueOf(duration.toMinutes()).divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP);
-            
-            // Aplicar mínimo de horas si es necesario
-            BigDecimal minimumHours = BigDecimal.valueOf(rateConfig.getMinimumChargeHours());
-            if (hoursParked.compareTo(minimumHours) < 0) {
-                hoursParked = minimumHours;
-            }
-            
-            // Calcular monto base (redondear horas hacia arriba para el cobro)
-            BigDecimal ceiledHours = BigDecimal.valueOf(Math.ceil(hoursParked.doubleValue()));
-            BigDecimal totalAmount = ceiledHours.multiply(rateConfig.getRatePerHour());
-            
-            // Aplicar tarifa máxima diaria si existe
-            if (rateConfig.getMaximumDailyRate() != null && 
-                totalAmount.compareTo(rateConfig.getMaximumDailyRate()) > 0) {
-                totalAmount = rateConfig.getMaximumDailyRate();
-            }
-            
-            return totalAmount.setScale(2, RoundingMode.HALF_UP);
+            // Mínimo de horas, horas empezadas completas, horario y tope diario (TariffEngine)
+            return SessionQuote.of(parkingSession, vehicleTypeId, tariff);
             
         } catch (Exception e) {
             throw new PaymentCalculationException("Error calculating payment amount: " + e.getMessage(), e);
         }
     }
-    
-    private BigDecimal calculateHoursParked(ParkingSession parkingSession) {
-        Duration duration = Duration.between(parkingSession.getEntryTime(), parkingSession.getExitTime());
-        return BigDecimal.valueOf(duration.toMinutes()).divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP);
-    }
-    
-    private Payment createPayment(
-            Long parkingSessionId,
-            BigDecimal totalAmount,
-            BigDecimal hoursParked,
-            BigDecimal rateApplied,
-            io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentMethod paymentMethod,
-            Long operatorId) {
-        
-        return Payment.createNewPayment(
-                parkingSessionId,
-                totalAmount,
-                hoursParked,
-                rateApplied,
-                paymentMethod,
-                operatorId
-        );
-    }
 }
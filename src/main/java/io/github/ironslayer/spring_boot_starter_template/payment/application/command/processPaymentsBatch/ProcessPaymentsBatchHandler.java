@@ -0,0 +1,254 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPaymentsBatch;
+
+import io.github.ironslayer.spring_boot_starter_template.common.mediator.RequestHandler;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.port.DashboardCounters;
+import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.cache.QuoteCache;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.cache.SessionQuote;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPaymentsBatch.ProcessPaymentsBatchResponse.ItemResult;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPaymentsBatch.ProcessPaymentsBatchResponse.Status;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.Payment;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.RevenueRollupEntry;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentMethod;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.exception.PaymentAlreadyExistsException;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.PaymentRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.RevenueRollupRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.Tariff;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableCache;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableSnapshot;
+import io.github.ironslayer.spring_boot_starter_template.user.application.cache.UserNameCache;
+import io.github.ironslayer.spring_boot_starter_template.user.domain.exception.UserNotFoundException;
+import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.entity.Vehicle;
+import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.port.VehicleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Handler para cobrar muchas sesiones finalizadas en una sola llamada
+ * (la alternativa a ProcessPayment por cada sesión en el cierre de caja).
+ * Las sesiones se procesan por bloques de CHUNK_SIZE, cada bloque en su propia transacción:
+ * sesiones, pagos existentes y vehículos se leen con una consulta cada uno y los pagos
+ * (ya en estado PAID) se insertan en un solo batch JDBC, junto con su aporte al resumen diario de recaudación.
+ * ACCESIBLE para ADMIN y OPERATOR
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProcessPaymentsBatchHandler implements RequestHandler<ProcessPaymentsBatchRequest, ProcessPaymentsBatchResponse> {
+
+    static final int CHUNK_SIZE = 50;
+    static final int MAX_BATCH_SIZE = 500;
+
+    private final ParkingSessionRepository parkingSessionRepository;
+    private final PaymentRepository paymentRepository;
+    private final VehicleRepository vehicleRepository;
+    private final RateTableCache rateTableCache;
+    private final QuoteCache quoteCache;
+    private final UserNameCache userNameCache;
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final DashboardCounters dashboardCounters;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public ProcessPaymentsBatchResponse handle(ProcessPaymentsBatchRequest request) {
+        validateRequest(request);
+
+        if (userNameCache.getFullName(request.operatorId()).isEmpty()) {
+            throw new UserNotFoundException("User with ID '" + request.operatorId() + "' not found");
+        }
+
+        List<Long> sessionIds = request.parkingSessionIds();
+        log.info("Processing {} payments in batch by operator {}", sessionIds.size(), request.operatorId());
+
+        // Los IDs vacíos o repetidos se resuelven sin tocar la BD
+        ItemResult[] results = new ItemResult[sessionIds.size()];
+        List<Long> pending = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < sessionIds.size(); i++) {
+            Long sessionId = sessionIds.get(i);
+            if (sessionId == null || sessionId <= 0) {
+                results[i] = ItemResult.failed(sessionId, "INVALID_SESSION_ID", "Parking session ID must be positive");
+            } else if (!seen.add(sessionId)) {
+                results[i] = ItemResult.failed(sessionId, "DUPLICATE_IN_BATCH",
+                        "Session " + sessionId + " appears more than once in the batch");
+            } else {
+                pending.add(sessionId);
+            }
+        }
+
+        Map<Long, ItemResult> outcomes = new HashMap<>();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int from = 0; from < pending.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = pending.subList(from, Math.min(from + CHUNK_SIZE, pending.size()));
+            try {
+                outcomes.putAll(transactionTemplate.execute(status ->
+                        payChunk(chunk, request.operatorId(), request.paymentMethod())));
+            } catch (PaymentAlreadyExistsException e) {
+                // Otra instancia cobró alguna sesión del bloque entre la lectura y el insert
+                log.warn("Batch payment chunk of {} sessions rolled back by a concurrent payment", chunk.size());
+                chunk.forEach(sessionId -> outcomes.put(sessionId, ItemResult.failed(sessionId,
+                        "CONCURRENT_PAYMENT", "A session in this block was paid concurrently, please retry")));
+            } catch (RuntimeException e) {
+                // El bloque se revirtió completo: ninguna de sus sesiones quedó cobrada
+                log.error("Batch payment chunk of {} sessions rolled back", chunk.size(), e);
+                chunk.forEach(sessionId -> outcomes.put(sessionId, ItemResult.failed(sessionId,
+                        "INTERNAL_ERROR", "Payment could not be registered, please retry")));
+            }
+        }
+
+        List<ItemResult> ordered = new ArrayList<>(sessionIds.size());
+        for (int i = 0; i < sessionIds.size(); i++) {
+            ordered.add(results[i] != null ? results[i] : outcomes.get(sessionIds.get(i)));
+        }
+
+        List<ItemResult> completed = ordered.stream()
+                .filter(result -> result.status() == Status.COMPLETED)
+                .toList();
+        BigDecimal totalCollected = completed.stream()
+                .map(ItemResult::totalAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        log.info("Batch payment finished: {} completed, {} failed, total collected {}",
+                completed.size(), ordered.size() - completed.size(), totalCollected);
+
+        return new ProcessPaymentsBatchResponse(ordered.size(), completed.size(), ordered.size() - completed.size(),
+                totalCollected, ordered);
+    }
+
+    @Override
+    public Class<ProcessPaymentsBatchRequest> getRequestType() {
+        return ProcessPaymentsBatchRequest.class;
+    }
+
+    private void validateRequest(ProcessPaymentsBatchRequest request) {
+        if (request.operatorId() == null) {
+            throw new BadRequestException("Operator ID is required");
+        }
+
+        if (request.paymentMethod() == null) {
+            throw new BadRequestException("Payment method is required");
+        }
+
+        if (request.parkingSessionIds() == null || request.parkingSessionIds().isEmpty()) {
+            throw new BadRequestException("At least one parking session ID is required");
+        }
+
+        if (request.parkingSessionIds().size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("A batch can contain at most " + MAX_BATCH_SIZE + " parking sessions");
+        }
+    }
+
+    /**
+     * Cotiza y cobra un bloque de sesiones (IDs ya únicos) dentro de la transacción actual
+     */
+    private Map<Long, ItemResult> payChunk(List<Long> sessionIds, Long operatorId, PaymentMethod paymentMethod) {
+        Map<Long, ItemResult> outcomes = new HashMap<>();
+
+        Map<Long, ParkingSession> sessionsById = parkingSessionRepository.findAllByIds(sessionIds).stream()
+                .collect(Collectors.toMap(ParkingSession::getId, Function.identity()));
+        Set<Long> alreadyPaid = paymentRepository.findParkingSessionIdsWithPayment(sessionsById.keySet());
+
+        List<ParkingSession> payable = new ArrayList<>();
+        for (Long sessionId : sessionIds) {
+            ParkingSession session = sessionsById.get(sessionId);
+            if (session == null) {
+                outcomes.put(sessionId, ItemResult.failed(sessionId, "SESSION_NOT_FOUND",
+                        "Parking session not found with ID: " + sessionId));
+            } else if (session.getExitTime() == null || Boolean.TRUE.equals(session.getIsActive())) {
+                outcomes.put(sessionId, ItemResult.failed(sessionId, "SESSION_STILL_ACTIVE",
+                        "Cannot process payment for an active parking session. Please end the session first."));
+            } else if (alreadyPaid.contains(sessionId)) {
+                outcomes.put(sessionId, ItemResult.failed(sessionId, "PAYMENT_ALREADY_EXISTS",
+                        "Payment already exists for parking session: " + sessionId));
+            } else {
+                payable.add(session);
+            }
+        }
+
+        // Cotizaciones de la misma versión de la tabla de tarifas; solo las que no están en
+        // QuoteCache (p. ej. sesiones que ya pasaron por /calculate) necesitan su vehículo
+        RateTableSnapshot rates = rateTableCache.snapshot();
+        Map<Long, SessionQuote> quotes = new LinkedHashMap<>();
+        List<ParkingSession> unquoted = new ArrayList<>();
+        for (ParkingSession session : payable) {
+            Optional<SessionQuote> cached = quoteCache.find(session.getId(), rates.version());
+            if (cached.isPresent()) {
+                quotes.put(session.getId(), cached.get());
+            } else {
+                unquoted.add(session);
+            }
+        }
+
+        Map<Long, Vehicle> vehiclesById = vehicleRepository.findAllByIds(
+                        unquoted.stream().map(ParkingSession::getVehicleId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Vehicle::getId, Function.identity()));
+        for (ParkingSession session : unquoted) {
+            Vehicle vehicle = vehiclesById.get(session.getVehicleId());
+            if (vehicle == null) {
+                outcomes.put(session.getId(), ItemResult.failed(session.getId(), "VEHICLE_NOT_FOUND",
+                        "Vehicle not found with ID: " + session.getVehicleId()));
+                continue;
+            }
+            Optional<Tariff> tariff = rates.findTariffAt(vehicle.getVehicleTypeId(), session.getEntryTime());
+            if (tariff.isEmpty()) {
+                outcomes.put(session.getId(), ItemResult.failed(session.getId(), "RATE_NOT_CONFIGURED",
+                        "No active rate configuration found for vehicle type ID: " + vehicle.getVehicleTypeId()));
+                continue;
+            }
+            SessionQuote quote = SessionQuote.of(session, vehicle.getVehicleTypeId(), tariff.get());
+            quoteCache.put(session.getId(), rates.version(), quote);
+            quotes.put(session.getId(), quote);
+        }
+
+        if (quotes.isEmpty()) {
+            return outcomes;
+        }
+
+        // Pagos ya cobrados, insertados en un solo batch
+        List<Payment> payments = new ArrayList<>(quotes.size());
+        quotes.forEach((sessionId, quote) -> payments.add(Payment.createPaidPayment(
+                sessionId,
+                quote.totalAmount(),
+                quote.hoursParked(),
+                quote.ratePerHour(),
+                paymentMethod,
+                operatorId
+        )));
+
+        List<RevenueRollupEntry> revenue = new ArrayList<>(payments.size());
+        for (Payment payment : paymentRepository.insertAll(payments)) {
+            revenue.add(RevenueRollupEntry.of(payment, quotes.get(payment.getParkingSessionId()).vehicleTypeId()));
+            dashboardCounters.paymentCollected(payment.getPaidAt(), payment.getTotalAmount());
+            outcomes.put(payment.getParkingSessionId(), new ItemResult(
+                    payment.getParkingSessionId(),
+                    Status.COMPLETED,
+                    payment.getId(),
+                    payment.getHoursParked(),
+                    payment.getRateApplied(),
+                    payment.getTotalAmount(),
+                    null,
+                    null
+            ));
+        }
+        // El resumen diario se actualiza en la transacción del bloque, un upsert por fila tocada
+        revenueRollupRepository.add(revenue);
+
+        return outcomes;
+    }
+}
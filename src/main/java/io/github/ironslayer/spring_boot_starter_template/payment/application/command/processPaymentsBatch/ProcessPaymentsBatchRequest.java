@@ -0,0 +1,16 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPaymentsBatch;
+
+import io.github.ironslayer.spring_boot_starter_template.common.mediator.Request;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentMethod;
+
+import java.util.List;
+
+/**
+ * Request para cobrar varias sesiones finalizadas a la vez (p. ej. el cierre de caja).
+ * Todas se pagan con el mismo método y por el monto cotizado.
+ */
+public record ProcessPaymentsBatchRequest(
+    List<Long> parkingSessionIds,
+    PaymentMethod paymentMethod,
+    Long operatorId
+) implements Request<ProcessPaymentsBatchResponse> {}
@@ -0,0 +1,40 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPaymentsBatch;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Response de un cobro masivo: un resultado por sesión, en el orden de la solicitud,
+ * más el total recaudado.
+ */
+public record ProcessPaymentsBatchResponse(
+    int requested,
+    int completed,
+    int failed,
+    BigDecimal totalCollected,
+    List<ItemResult> results
+) {
+    public enum Status {
+        COMPLETED,
+        FAILED
+    }
+
+    /**
+     * Resultado de una sesión. Si se cobró trae el pago; si no, errorType y message
+     * (SESSION_NOT_FOUND, SESSION_STILL_ACTIVE, PAYMENT_ALREADY_EXISTS, ...)
+     */
+    public record ItemResult(
+        Long parkingSessionId,
+        Status status,
+        Long paymentId,
+        BigDecimal hoursParked,
+        BigDecimal ratePerHour,
+        BigDecimal totalAmount,
+        String errorType,
+        String message
+    ) {
+        static ItemResult failed(Long parkingSessionId, String errorType, String message) {
+            return new ItemResult(parkingSessionId, Status.FAILED, null, null, null, null, errorType, message);
+        }
+    }
+}
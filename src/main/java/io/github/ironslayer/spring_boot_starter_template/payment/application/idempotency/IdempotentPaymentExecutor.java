@@ -0,0 +1,116 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.application.idempotency;
+
+import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPayment.ProcessPaymentRequest;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPayment.ProcessPaymentResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Procesa pagos con Idempotency-Key: las terminales reintentan /payments/process cuando
+ * vence el tiempo de espera, y un reintento no debe cobrar dos veces ni volver a la BD.
+ *
+ * - Clave ya procesada: se devuelve la respuesta guardada (ProcessedPaymentStore)
+ * - Clave en curso: el duplicado espera la misma ejecución y recibe su resultado (o su error)
+ * - Clave nueva: se procesa una vez y se guarda la respuesta; si falla no se guarda nada
+ *   y el próximo reintento vuelve a intentar
+ * - Clave reutilizada con otro pedido (otra sesión, método o monto): 400
+ *
+ * Se llama fuera de la transacción del handler, así la respuesta solo se guarda o se comparte
+ * después del commit. Las claves se califican con el operador para que no choquen entre usuarios.
+ * La espera de duplicados es por instancia; entre instancias con Redis se ve la respuesta ya guardada.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotentPaymentExecutor {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final ProcessedPaymentStore processedPaymentStore;
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public ProcessPaymentResponse execute(String idempotencyKey, ProcessPaymentRequest request,
+                                          Supplier<ProcessPaymentResponse> processing) {
+        if (idempotencyKey == null) {
+            return processing.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String key = request.getOperatorId() + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+
+        Optional<ProcessPaymentResponse> replay = findProcessed(key, fingerprint);
+        if (replay.isPresent()) {
+            return replay.get();
+        }
+
+        InFlight execution = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, execution);
+        if (running != null) {
+            checkFingerprint(running.fingerprint(), fingerprint);
+            log.info("Payment with Idempotency-Key {} already in progress, waiting for its result", idempotencyKey);
+            return await(running.result());
+        }
+
+        try {
+            // Otra ejecución pudo terminar entre la consulta y el registro
+            replay = findProcessed(key, fingerprint);
+            ProcessPaymentResponse response = replay.isPresent() ? replay.get() : processing.get();
+            if (replay.isEmpty()) {
+                processedPaymentStore.save(key, new ProcessedPayment(fingerprint, response));
+            }
+            execution.result().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            execution.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, execution);
+        }
+    }
+
+    private Optional<ProcessPaymentResponse> findProcessed(String key, String fingerprint) {
+        Optional<ProcessedPayment> processed = processedPaymentStore.find(key);
+        processed.ifPresent(payment -> {
+            checkFingerprint(payment.fingerprint(), fingerprint);
+            log.info("Replaying stored response for payment {}", payment.response().getPayment().getId());
+        });
+        return processed.map(ProcessedPayment::response);
+    }
+
+    private void checkFingerprint(String stored, String current) {
+        if (!stored.equals(current)) {
+            throw new BadRequestException("Idempotency-Key was already used with a different payment request");
+        }
+    }
+
+    private ProcessPaymentResponse await(CompletableFuture<ProcessPaymentResponse> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String fingerprint(ProcessPaymentRequest request) {
+        return request.getParkingSessionId() + "|" + request.getPaymentMethod() + "|"
+                + (request.getTotalAmount() != null ? request.getTotalAmount().stripTrailingZeros().toPlainString() : "");
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<ProcessPaymentResponse> result) {
+    }
+}
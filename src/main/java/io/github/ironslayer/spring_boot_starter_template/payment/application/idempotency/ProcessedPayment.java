@@ -0,0 +1,10 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.application.idempotency;
+
+import io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPayment.ProcessPaymentResponse;
+
+/**
+ * Respuesta guardada para una Idempotency-Key, junto con la huella del pedido que la produjo
+ * (sesión, método y monto) para detectar una clave reutilizada con otro pedido.
+ */
+public record ProcessedPayment(String fingerprint, ProcessPaymentResponse response) {
+}
@@ -0,0 +1,25 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.application.idempotency;
+
+import java.util.Optional;
+
+/**
+ * Puerto para guardar las respuestas de /payments/process por Idempotency-Key.
+ * Implementaciones: en memoria (por defecto) y Redis (app.payments.idempotency.store=redis),
+ * ambas con vencimiento (app.payments.idempotency.ttl).
+ */
+public interface ProcessedPaymentStore {
+
+    /**
+     * Busca la respuesta guardada para una clave
+     * @param key clave ya calificada con el operador
+     * @return Optional con la respuesta si existe y no venció
+     */
+    Optional<ProcessedPayment> find(String key);
+
+    /**
+     * Guarda la respuesta de un pago procesado
+     * @param key clave ya calificada con el operador
+     * @param processedPayment respuesta y huella del pedido
+     */
+    void save(String key, ProcessedPayment processedPayment);
+}
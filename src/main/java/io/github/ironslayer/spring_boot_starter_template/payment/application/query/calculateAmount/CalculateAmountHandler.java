@@ -5,9 +5,12 @@ import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadReq
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.exception.ParkingSessionNotFoundException;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.cache.QuoteCache;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.cache.SessionQuote;
 import io.github.ironslayer.spring_boot_starter_template.payment.domain.exception.PaymentCalculationException;
-import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.entity.RateConfig;
-import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.port.RateConfigRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.Tariff;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableCache;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableSnapshot;
 import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.entity.Vehicle;
 import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.exception.VehicleNotFoundException;
 import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.port.VehicleRepository;
@@ -16,14 +19,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.Duration;
-import java.util.Optional;
-
 /**
  * Handler para calcular el monto a pagar de una sesión de parqueo.
  * Útil para mostrar al usuario cuánto debe pagar antes de procesar el pago.
+ * Las cotizaciones se guardan en QuoteCache: pedir de nuevo la misma sesión
+ * con la misma tabla de tarifas no vuelve a consultar la BD.
  * ACCESIBLE para ADMIN y OPERATOR
  */
 @Component
@@ -34,7 +34,8 @@ public class CalculateAmountHandler implements RequestHandler<CalculateAmountReq
     
     private final ParkingSessionRepository parkingSessionRepository;
     private final VehicleRepository vehicleRepository;
-    private final RateConfigRepository rateConfigRepository;
+    private final RateTableCache rateTableCache;
+    private final QuoteCache quoteCache;
     
     @Override
     public Class<CalculateAmountRequest> getRequestType() {
@@ -50,63 +51,46 @@ public class CalculateAmountHandler implements RequestHandler<CalculateAmountReq
             throw new BadRequestException("Parking session ID is required");
         }
         
-        // 2. Obtener sesión de parqueo
-        ParkingSession parkingSession = parkingSessionRepository.findById(request.getParkingSessionId())
-                .orElseThrow(() -> new ParkingSessionNotFoundException(request.getParkingSessionId()));
+        // 2. Cotización guardada para esta sesión y versión de tarifas, o calcularla.
+        // Una sola foto de tarifas: la versión de la clave es la misma con la que se cotiza
+        RateTableSnapshot rates = rateTableCache.snapshot();
+        SessionQuote quote = quoteCache.getOrCompute(request.getParkingSessionId(), rates.version(),
+                () -> quoteSession(request.getParkingSessionId(), rates));
+        
+        log.info("Amount calculated: {} for session ID: {}", quote.totalAmount(), request.getParkingSessionId());
+        
+        return new CalculateAmountResponse(
+                quote.totalAmount(),
+                quote.hoursParked(),
+                quote.ratePerHour(),
+                quote.minimumChargeHours(),
+                quote.maximumDailyRate(),
+                quote.parkingSessionId()
+        );
+    }
+    
+    private SessionQuote quoteSession(Long parkingSessionId, RateTableSnapshot rates) {
+        // Obtener sesión de parqueo
+        ParkingSession parkingSession = parkingSessionRepository.findById(parkingSessionId)
+                .orElseThrow(() -> new ParkingSessionNotFoundException(parkingSessionId));
         
-        // 3. Validar que la sesión esté finalizada
+        // Validar que la sesión esté finalizada (solo esas se pueden guardar)
         if (parkingSession.getExitTime() == null) {
             throw new BadRequestException("Cannot calculate amount for an active parking session. Please end the session first.");
         }
         
-        // 4. Obtener vehículo y configuración de tarifas
+        // Obtener vehículo y configuración de tarifas
         Vehicle vehicle = vehicleRepository.findById(parkingSession.getVehicleId())
                 .orElseThrow(() -> new VehicleNotFoundException(parkingSession.getVehicleId()));
         
-        Optional<RateConfig> rateConfigOpt = rateConfigRepository.findActiveByVehicleTypeId(vehicle.getVehicleTypeId());
-        if (rateConfigOpt.isEmpty()) {
-            throw new PaymentCalculationException("No active rate configuration found for vehicle type ID: " + vehicle.getVehicleTypeId());
-        }
+        // Tarifa que regía cuando entró el vehículo
+        Tariff tariff = rates.findTariffAt(vehicle.getVehicleTypeId(), parkingSession.getEntryTime())
+                .orElseThrow(() -> new PaymentCalculationException(
+                        "No active rate configuration found for vehicle type ID: " + vehicle.getVehicleTypeId()));
         
-        RateConfig rateConfig = rateConfigOpt.get();
-        
-        // 5. Calcular monto
-        CalculateAmountResponse response = calculateAmount(parkingSession, rateConfig);
-        
-        log.info("Amount calculated: {} for session ID: {}", response.getTotalAmount(), request.getParkingSessionId());
-        
-        return response;
-    }
-    
-    private CalculateAmountResponse calculateAmount(ParkingSession parkingSession, RateConfig rateConfig) {
+        // Calcular monto
         try {
-            // Calcular horas estacionado
-            Duration duration = Duration.between(parkingSession.getEntryTime(), parkingSession.getExitTime());
-            BigDecimal hoursParked = BigDecimal.valueOf(duration.toMinutes()).divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP);
-            
-            // Aplicar mínimo de horas si es necesario
-            BigDecimal minimumHours = BigDecimal.valueOf(rateConfig.getMinimumChargeHours());
-            BigDecimal chargeableHours = hoursParked.compareTo(minimumHours) < 0 ? minimumHours : hoursParked;
-            
-            // Calcular monto base (redondear horas hacia arriba para el cobro)
-            BigDecimal ceiledHours = BigDecimal.valueOf(Math.ceil(chargeableHours.doubleValue()));
-            BigDecimal totalAmount = ceiledHours.multiply(rateConfig.getRatePerHour());
-            
-            // Aplicar tarifa máxima diaria si existe
-            if (rateConfig.getMaximumDailyRate() != null && 
-                totalAmount.compareTo(rateConfig.getMaximumDailyRate()) > 0) {
-                totalAmount = rateConfig.getMaximumDailyRate();
-            }
-            
-            return new CalculateAmountResponse(
-                    totalAmount.setScale(2, RoundingMode.HALF_UP),
-                    hoursParked,
-                    rateConfig.getRatePerHour(),
-                    rateConfig.getMinimumChargeHours(),
-                    rateConfig.getMaximumDailyRate(),
-                    parkingSession.getId()
-            );
-            
+            return SessionQuote.of(parkingSession, vehicle.getVehicleTypeId(), tariff);
         } catch (Exception e) {
             throw new PaymentCalculationException("Error calculating payment amount: " + e.getMessage(), e);
         }
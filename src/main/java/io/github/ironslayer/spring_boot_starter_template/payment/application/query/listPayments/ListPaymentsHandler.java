@@ -0,0 +1,83 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.application.query.listPayments;
+
+import io.github.ironslayer.spring_boot_starter_template.common.mediator.RequestHandler;
+import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.query.getPayment.GetPaymentResponse;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.Payment;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentStatus;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.PaymentRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.PaymentRepository.PaymentFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Handler para listar pagos por operador, rango de fechas y estado.
+ * Pagina por keyset sobre (paid_at, id) (created_at para pagos sin cobrar), del más reciente
+ * al más antiguo: cada página cuesta lo mismo sin importar cuántos pagos haya antes.
+ * ACCESIBLE para ADMIN y OPERATOR
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ListPaymentsHandler implements RequestHandler<ListPaymentsRequest, ListPaymentsResponse> {
+
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private final PaymentRepository paymentRepository;
+
+    @Override
+    public ListPaymentsResponse handle(ListPaymentsRequest request) {
+        int limit = request.limit() != null ? request.limit() : DEFAULT_PAGE_SIZE;
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (request.startDate() != null && request.endDate() != null && request.startDate().isAfter(request.endDate())) {
+            throw new BadRequestException("Start date cannot be after end date");
+        }
+        PaymentsCursor after = request.cursor() != null ? PaymentsCursor.decode(request.cursor()) : null;
+
+        PaymentFilter filter = new PaymentFilter(
+                request.status() != null ? request.status() : PaymentStatus.PAID,
+                request.operatorId(),
+                request.startDate() != null ? request.startDate().atStartOfDay() : null,
+                request.endDate() != null ? request.endDate().plusDays(1).atStartOfDay() : null);
+
+        log.info("Retrieving page of {} payments with filter {}", limit, filter);
+
+        // Se pide una fila de más para saber si hay otra página sin una consulta adicional
+        List<Payment> rows = paymentRepository.findPage(filter,
+                after != null ? after.sortTime() : null,
+                after != null ? after.paymentId() : null,
+                limit + 1);
+        List<Payment> page = rows.size() > limit ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            Payment last = page.get(page.size() - 1);
+            nextCursor = new PaymentsCursor(filter.sortTimeOf(last), last.getId()).encode();
+        }
+
+        return new ListPaymentsResponse(page.stream().map(ListPaymentsHandler::toResponse).toList(), nextCursor);
+    }
+
+    @Override
+    public Class<ListPaymentsRequest> getRequestType() {
+        return ListPaymentsRequest.class;
+    }
+
+    private static GetPaymentResponse toResponse(Payment payment) {
+        return new GetPaymentResponse(
+            payment.getId(),
+            payment.getParkingSessionId(),
+            payment.getPaymentMethod().name(),
+            payment.getPaymentStatus().name(),
+            payment.getTotalAmount(),
+            payment.getCreatedAt(),
+            payment.getPaidAt()
+        );
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.application.query.listPayments;
+
+import io.github.ironslayer.spring_boot_starter_template.common.mediator.Request;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Request para listar pagos por páginas.
+ * Sin estado se listan los pagos cobrados (PAID); operador y fechas (ambas incluidas) son opcionales.
+ * El cursor es el nextCursor de la página anterior.
+ */
+public record ListPaymentsRequest(
+    PaymentStatus status,
+    Long operatorId,
+    LocalDate startDate,
+    LocalDate endDate,
+    String cursor,
+    Integer limit
+) implements Request<ListPaymentsResponse> {
+}
@@ -0,0 +1,14 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.application.query.listPayments;
+
+import io.github.ironslayer.spring_boot_starter_template.payment.application.query.getPayment.GetPaymentResponse;
+
+import java.util.List;
+
+/**
+ * Response con una página de pagos; nextCursor es null en la última página
+ */
+public record ListPaymentsResponse(
+    List<GetPaymentResponse> payments,
+    String nextCursor
+) {
+}
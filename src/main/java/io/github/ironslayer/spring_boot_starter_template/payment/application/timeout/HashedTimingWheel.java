@@ -0,0 +1,86 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.application.timeout;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Rueda de tiempo con hash (hashed timing wheel) para muchos vencimientos con la misma granularidad.
+ *
+ * El tiempo avanza en ticks; cada elemento se guarda en la ranura (tick de vencimiento % ranuras)
+ * con su tick absoluto. Programar es O(1) y avanzar un tick solo recorre una ranura: los elementos
+ * que todavía no vencen (faltan una o más vueltas) se quedan donde están.
+ * Con más ranuras que ticks hasta el vencimiento típico, cada elemento se mira una sola vez.
+ *
+ * No es thread-safe: la usa un único hilo (ver PendingPaymentTimeoutScheduler).
+ */
+class HashedTimingWheel<T> {
+
+    private final Deque<Entry<T>>[] slots;
+    private final int mask;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    HashedTimingWheel(int slotCount) {
+        if (slotCount <= 0 || Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("Slot count must be a power of two");
+        }
+        this.slots = new Deque[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+        this.mask = slotCount - 1;
+    }
+
+    /**
+     * Programa el elemento para el tick indicado; si ya pasó, vence en el próximo avance
+     */
+    void schedule(T item, long deadlineTick) {
+        long tick = Math.max(deadlineTick, currentTick);
+        slots[(int) (tick & mask)].addLast(new Entry<>(item, tick));
+        size++;
+    }
+
+    /**
+     * Procesa el tick actual, devuelve lo que venció en él y pasa al siguiente
+     */
+    List<T> advance() {
+        List<T> expired = new ArrayList<>();
+        Iterator<Entry<T>> iterator = slots[(int) (currentTick & mask)].iterator();
+        while (iterator.hasNext()) {
+            Entry<T> entry = iterator.next();
+            if (entry.deadlineTick() <= currentTick) {
+                expired.add(entry.item());
+                iterator.remove();
+            }
+        }
+        size -= expired.size();
+        currentTick++;
+        return expired;
+    }
+
+    /**
+     * Avanza hasta dejar procesado el tick indicado (inclusive) y devuelve todo lo vencido
+     */
+    List<T> advanceThrough(long tick) {
+        List<T> expired = new ArrayList<>();
+        while (currentTick <= tick) {
+            expired.addAll(advance());
+        }
+        return expired;
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private record Entry<T>(T item, long deadlineTick) {
+    }
+}
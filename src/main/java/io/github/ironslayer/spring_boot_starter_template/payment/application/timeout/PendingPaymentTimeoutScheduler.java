@@ -0,0 +1,191 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.application.timeout;
+
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.Payment;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentStatus;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.PaymentRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.PaymentStatusService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancela los pagos PENDING que superan PaymentStatusService.PAYMENT_TIMEOUT_MINUTES.
+ *
+ * Los vencimientos viven en memoria en una HashedTimingWheel de ticks de 1 segundo que
+ * se carga una sola vez al arrancar con los pagos pendientes de la BD. Desde que los pagos
+ * se insertan directamente como PAID ningún flujo crea pagos PENDING, así que la rueda solo
+ * drena los pendientes que ya existían al arrancar (datos anteriores a ese cambio).
+ * Un hilo propio avanza la rueda cada segundo y cancela lo vencido con un
+ * UPDATE ... WHERE id IN (...) AND status = 'PENDING' por cada BATCH_SIZE pagos,
+ * así un pago que se cobró mientras tanto no se toca y no hay barridos periódicos de la tabla.
+ * El hilo solo arranca si hay pendientes al arrancar y se detiene cuando la rueda queda vacía.
+ */
+@Component
+@Slf4j
+public class PendingPaymentTimeoutScheduler {
+
+    static final String METRIC_PREFIX = "payment.timeouts";
+    static final Duration TICK = Duration.ofSeconds(1);
+    // 1024 ticks de 1 s (~17 min) cubren el plazo de 15 min: cada pago se mira una sola vez
+    static final int WHEEL_SLOTS = 1024;
+    static final int BATCH_SIZE = 500;
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(PaymentStatusService.PAYMENT_TIMEOUT_MINUTES);
+
+    private final PaymentRepository paymentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    private final HashedTimingWheel<Long> wheel = new HashedTimingWheel<>(WHEEL_SLOTS);
+    // Pendientes cargados por rebuild en el hilo de arranque; solo el hilo de la rueda modifica la rueda
+    private final Queue<PendingTimeout> incoming = new ConcurrentLinkedQueue<>();
+    private final long startMillis;
+    private volatile ScheduledExecutorService executor;
+
+    private final Counter cancelled;
+
+    public PendingPaymentTimeoutScheduler(PaymentRepository paymentRepository,
+                                          PlatformTransactionManager transactionManager,
+                                          MeterRegistry meterRegistry) {
+        this(paymentRepository, transactionManager, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    PendingPaymentTimeoutScheduler(PaymentRepository paymentRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   Clock clock) {
+        this.paymentRepository = paymentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.startMillis = clock.millis();
+
+        cancelled = Counter.builder(METRIC_PREFIX + ".cancelled")
+                .description("Pending payments cancelled because they timed out")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".scheduled", this, PendingPaymentTimeoutScheduler::scheduledCount)
+                .description("Pending payments waiting for their timeout")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Carga los pagos pendientes (los ya vencidos se cancelan en el primer tick) y arranca la rueda
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuild();
+        if (scheduledCount() == 0) {
+            log.info("No pending payments to time out, timeout thread not started");
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payment-timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::tickSafely, 0, TICK.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void rebuild() {
+        List<Payment> pending = paymentRepository.findByPaymentStatus(PaymentStatus.PENDING);
+        pending.forEach(payment -> incoming.add(new PendingTimeout(payment.getId(), payment.getCreatedAt())));
+        log.info("Pending payment timeouts rebuilt: {} pending payments", pending.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Un tick: pasa las altas a la rueda, la avanza hasta ahora y cancela lo vencido.
+     * Devuelve la cantidad de pagos cancelados.
+     */
+    synchronized int tick() {
+        PendingTimeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            wheel.schedule(timeout.paymentId(), deadlineTick(timeout.createdAt()));
+        }
+
+        List<Long> expired = wheel.advanceThrough(elapsedTicks());
+        int total = 0;
+        for (int from = 0; from < expired.size(); from += BATCH_SIZE) {
+            List<Long> batch = expired.subList(from, Math.min(from + BATCH_SIZE, expired.size()));
+            try {
+                Integer count = transactionTemplate.execute(status -> paymentRepository.cancelPendingPayments(batch));
+                total += count != null ? count : 0;
+            } catch (RuntimeException e) {
+                // Se reintentan en el próximo tick
+                log.error("Could not cancel {} timed out payments, retrying", batch.size(), e);
+                batch.forEach(paymentId -> wheel.schedule(paymentId, wheel.currentTick()));
+            }
+        }
+
+        if (total > 0) {
+            cancelled.increment(total);
+            log.info("Cancelled {} pending payments after {} minutes", total, PaymentStatusService.PAYMENT_TIMEOUT_MINUTES);
+        }
+        return total;
+    }
+
+    int scheduledCount() {
+        return wheel.size() + incoming.size();
+    }
+
+    /**
+     * Tick del hilo de la rueda: nunca lanza (una excepción cancelaría la tarea periódica)
+     * y detiene el hilo cuando ya no queda nada por vencer
+     */
+    void tickSafely() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            log.error("Payment timeout tick failed", e);
+        }
+        if (scheduledCount() == 0 && executor != null) {
+            executor.shutdown();
+            log.info("Pending payment backlog drained, timeout thread stopped");
+        }
+    }
+
+    boolean isRunning() {
+        ScheduledExecutorService current = executor;
+        return current != null && !current.isShutdown();
+    }
+
+    private long elapsedTicks() {
+        return (clock.millis() - startMillis) / TICK.toMillis();
+    }
+
+    /**
+     * Primer tick que empieza en o después del vencimiento (createdAt + plazo)
+     */
+    private long deadlineTick(LocalDateTime createdAt) {
+        if (createdAt == null) {
+            return 0;
+        }
+        long deadlineMillis = createdAt.plus(TIMEOUT).atZone(clock.getZone()).toInstant().toEpochMilli();
+        return Math.max(0, Math.ceilDiv(deadlineMillis - startMillis, TICK.toMillis()));
+    }
+
+    private record PendingTimeout(Long paymentId, LocalDateTime createdAt) {
+    }
+}
@@ -90,6 +90,32 @@ public class Payment {
                 .build();
     }
     
+    /**
+     * Constructor para un pago cobrado en el momento (caja): nace en estado PAID,
+     * así se inserta una sola vez en lugar de insertarlo PENDING y actualizarlo
+     */
+    public static Payment createPaidPayment(
+            Long parkingSessionId,
+            BigDecimal totalAmount,
+            BigDecimal hoursParked,
+            BigDecimal rateApplied,
+            PaymentMethod paymentMethod,
+            Long operatorId) {
+        
+        LocalDateTime now = LocalDateTime.now();
+        return Payment.builder()
+                .parkingSessionId(parkingSessionId)
+                .totalAmount(totalAmount)
+                .hoursParked(hoursParked)
+                .rateApplied(rateApplied)
+                .paymentMethod(paymentMethod)
+                .paymentStatus(PaymentStatus.PAID)
+                .paidAt(now)
+                .operatorId(operatorId)
+                .createdAt(now)
+                .build();
+    }
+    
     /**
      * Marcar el pago como completado
      */
@@ -0,0 +1,28 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.domain.entity;
+
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Aporte de uno o más pagos al resumen diario de recaudación (daily_revenue_rollup),
+ * que se agrupa por día de pago, tipo de vehículo y método de pago
+ */
+public record RevenueRollupEntry(LocalDate date,
+                                 Long vehicleTypeId,
+                                 PaymentMethod paymentMethod,
+                                 BigDecimal totalAmount,
+                                 long paymentCount) {
+
+    /**
+     * Aporte de un pago ya cobrado
+     */
+    public static RevenueRollupEntry of(Payment payment, Long vehicleTypeId) {
+        if (!payment.isPaid() || payment.getPaidAt() == null) {
+            throw new IllegalArgumentException("Only paid payments count as revenue");
+        }
+        return new RevenueRollupEntry(payment.getPaidAt().toLocalDate(), vehicleTypeId,
+                payment.getPaymentMethod(), payment.getTotalAmount(), 1);
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.domain.event;
+
+/**
+ * Se publica cuando el resumen diario de recaudación se recalculó desde los pagos.
+ * Los datos de días ya cerrados pueden haber cambiado, así que quien guarde reportes
+ * armados a partir del resumen debe descartarlos; se entrega después del commit.
+ *
+ * @param rows filas del resumen recalculado
+ */
+public record RevenueRollupRebuiltEvent(int rows) {
+}
@@ -1,10 +1,13 @@
 package io.github.ironslayer.spring_boot_starter_template.payment.domain.repository;
 
 import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.Payment;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Puerto del repositorio de pagos (Domain Layer)
@@ -17,6 +20,12 @@ public interface PaymentRepository {
      */
     Payment save(Payment payment);
     
+    /**
+     * Insertar varios pagos nuevos en un único batch.
+     * Devuelve los pagos en el mismo orden, con su ID asignado.
+     */
+    List<Payment> insertAll(List<Payment> payments);
+    
     /**
      * Buscar pago por ID
      */
@@ -32,6 +41,11 @@ public interface PaymentRepository {
      */
     boolean existsByParkingSessionId(Long parkingSessionId);
     
+    /**
+     * IDs de las sesiones (de la colección dada) que ya tienen un pago
+     */
+    Set<Long> findParkingSessionIdsWithPayment(Collection<Long> parkingSessionIds);
+    
     /**
      * Obtener todos los pagos
      */
@@ -50,7 +64,21 @@ public interface PaymentRepository {
     /**
      * Obtener pagos por estado
      */
-    List<Payment> findByPaymentStatus(io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentStatus status);
+    List<Payment> findByPaymentStatus(PaymentStatus status);
+    
+    /**
+     * Página de pagos que cumplen el filtro, del más reciente al más antiguo por (sortTime, id),
+     * a continuación del pago (afterTime, afterId); sin posición de referencia devuelve la primera página.
+     * sortTime es paid_at para los pagos PAID y created_at para el resto (que no tienen paid_at).
+     */
+    List<Payment> findPage(PaymentFilter filter, LocalDateTime afterTime, Long afterId, int limit);
+    
+    /**
+     * Cancelar en un único UPDATE los pagos dados que sigan PENDING
+     * (los que se pagaron o cancelaron mientras tanto no se tocan).
+     * Devuelve la cantidad de pagos cancelados.
+     */
+    int cancelPendingPayments(Collection<Long> paymentIds);
     
     /**
      * Obtener pagos realizados hoy
@@ -61,4 +89,24 @@ public interface PaymentRepository {
      * Eliminar pago por ID
      */
     void deleteById(Long id);
+    
+    /**
+     * Filtro de listados de pagos: el estado es obligatorio, el resto opcional (null = sin filtrar).
+     * El rango [from, to) se aplica sobre el mismo instante por el que se ordena.
+     */
+    record PaymentFilter(PaymentStatus status, Long operatorId, LocalDateTime from, LocalDateTime to) {
+        
+        public PaymentFilter {
+            if (status == null) {
+                throw new IllegalArgumentException("Payment status is required");
+            }
+        }
+        
+        /**
+         * Instante por el que se ordena y pagina un pago con este filtro
+         */
+        public LocalDateTime sortTimeOf(Payment payment) {
+            return status == PaymentStatus.PAID ? payment.getPaidAt() : payment.getCreatedAt();
+        }
+    }
 }
@@ -0,0 +1,18 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.domain.repository;
+
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.RevenueRollupEntry;
+
+import java.util.Collection;
+
+/**
+ * Puerto del resumen diario de recaudación (Domain Layer).
+ * Los pagos cobrados se suman en la misma transacción en que se insertan,
+ * así los reportes de recaudación leen unas pocas filas ya agregadas.
+ */
+public interface RevenueRollupRepository {
+    
+    /**
+     * Sumar los aportes al resumen (una fila por día, tipo de vehículo y método de pago)
+     */
+    void add(Collection<RevenueRollupEntry> entries);
+}
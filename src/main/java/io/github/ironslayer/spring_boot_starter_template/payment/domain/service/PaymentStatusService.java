@@ -18,9 +18,9 @@ import java.time.temporal.ChronoUnit;
 public class PaymentStatusService {
 
     /**
-     * Payment timeout configuration (in minutes)
+     * Payment timeout configuration (in minutes), also used by PendingPaymentTimeoutScheduler
      */
-    private static final int PAYMENT_TIMEOUT_MINUTES = 15;
+    public static final int PAYMENT_TIMEOUT_MINUTES = 15;
 
     /**
      * 🔄 Determine if a payment should be automatically cancelled due to timeout
@@ -0,0 +1,108 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.domain.service;
+
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.entity.RateConfig;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Una configuración de tarifa ya convertida a unidades menores para TariffEngine.
+ * Se arma una vez por versión de la tabla de tarifas (ver RateTableSnapshot),
+ * así cada cobro solo hace aritmética de enteros.
+ * Si la configuración tiene tarifa nocturna o de fin de semana, trae además su horario
+ * ya compilado (TariffSchedule); si no, schedule es null y se cobra la tarifa base todo el día.
+ */
+public record Tariff(long ratePerHourMinor, int minimumChargeHours, long maximumDailyMinor, TariffSchedule schedule) {
+
+    public Tariff(long ratePerHourMinor, int minimumChargeHours, long maximumDailyMinor) {
+        this(ratePerHourMinor, minimumChargeHours, maximumDailyMinor, null);
+    }
+
+    public Tariff {
+        if (ratePerHourMinor <= 0) {
+            throw new IllegalArgumentException("Rate per hour must be greater than 0");
+        }
+        if (minimumChargeHours <= 0) {
+            throw new IllegalArgumentException("Minimum charge hours must be greater than 0");
+        }
+        if (maximumDailyMinor != TariffEngine.NO_DAILY_CAP && maximumDailyMinor < ratePerHourMinor) {
+            throw new IllegalArgumentException("Maximum daily rate must be greater than or equal to rate per hour");
+        }
+    }
+
+    public static Tariff of(RateConfig rateConfig) {
+        if (!rateConfig.isValidRatePerHour() || !rateConfig.isValidMinimumChargeHours()
+                || !rateConfig.isValidMaximumDailyRate() || !rateConfig.isValidSchedule()) {
+            throw new IllegalArgumentException("Cannot build a tariff from an invalid rate configuration");
+        }
+
+        long ratePerHourMinor = TariffEngine.toMinorUnits(rateConfig.getRatePerHour());
+        TariffSchedule schedule = null;
+        if (rateConfig.hasSchedule()) {
+            boolean hasNightRate = rateConfig.getNightRatePerHour() != null;
+            schedule = TariffSchedule.compile(
+                    ratePerHourMinor,
+                    hasNightRate ? TariffEngine.toMinorUnits(rateConfig.getNightRatePerHour()) : TariffSchedule.NO_RATE,
+                    hasNightRate ? rateConfig.getNightStartHour() : 0,
+                    hasNightRate ? rateConfig.getNightEndHour() : 0,
+                    rateConfig.getWeekendRatePerHour() != null
+                            ? TariffEngine.toMinorUnits(rateConfig.getWeekendRatePerHour())
+                            : TariffSchedule.NO_RATE);
+        }
+
+        return new Tariff(
+                ratePerHourMinor,
+                rateConfig.getMinimumChargeHours(),
+                rateConfig.getMaximumDailyRate() != null
+                        ? TariffEngine.toMinorUnits(rateConfig.getMaximumDailyRate())
+                        : TariffEngine.NO_DAILY_CAP,
+                schedule);
+    }
+
+    /**
+     * Precio con tarifa base, sin mirar el horario
+     */
+
+    public long priceMinor(long minutesParked) {
+        return TariffEngine.priceMinor(minutesParked, ratePerHourMinor, minimumChargeHours, maximumDailyMinor);
+    }
+
+    public BigDecimal price(long minutesParked) {
+        return TariffEngine.toAmount(priceMinor(minutesParked));
+    }
+
+    /**
+     * Precio de una estadía que empezó en entryTime: cada hora se cobra con la tarifa
+     * que rige cuando empieza (nocturna, fin de semana o base)
+     */
+    public long priceMinor(LocalDateTime entryTime, long minutesParked) {
+        if (schedule == null || entryTime == null) {
+            return priceMinor(minutesParked);
+        }
+        long hours = TariffEngine.billableHours(minutesParked, minimumChargeHours);
+        return schedule.priceMinor(TariffSchedule.minuteOfWeek(entryTime), hours, maximumDailyMinor);
+    }
+
+    public BigDecimal price(LocalDateTime entryTime, long minutesParked) {
+        return TariffEngine.toAmount(priceMinor(entryTime, minutesParked));
+    }
+
+    public boolean hasSchedule() {
+        return schedule != null;
+    }
+
+    public boolean hasDailyCap() {
+        return maximumDailyMinor != TariffEngine.NO_DAILY_CAP;
+    }
+
+    public BigDecimal ratePerHour() {
+        return TariffEngine.toAmount(ratePerHourMinor);
+    }
+
+    /**
+     * Tope diario como monto, o null si la tarifa no tiene tope
+     */
+    public BigDecimal maximumDailyRate() {
+        return hasDailyCap() ? TariffEngine.toAmount(maximumDailyMinor) : null;
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.domain.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Motor único de tarifas: salida, cotización, cálculo de monto y pago cobran con las mismas reglas.
+ *
+ * Trabaja en enteros: minutos estacionado y unidades menores (centavos, 2 decimales).
+ * - Cada hora empezada se cobra completa (61 min = 2 h)
+ * - Se cobran al menos minimumChargeHours
+ * - Con tope diario, cada bloque de 24 h cobrables cuesta como máximo el tope,
+ *   y las horas del último día incompleto también se topan
+ *
+ * - Con tarifa nocturna o de fin de semana, cada hora se cobra con la tarifa que rige
+ *   cuando empieza; ese caso lo resuelve la tabla precompilada de TariffSchedule
+ *
+ * Los métodos de cálculo solo hacen aritmética sobre long, sin crear objetos;
+ * la conversión desde/hacia BigDecimal queda en los bordes (toMinorUnits / toAmount).
+ */
+public final class TariffEngine {
+
+    public static final int MINUTES_PER_HOUR = 60;
+    public static final int HOURS_PER_DAY = 24;
+    public static final int MINOR_UNIT_SCALE = 2;
+
+    /**
+     * Valor de maximumDailyMinor cuando la tarifa no tiene tope diario
+     */
+    public static final long NO_DAILY_CAP = -1;
+
+    private TariffEngine() {
+    }
+
+    /**
+     * Horas a cobrar: horas empezadas, nunca menos que el mínimo
+     */
+    public static long billableHours(long minutesParked, int minimumChargeHours) {
+        long startedHours = minutesParked <= 0 ? 0 : (minutesParked + MINUTES_PER_HOUR - 1) / MINUTES_PER_HOUR;
+        return Math.max(startedHours, minimumChargeHours);
+    }
+
+    /**
+     * Precio en unidades menores de una estadía de minutesParked minutos
+     * @throws ArithmeticException si el resultado no cabe en un long
+     */
+    public static long priceMinor(long minutesParked, long ratePerHourMinor, int minimumChargeHours, long maximumDailyMinor) {
+        long hours = billableHours(minutesParked, minimumChargeHours);
+        if (maximumDailyMinor == NO_DAILY_CAP) {
+            return Math.multiplyExact(hours, ratePerHourMinor);
+        }
+
+        long fullDayPrice = Math.min(Math.multiplyExact(HOURS_PER_DAY, ratePerHourMinor), maximumDailyMinor);
+        long lastDayPrice = Math.min(Math.multiplyExact(hours % HOURS_PER_DAY, ratePerHourMinor), maximumDailyMinor);
+        return Math.addExact(Math.multiplyExact(hours / HOURS_PER_DAY, fullDayPrice), lastDayPrice);
+    }
+
+    /**
+     * Minutos completos entre entrada y salida (0 si la salida es anterior)
+     */
+    public static long minutesBetween(LocalDateTime entryTime, LocalDateTime exitTime) {
+        return Math.max(ChronoUnit.MINUTES.between(entryTime, exitTime), 0);
+    }
+
+    /**
+     * Minutos a horas con 2 decimales (HALF_UP), como se guardan en payments.hours_parked
+     */
+    public static BigDecimal toHours(long minutesParked) {
+        return BigDecimal.valueOf(minutesParked).divide(BigDecimal.valueOf(MINUTES_PER_HOUR), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Monto a unidades menores, redondeando a 2 decimales (HALF_UP)
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(MINOR_UNIT_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Unidades menores a monto con 2 decimales
+     */
+    public static BigDecimal toAmount(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, MINOR_UNIT_SCALE);
+    }
+}
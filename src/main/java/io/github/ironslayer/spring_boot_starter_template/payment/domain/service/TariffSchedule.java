@@ -0,0 +1,159 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.domain.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Horario de una tarifa (tarifa nocturna y de fin de semana) precompilado en una tabla por minuto de la semana.
+ *
+ * Cada hora empezada se cobra con la tarifa que rige en el minuto en que empieza esa hora.
+ * Como las horas de una estadía empiezan cada 60 minutos desde la entrada, la tabla guarda
+ * sumas acumuladas de 60 en 60 minutos sobre dos semanas seguidas:
+ *   cumulative[m] = tarifa de la hora que empieza en el minuto m + cumulative[m - 60]
+ * así el precio de n horas seguidas (n ≤ una semana) son dos lecturas del arreglo,
+ * un día con tope son dos lecturas más un min, y una estadía de 3 días son unas pocas lecturas.
+ * Estadías más largas se resuelven por semanas completas, que se repiten.
+ *
+ * Se compila una vez por versión de la tabla de tarifas (ver Tariff.of); la tabla ocupa
+ * 2 x 10080 longs (~160 KB) y solo existe para tarifas con horario.
+ */
+public final class TariffSchedule {
+
+    public static final int MINUTES_PER_DAY = TariffEngine.MINUTES_PER_HOUR * TariffEngine.HOURS_PER_DAY;
+    public static final int DAYS_PER_WEEK = 7;
+    public static final int MINUTES_PER_WEEK = MINUTES_PER_DAY * DAYS_PER_WEEK;
+    public static final int HOURS_PER_WEEK = TariffEngine.HOURS_PER_DAY * DAYS_PER_WEEK;
+
+    /**
+     * Valor de las tarifas nocturna / de fin de semana cuando no se usan
+     */
+    public static final long NO_RATE = -1;
+
+    private static final int SATURDAY = 5;
+
+    private final long[] cumulative;
+
+    private TariffSchedule(long[] cumulative) {
+        this.cumulative = cumulative;
+    }
+
+    /**
+     * Compila el horario. La tarifa nocturna rige todos los días entre nightStartHour (incluida)
+     * y nightEndHour (excluida), cruzando medianoche si start > end; la de fin de semana rige
+     * sábado y domingo fuera del horario nocturno; el resto del tiempo rige la tarifa base.
+     */
+    public static TariffSchedule compile(long ratePerHourMinor, long nightRatePerHourMinor, int nightStartHour,
+                                         int nightEndHour, long weekendRatePerHourMinor) {
+        if (ratePerHourMinor <= 0) {
+            throw new IllegalArgumentException("Rate per hour must be greater than 0");
+        }
+        if (nightRatePerHourMinor != NO_RATE) {
+            if (nightRatePerHourMinor <= 0) {
+                throw new IllegalArgumentException("Night rate per hour must be greater than 0");
+            }
+            if (!isHourOfDay(nightStartHour) || !isHourOfDay(nightEndHour) || nightStartHour == nightEndHour) {
+                throw new IllegalArgumentException("Night hours must be two different hours between 0 and 23");
+            }
+        }
+        if (weekendRatePerHourMinor != NO_RATE && weekendRatePerHourMinor <= 0) {
+            throw new IllegalArgumentException("Weekend rate per hour must be greater than 0");
+        }
+
+        long[] cumulative = new long[2 * MINUTES_PER_WEEK];
+        for (int minute = 0; minute < cumulative.length; minute++) {
+            int minuteOfWeek = minute % MINUTES_PER_WEEK;
+            int day = minuteOfWeek / MINUTES_PER_DAY;
+            int hour = (minuteOfWeek % MINUTES_PER_DAY) / TariffEngine.MINUTES_PER_HOUR;
+
+            long rate = ratePerHourMinor;
+            if (nightRatePerHourMinor != NO_RATE && isNight(hour, nightStartHour, nightEndHour)) {
+                rate = nightRatePerHourMinor;
+            } else if (weekendRatePerHourMinor != NO_RATE && day >= SATURDAY) {
+                rate = weekendRatePerHourMinor;
+            }
+
+            cumulative[minute] = minute >= TariffEngine.MINUTES_PER_HOUR
+                    ? Math.addExact(rate, cumulative[minute - TariffEngine.MINUTES_PER_HOUR])
+                    : rate;
+        }
+        return new TariffSchedule(cumulative);
+    }
+
+    /**
+     * Minuto de la semana (lunes 00:00 = 0) en que cae el momento indicado
+     */
+    public static int minuteOfWeek(LocalDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY
+                + time.getHour() * TariffEngine.MINUTES_PER_HOUR
+                + time.getMinute();
+    }
+
+    /**
+     * Precio en unidades menores de billableHours horas seguidas que empiezan en startMinuteOfWeek.
+     * Con tope diario, cada bloque de 24 h (y el último incompleto) cuesta como máximo el tope,
+     * igual que TariffEngine.priceMinor.
+     * @throws ArithmeticException si el resultado no cabe en un long
+     */
+    public long priceMinor(int startMinuteOfWeek, long billableHours, long maximumDailyMinor) {
+        if (maximumDailyMinor == TariffEngine.NO_DAILY_CAP) {
+            // Cada semana completa empieza en el mismo minuto de la semana y cuesta lo mismo
+            long weeks = billableHours / HOURS_PER_WEEK;
+            return Math.addExact(
+                    Math.multiplyExact(weeks, sumOfHours(startMinuteOfWeek, HOURS_PER_WEEK)),
+                    sumOfHours(startMinuteOfWeek, (int) (billableHours % HOURS_PER_WEEK)));
+        }
+
+        long fullDays = billableHours / TariffEngine.HOURS_PER_DAY;
+        int extraDays = (int) (fullDays % DAYS_PER_WEEK);
+        long weeks = fullDays / DAYS_PER_WEEK;
+
+        long total = 0;
+        if (weeks > 0) {
+            long cappedWeek = 0;
+            for (int day = 0; day < DAYS_PER_WEEK; day++) {
+                cappedWeek = Math.addExact(cappedWeek, cappedDay(startMinuteOfWeek, day, TariffEngine.HOURS_PER_DAY, maximumDailyMinor));
+            }
+            total = Math.multiplyExact(weeks, cappedWeek);
+        }
+        for (int day = 0; day < extraDays; day++) {
+            total = Math.addExact(total, cappedDay(startMinuteOfWeek, day, TariffEngine.HOURS_PER_DAY, maximumDailyMinor));
+        }
+        int lastDayHours = (int) (billableHours % TariffEngine.HOURS_PER_DAY);
+        return Math.addExact(total, cappedDay(startMinuteOfWeek, extraDays, lastDayHours, maximumDailyMinor));
+    }
+
+    /**
+     * Tarifa de la hora que empieza en el minuto indicado
+     */
+    long ratePerHourMinorAt(int minuteOfWeek) {
+        return sumOfHours(minuteOfWeek, 1);
+    }
+
+    private long cappedDay(int startMinuteOfWeek, int day, int hours, long maximumDailyMinor) {
+        int dayStart = (startMinuteOfWeek + day * MINUTES_PER_DAY) % MINUTES_PER_WEEK;
+        return Math.min(sumOfHours(dayStart, hours), maximumDailyMinor);
+    }
+
+    /**
+     * Suma de las tarifas de hours horas seguidas (0 a HOURS_PER_WEEK) desde startMinuteOfWeek
+     */
+    private long sumOfHours(int startMinuteOfWeek, int hours) {
+        if (hours == 0) {
+            return 0;
+        }
+        int lastHourStart = startMinuteOfWeek + (hours - 1) * TariffEngine.MINUTES_PER_HOUR;
+        long before = startMinuteOfWeek >= TariffEngine.MINUTES_PER_HOUR
+                ? cumulative[startMinuteOfWeek - TariffEngine.MINUTES_PER_HOUR]
+                : 0;
+        return cumulative[lastHourStart] - before;
+    }
+
+    private static boolean isNight(int hour, int nightStartHour, int nightEndHour) {
+        return nightStartHour < nightEndHour
+                ? hour >= nightStartHour && hour < nightEndHour
+                : hour >= nightStartHour || hour < nightEndHour;
+    }
+
+    private static boolean isHourOfDay(int hour) {
+        return hour >= 0 && hour < TariffEngine.HOURS_PER_DAY;
+    }
+}
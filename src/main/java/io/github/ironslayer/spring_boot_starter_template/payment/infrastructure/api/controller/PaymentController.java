@@ -2,20 +2,29 @@ package io.github.ironslayer.spring_boot_starter_template.payment.infrastructure
 
 import io.github.ironslayer.spring_boot_starter_template.common.mediator.Mediator;
 import io.github.ironslayer.spring_boot_starter_template.common.security.AuthenticatedUserService;
+import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
 import io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPayment.ProcessPaymentRequest;
 import io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPayment.ProcessPaymentResponse;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPaymentsBatch.ProcessPaymentsBatchRequest;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPaymentsBatch.ProcessPaymentsBatchResponse;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.idempotency.IdempotentPaymentExecutor;
 import io.github.ironslayer.spring_boot_starter_template.payment.application.query.calculateAmount.CalculateAmountRequest;
 import io.github.ironslayer.spring_boot_starter_template.payment.application.query.calculateAmount.CalculateAmountResponse;
 import io.github.ironslayer.spring_boot_starter_template.payment.application.query.getPayment.GetPaymentRequest;
 import io.github.ironslayer.spring_boot_starter_template.payment.application.query.getPayment.GetPaymentResponse;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.query.listPayments.ListPaymentsRequest;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.query.listPayments.ListPaymentsResponse;
 import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentMethod;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentStatus;
 import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.PaymentStatusService;
 import io.github.ironslayer.spring_boot_starter_template.payment.infrastructure.api.dto.*;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -25,8 +34,10 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -43,6 +54,7 @@ import java.util.Map;
 public class PaymentController {
 
     private final Mediator mediator;
+    private final IdempotentPaymentExecutor idempotentPaymentExecutor;
     private final AuthenticatedUserService authenticatedUserService;
 
     /**
@@ -78,12 +90,14 @@ public class PaymentController {
     /**
      * Procesar un pago para una sesión de parqueo
      * Solo ADMIN y OPERATOR pueden procesar pagos
+     * Con Idempotency-Key, un reintento con la misma clave devuelve el mismo pago sin procesarlo de nuevo
      */
-    @Operation(summary = "Process payment", description = "Process a payment for a completed parking session with the specified payment method (ADMIN and OPERATOR only)")
+    @Operation(summary = "Process payment", description = "Process a payment for a completed parking session with the specified payment method (ADMIN and OPERATOR only). Retries sending the same Idempotency-Key header receive the original response.")
     @PostMapping("/process")
     @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('OPERATOR')")
     public ResponseEntity<ProcessPaymentResponseDto> processPayment(
             @Valid @RequestBody ProcessPaymentRequestDto requestDto,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @AuthenticationPrincipal UserDetails userDetails) {
         
         log.info("User {} processing payment for parking session {} with method {}", 
@@ -97,7 +111,8 @@ public class PaymentController {
         request.setPaymentMethod(PaymentMethod.valueOf(requestDto.getPaymentMethod().toUpperCase()));
         request.setOperatorId(operatorId); // Ahora usamos el ID real del usuario autenticado desde el JWT
         
-        ProcessPaymentResponse response = mediator.dispatch(request);
+        ProcessPaymentResponse response = idempotentPaymentExecutor.execute(
+                idempotencyKey, request, () -> mediator.dispatch(request));
 
         ProcessPaymentResponseDto responseDto = new ProcessPaymentResponseDto(
                 response.getPayment().getId(),
@@ -116,6 +131,76 @@ public class PaymentController {
         return ResponseEntity.ok(responseDto);
     }
 
+    /**
+     * Cobrar varias sesiones finalizadas en una sola llamada (cierre de caja)
+     * Solo ADMIN y OPERATOR pueden procesar pagos
+     */
+    @Operation(summary = "Process payments in batch", description = "Pay several completed parking sessions at once with the same payment method, with a result per session (ADMIN and OPERATOR only)")
+    @PostMapping("/process/batch")
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('OPERATOR')")
+    public ResponseEntity<ProcessPaymentsBatchResponse> processPaymentsBatch(
+            @Valid @RequestBody ProcessPaymentsBatchRequestDto requestDto,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        
+        log.info("User {} processing {} payments in batch with method {}", 
+                userDetails.getUsername(), requestDto.getParkingSessionIds().size(), requestDto.getPaymentMethod());
+
+        ProcessPaymentsBatchRequest request = new ProcessPaymentsBatchRequest(
+                requestDto.getParkingSessionIds(),
+                PaymentMethod.valueOf(requestDto.getPaymentMethod().toUpperCase()),
+                authenticatedUserService.getCurrentUserId()
+        );
+        ProcessPaymentsBatchResponse response = mediator.dispatch(request);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Listar pagos por páginas (keyset), del más reciente al más antiguo
+     * Solo ADMIN y OPERATOR pueden consultar pagos
+     */
+    @Operation(summary = "List payments", description = "List payments filtered by status (PAID by default), operator and date range, newest first. Pages are keyset-based: pass next_cursor from the previous page to get the next one (ADMIN and OPERATOR only)")
+    @GetMapping
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('OPERATOR')")
+    public ResponseEntity<PaymentPageResponseDto> listPayments(
+            @Parameter(description = "Payment status: PAID (default), PENDING or CANCELLED")
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Only payments registered by this operator")
+            @RequestParam(required = false) @Positive(message = "Operator ID must be positive") Long operatorId,
+            @Parameter(description = "First day (YYYY-MM-DD), by paid date for PAID and creation date otherwise")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "Last day included (YYYY-MM-DD)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Opaque position returned as next_cursor by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-1000, default 100)")
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        
+        log.info("User {} listing payments (status {}, operator {}, {} to {})", 
+                userDetails.getUsername(), status, operatorId, startDate, endDate);
+
+        ListPaymentsRequest request = new ListPaymentsRequest(
+                parseStatus(status), operatorId, startDate, endDate, cursor, limit);
+        ListPaymentsResponse response = mediator.dispatch(request);
+
+        PaymentPageResponseDto responseDto = new PaymentPageResponseDto(
+                response.payments().stream()
+                        .map(payment -> new PaymentResponseDto(
+                                payment.getId(),
+                                payment.getParkingSessionId(),
+                                payment.getPaymentMethod(),
+                                payment.getStatus(),
+                                payment.getAmount(),
+                                payment.getCreatedAt(),
+                                payment.getPaidAt()))
+                        .toList(),
+                response.nextCursor()
+        );
+        
+        return ResponseEntity.ok(responseDto);
+    }
+
     /**
      * Obtener información de un pago por ID
      * Solo ADMIN y OPERATOR pueden consultar pagos
@@ -222,4 +307,15 @@ public class PaymentController {
         
         return ResponseEntity.ok(successResponse);
     }
+
+    private PaymentStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return PaymentStatus.valueOf(status.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid payment status: " + status);
+        }
+    }
 }
@@ -0,0 +1,26 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.infrastructure.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para la respuesta de un listado paginado de pagos
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaymentPageResponseDto {
+    
+    @JsonProperty("payments")
+    private List<PaymentResponseDto> payments;
+    
+    /**
+     * Posición para pedir la página siguiente (null en la última página)
+     */
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+}
@@ -0,0 +1,29 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.infrastructure.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * DTO para el request de cobro masivo de sesiones
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProcessPaymentsBatchRequestDto {
+    
+    @JsonProperty("parking_session_ids")
+    @NotEmpty(message = "At least one parking session ID is required")
+    @Size(max = 500, message = "A batch can contain at most 500 parking sessions")
+    private List<Long> parkingSessionIds;
+    
+    @JsonProperty("payment_method")
+    @NotNull(message = "Payment method is required")
+    private String paymentMethod;
+}
@@ -0,0 +1,73 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.infrastructure.idempotency;
+
+import io.github.ironslayer.spring_boot_starter_template.payment.application.idempotency.ProcessedPayment;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.idempotency.ProcessedPaymentStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Respuestas de pagos por Idempotency-Key en memoria (por defecto).
+ * Acotada por cantidad (app.payments.idempotency.max-size, se descarta la más vieja)
+ * y por tiempo (app.payments.idempotency.ttl).
+ */
+@Component
+@ConditionalOnProperty(name = "app.payments.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryProcessedPaymentStore implements ProcessedPaymentStore {
+
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, Entry> processed;
+
+    public InMemoryProcessedPaymentStore(@Value("${app.payments.idempotency.max-size:10000}") int maxSize,
+                                         @Value("${app.payments.idempotency.ttl:PT24H}") Duration ttl) {
+        this(maxSize, ttl, Clock.systemUTC());
+    }
+
+    InMemoryProcessedPaymentStore(int maxSize, Duration ttl, Clock clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Idempotency store max size must be greater than 0");
+        }
+        this.ttl = ttl;
+        this.clock = clock;
+        // Orden de inserción: la primera entrada es la más vieja
+        this.processed = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public Optional<ProcessedPayment> find(String key) {
+        synchronized (processed) {
+            Entry entry = processed.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (entry.expiresAt().isBefore(clock.instant())) {
+                processed.remove(key);
+                return Optional.empty();
+            }
+            return Optional.of(entry.processedPayment());
+        }
+    }
+
+    @Override
+    public void save(String key, ProcessedPayment processedPayment) {
+        synchronized (processed) {
+            processed.put(key, new Entry(processedPayment, clock.instant().plus(ttl)));
+        }
+    }
+
+    private record Entry(ProcessedPayment processedPayment, Instant expiresAt) {
+    }
+}
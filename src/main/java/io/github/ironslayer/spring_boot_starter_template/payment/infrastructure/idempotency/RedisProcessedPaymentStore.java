@@ -0,0 +1,61 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.infrastructure.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.idempotency.ProcessedPayment;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.idempotency.ProcessedPaymentStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Respuestas de pagos por Idempotency-Key en Redis, compartidas entre instancias
+ * (app.payments.idempotency.store=redis). Cada clave vence a los app.payments.idempotency.ttl.
+ *
+ * Si Redis no responde el pago no falla: la búsqueda se toma como "no procesado"
+ * y el guardado se registra en el log. La fila en payments sigue evitando el doble cobro.
+ */
+@Component
+@ConditionalOnProperty(name = "app.payments.idempotency.store", havingValue = "redis")
+@Slf4j
+public class RedisProcessedPaymentStore implements ProcessedPaymentStore {
+
+    static final String KEY_PREFIX = "payments:idempotency:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+
+    public RedisProcessedPaymentStore(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                                      @Value("${app.payments.idempotency.ttl:PT24H}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Optional<ProcessedPayment> find(String key) {
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+            return json == null ? Optional.empty() : Optional.of(objectMapper.readValue(json, ProcessedPayment.class));
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Could not read idempotent payment response for key {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void save(String key, ProcessedPayment processedPayment) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + key, objectMapper.writeValueAsString(processedPayment), ttl);
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Could not store idempotent payment response for key {}: {}", key, e.getMessage());
+        }
+    }
+}
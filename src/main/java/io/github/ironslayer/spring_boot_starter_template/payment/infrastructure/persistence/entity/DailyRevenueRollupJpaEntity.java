@@ -0,0 +1,52 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.infrastructure.persistence.entity;
+
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentMethod;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Entidad JPA para la tabla daily_revenue_rollup (resumen diario de recaudación).
+ * Se escribe con upserts JDBC (ver DailyRevenueRollupJdbcRepository); la entidad define la tabla.
+ */
+@Entity
+@Table(name = "daily_revenue_rollup")
+@IdClass(DailyRevenueRollupJpaEntity.RollupKey.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyRevenueRollupJpaEntity {
+    
+    @Id
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+    
+    @Id
+    @Column(name = "vehicle_type_id", nullable = false)
+    private Long vehicleTypeId;
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", nullable = false, length = 20)
+    private PaymentMethod paymentMethod;
+    
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+    
+    @Column(name = "payment_count", nullable = false)
+    private Long paymentCount;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RollupKey implements Serializable {
+        private LocalDate rollupDate;
+        private Long vehicleTypeId;
+        private PaymentMethod paymentMethod;
+    }
+}
@@ -12,7 +12,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
- * Entidad JPA para la tabla de pagos
+ * Entidad JPA para la tabla de pagos.
+ * Los índices (incluidos los del orden de los listados keyset, ver PaymentQueryJdbcRepository)
+ * están en db/migration/V2__hot_path_indexes.sql
  */
 @Entity
 @Table(name = "payments")
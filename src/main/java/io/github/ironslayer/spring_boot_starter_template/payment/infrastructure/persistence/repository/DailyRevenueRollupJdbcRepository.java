@@ -0,0 +1,139 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.infrastructure.persistence.repository;
+
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.RevenueRollupEntry;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.event.RevenueRollupRebuiltEvent;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentMethod;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.RevenueRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resumen diario de recaudación con upserts JDBC (INSERT ... ON CONFLICT DO UPDATE).
+ *
+ * Los aportes se agrupan antes por clave y se escriben ordenados por clave en un solo batch,
+ * así dos transacciones que tocan las mismas filas las bloquean en el mismo orden.
+ * Al arrancar se concilia con la tabla payments (ver reconcile); si se recalcula se publica
+ * RevenueRollupRebuiltEvent para que se descarten los reportes armados con el resumen anterior.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class DailyRevenueRollupJdbcRepository implements RevenueRollupRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO daily_revenue_rollup (rollup_date, vehicle_type_id, payment_method, total_amount, payment_count)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (rollup_date, vehicle_type_id, payment_method) DO UPDATE
+            SET total_amount = daily_revenue_rollup.total_amount + EXCLUDED.total_amount,
+                payment_count = daily_revenue_rollup.payment_count + EXCLUDED.payment_count
+            """;
+
+    /**
+     * Recalcula el resumen completo desde los pagos cobrados, con los mismos joins que usaban los reportes
+     */
+    private static final String REBUILD_SQL = """
+            INSERT INTO daily_revenue_rollup (rollup_date, vehicle_type_id, payment_method, total_amount, payment_count)
+            SELECT DATE(p.paid_at), v.vehicle_type_id, p.payment_method, SUM(p.total_amount), COUNT(p.id)
+            FROM payments p
+            JOIN parking_sessions ps ON p.parking_session_id = ps.id
+            JOIN vehicles v ON ps.vehicle_id = v.id
+            WHERE p.payment_status = 'PAID' AND p.paid_at IS NOT NULL
+            GROUP BY DATE(p.paid_at), v.vehicle_type_id, p.payment_method
+            ON CONFLICT (rollup_date, vehicle_type_id, payment_method) DO UPDATE
+            SET total_amount = EXCLUDED.total_amount,
+                payment_count = EXCLUDED.payment_count
+            """;
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::date)
+            .thenComparing(Key::vehicleTypeId)
+            .thenComparing(Key::paymentMethod);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void add(Collection<RevenueRollupEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        Map<Key, RevenueRollupEntry> merged = new TreeMap<>(KEY_ORDER);
+        for (RevenueRollupEntry entry : entries) {
+            merged.merge(new Key(entry.date(), entry.vehicleTypeId(), entry.paymentMethod()), entry,
+                    (current, added) -> new RevenueRollupEntry(current.date(), current.vehicleTypeId(),
+                            current.paymentMethod(), current.totalAmount().add(added.totalAmount()),
+                            current.paymentCount() + added.paymentCount()));
+        }
+
+        List<Object[]> rows = new ArrayList<>(merged.size());
+        for (RevenueRollupEntry entry : merged.values()) {
+            rows.add(new Object[]{Date.valueOf(entry.date()), entry.vehicleTypeId(), entry.paymentMethod().name(),
+                    entry.totalAmount(), entry.paymentCount()});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        log.debug("Added {} payments to {} revenue rollup rows", entries.size(), rows.size());
+    }
+
+    /**
+     * Concilia el resumen con los pagos al arrancar: si la cantidad o el monto total de los pagos
+     * cobrados no coincide (primer arranque con la tabla vacía, pagos anteriores al resumen, borrados
+     * o montos corregidos) se recalcula.
+     * La tabla se bloquea mientras tanto, así los pagos que se cobran en paralelo esperan
+     * y se suman después sobre el resumen ya recalculado.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcile() {
+        jdbcTemplate.execute("LOCK TABLE daily_revenue_rollup IN EXCLUSIVE MODE");
+
+        Totals rolledUp = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(payment_count), 0), COALESCE(SUM(total_amount), 0) FROM daily_revenue_rollup",
+                (rs, rowNum) -> new Totals(rs.getLong(1), rs.getBigDecimal(2)));
+        Totals paid = jdbcTemplate.queryForObject("""
+                SELECT COUNT(p.id), COALESCE(SUM(p.total_amount), 0)
+                FROM payments p
+                JOIN parking_sessions ps ON p.parking_session_id = ps.id
+                JOIN vehicles v ON ps.vehicle_id = v.id
+                WHERE p.payment_status = 'PAID' AND p.paid_at IS NOT NULL
+                """, (rs, rowNum) -> new Totals(rs.getLong(1), rs.getBigDecimal(2)));
+        if (paid != null && paid.matches(rolledUp)) {
+            log.info("Revenue rollup in sync: {} paid payments, {} collected", paid.count(), paid.amount());
+            return;
+        }
+
+        jdbcTemplate.update("DELETE FROM daily_revenue_rollup");
+        int rows = jdbcTemplate.update(REBUILD_SQL);
+        log.info("Revenue rollup rebuilt: {} rows for {} (had {})", rows, paid, rolledUp);
+
+        // Los reportes de días cerrados ya guardados salieron del resumen anterior;
+        // quienes los guardan los descartan al confirmarse el recálculo
+        eventPublisher.publishEvent(new RevenueRollupRebuiltEvent(rows));
+    }
+
+    private record Totals(long count, BigDecimal amount) {
+
+        // compareTo: la escala de SUM puede variar entre la tabla de pagos y el resumen
+        boolean matches(Totals other) {
+            return other != null && count == other.count && amount.compareTo(other.amount) == 0;
+        }
+    }
+
+    private record Key(LocalDate date, Long vehicleTypeId, PaymentMethod paymentMethod) {
+    }
+}
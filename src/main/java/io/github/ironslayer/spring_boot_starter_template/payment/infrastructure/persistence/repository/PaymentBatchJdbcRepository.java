@@ -0,0 +1,78 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.infrastructure.persistence.repository;
+
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.Payment;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserción masiva de pagos con JDBC batching.
+ * Todo el lote viaja en un solo batch y los IDs generados se leen de vuelta en el mismo orden.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class PaymentBatchJdbcRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO payments (parking_session_id, total_amount, hours_parked, rate_applied,
+                                  payment_method, payment_status, paid_at, operator_id, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<Payment> insertAll(List<Payment> payments) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(@NonNull PreparedStatement ps, int i) throws SQLException {
+                        Payment payment = payments.get(i);
+                        ps.setLong(1, payment.getParkingSessionId());
+                        ps.setBigDecimal(2, payment.getTotalAmount());
+                        ps.setBigDecimal(3, payment.getHoursParked());
+                        ps.setBigDecimal(4, payment.getRateApplied());
+                        ps.setString(5, payment.getPaymentMethod().name());
+                        ps.setString(6, payment.getPaymentStatus().name());
+                        ps.setTimestamp(7, toTimestamp(payment.getPaidAt()));
+                        ps.setLong(8, payment.getOperatorId());
+                        ps.setTimestamp(9, toTimestamp(payment.getCreatedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return payments.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        List<Payment> inserted = new ArrayList<>(payments.size());
+        for (int i = 0; i < payments.size(); i++) {
+            Payment payment = payments.get(i);
+            payment.setId(((Number) keys.get(i).get("id")).longValue());
+            inserted.add(payment);
+        }
+        log.debug("Inserted {} payments in one batch", inserted.size());
+        return inserted;
+    }
+
+    private Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+}
@@ -5,11 +5,13 @@ import io.github.ironslayer.spring_boot_starter_template.payment.infrastructure.
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +31,12 @@ public interface PaymentJpaRepository extends JpaRepository<PaymentJpaEntity, Lo
      */
     boolean existsByParkingSessionId(Long parkingSessionId);
     
+    /**
+     * IDs de las sesiones (de la colección dada) que ya tienen un pago
+     */
+    @Query("SELECT p.parkingSessionId FROM PaymentJpaEntity p WHERE p.parkingSessionId IN :parkingSessionIds")
+    List<Long> findParkingSessionIdsWithPayment(@Param("parkingSessionIds") Collection<Long> parkingSessionIds);
+    
     /**
      * Buscar pagos por estado
      */
@@ -68,4 +76,12 @@ public interface PaymentJpaRepository extends JpaRepository<PaymentJpaEntity, Lo
      */
     @Query("SELECT p FROM PaymentJpaEntity p WHERE p.paymentStatus = 'PENDING' AND p.createdAt < :cutoffDate")
     List<PaymentJpaEntity> findPendingPaymentsOlderThan(@Param("cutoffDate") LocalDateTime cutoffDate);
+    
+    /**
+     * Cancelar los pagos dados que sigan pendientes
+     */
+    @Modifying
+    @Query("UPDATE PaymentJpaEntity p SET p.paymentStatus = 'CANCELLED' " +
+           "WHERE p.id IN :paymentIds AND p.paymentStatus = 'PENDING'")
+    int cancelPendingPayments(@Param("paymentIds") Collection<Long> paymentIds);
 }
@@ -0,0 +1,88 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.infrastructure.persistence.repository;
+
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.Payment;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentMethod;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentStatus;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.PaymentRepository.PaymentFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Listados de pagos por JDBC con paginación keyset sobre (paid_at, id), o (created_at, id)
+ * para los estados sin paid_at: cada página es un recorrido de índice desde la posición
+ * de la anterior, así que la página 1000 cuesta lo mismo que la primera (no hay OFFSET).
+ * Ver los índices de payments en db/migration/V2__hot_path_indexes.sql.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentQueryJdbcRepository {
+
+    private static final String PAYMENTS_SELECT = """
+            SELECT p.id, p.parking_session_id, p.total_amount, p.hours_parked, p.rate_applied,
+                   p.payment_method, p.payment_status, p.paid_at, p.operator_id, p.created_at
+            FROM payments p
+            WHERE p.payment_status = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<Payment> findPage(PaymentFilter filter, LocalDateTime afterTime, Long afterId, int limit) {
+        // La columna sale de una constante, nunca de la petición
+        String sortColumn = filter.status() == PaymentStatus.PAID ? "p.paid_at" : "p.created_at";
+
+        StringBuilder sql = new StringBuilder(PAYMENTS_SELECT);
+        List<Object> args = new ArrayList<>();
+        args.add(filter.status().name());
+
+        if (filter.operatorId() != null) {
+            sql.append("AND p.operator_id = ?\n");
+            args.add(filter.operatorId());
+        }
+        if (filter.from() != null) {
+            sql.append("AND ").append(sortColumn).append(" >= ?\n");
+            args.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append("AND ").append(sortColumn).append(" < ?\n");
+            args.add(Timestamp.valueOf(filter.to()));
+        }
+        if (afterTime != null && afterId != null) {
+            // Comparación de filas: sigue justo después del último pago devuelto, aunque compartan instante
+            sql.append("AND (").append(sortColumn).append(", p.id) < (?, ?)\n");
+            args.add(Timestamp.valueOf(afterTime));
+            args.add(afterId);
+        }
+        sql.append("ORDER BY ").append(sortColumn).append(" DESC, p.id DESC\n")
+                .append("LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> mapPayment(rs), args.toArray());
+    }
+
+    private Payment mapPayment(ResultSet rs) throws SQLException {
+        return Payment.builder()
+                .id(rs.getLong("id"))
+                .parkingSessionId(rs.getLong("parking_session_id"))
+                .totalAmount(rs.getBigDecimal("total_amount"))
+                .hoursParked(rs.getBigDecimal("hours_parked"))
+                .rateApplied(rs.getBigDecimal("rate_applied"))
+                .paymentMethod(PaymentMethod.valueOf(rs.getString("payment_method")))
+                .paymentStatus(PaymentStatus.valueOf(rs.getString("payment_status")))
+                .paidAt(toLocalDateTime(rs.getTimestamp("paid_at")))
+                .operatorId(rs.getLong("operator_id"))
+                .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                .build();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -2,18 +2,24 @@ package io.github.ironslayer.spring_boot_starter_template.payment.infrastructure
 
 import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.Payment;
 import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentStatus;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.exception.PaymentAlreadyExistsException;
 import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.PaymentRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.PaymentRepository.PaymentFilter;
 import io.github.ironslayer.spring_boot_starter_template.payment.infrastructure.persistence.entity.PaymentJpaEntity;
 import io.github.ironslayer.spring_boot_starter_template.payment.infrastructure.persistence.mapper.PaymentMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -24,21 +30,59 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PaymentRepositoryImpl implements PaymentRepository {
 
+    private static final String PARKING_SESSION_INDEX = "idx_payments_parking_session_id";
+
     private final PaymentJpaRepository paymentJpaRepository;
     private final PaymentMapper paymentMapper;
+    private final PaymentBatchJdbcRepository paymentBatchJdbcRepository;
+    private final PaymentQueryJdbcRepository paymentQueryJdbcRepository;
 
     @Override
     public Payment save(Payment payment) {
         log.debug("Saving payment: {}", payment);
         
         PaymentJpaEntity jpaEntity = paymentMapper.toJpaEntity(payment);
-        PaymentJpaEntity savedEntity = paymentJpaRepository.save(jpaEntity);
+        PaymentJpaEntity savedEntity;
+        try {
+            // Con IDENTITY el INSERT sale en el save, así que la violación del índice único llega aquí
+            savedEntity = paymentJpaRepository.save(jpaEntity);
+        } catch (DataIntegrityViolationException e) {
+            if (isParkingSessionViolation(e)) {
+                throw new PaymentAlreadyExistsException(payment.getParkingSessionId());
+            }
+            throw e;
+        }
         Payment savedPayment = paymentMapper.toDomain(savedEntity);
         
         log.debug("Payment saved successfully with ID: {}", savedPayment.getId());
         return savedPayment;
     }
 
+    @Override
+    public List<Payment> insertAll(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return List.of();
+        }
+        log.debug("Inserting {} payments in batch", payments.size());
+        try {
+            return paymentBatchJdbcRepository.insertAll(payments);
+        } catch (DataIntegrityViolationException e) {
+            if (isParkingSessionViolation(e)) {
+                throw new PaymentAlreadyExistsException("Payment already exists for a parking session in the batch");
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * El índice único idx_payments_parking_session_id (V2__hot_path_indexes.sql) es la garantía
+     * definitiva de un solo pago por sesión; existsByParkingSessionId solo la adelanta.
+     */
+    private static boolean isParkingSessionViolation(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.contains(PARKING_SESSION_INDEX);
+    }
+
     @Override
     public Optional<Payment> findById(Long id) {
         log.debug("Finding payment by ID: {}", id);
@@ -62,6 +106,14 @@ public class PaymentRepositoryImpl implements PaymentRepository {
         return paymentJpaRepository.existsByParkingSessionId(parkingSessionId);
     }
 
+    @Override
+    public Set<Long> findParkingSessionIdsWithPayment(Collection<Long> parkingSessionIds) {
+        if (parkingSessionIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(paymentJpaRepository.findParkingSessionIdsWithPayment(parkingSessionIds));
+    }
+
     @Override
     public List<Payment> findAll() {
         log.debug("Finding all payments");
@@ -104,6 +156,22 @@ public class PaymentRepositoryImpl implements PaymentRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Payment> findPage(PaymentFilter filter, LocalDateTime afterTime, Long afterId, int limit) {
+        log.debug("Finding page of {} payments with filter {} after ({}, {})", limit, filter, afterTime, afterId);
+        
+        return paymentQueryJdbcRepository.findPage(filter, afterTime, afterId, limit);
+    }
+
+    @Override
+    public int cancelPendingPayments(Collection<Long> paymentIds) {
+        if (paymentIds.isEmpty()) {
+            return 0;
+        }
+        log.debug("Cancelling {} pending payments", paymentIds.size());
+        return paymentJpaRepository.cancelPendingPayments(paymentIds);
+    }
+
     @Override
     public List<Payment> findPaymentsToday() {
         log.debug("Finding payments created today");
@@ -0,0 +1,117 @@
+package io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache;
+
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.Tariff;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.entity.RateConfig;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.port.RateConfigRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tabla de tarifas activas en memoria.
+ * Cada salida, cotización y pago lee la tarifa de una foto inmutable (RateTableSnapshot)
+ * en lugar de consultar rate_configs. La foto se carga al arrancar y se reemplaza completa,
+ * con un solo cambio de referencia, cuando CreateRateConfigHandler o UpdateRateConfigHandler
+ * confirman su transacción; los lectores nunca ven una tabla a medio actualizar.
+ * La foto incluye el historial de versiones por tipo de vehículo (findTariffAt).
+ * Métricas: rate.table.snapshot.version y rate.table.snapshot.age (segundos).
+ */
+@Component
+@Slf4j
+public class RateTableCache {
+
+    static final String METRIC_PREFIX = "rate.table.snapshot";
+
+    private final RateConfigRepository rateConfigRepository;
+    private final Clock clock = Clock.systemUTC();
+    private final AtomicReference<RateTableSnapshot> current = new AtomicReference<>(RateTableSnapshot.EMPTY);
+
+    public RateTableCache(RateConfigRepository rateConfigRepository, MeterRegistry meterRegistry) {
+        this.rateConfigRepository = rateConfigRepository;
+
+        Gauge.builder(METRIC_PREFIX + ".version", current, ref -> ref.get().version())
+                .description("Version of the active rate table held in memory")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".age", this, cache -> cache.age().toMillis() / 1000.0)
+                .description("Seconds since the active rate table was loaded")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Carga la tabla desde la BD y publica una nueva versión.
+     * Sincronizado para que las versiones crezcan en el mismo orden en que se leyó la BD.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized RateTableSnapshot reload() {
+        List<RateConfig> versions = rateConfigRepository.findAllVersions();
+        RateTableSnapshot snapshot = RateTableSnapshot.of(current.get().version() + 1, clock.instant(), versions);
+        current.set(snapshot);
+        log.info("Rate table snapshot v{} loaded: {} active rates, {} versions",
+                snapshot.version(), snapshot.ratesByVehicleType().size(), versions.size());
+        return snapshot;
+    }
+
+    /**
+     * Recarga la tabla cuando confirme la transacción actual (o de inmediato si no hay una).
+     * Si la transacción se revierte la foto vigente se mantiene.
+     */
+    public void reloadAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        } else {
+            reload();
+        }
+    }
+
+    /**
+     * Foto vigente. Quien necesite varias tarifas coherentes entre sí debe tomar una sola foto.
+     */
+    public RateTableSnapshot snapshot() {
+        RateTableSnapshot snapshot = current.get();
+        // Peticiones que llegan antes de ApplicationReadyEvent: se carga en ese momento
+        return snapshot.version() == 0 ? reload() : snapshot;
+    }
+
+    public Optional<RateConfig> findActiveByVehicleTypeId(Long vehicleTypeId) {
+        return snapshot().findByVehicleTypeId(vehicleTypeId);
+    }
+
+    /**
+     * Tarifa activa ya convertida para TariffEngine (la que usan los cálculos de precio)
+     */
+    public Optional<Tariff> findTariffByVehicleTypeId(Long vehicleTypeId) {
+        return snapshot().findTariffByVehicleTypeId(vehicleTypeId);
+    }
+
+    /**
+     * Tarifa que regía en el momento indicado, ya convertida para TariffEngine.
+     * Es la que usan salidas, cotizaciones y pagos con la hora de entrada de la sesión,
+     * para que un cambio de tarifa no vuelva a cobrar las sesiones que entraron antes.
+     */
+    public Optional<Tariff> findTariffAt(Long vehicleTypeId, LocalDateTime at) {
+        return snapshot().findTariffAt(vehicleTypeId, at);
+    }
+
+    Duration age() {
+        RateTableSnapshot snapshot = current.get();
+        return snapshot.version() == 0 ? Duration.ZERO : Duration.between(snapshot.loadedAt(), clock.instant());
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache;
+
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.Tariff;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.entity.RateConfig;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Foto inmutable de las tarifas activas, una por tipo de vehículo.
+ * Las tarifas se copian al construir la foto, así que modificar la entidad
+ * original no altera los precios que ya se están cobrando con esta versión;
+ * quien consulta la foto tampoco debe modificar las tarifas que recibe.
+ * Junto a cada tarifa se guarda su Tariff ya convertida para TariffEngine.
+ *
+ * Además guarda el historial de versiones de cada tipo ordenado por vigencia
+ * (effectiveFrom), para cobrar cada sesión con la tarifa que regía cuando entró.
+ */
+public record RateTableSnapshot(long version, Instant loadedAt,
+                                Map<Long, RateConfig> ratesByVehicleType,
+                                Map<Long, Tariff> tariffsByVehicleType,
+                                Map<Long, NavigableMap<LocalDateTime, Tariff>> tariffHistoryByVehicleType) {
+
+    static final RateTableSnapshot EMPTY = new RateTableSnapshot(0, Instant.EPOCH, Map.of());
+
+    /**
+     * Vigencia de las tarifas activas anteriores al versionado (sin effectiveFrom):
+     * se consideran vigentes desde siempre
+     */
+    static final LocalDateTime SINCE_ALWAYS = LocalDateTime.MIN;
+
+    public RateTableSnapshot {
+        ratesByVehicleType = Map.copyOf(ratesByVehicleType);
+        tariffsByVehicleType = Map.copyOf(tariffsByVehicleType);
+        Map<Long, NavigableMap<LocalDateTime, Tariff>> history = new HashMap<>();
+        tariffHistoryByVehicleType.forEach((vehicleTypeId, versions) ->
+                history.put(vehicleTypeId, Collections.unmodifiableNavigableMap(new TreeMap<>(versions))));
+        tariffHistoryByVehicleType = Map.copyOf(history);
+    }
+
+    /**
+     * Foto sin historial: cada tarifa activa rige desde siempre
+     */
+    public RateTableSnapshot(long version, Instant loadedAt, Map<Long, RateConfig> ratesByVehicleType) {
+        this(version, loadedAt, ratesByVehicleType, compile(ratesByVehicleType), Map.of());
+    }
+
+    /**
+     * Arma la foto a partir de todas las versiones (ver RateConfigRepository.findAllVersions):
+     * las activas forman la tabla vigente y todas juntas el historial por tipo
+     */
+    static RateTableSnapshot of(long version, Instant loadedAt, Collection<RateConfig> versions) {
+        Map<Long, RateConfig> rates = new HashMap<>();
+        Map<Long, NavigableMap<LocalDateTime, RateConfig>> history = new HashMap<>();
+        for (RateConfig rate : versions) {
+            // Una tarifa inválida no se puede cobrar: el tipo queda como "sin tarifa configurada".
+            // Las que nunca estuvieron vigentes (borradores) tampoco entran al historial
+            if (!rate.isValid() || !rate.hasBeenInForce()) {
+                continue;
+            }
+            RateConfig copy = copyOf(rate);
+            if (Boolean.TRUE.equals(rate.getIsActive())) {
+                // Si por algún motivo hay dos activas para el mismo tipo, gana la más reciente (mayor id)
+                rates.merge(rate.getVehicleTypeId(), copy, RateTableSnapshot::newest);
+            }
+            LocalDateTime effectiveFrom = rate.getEffectiveFrom() != null ? rate.getEffectiveFrom() : SINCE_ALWAYS;
+            history.computeIfAbsent(rate.getVehicleTypeId(), id -> new TreeMap<>())
+                    .merge(effectiveFrom, copy, RateTableSnapshot::newest);
+        }
+
+        Map<Long, NavigableMap<LocalDateTime, Tariff>> tariffHistory = new HashMap<>();
+        history.forEach((vehicleTypeId, byEffectiveFrom) -> {
+            NavigableMap<LocalDateTime, Tariff> tariffs = new TreeMap<>();
+            byEffectiveFrom.forEach((effectiveFrom, rate) -> tariffs.put(effectiveFrom, Tariff.of(rate)));
+            tariffHistory.put(vehicleTypeId, tariffs);
+        });
+        return new RateTableSnapshot(version, loadedAt, rates, compile(rates), tariffHistory);
+    }
+
+    public Optional<RateConfig> findByVehicleTypeId(Long vehicleTypeId) {
+        return vehicleTypeId == null ? Optional.empty() : Optional.ofNullable(ratesByVehicleType.get(vehicleTypeId));
+    }
+
+    public Optional<Tariff> findTariffByVehicleTypeId(Long vehicleTypeId) {
+        return vehicleTypeId == null ? Optional.empty() : Optional.ofNullable(tariffsByVehicleType.get(vehicleTypeId));
+    }
+
+    /**
+     * Tarifa que regía en el momento indicado (normalmente la entrada de la sesión).
+     * Un HashMap por tipo y un floorEntry sobre sus pocas versiones: sin consultas ni copias.
+     * Si el tipo no tiene tarifa activa hoy no se cobra con una vieja (queda "sin tarifa configurada");
+     * si el momento es anterior a la primera versión se usa la primera.
+     */
+    public Optional<Tariff> findTariffAt(Long vehicleTypeId, LocalDateTime at) {
+        Optional<Tariff> current = findTariffByVehicleTypeId(vehicleTypeId);
+        NavigableMap<LocalDateTime, Tariff> versions = current.isPresent() && at != null
+                ? tariffHistoryByVehicleType.get(vehicleTypeId)
+                : null;
+        if (versions == null) {
+            return current;
+        }
+        Map.Entry<LocalDateTime, Tariff> inForce = versions.floorEntry(at);
+        return Optional.of(inForce != null ? inForce.getValue() : versions.firstEntry().getValue());
+    }
+
+    private static Map<Long, Tariff> compile(Map<Long, RateConfig> ratesByVehicleType) {
+        Map<Long, Tariff> tariffs = new HashMap<>();
+        ratesByVehicleType.forEach((vehicleTypeId, rate) -> tariffs.put(vehicleTypeId, Tariff.of(rate)));
+        return tariffs;
+    }
+
+    private static RateConfig newest(RateConfig current, RateConfig candidate) {
+        return candidate.getId() > current.getId() ? candidate : current;
+    }
+
+    private static RateConfig copyOf(RateConfig rate) {
+        return RateConfig.builder()
+                .id(rate.getId())
+                .vehicleTypeId(rate.getVehicleTypeId())
+                .ratePerHour(rate.getRatePerHour())
+                .minimumChargeHours(rate.getMinimumChargeHours())
+                .maximumDailyRate(rate.getMaximumDailyRate())
+                .nightRatePerHour(rate.getNightRatePerHour())
+                .nightStartHour(rate.getNightStartHour())
+                .nightEndHour(rate.getNightEndHour())
+                .weekendRatePerHour(rate.getWeekendRatePerHour())
+                .isActive(rate.getIsActive())
+                .effectiveFrom(rate.getEffectiveFrom())
+                .createdAt(rate.getCreatedAt())
+                .updatedAt(rate.getUpdatedAt())
+                .build();
+    }
+}
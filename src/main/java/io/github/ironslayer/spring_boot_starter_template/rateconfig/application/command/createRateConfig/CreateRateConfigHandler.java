@@ -2,11 +2,13 @@ package io.github.ironslayer.spring_boot_starter_template.rateconfig.application
 
 import io.github.ironslayer.spring_boot_starter_template.common.mediator.RequestHandler;
 import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableCache;
 import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.entity.RateConfig;
 import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.port.RateConfigRepository;
 import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.port.VehicleTypeRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 
@@ -21,9 +23,11 @@ import java.time.LocalDateTime;
  */
 @Component
 @RequiredArgsConstructor
+@Transactional
 public class CreateRateConfigHandler implements RequestHandler<CreateRateConfigRequest, CreateRateConfigResponse> {
 
     private final RateConfigRepository rateConfigRepository;
+    private final RateTableCache rateTableCache;
     private final VehicleTypeRepository vehicleTypeRepository;
 
     @Override
@@ -67,6 +71,12 @@ public class CreateRateConfigHandler implements RequestHandler<CreateRateConfigR
                 rateConfig.getMaximumDailyRate());
         }
 
+        // Validar el horario nocturno / de fin de semana si se proporciona
+        if (!rateConfig.isValidSchedule()) {
+            throw new BadRequestException("Night rate requires a rate greater than 0 and two different start/end hours " +
+                "between 0 and 23; weekend rate must be greater than 0");
+        }
+
         // Validar que el tipo de vehículo sea válido
         if (!rateConfig.isValidVehicleTypeId()) {
             throw new BadRequestException("Vehicle type ID must be a positive number");
@@ -81,12 +91,18 @@ public class CreateRateConfigHandler implements RequestHandler<CreateRateConfigR
         }
 
         // Configurar datos de creación
+        LocalDateTime now = LocalDateTime.now();
         rateConfig.setIsActive(rateConfig.getIsActive() != null ? rateConfig.getIsActive() : true);
-        rateConfig.setCreatedAt(LocalDateTime.now());
-        rateConfig.setUpdatedAt(LocalDateTime.now());
+        // Una tarifa activa rige desde su creación; una inactiva recién tendrá vigencia al activarse
+        rateConfig.setEffectiveFrom(rateConfig.getIsActive() ? now : null);
+        rateConfig.setCreatedAt(now);
+        rateConfig.setUpdatedAt(now);
 
         RateConfig saved = rateConfigRepository.save(rateConfig);
 
+        // La tabla de tarifas en memoria se reemplaza cuando confirme la transacción
+        rateTableCache.reloadAfterCommit();
+
         return new CreateRateConfigResponse(saved.getId());
     }
 
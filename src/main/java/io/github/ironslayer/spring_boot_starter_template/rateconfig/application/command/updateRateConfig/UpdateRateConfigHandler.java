@@ -2,13 +2,17 @@ package io.github.ironslayer.spring_boot_starter_template.rateconfig.application
 
 import io.github.ironslayer.spring_boot_starter_template.common.mediator.RequestHandler;
 import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableCache;
 import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.entity.RateConfig;
 import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.exception.RateConfigNotFoundException;
 import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.port.RateConfigRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 /**
  * Handler para actualizar configuraciones de tarifas existentes
@@ -16,29 +20,38 @@ import java.time.LocalDateTime;
  * 
  * Implementa actualización parcial donde solo se modifican los campos no nulos
  * Mantiene las mismas validaciones de negocio que en la creación
+ *
+ * Una tarifa que ya estuvo vigente no se reescribe: si cambian sus precios o se reactiva,
+ * se desactiva y se guarda una nueva versión (nuevo ID) vigente desde ahora
  */
 @Component
 @RequiredArgsConstructor
+@Transactional
 public class UpdateRateConfigHandler implements RequestHandler<UpdateRateConfigRequest, Void> {
 
     private final RateConfigRepository rateConfigRepository;
+    private final RateTableCache rateTableCache;
 
     @Override
     public Void handle(UpdateRateConfigRequest request) {
 
         RateConfig rateConfig = request.rateConfig();
+        LocalDateTime now = LocalDateTime.now();
 
         // Verificar que existe
         RateConfig existing = rateConfigRepository.findById(rateConfig.getId())
                 .orElseThrow(() -> new RateConfigNotFoundException(rateConfig.getId()));
 
+        // Los cambios se arman sobre una copia: si la tarifa ya cobró, la original no se toca
+        RateConfig updated = existing.newVersion(now);
+
         // Actualización parcial - solo actualizar campos no nulos
         if (rateConfig.getRatePerHour() != null) {
             // Validar tarifa por hora si se proporciona
             if (!rateConfig.isValidRatePerHour()) {
                 throw new BadRequestException("Rate per hour must be greater than 0");
             }
-            existing.setRatePerHour(rateConfig.getRatePerHour());
+            updated.setRatePerHour(rateConfig.getRatePerHour());
         }
 
         if (rateConfig.getMinimumChargeHours() != null) {
@@ -46,35 +59,96 @@ public class UpdateRateConfigHandler implements RequestHandler<UpdateRateConfigR
             if (!rateConfig.isValidMinimumChargeHours()) {
                 throw new BadRequestException("Minimum charge hours must be greater than 0");
             }
-            existing.setMinimumChargeHours(rateConfig.getMinimumChargeHours());
+            updated.setMinimumChargeHours(rateConfig.getMinimumChargeHours());
         }
 
         if (rateConfig.getMaximumDailyRate() != null) {
-            existing.setMaximumDailyRate(rateConfig.getMaximumDailyRate());
+            updated.setMaximumDailyRate(rateConfig.getMaximumDailyRate());
+        }
+
+        if (rateConfig.getNightRatePerHour() != null) {
+            updated.setNightRatePerHour(rateConfig.getNightRatePerHour());
+        }
+
+        if (rateConfig.getNightStartHour() != null) {
+            updated.setNightStartHour(rateConfig.getNightStartHour());
+        }
+
+        if (rateConfig.getNightEndHour() != null) {
+            updated.setNightEndHour(rateConfig.getNightEndHour());
+        }
+
+        if (rateConfig.getWeekendRatePerHour() != null) {
+            updated.setWeekendRatePerHour(rateConfig.getWeekendRatePerHour());
         }
 
         // Validar que la configuración actualizada sea coherente
-        if (!existing.isValidMaximumDailyRate()) {
+        if (!updated.isValidMaximumDailyRate()) {
             throw new BadRequestException("Maximum daily rate must be greater than or equal to rate per hour");
         }
 
-        if (rateConfig.getIsActive() != null) {
-            // Si se está activando, desactivar otras configuraciones del mismo tipo
-            if (rateConfig.getIsActive() && !existing.getIsActive()) {
-                if (rateConfigRepository.existsActiveByVehicleTypeIdAndIdNot(existing.getVehicleTypeId(), existing.getId())) {
-                    rateConfigRepository.deactivateAllByVehicleTypeId(existing.getVehicleTypeId());
-                }
-            }
-            existing.setIsActive(rateConfig.getIsActive());
+        if (!updated.isValidSchedule()) {
+            throw new BadRequestException("Night rate requires a rate greater than 0 and two different start/end hours " +
+                "between 0 and 23; weekend rate must be greater than 0");
         }
 
-        existing.setUpdatedAt(LocalDateTime.now());
+        boolean wasActive = Boolean.TRUE.equals(existing.getIsActive());
+        boolean willBeActive = rateConfig.getIsActive() != null ? rateConfig.getIsActive() : wasActive;
+        boolean activating = willBeActive && !wasActive;
 
-        rateConfigRepository.save(existing);
+        // Si se está activando, desactivar otras configuraciones del mismo tipo
+        if (activating && rateConfigRepository.existsActiveByVehicleTypeIdAndIdNot(existing.getVehicleTypeId(), existing.getId())) {
+            rateConfigRepository.deactivateAllByVehicleTypeId(existing.getVehicleTypeId());
+        }
+
+        if (existing.hasBeenInForce() && (!samePricing(existing, updated) || activating)) {
+            // La versión anterior queda en el historial con los precios con los que cobró
+            // y la nueva rige desde ahora (o queda como borrador si no se activa)
+            if (wasActive) {
+                existing.setIsActive(false);
+                existing.setUpdatedAt(now);
+                rateConfigRepository.save(existing);
+            }
+            updated.setIsActive(willBeActive);
+            updated.setEffectiveFrom(willBeActive ? now : null);
+            rateConfigRepository.save(updated);
+        } else {
+            // Nunca cobró (o solo se desactiva): se actualiza en el lugar
+            existing.setRatePerHour(updated.getRatePerHour());
+            existing.setMinimumChargeHours(updated.getMinimumChargeHours());
+            existing.setMaximumDailyRate(updated.getMaximumDailyRate());
+            existing.setNightRatePerHour(updated.getNightRatePerHour());
+            existing.setNightStartHour(updated.getNightStartHour());
+            existing.setNightEndHour(updated.getNightEndHour());
+            existing.setWeekendRatePerHour(updated.getWeekendRatePerHour());
+            existing.setIsActive(willBeActive);
+            if (activating) {
+                existing.setEffectiveFrom(now);
+            }
+            existing.setUpdatedAt(now);
+            rateConfigRepository.save(existing);
+        }
+
+        // La tabla de tarifas en memoria se reemplaza cuando confirme la transacción
+        rateTableCache.reloadAfterCommit();
 
         return null;
     }
 
+    private boolean samePricing(RateConfig a, RateConfig b) {
+        return sameAmount(a.getRatePerHour(), b.getRatePerHour())
+                && Objects.equals(a.getMinimumChargeHours(), b.getMinimumChargeHours())
+                && sameAmount(a.getMaximumDailyRate(), b.getMaximumDailyRate())
+                && sameAmount(a.getNightRatePerHour(), b.getNightRatePerHour())
+                && Objects.equals(a.getNightStartHour(), b.getNightStartHour())
+                && Objects.equals(a.getNightEndHour(), b.getNightEndHour())
+                && sameAmount(a.getWeekendRatePerHour(), b.getWeekendRatePerHour());
+    }
+
+    private boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
     @Override
     public Class<UpdateRateConfigRequest> getRequestType() {
         return UpdateRateConfigRequest.class;
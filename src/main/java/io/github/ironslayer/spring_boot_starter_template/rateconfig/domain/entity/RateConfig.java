@@ -1,5 +1,7 @@
 package io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.entity;
 
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.Tariff;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.TariffEngine;
 import lombok.Builder;
 import lombok.Data;
 
@@ -16,7 +18,12 @@ import java.time.LocalDateTime;
  * - La tarifa por hora debe ser mayor a 0
  * - El mínimo de horas cobrables debe ser al menos 1
  * - La tarifa máxima diaria debe ser mayor o igual a la tarifa por hora
+ * - Horario opcional: tarifa nocturna (con hora de inicio y fin) y tarifa de fin de semana,
+ *   ambas mayores a 0; la noche rige todos los días y tiene prioridad sobre el fin de semana
  * - Solo puede haber una configuración activa por tipo de vehículo
+ * - Una tarifa que ya estuvo vigente no cambia de precio: se reemplaza por una nueva versión
+ *   con su propia fecha de vigencia (effectiveFrom), así las sesiones pasadas se cobran
+ *   con la tarifa que regía cuando entraron
  */
 @Data
 @Builder
@@ -27,7 +34,12 @@ public class RateConfig {
     private BigDecimal ratePerHour;        // Tarifa por hora (ej: 2000.00)
     private Integer minimumChargeHours;    // Mínimo de horas a cobrar (ej: 1)
     private BigDecimal maximumDailyRate;   // Tarifa máxima diaria (ej: 15000.00)
+    private BigDecimal nightRatePerHour;   // Tarifa por hora nocturna, opcional (ej: 1000.00)
+    private Integer nightStartHour;        // Hora en que empieza la noche, 0-23 (ej: 22)
+    private Integer nightEndHour;          // Hora en que termina la noche, 0-23 (ej: 6)
+    private BigDecimal weekendRatePerHour; // Tarifa por hora sábado y domingo, opcional (ej: 1500.00)
     private Boolean isActive;
+    private LocalDateTime effectiveFrom;   // Desde cuándo rige esta versión (null si nunca estuvo vigente)
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -58,6 +70,29 @@ public class RateConfig {
         return ratePerHour != null && maximumDailyRate.compareTo(ratePerHour) >= 0;
     }
 
+    /**
+     * Valida el horario opcional
+     * @return true si no hay tarifa nocturna o tiene tarifa > 0 y dos horas distintas entre 0 y 23,
+     *         y si la tarifa de fin de semana es nula o mayor a 0
+     */
+    public boolean isValidSchedule() {
+        boolean validNight = nightRatePerHour == null
+                ? nightStartHour == null && nightEndHour == null
+                : nightRatePerHour.compareTo(BigDecimal.ZERO) > 0
+                        && isHourOfDay(nightStartHour) && isHourOfDay(nightEndHour)
+                        && !nightStartHour.equals(nightEndHour);
+        boolean validWeekend = weekendRatePerHour == null || weekendRatePerHour.compareTo(BigDecimal.ZERO) > 0;
+        return validNight && validWeekend;
+    }
+
+    /**
+     * Indica si la tarifa cambia según la hora o el día
+     * @return true si tiene tarifa nocturna o de fin de semana
+     */
+    public boolean hasSchedule() {
+        return nightRatePerHour != null || weekendRatePerHour != null;
+    }
+
     /**
      * Valida que el vehicleTypeId sea válido
      * @return true si el ID del tipo de vehículo no es nulo y es positivo
@@ -74,11 +109,46 @@ public class RateConfig {
         return isValidRatePerHour() && 
                isValidMinimumChargeHours() && 
                isValidMaximumDailyRate() && 
+               isValidSchedule() &&
                isValidVehicleTypeId();
     }
 
+    /**
+     * Indica si esta versión ya cobró alguna vez (o está cobrando)
+     * Las tarifas anteriores al versionado no tienen effectiveFrom pero cuentan si están activas
+     * @return true si tiene fecha de vigencia o está activa
+     */
+    public boolean hasBeenInForce() {
+        return effectiveFrom != null || Boolean.TRUE.equals(isActive);
+    }
+
+    /**
+     * Crea una nueva versión activa con los mismos precios, vigente desde effectiveFrom
+     * La versión actual no se modifica; queda en el historial tal como cobró
+     * @param effectiveFrom momento desde el que rige la nueva versión
+     * @return copia sin ID lista para guardarse
+     */
+    public RateConfig newVersion(LocalDateTime effectiveFrom) {
+        return RateConfig.builder()
+                .vehicleTypeId(vehicleTypeId)
+                .ratePerHour(ratePerHour)
+                .minimumChargeHours(minimumChargeHours)
+                .maximumDailyRate(maximumDailyRate)
+                .nightRatePerHour(nightRatePerHour)
+                .nightStartHour(nightStartHour)
+                .nightEndHour(nightEndHour)
+                .weekendRatePerHour(weekendRatePerHour)
+                .isActive(true)
+                .effectiveFrom(effectiveFrom)
+                .createdAt(effectiveFrom)
+                .updatedAt(effectiveFrom)
+                .build();
+    }
+
     /**
      * Calcula el monto a cobrar basado en las horas estacionado
+     * Usa las mismas reglas que el resto del sistema (ver TariffEngine), con la tarifa base:
+     * sin hora de entrada no se puede aplicar el horario nocturno ni de fin de semana
      * @param hoursParked horas que estuvo estacionado el vehículo
      * @return monto calculado aplicando las reglas de negocio
      */
@@ -87,20 +157,11 @@ public class RateConfig {
             throw new IllegalStateException("Cannot calculate amount with invalid rate configuration");
         }
 
-        // Aplicar mínimo de horas
-        double hoursToCharge = Math.max(hoursParked, minimumChargeHours);
-        
-        // Redondear hacia arriba las horas (fracción de hora se cobra completa)
-        int hoursToChargeRounded = (int) Math.ceil(hoursToCharge);
-        
-        // Calcular monto base
-        BigDecimal baseAmount = ratePerHour.multiply(BigDecimal.valueOf(hoursToChargeRounded));
-        
-        // Aplicar tarifa máxima diaria si existe
-        if (maximumDailyRate != null && baseAmount.compareTo(maximumDailyRate) > 0) {
-            return maximumDailyRate;
-        }
-        
-        return baseAmount;
+        long minutesParked = Math.round(hoursParked * TariffEngine.MINUTES_PER_HOUR);
+        return Tariff.of(this).price(minutesParked);
+    }
+
+    private static boolean isHourOfDay(Integer hour) {
+        return hour != null && hour >= 0 && hour < 24;
     }
 }
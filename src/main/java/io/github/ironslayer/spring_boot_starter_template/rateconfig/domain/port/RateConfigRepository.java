@@ -40,6 +40,13 @@ public interface RateConfigRepository {
      */
     List<RateConfig> findAllActive();
 
+    /**
+     * Obtiene todas las versiones de tarifas que rigen o rigieron alguna vez:
+     * las activas más las inactivas con fecha de vigencia (reemplazadas o desactivadas)
+     * @return lista de versiones ordenadas por tipo de vehículo y vigencia
+     */
+    List<RateConfig> findAllVersions();
+
     /**
      * Busca la configuración activa para un tipo de vehículo específico
      * @param vehicleTypeId el ID del tipo de vehículo
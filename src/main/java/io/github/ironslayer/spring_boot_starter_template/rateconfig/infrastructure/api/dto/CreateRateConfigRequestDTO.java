@@ -2,6 +2,7 @@ package io.github.ironslayer.spring_boot_starter_template.rateconfig.infrastruct
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
@@ -15,6 +16,8 @@ import java.math.BigDecimal;
  * - ratePerHour: requerido y mayor a 0
  * - minimumChargeHours: opcional, por defecto 1 hora
  * - maximumDailyRate: opcional
+ * - nightRatePerHour, nightStartHour, nightEndHour: tarifa nocturna opcional (las tres juntas)
+ * - weekendRatePerHour: tarifa de sábado y domingo opcional
  * 
  * NOTA: isActive no se incluye ya que siempre será true en creación
  */
@@ -38,6 +41,24 @@ public class CreateRateConfigRequestDTO {
     @JsonProperty("maximumDailyRate")
     private BigDecimal maximumDailyRate;
     
+    @DecimalMin(value = "0.01", message = "Night rate per hour must be greater than 0 if specified")
+    @JsonProperty("nightRatePerHour")
+    private BigDecimal nightRatePerHour;
+    
+    @Min(value = 0, message = "Night start hour must be between 0 and 23")
+    @Max(value = 23, message = "Night start hour must be between 0 and 23")
+    @JsonProperty("nightStartHour")
+    private Integer nightStartHour;
+    
+    @Min(value = 0, message = "Night end hour must be between 0 and 23")
+    @Max(value = 23, message = "Night end hour must be between 0 and 23")
+    @JsonProperty("nightEndHour")
+    private Integer nightEndHour;
+    
+    @DecimalMin(value = "0.01", message = "Weekend rate per hour must be greater than 0 if specified")
+    @JsonProperty("weekendRatePerHour")
+    private BigDecimal weekendRatePerHour;
+    
     // NOTA: isActive NO está incluido - siempre será true en creación
 
     // Constructor vacío
@@ -85,6 +106,38 @@ public class CreateRateConfigRequestDTO {
         this.maximumDailyRate = maximumDailyRate;
     }
 
+    public BigDecimal getNightRatePerHour() {
+        return nightRatePerHour;
+    }
+
+    public void setNightRatePerHour(BigDecimal nightRatePerHour) {
+        this.nightRatePerHour = nightRatePerHour;
+    }
+
+    public Integer getNightStartHour() {
+        return nightStartHour;
+    }
+
+    public void setNightStartHour(Integer nightStartHour) {
+        this.nightStartHour = nightStartHour;
+    }
+
+    public Integer getNightEndHour() {
+        return nightEndHour;
+    }
+
+    public void setNightEndHour(Integer nightEndHour) {
+        this.nightEndHour = nightEndHour;
+    }
+
+    public BigDecimal getWeekendRatePerHour() {
+        return weekendRatePerHour;
+    }
+
+    public void setWeekendRatePerHour(BigDecimal weekendRatePerHour) {
+        this.weekendRatePerHour = weekendRatePerHour;
+    }
+
     @Override
     public String toString() {
         return "CreateRateConfigRequestDTO{" +
@@ -92,6 +145,10 @@ public class CreateRateConfigRequestDTO {
                 ", ratePerHour=" + ratePerHour +
                 ", minimumChargeHours=" + getMinimumChargeHours() +
                 ", maximumDailyRate=" + maximumDailyRate +
+                ", nightRatePerHour=" + nightRatePerHour +
+                ", nightStartHour=" + nightStartHour +
+                ", nightEndHour=" + nightEndHour +
+                ", weekendRatePerHour=" + weekendRatePerHour +
                 '}';
     }
 }
@@ -28,9 +28,24 @@ public class RateConfigResponseDTO {
     @JsonProperty("maximumDailyRate")
     private BigDecimal maximumDailyRate;
     
+    @JsonProperty("nightRatePerHour")
+    private BigDecimal nightRatePerHour;
+    
+    @JsonProperty("nightStartHour")
+    private Integer nightStartHour;
+    
+    @JsonProperty("nightEndHour")
+    private Integer nightEndHour;
+    
+    @JsonProperty("weekendRatePerHour")
+    private BigDecimal weekendRatePerHour;
+    
     @JsonProperty("isActive")
     private Boolean isActive;
     
+    @JsonProperty("effectiveFrom")
+    private LocalDateTime effectiveFrom;
+    
     @JsonProperty("createdAt")
     private LocalDateTime createdAt;
     
@@ -95,6 +110,38 @@ public class RateConfigResponseDTO {
         this.maximumDailyRate = maximumDailyRate;
     }
 
+    public BigDecimal getNightRatePerHour() {
+        return nightRatePerHour;
+    }
+
+    public void setNightRatePerHour(BigDecimal nightRatePerHour) {
+        this.nightRatePerHour = nightRatePerHour;
+    }
+
+    public Integer getNightStartHour() {
+        return nightStartHour;
+    }
+
+    public void setNightStartHour(Integer nightStartHour) {
+        this.nightStartHour = nightStartHour;
+    }
+
+    public Integer getNightEndHour() {
+        return nightEndHour;
+    }
+
+    public void setNightEndHour(Integer nightEndHour) {
+        this.nightEndHour = nightEndHour;
+    }
+
+    public BigDecimal getWeekendRatePerHour() {
+        return weekendRatePerHour;
+    }
+
+    public void setWeekendRatePerHour(BigDecimal weekendRatePerHour) {
+        this.weekendRatePerHour = weekendRatePerHour;
+    }
+
     public Boolean getIsActive() {
         return isActive;
     }
@@ -103,6 +150,14 @@ public class RateConfigResponseDTO {
         this.isActive = isActive;
     }
 
+    public LocalDateTime getEffectiveFrom() {
+        return effectiveFrom;
+    }
+
+    public void setEffectiveFrom(LocalDateTime effectiveFrom) {
+        this.effectiveFrom = effectiveFrom;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -127,7 +182,12 @@ public class RateConfigResponseDTO {
                 ", ratePerHour=" + ratePerHour +
                 ", minimumChargeHours=" + minimumChargeHours +
                 ", maximumDailyRate=" + maximumDailyRate +
+                ", nightRatePerHour=" + nightRatePerHour +
+                ", nightStartHour=" + nightStartHour +
+                ", nightEndHour=" + nightEndHour +
+                ", weekendRatePerHour=" + weekendRatePerHour +
                 ", isActive=" + isActive +
+                ", effectiveFrom=" + effectiveFrom +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 '}';
@@ -2,6 +2,7 @@ package io.github.ironslayer.spring_boot_starter_template.rateconfig.infrastruct
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 
 import java.math.BigDecimal;
@@ -26,6 +27,24 @@ public class RateConfigUpdateDTO {
     @JsonProperty("maximumDailyRate")
     private BigDecimal maximumDailyRate;
     
+    @DecimalMin(value = "0.01", message = "Night rate per hour must be greater than 0 if specified")
+    @JsonProperty("nightRatePerHour")
+    private BigDecimal nightRatePerHour;
+    
+    @Min(value = 0, message = "Night start hour must be between 0 and 23")
+    @Max(value = 23, message = "Night start hour must be between 0 and 23")
+    @JsonProperty("nightStartHour")
+    private Integer nightStartHour;
+    
+    @Min(value = 0, message = "Night end hour must be between 0 and 23")
+    @Max(value = 23, message = "Night end hour must be between 0 and 23")
+    @JsonProperty("nightEndHour")
+    private Integer nightEndHour;
+    
+    @DecimalMin(value = "0.01", message = "Weekend rate per hour must be greater than 0 if specified")
+    @JsonProperty("weekendRatePerHour")
+    private BigDecimal weekendRatePerHour;
+    
     @JsonProperty("isActive")
     private Boolean isActive;
 
@@ -66,6 +85,38 @@ public class RateConfigUpdateDTO {
         this.maximumDailyRate = maximumDailyRate;
     }
 
+    public BigDecimal getNightRatePerHour() {
+        return nightRatePerHour;
+    }
+
+    public void setNightRatePerHour(BigDecimal nightRatePerHour) {
+        this.nightRatePerHour = nightRatePerHour;
+    }
+
+    public Integer getNightStartHour() {
+        return nightStartHour;
+    }
+
+    public void setNightStartHour(Integer nightStartHour) {
+        this.nightStartHour = nightStartHour;
+    }
+
+    public Integer getNightEndHour() {
+        return nightEndHour;
+    }
+
+    public void setNightEndHour(Integer nightEndHour) {
+        this.nightEndHour = nightEndHour;
+    }
+
+    public BigDecimal getWeekendRatePerHour() {
+        return weekendRatePerHour;
+    }
+
+    public void setWeekendRatePerHour(BigDecimal weekendRatePerHour) {
+        this.weekendRatePerHour = weekendRatePerHour;
+    }
+
     public Boolean getIsActive() {
         return isActive;
     }
@@ -80,6 +131,10 @@ public class RateConfigUpdateDTO {
                 "ratePerHour=" + ratePerHour +
                 ", minimumChargeHours=" + minimumChargeHours +
                 ", maximumDailyRate=" + maximumDailyRate +
+                ", nightRatePerHour=" + nightRatePerHour +
+                ", nightStartHour=" + nightStartHour +
+                ", nightEndHour=" + nightEndHour +
+                ", weekendRatePerHour=" + weekendRatePerHour +
                 ", isActive=" + isActive +
                 '}';
     }
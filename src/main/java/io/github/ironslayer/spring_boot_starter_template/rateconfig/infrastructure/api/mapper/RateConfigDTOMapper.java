@@ -38,6 +38,10 @@ public interface RateConfigDTOMapper {
                 .ratePerHour(dto.getRatePerHour())
                 .minimumChargeHours(dto.getMinimumChargeHours())
                 .maximumDailyRate(dto.getMaximumDailyRate())
+                .nightRatePerHour(dto.getNightRatePerHour())
+                .nightStartHour(dto.getNightStartHour())
+                .nightEndHour(dto.getNightEndHour())
+                .weekendRatePerHour(dto.getWeekendRatePerHour())
                 .isActive(true) // Siempre true en creación
                 .build();
         
@@ -57,6 +61,10 @@ public interface RateConfigDTOMapper {
                 .ratePerHour(dto.getRatePerHour())
                 .minimumChargeHours(dto.getMinimumChargeHours())
                 .maximumDailyRate(dto.getMaximumDailyRate())
+                .nightRatePerHour(dto.getNightRatePerHour())
+                .nightStartHour(dto.getNightStartHour())
+                .nightEndHour(dto.getNightEndHour())
+                .weekendRatePerHour(dto.getWeekendRatePerHour())
                 .isActive(dto.getIsActive())
                 .build();
         
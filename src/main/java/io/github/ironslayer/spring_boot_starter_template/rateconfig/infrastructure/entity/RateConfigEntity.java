@@ -20,7 +20,10 @@ import java.time.LocalDateTime;
  * - rate_per_hour: tarifa por hora con precisión decimal
  * - minimum_charge_hours: mínimo de horas a cobrar
  * - maximum_daily_rate: tarifa máxima diaria opcional
+ * - night_rate_per_hour, night_start_hour, night_end_hour: tarifa nocturna opcional
+ * - weekend_rate_per_hour: tarifa de fin de semana opcional
  * - is_active: indica si la configuración está activa
+ * - effective_from: desde cuándo rige esta versión de la tarifa (null si nunca estuvo vigente)
  * - created_at: fecha de creación automática
  * - updated_at: fecha de última actualización automática
  */
@@ -49,10 +52,25 @@ public class RateConfigEntity {
     @Column(name = "maximum_daily_rate", precision = 10, scale = 2)
     private BigDecimal maximumDailyRate;
     
+    @Column(name = "night_rate_per_hour", precision = 10, scale = 2)
+    private BigDecimal nightRatePerHour;
+    
+    @Column(name = "night_start_hour")
+    private Integer nightStartHour;
+    
+    @Column(name = "night_end_hour")
+    private Integer nightEndHour;
+    
+    @Column(name = "weekend_rate_per_hour", precision = 10, scale = 2)
+    private BigDecimal weekendRatePerHour;
+    
     @Builder.Default
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
     
+    @Column(name = "effective_from", updatable = false)
+    private LocalDateTime effectiveFrom;
+    
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
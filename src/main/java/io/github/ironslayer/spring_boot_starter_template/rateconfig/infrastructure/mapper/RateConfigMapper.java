@@ -27,7 +27,12 @@ public class RateConfigMapper {
         entity.setRatePerHour(rateConfig.getRatePerHour());
         entity.setMinimumChargeHours(rateConfig.getMinimumChargeHours());
         entity.setMaximumDailyRate(rateConfig.getMaximumDailyRate());
+        entity.setNightRatePerHour(rateConfig.getNightRatePerHour());
+        entity.setNightStartHour(rateConfig.getNightStartHour());
+        entity.setNightEndHour(rateConfig.getNightEndHour());
+        entity.setWeekendRatePerHour(rateConfig.getWeekendRatePerHour());
         entity.setIsActive(rateConfig.getIsActive());
+        entity.setEffectiveFrom(rateConfig.getEffectiveFrom());
         entity.setCreatedAt(rateConfig.getCreatedAt());
         entity.setUpdatedAt(rateConfig.getUpdatedAt());
 
@@ -48,7 +53,12 @@ public class RateConfigMapper {
                 .ratePerHour(entity.getRatePerHour())
                 .minimumChargeHours(entity.getMinimumChargeHours())
                 .maximumDailyRate(entity.getMaximumDailyRate())
+                .nightRatePerHour(entity.getNightRatePerHour())
+                .nightStartHour(entity.getNightStartHour())
+                .nightEndHour(entity.getNightEndHour())
+                .weekendRatePerHour(entity.getWeekendRatePerHour())
                 .isActive(entity.getIsActive())
+                .effectiveFrom(entity.getEffectiveFrom())
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
                 .build();
@@ -60,6 +60,14 @@ public interface RateConfigJpaRepository extends JpaRepository<RateConfigEntity,
     @Query("UPDATE RateConfigEntity rc SET rc.isActive = false WHERE rc.vehicleTypeId = :vehicleTypeId")
     void deactivateAllByVehicleTypeId(@Param("vehicleTypeId") Long vehicleTypeId);
 
+    /**
+     * Versiones que rigen o rigieron alguna vez: las activas y las que tienen fecha de vigencia.
+     * Las inactivas sin vigencia nunca cobraron y no forman parte del historial
+     */
+    @Query("SELECT rc FROM RateConfigEntity rc WHERE rc.isActive = true OR rc.effectiveFrom IS NOT NULL " +
+           "ORDER BY rc.vehicleTypeId, rc.effectiveFrom")
+    List<RateConfigEntity> findAllVersions();
+
     /**
      * Obtener configuraciones activas con información agregada
      */
@@ -56,6 +56,14 @@ public class RateConfigRepositoryImpl implements RateConfigRepository {
                 .toList();
     }
 
+    @Override
+    public List<RateConfig> findAllVersions() {
+        return jpaRepository.findAllVersions()
+                .stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+
     @Override
     public Optional<RateConfig> findActiveByVehicleTypeId(Long vehicleTypeId) {
         return jpaRepository.findByVehicleTypeIdAndIsActiveTrue(vehicleTypeId)
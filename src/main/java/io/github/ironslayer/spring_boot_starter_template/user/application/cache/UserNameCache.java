@@ -0,0 +1,36 @@
+package io.github.ironslayer.spring_boot_starter_template.user.application.cache;
+
+import io.github.ironslayer.spring_boot_starter_template.common.cache.TtlCache;
+import io.github.ironslayer.spring_boot_starter_template.user.domain.port.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Caché de nombres de usuario (operadores) para respuestas de parqueo.
+ * Evita consultar la tabla de usuarios en cada entrada/salida; los handlers
+ * que modifican o eliminan usuarios invalidan la entrada correspondiente.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserNameCache {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final UserRepository userRepository;
+    private final TtlCache<Long, String> fullNames = new TtlCache<>(TTL);
+
+    /**
+     * Nombre completo ("Nombre Apellido") del usuario, vacío si no existe
+     */
+    public Optional<String> getFullName(Long userId) {
+        return fullNames.get(userId, id -> userRepository.findById(id)
+                .map(user -> user.getFirstname() + " " + user.getLastname()));
+    }
+
+    public void evict(Long userId) {
+        fullNames.evict(userId);
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.ironslayer.spring_boot_starter_template.user.application.command.deleteUser;
 
 import io.github.ironslayer.spring_boot_starter_template.common.mediator.RequestHandler;
+import io.github.ironslayer.spring_boot_starter_template.user.application.cache.UserNameCache;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.port.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -10,11 +11,13 @@ import org.springframework.stereotype.Component;
 public class DeleteUserHandler implements RequestHandler<DeleteUserRequest, Void> {
 
     private final UserRepository userRepository;
+    private final UserNameCache userNameCache;
 
     @Override
     public Void handle(DeleteUserRequest request) {
 
         userRepository.deleteById(request.userId());
+        userNameCache.evict(request.userId());
 
         return null;
     }
@@ -3,6 +3,7 @@ package io.github.ironslayer.spring_boot_starter_template.user.application.comma
 import io.github.ironslayer.spring_boot_starter_template.common.mediator.RequestHandler;
 import io.github.ironslayer.spring_boot_starter_template.common.security.AuthenticatedUserService;
 import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.user.application.cache.UserNameCache;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.entity.User;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.exception.UserNotFoundException;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.exception.UserStatusConflictException;
@@ -32,6 +33,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class UpdateProfileHandler implements RequestHandler<UpdateProfileRequest, Void> {
     
     private final UserRepository userRepository;
+    private final UserNameCache userNameCache;
     private final AuthenticatedUserService authenticatedUserService;
     private final PasswordEncoder passwordEncoder;
     
@@ -83,6 +85,7 @@ public class UpdateProfileHandler implements RequestHandler<UpdateProfileRequest
         if (hasChanges) {
             user.setUpdatedAt(java.time.LocalDateTime.now());
             userRepository.save(user);
+            userNameCache.evict(user.getId());
             log.info("Successfully updated profile for user {}", user.getEmail());
         } else {
             log.info("No changes detected for user profile {}", user.getEmail());
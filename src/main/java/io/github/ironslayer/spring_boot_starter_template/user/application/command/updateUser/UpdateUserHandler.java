@@ -1,6 +1,7 @@
 package io.github.ironslayer.spring_boot_starter_template.user.application.command.updateUser;
 
 import io.github.ironslayer.spring_boot_starter_template.common.mediator.RequestHandler;
+import io.github.ironslayer.spring_boot_starter_template.user.application.cache.UserNameCache;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.entity.User;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.exception.UserNotFoundException;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.port.UserRepository;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Component;
 public class UpdateUserHandler implements RequestHandler<UpdateUserRequest, Void> {
 
     private final UserRepository userRepository;
+    private final UserNameCache userNameCache;
 
     @Override
     public Void handle(UpdateUserRequest request) {
@@ -22,6 +24,7 @@ public class UpdateUserHandler implements RequestHandler<UpdateUserRequest, Void
         user.setLastname(request.user().getLastname());
 
         userRepository.save(user);
+        userNameCache.evict(user.getId());
 
         return null;
     }
@@ -2,6 +2,7 @@ package io.github.ironslayer.spring_boot_starter_template.user.application.comma
 
 import io.github.ironslayer.spring_boot_starter_template.common.mediator.RequestHandler;
 import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.user.application.cache.UserNameCache;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.entity.Role;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.entity.User;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.exception.UserNotFoundException;
@@ -31,6 +32,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class UpdateUserPartialHandler implements RequestHandler<UpdateUserPartialRequest, Void> {
     
     private final UserRepository userRepository;
+    private final UserNameCache userNameCache;
     
     @Override
     public Void handle(UpdateUserPartialRequest request) {
@@ -91,6 +93,7 @@ public class UpdateUserPartialHandler implements RequestHandler<UpdateUserPartia
         if (hasChanges) {
             user.setUpdatedAt(java.time.LocalDateTime.now());
             userRepository.save(user);
+            userNameCache.evict(user.getId());
             log.info("Successfully updated user ID {} with partial changes", request.userId());
         } else {
             log.info("No changes detected for user ID {}", request.userId());
@@ -2,6 +2,7 @@ package io.github.ironslayer.spring_boot_starter_template.user.application.comma
 
 import io.github.ironslayer.spring_boot_starter_template.common.mediator.RequestHandler;
 import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.user.application.cache.UserNameCache;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.entity.Role;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.entity.User;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.exception.UserNotFoundException;
@@ -33,6 +34,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class UpdateUserStatusHandler implements RequestHandler<UpdateUserStatusRequest, Void> {
     
     private final UserRepository userRepository;
+    private final UserNameCache userNameCache;
     
     @Override
     public Void handle(UpdateUserStatusRequest request) {
@@ -64,6 +66,7 @@ public class UpdateUserStatusHandler implements RequestHandler<UpdateUserStatusR
         
         // Guardar cambios
         User savedUser = userRepository.save(user);
+        userNameCache.evict(user.getId());
         
         String action = request.isActive() ? "activated" : "deactivated";
         log.info("Successfully {} user: userId={}, email={}", action, savedUser.getId(), savedUser.getEmail());
@@ -2,6 +2,7 @@ package io.github.ironslayer.spring_boot_starter_template.vehicle.domain.port;
 
 import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.entity.Vehicle;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,11 +22,22 @@ public interface VehicleRepository {
      */
     Optional<Vehicle> findById(Long id);
     
+    /**
+     * Busca varios vehículos por ID en una sola consulta.
+     */
+    List<Vehicle> findAllByIds(Collection<Long> ids);
+    
     /**
      * Busca un vehículo por su placa.
      */
     Optional<Vehicle> findByLicensePlate(String licensePlate);
     
+    /**
+     * Busca varios vehículos por placa en una sola consulta.
+     * Las placas que no existen simplemente no aparecen en el resultado.
+     */
+    List<Vehicle> findAllByLicensePlates(Collection<String> licensePlates);
+    
     /**
      * Busca todos los vehículos.
      */
@@ -4,6 +4,7 @@ import io.github.ironslayer.spring_boot_starter_template.vehicle.infrastructure.
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +19,11 @@ public interface VehicleJpaRepository extends JpaRepository<VehicleEntity, Long>
      */
     Optional<VehicleEntity> findByLicensePlate(String licensePlate);
     
+    /**
+     * Busca vehículos cuyas placas estén en la colección dada.
+     */
+    List<VehicleEntity> findByLicensePlateIn(Collection<String> licensePlates);
+    
     /**
      * Busca todos los vehículos activos.
      */
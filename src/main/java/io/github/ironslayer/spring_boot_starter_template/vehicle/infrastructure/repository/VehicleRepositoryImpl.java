@@ -7,6 +7,7 @@ import io.github.ironslayer.spring_boot_starter_template.vehicle.infrastructure.
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -35,12 +36,34 @@ public class VehicleRepositoryImpl implements VehicleRepository {
                 .map(mapper::toDomain);
     }
     
+    @Override
+    public List<Vehicle> findAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jpaRepository.findAllById(ids)
+                .stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+    
     @Override
     public Optional<Vehicle> findByLicensePlate(String licensePlate) {
         return jpaRepository.findByLicensePlate(licensePlate)
                 .map(mapper::toDomain);
     }
     
+    @Override
+    public List<Vehicle> findAllByLicensePlates(Collection<String> licensePlates) {
+        if (licensePlates.isEmpty()) {
+            return List.of();
+        }
+        return jpaRepository.findByLicensePlateIn(licensePlates)
+                .stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+    
     @Override
     public List<Vehicle> findAll() {
         return jpaRepository.findAll()
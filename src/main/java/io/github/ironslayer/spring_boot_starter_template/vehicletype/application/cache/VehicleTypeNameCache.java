@@ -0,0 +1,32 @@
+package io.github.ironslayer.spring_boot_starter_template.vehicletype.application.cache;
+
+import io.github.ironslayer.spring_boot_starter_template.common.cache.TtlCache;
+import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.entity.VehicleType;
+import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.port.VehicleTypeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Caché de nombres de tipos de vehículo (CAR, MOTORCYCLE, ...).
+ * Son pocos y casi nunca cambian; UpdateVehicleTypeHandler invalida la entrada al modificarlos.
+ */
+@Component
+@RequiredArgsConstructor
+public class VehicleTypeNameCache {
+
+    private static final Duration TTL = Duration.ofMinutes(30);
+
+    private final VehicleTypeRepository vehicleTypeRepository;
+    private final TtlCache<Long, String> names = new TtlCache<>(TTL);
+
+    public Optional<String> getName(Long vehicleTypeId) {
+        return names.get(vehicleTypeId, id -> vehicleTypeRepository.findById(id).map(VehicleType::getName));
+    }
+
+    public void evict(Long vehicleTypeId) {
+        names.evict(vehicleTypeId);
+    }
+}
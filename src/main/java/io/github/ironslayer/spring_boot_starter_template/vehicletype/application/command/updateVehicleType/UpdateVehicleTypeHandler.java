@@ -2,6 +2,7 @@ package io.github.ironslayer.spring_boot_starter_template.vehicletype.applicatio
 
 import io.github.ironslayer.spring_boot_starter_template.common.mediator.RequestHandler;
 import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.vehicletype.application.cache.VehicleTypeNameCache;
 import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.entity.VehicleType;
 import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.exception.VehicleTypeNotFoundException;
 import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.port.VehicleTypeRepository;
@@ -19,6 +20,7 @@ import java.time.LocalDateTime;
 public class UpdateVehicleTypeHandler implements RequestHandler<UpdateVehicleTypeRequest, Void> {
 
     private final VehicleTypeRepository vehicleTypeRepository;
+    private final VehicleTypeNameCache vehicleTypeNameCache;
 
     @Override
     public Void handle(UpdateVehicleTypeRequest request) {
@@ -58,6 +60,7 @@ public class UpdateVehicleTypeHandler implements RequestHandler<UpdateVehicleTyp
         existing.setUpdatedAt(LocalDateTime.now());
 
         vehicleTypeRepository.save(existing);
+        vehicleTypeNameCache.evict(existing.getId());
 
         return null;
     }
@@ -0,0 +1,12 @@
+-- ========================================
+-- COLUMNAS NUEVAS DE TARIFAS
+-- ========================================
+-- V1 solo crea las tablas que faltan: en las bases creadas antes con ddl-auto: update
+-- rate_configs ya existe sin las columnas de tarifa nocturna, de fin de semana y de vigencia,
+-- y ddl-auto: validate no arranca hasta que existan.
+
+ALTER TABLE rate_configs ADD COLUMN IF NOT EXISTS night_rate_per_hour   NUMERIC(10, 2);
+ALTER TABLE rate_configs ADD COLUMN IF NOT EXISTS night_start_hour      INTEGER;
+ALTER TABLE rate_configs ADD COLUMN IF NOT EXISTS night_end_hour        INTEGER;
+ALTER TABLE rate_configs ADD COLUMN IF NOT EXISTS weekend_rate_per_hour NUMERIC(10, 2);
+ALTER TABLE rate_configs ADD COLUMN IF NOT EXISTS effective_from        TIMESTAMP(6);
@@ -0,0 +1,119 @@
+-- ========================================
+-- ESQUEMA BASE
+-- ========================================
+-- Las mismas tablas que generaba Hibernate con ddl-auto: update.
+-- Las bases creadas así se marcan en la versión 0 (spring.flyway.baseline-on-migrate) y también
+-- corren esta migración: IF NOT EXISTS deja las tablas que ya existen y crea las que falten.
+-- Las columnas que les faltan a las tablas existentes las agrega V1_1.
+
+CREATE TABLE IF NOT EXISTS users (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    firstname   VARCHAR(255),
+    lastname    VARCHAR(255),
+    email       VARCHAR(255) UNIQUE,
+    password    VARCHAR(255),
+    role        VARCHAR(255) CHECK (role IN ('ADMIN', 'OPERATOR')),
+    is_active   BOOLEAN,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS vehicle_types (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(50)  NOT NULL UNIQUE,
+    description VARCHAR(200),
+    is_active   BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS vehicles (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    license_plate   VARCHAR(15)  NOT NULL UNIQUE,
+    vehicle_type_id BIGINT       NOT NULL,
+    brand           VARCHAR(50),
+    model           VARCHAR(50),
+    color           VARCHAR(30),
+    owner_name      VARCHAR(100),
+    owner_phone     VARCHAR(20),
+    is_active       BOOLEAN      NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    updated_at      TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS parking_spaces (
+    id                        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    space_number              VARCHAR(10)  NOT NULL UNIQUE,
+    vehicle_type_id           BIGINT       NOT NULL,
+    is_occupied               BOOLEAN      NOT NULL,
+    is_active                 BOOLEAN      NOT NULL,
+    created_at                TIMESTAMP(6) NOT NULL,
+    updated_at                TIMESTAMP(6) NOT NULL,
+    occupied_by_vehicle_plate VARCHAR(15),
+    occupied_at               TIMESTAMP(6)
+);
+
+-- Los IDs de sesión los asigna la aplicación por bloques (ver ParkingSessionIdGenerator)
+CREATE SEQUENCE IF NOT EXISTS parking_sessions_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS parking_sessions (
+    id                BIGINT       PRIMARY KEY,
+    vehicle_id        BIGINT       NOT NULL,
+    parking_space_id  BIGINT       NOT NULL,
+    entry_time        TIMESTAMP(6) NOT NULL,
+    exit_time         TIMESTAMP(6),
+    operator_entry_id BIGINT       NOT NULL,
+    operator_exit_id  BIGINT,
+    is_active         BOOLEAN      NOT NULL,
+    ticket_code       VARCHAR(255) UNIQUE,
+    created_at        TIMESTAMP(6) NOT NULL,
+    updated_at        TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS payments (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    parking_session_id BIGINT         NOT NULL,
+    total_amount       NUMERIC(10, 2) NOT NULL,
+    hours_parked       NUMERIC(10, 2) NOT NULL,
+    rate_applied       NUMERIC(10, 2) NOT NULL,
+    payment_method     VARCHAR(20)    NOT NULL CHECK (payment_method IN ('CASH', 'CARD', 'TRANSFER')),
+    payment_status     VARCHAR(20)    NOT NULL CHECK (payment_status IN ('PENDING', 'PAID', 'CANCELLED')),
+    paid_at            TIMESTAMP(6),
+    operator_id        BIGINT         NOT NULL,
+    created_at         TIMESTAMP(6)   NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS rate_configs (
+    id                    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    vehicle_type_id       BIGINT         NOT NULL,
+    rate_per_hour         NUMERIC(10, 2) NOT NULL,
+    minimum_charge_hours  INTEGER        NOT NULL,
+    maximum_daily_rate    NUMERIC(10, 2),
+    night_rate_per_hour   NUMERIC(10, 2),
+    night_start_hour      INTEGER,
+    night_end_hour        INTEGER,
+    weekend_rate_per_hour NUMERIC(10, 2),
+    is_active             BOOLEAN        NOT NULL,
+    effective_from        TIMESTAMP(6),
+    created_at            TIMESTAMP(6),
+    updated_at            TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS daily_revenue_rollup (
+    rollup_date     DATE           NOT NULL,
+    vehicle_type_id BIGINT         NOT NULL,
+    payment_method  VARCHAR(20)    NOT NULL CHECK (payment_method IN ('CASH', 'CARD', 'TRANSFER')),
+    total_amount    NUMERIC(14, 2) NOT NULL,
+    payment_count   BIGINT         NOT NULL,
+    PRIMARY KEY (rollup_date, vehicle_type_id, payment_method)
+);
+
+CREATE TABLE IF NOT EXISTS daily_occupancy_stats (
+    stat_date        DATE         PRIMARY KEY,
+    total_spaces     INTEGER      NOT NULL,
+    occupied_spaces  INTEGER      NOT NULL,
+    vehicles_entered INTEGER      NOT NULL,
+    vehicles_exited  INTEGER      NOT NULL,
+    peak_occupancy   INTEGER      NOT NULL,
+    closed_at        TIMESTAMP(6) NOT NULL
+);
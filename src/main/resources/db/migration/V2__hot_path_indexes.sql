@@ -0,0 +1,37 @@
+-- ========================================
+-- ÍNDICES DE LAS CONSULTAS FRECUENTES
+-- ========================================
+-- CONCURRENTLY no bloquea las escrituras mientras se construye el índice y no puede
+-- correr dentro de una transacción (ver V2__hot_path_indexes.sql.conf).
+
+-- Sesión activa de un vehículo (entrada duplicada, salida por placa). Es UNIQUE: la base de datos
+-- garantiza una sola sesión activa por vehículo aunque varias instancias registren la misma entrada.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS idx_parking_sessions_active_vehicle
+    ON parking_sessions (vehicle_id) WHERE is_active;
+
+-- Sesiones en curso: ocupación actual, contadores del dashboard, exportaciones
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_parking_sessions_open_entry_time
+    ON parking_sessions (entry_time) WHERE exit_time IS NULL;
+
+-- Rangos semiabiertos de entradas y salidas de los reportes y del dashboard
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_parking_sessions_entry_time
+    ON parking_sessions (entry_time);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_parking_sessions_exit_time
+    ON parking_sessions (exit_time) WHERE exit_time IS NOT NULL;
+
+-- Pago de una sesión y joins de pagos con sesiones. Es UNIQUE: un solo pago por sesión
+-- aunque dos instancias cobren la misma sesión al mismo tiempo.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_parking_session_id
+    ON payments (parking_session_id);
+
+-- Orden de los listados keyset y de las exportaciones (ver PaymentQueryJdbcRepository)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_paid_at_id
+    ON payments (paid_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_operator_paid_at_id
+    ON payments (operator_id, paid_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_status_created_at_id
+    ON payments (payment_status, created_at, id);
+
+-- Espacios libres por tipo de vehículo: pool de espacios y reclamo con SKIP LOCKED
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_parking_spaces_free_by_type
+    ON parking_spaces (vehicle_type_id, id) WHERE is_active AND NOT is_occupied;
@@ -0,0 +1,193 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.application.cache;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.application.dto.OccupancyReportDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ReportCache Tests")
+class ReportCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 7, 17);
+    private static final Predicate<LocalDate> CLOSED = day -> day.isBefore(TODAY);
+
+    @Mock
+    private ReportCacheStore store;
+
+    private MutableClock clock;
+    private MeterRegistry meterRegistry;
+    private ReportCache cache;
+    private List<LocalDate[]> loads;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-07-17T10:00:00Z"));
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ReportCache(store, meterRegistry, 100, Duration.ofSeconds(30), clock);
+        loads = new ArrayList<>();
+        when(store.findAll(any(), any())).thenReturn(Map.of());
+    }
+
+    @Nested
+    @DisplayName("Range Tests")
+    class RangeTests {
+
+        @Test
+        @DisplayName("Should assemble a range from cached days and load only the missing span")
+        void shouldLoadOnlyMissingDays() {
+            getRange(TODAY.minusDays(5), TODAY.minusDays(4));
+
+            List<OccupancyReportDto> reports = getRange(TODAY.minusDays(6), TODAY.minusDays(3));
+
+            assertThat(reports).extracting(OccupancyReportDto::getReportDate).containsExactly(
+                    TODAY.minusDays(6), TODAY.minusDays(5), TODAY.minusDays(4), TODAY.minusDays(3));
+            assertThat(loads).hasSize(2);
+            assertThat(loads.get(1)).containsExactly(TODAY.minusDays(6), TODAY.minusDays(3));
+            assertThat(meterRegistry.get(ReportCache.METRIC_PREFIX + ".hits").counter().count()).isEqualTo(2.0);
+            assertThat(meterRegistry.get(ReportCache.METRIC_PREFIX + ".misses").counter().count()).isEqualTo(4.0);
+        }
+
+        @Test
+        @DisplayName("Should share closed days through the store and keep open days in memory only")
+        void shouldShareOnlyClosedDays() {
+            getRange(TODAY.minusDays(1), TODAY);
+
+            verify(store).saveAll(eq(ReportType.OCCUPANCY), eq(Map.of(TODAY.minusDays(1), report(TODAY.minusDays(1)))));
+        }
+
+        @Test
+        @DisplayName("Should take closed days from the store before calculating them")
+        void shouldReadFromStore() {
+            when(store.findAll(eq(ReportType.OCCUPANCY), any()))
+                    .thenReturn(Map.of(TODAY.minusDays(2), report(TODAY.minusDays(2))));
+
+            List<OccupancyReportDto> reports = getRange(TODAY.minusDays(2), TODAY.minusDays(2));
+
+            assertThat(reports).hasSize(1);
+            assertThat(loads).isEmpty();
+            verify(store, never()).saveAll(any(), anyMap());
+        }
+    }
+
+    @Nested
+    @DisplayName("Expiration Tests")
+    class ExpirationTests {
+
+        @Test
+        @DisplayName("Should keep closed days indefinitely and recalculate open days after the TTL")
+        void shouldExpireOnlyOpenDays() {
+            getRange(TODAY.minusDays(1), TODAY);
+            clock.advance(Duration.ofSeconds(10));
+            getRange(TODAY.minusDays(1), TODAY);
+            assertThat(loads).hasSize(1);
+
+            clock.advance(Duration.ofDays(30));
+            getRange(TODAY.minusDays(1), TODAY);
+
+            assertThat(loads).hasSize(2);
+            assertThat(loads.get(1)).containsExactly(TODAY, TODAY);
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidation Tests")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("Should drop the reports of the invalidated type from memory and the store")
+        void shouldDropInvalidatedType() {
+            getRange(TODAY.minusDays(3), TODAY.minusDays(2));
+
+            cache.invalidate(ReportType.OCCUPANCY);
+            getRange(TODAY.minusDays(3), TODAY.minusDays(2));
+
+            verify(store).deleteAll(ReportType.OCCUPANCY);
+            assertThat(loads).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("Should not cache reports loaded while the type was being invalidated")
+        void shouldNotCacheReportsLoadedBeforeInvalidation() {
+            cache.getRange(ReportType.OCCUPANCY, TODAY.minusDays(2), TODAY.minusDays(2), CLOSED, (from, to) -> {
+                // El resumen se recalcula mientras se calcula el reporte
+                cache.invalidate(ReportType.OCCUPANCY);
+                return List.of(report(from));
+            }, OccupancyReportDto::getReportDate);
+
+            assertThat(cache.size()).isZero();
+            verify(store, never()).saveAll(any(), anyMap());
+        }
+    }
+
+    private List<OccupancyReportDto> getRange(LocalDate start, LocalDate end) {
+        return cache.getRange(ReportType.OCCUPANCY, start, end, CLOSED, (from, to) -> {
+            loads.add(new LocalDate[]{from, to});
+            List<OccupancyReportDto> reports = new ArrayList<>();
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                reports.add(report(day));
+            }
+            return reports;
+        }, OccupancyReportDto::getReportDate);
+    }
+
+    private static OccupancyReportDto report(LocalDate day) {
+        return OccupancyReportDto.builder().reportDate(day).totalSpaces(50).build();
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.application.export;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.ExportFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ExportWriter Tests")
+class ExportWriterTest {
+
+    private static final List<String> COLUMNS = List.of("id", "license_plate", "total_amount", "paid_at", "is_active");
+
+    private static final Object[] ROW = {
+            7L, "ABC-123", new BigDecimal("4000.00"), LocalDateTime.of(2025, 7, 17, 12, 30), true
+    };
+
+    @Nested
+    @DisplayName("CSV Tests")
+    class CsvTests {
+
+        @Test
+        @DisplayName("Should write a header line and one CRLF line per row")
+        void shouldWriteHeaderAndRows() {
+            String csv = write(ExportFormat.CSV, ROW, new Object[]{8L, null, new BigDecimal("1E+3"), null, false});
+
+            assertThat(csv).isEqualTo("id,license_plate,total_amount,paid_at,is_active\r\n"
+                    + "7,ABC-123,4000.00,2025-07-17T12:30:00,true\r\n"
+                    + "8,,1000,,false\r\n");
+        }
+
+        @Test
+        @DisplayName("Should quote values with separators, quotes or line breaks")
+        void shouldQuoteSpecialValues() {
+            String csv = write(ExportFormat.CSV, new Object[]{1L, "A,B", "say \"hi\"", "two\nlines", "plain"});
+
+            assertThat(csv).endsWith("1,\"A,B\",\"say \"\"hi\"\"\",\"two\nlines\",plain\r\n");
+        }
+    }
+
+    @Nested
+    @DisplayName("NDJSON Tests")
+    class NdjsonTests {
+
+        @Test
+        @DisplayName("Should write one JSON object per line keyed by column")
+        void shouldWriteOneObjectPerLine() {
+            String ndjson = write(ExportFormat.NDJSON, ROW, new Object[]{8L, "say \"hi\"", null, null, false});
+
+            assertThat(ndjson).isEqualTo(
+                    "{\"id\":7,\"license_plate\":\"ABC-123\",\"total_amount\":4000.00,"
+                            + "\"paid_at\":\"2025-07-17T12:30:00\",\"is_active\":true}\n"
+                            + "{\"id\":8,\"license_plate\":\"say \\\"hi\\\"\",\"total_amount\":null,"
+                            + "\"paid_at\":null,\"is_active\":false}\n");
+        }
+    }
+
+    @Nested
+    @DisplayName("Format Tests")
+    class FormatTests {
+
+        @Test
+        @DisplayName("Should parse formats ignoring case and default to CSV")
+        void shouldParseFormats() {
+            assertThat(ExportFormat.from("NDJSON")).isEqualTo(ExportFormat.NDJSON);
+            assertThat(ExportFormat.from(" csv ")).isEqualTo(ExportFormat.CSV);
+            assertThat(ExportFormat.from(null)).isEqualTo(ExportFormat.CSV);
+            assertThatThrownBy(() -> ExportFormat.from("xlsx")).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private static String write(ExportFormat format, Object[]... rows) {
+        StringWriter out = new StringWriter();
+        ExportWriter writer = ExportWriter.create(format, out);
+        writer.columns(COLUMNS);
+        for (Object[] row : rows) {
+            writer.row(row);
+        }
+        writer.flush();
+        return out.toString();
+    }
+}
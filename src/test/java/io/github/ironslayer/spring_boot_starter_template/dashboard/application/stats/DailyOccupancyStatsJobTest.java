@@ -0,0 +1,116 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.application.stats;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.OccupancyReport;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.repository.DailyOccupancyStatsRepository;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.repository.DashboardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("DailyOccupancyStatsJob Tests")
+class DailyOccupancyStatsJobTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 7, 17);
+
+    @Mock
+    private DashboardRepository dashboardRepository;
+
+    @Mock
+    private DailyOccupancyStatsRepository statsRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DailyOccupancyStatsJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = jobAt("2025-07-17T10:00:00Z");
+        when(dashboardRepository.getOccupancyReportByDate(any())).thenAnswer(invocation ->
+                OccupancyReport.builder().reportDate(invocation.getArgument(0)).build());
+    }
+
+    @Nested
+    @DisplayName("Close Tests")
+    class CloseTests {
+
+        @Test
+        @DisplayName("Should close every day after the last closed one up to yesterday")
+        void shouldCloseFromLastClosedDay() {
+            when(statsRepository.findLastClosedDay()).thenReturn(Optional.of(TODAY.minusDays(4)));
+
+            assertThat(job.closePastDays()).isEqualTo(3);
+
+            ArgumentCaptor<OccupancyReport> saved = ArgumentCaptor.forClass(OccupancyReport.class);
+            verify(statsRepository, times(3)).save(saved.capture());
+            assertThat(saved.getAllValues()).extracting(OccupancyReport::getReportDate)
+                    .containsExactly(TODAY.minusDays(3), TODAY.minusDays(2), TODAY.minusDays(1));
+            verify(dashboardRepository, never()).getOccupancyReportByDate(TODAY);
+        }
+
+        @Test
+        @DisplayName("Should backfill from the first session when nothing was closed yet")
+        void shouldBackfillFromFirstSession() {
+            when(statsRepository.findLastClosedDay()).thenReturn(Optional.empty());
+            when(statsRepository.findFirstSessionDay()).thenReturn(Optional.of(TODAY.minusDays(10)));
+
+            assertThat(job.closePastDays()).isEqualTo(10);
+        }
+
+        @Test
+        @DisplayName("Should do nothing when yesterday is already closed or there are no sessions")
+        void shouldSkipWhenUpToDate() {
+            when(statsRepository.findLastClosedDay()).thenReturn(Optional.of(TODAY.minusDays(1)));
+            assertThat(job.closePastDays()).isZero();
+
+            when(statsRepository.findLastClosedDay()).thenReturn(Optional.empty());
+            when(statsRepository.findFirstSessionDay()).thenReturn(Optional.empty());
+            assertThat(job.closePastDays()).isZero();
+
+            verify(statsRepository, never()).save(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Schedule Tests")
+    class ScheduleTests {
+
+        @Test
+        @DisplayName("Should run next shortly after the coming local midnight")
+        void shouldRunAfterMidnight() {
+            assertThat(jobAt("2025-07-17T10:00:00Z").untilNextRun())
+                    .isEqualTo(Duration.ofHours(14).plus(DailyOccupancyStatsJob.CLOSE_DELAY));
+            assertThat(jobAt("2025-07-17T00:02:00Z").untilNextRun())
+                    .isEqualTo(Duration.ofMinutes(3));
+        }
+    }
+
+    private DailyOccupancyStatsJob jobAt(String instant) {
+        Clock clock = Clock.fixed(Instant.parse(instant), ZoneOffset.UTC);
+        return new DailyOccupancyStatsJob(dashboardRepository, statsRepository, transactionManager, clock);
+    }
+}
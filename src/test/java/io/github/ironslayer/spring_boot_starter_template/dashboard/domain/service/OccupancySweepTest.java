@@ -0,0 +1,102 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.domain.service;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.HourlyOccupancy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("OccupancySweep Tests")
+class OccupancySweepTest {
+
+    private static final LocalDateTime DAY = LocalDate.of(2025, 7, 17).atStartOfDay();
+
+    @Nested
+    @DisplayName("Peak Tests")
+    class PeakTests {
+
+        @Test
+        @DisplayName("Should measure simultaneous sessions, not entries per hour")
+        void shouldMeasureConcurrency() {
+            // Tres entradas en la misma hora, pero nunca más de dos dentro a la vez
+            OccupancySweep sweep = new OccupancySweep(DAY, DAY.plusDays(1), 0);
+            sweep.event(DAY.plusHours(10), 1);
+            sweep.event(DAY.plusHours(10).plusMinutes(10), 1);
+            sweep.event(DAY.plusHours(10).plusMinutes(20), -1);
+            sweep.event(DAY.plusHours(10).plusMinutes(30), 1);
+            sweep.event(DAY.plusHours(10).plusMinutes(40), -1);
+
+            assertThat(sweep.peakOccupancy()).isEqualTo(2);
+            assertThat(sweep.peakTime()).isEqualTo(DAY.plusHours(10).plusMinutes(10));
+        }
+
+        @Test
+        @DisplayName("Should start from the sessions already inside and not double count a freed space")
+        void shouldStartFromOccupiedAndHandleTies() {
+            OccupancySweep sweep = new OccupancySweep(DAY, DAY.plusDays(1), 3);
+            // A igual hora llegan primero las salidas
+            sweep.event(DAY.plusHours(8), -1);
+            sweep.event(DAY.plusHours(8), 1);
+            sweep.event(DAY.plusHours(9), -1);
+
+            assertThat(sweep.peakOccupancy()).isEqualTo(3);
+            assertThat(sweep.peakTime()).isEqualTo(DAY);
+        }
+    }
+
+    @Nested
+    @DisplayName("Histogram Tests")
+    class HistogramTests {
+
+        @Test
+        @DisplayName("Should carry the level across hours without events")
+        void shouldBuildHourlyHistogram() {
+            OccupancySweep sweep = new OccupancySweep(DAY, DAY.plusDays(1), 1);
+            sweep.event(DAY.plusHours(2).plusMinutes(15), 1);
+            sweep.event(DAY.plusHours(2).plusMinutes(45), 1);
+            sweep.event(DAY.plusHours(5), -1);
+
+            List<HourlyOccupancy> hours = sweep.hours();
+
+            assertThat(hours).hasSize(24);
+            assertThat(hours.get(0).getHourStart()).isEqualTo(DAY);
+            assertThat(hours.get(2).getOccupiedAtStart()).isEqualTo(1);
+            assertThat(hours.get(2).getPeakOccupancy()).isEqualTo(3);
+            assertThat(hours.get(2).getVehiclesEntered()).isEqualTo(2);
+            assertThat(hours.get(4).getOccupiedAtStart()).isEqualTo(3);
+            assertThat(hours.get(5).getPeakOccupancy()).isEqualTo(3);
+            assertThat(hours.get(5).getVehiclesExited()).isEqualTo(1);
+            assertThat(hours.get(23).getOccupiedAtStart()).isEqualTo(2);
+            assertThat(hours.get(23).getPeakOccupancy()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should cover only the started hours of a partial period")
+        void shouldCoverPartialPeriod() {
+            OccupancySweep sweep = new OccupancySweep(DAY, DAY.plusHours(10).plusMinutes(30), 0);
+
+            assertThat(sweep.hours()).hasSize(11);
+        }
+    }
+
+    @Nested
+    @DisplayName("Validation Tests")
+    class ValidationTests {
+
+        @Test
+        @DisplayName("Should reject events outside the period or out of order")
+        void shouldRejectInvalidEvents() {
+            OccupancySweep sweep = new OccupancySweep(DAY, DAY.plusDays(1), 0);
+            sweep.event(DAY.plusHours(5), 1);
+
+            assertThatThrownBy(() -> sweep.event(DAY.plusHours(4), 1)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> sweep.event(DAY.plusDays(1), -1)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new OccupancySweep(DAY, DAY, 0)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package io.github.ironslayer.spring_boot_starter_template.dashboard.infrastructure.counters;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.model.DashboardCounts;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.repository.DashboardRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("InMemoryDashboardCounters Tests")
+class InMemoryDashboardCountersTest {
+
+    private static final Instant START = Instant.parse("2025-07-17T10:00:00Z");
+    private static final LocalDate TODAY = LocalDate.of(2025, 7, 17);
+    private static final LocalDateTime NOW = LocalDateTime.ofInstant(START, ZoneOffset.UTC);
+
+    @Mock
+    private DashboardRepository dashboardRepository;
+
+    private MutableClock clock;
+    private MeterRegistry meterRegistry;
+    private InMemoryDashboardCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START);
+        meterRegistry = new SimpleMeterRegistry();
+        counters = new InMemoryDashboardCounters(dashboardRepository, Duration.ofMinutes(1), meterRegistry, clock);
+        when(dashboardRepository.countDay(any())).thenAnswer(invocation ->
+                counts(invocation.getArgument(0), 0, 0, 0, 0, 0, "0.00"));
+    }
+
+    @Nested
+    @DisplayName("Event Tests")
+    class EventTests {
+
+        @Test
+        @DisplayName("Should count entries, exits and payments without querying again")
+        void shouldCountEvents() {
+            when(dashboardRepository.countDay(TODAY)).thenReturn(counts(TODAY, 10, 3, 1, 3_600, 1, "2000.00"));
+            counters.reconcile();
+
+            counters.sessionStarted(NOW.minusMinutes(5));
+            counters.sessionEnded(NOW.minusHours(2), NOW);
+            counters.paymentCollected(NOW, new BigDecimal("4000.00"));
+
+            DashboardCounts snapshot = counters.snapshot();
+            assertThat(snapshot.totalSpaces()).isEqualTo(50);
+            assertThat(snapshot.activeSessions()).isEqualTo(10);
+            assertThat(snapshot.entries()).isEqualTo(4);
+            assertThat(snapshot.exits()).isEqualTo(2);
+            assertThat(snapshot.averageStayHours()).isEqualByComparingTo("1.50");
+            assertThat(snapshot.payments()).isEqualTo(2);
+            assertThat(snapshot.revenue()).isEqualByComparingTo("6000.00");
+            verify(dashboardRepository, times(1)).countDay(any());
+        }
+
+        @Test
+        @DisplayName("Should keep active sessions but not day totals for sessions that entered on another day")
+        void shouldNotCountOtherDays() {
+            counters.reconcile();
+
+            counters.sessionStarted(NOW.minusDays(1));
+            counters.sessionEnded(NOW.minusDays(2), NOW.minusDays(1));
+
+            DashboardCounts snapshot = counters.snapshot();
+            assertThat(snapshot.activeSessions()).isZero();
+            assertThat(snapshot.entries()).isZero();
+            assertThat(snapshot.exits()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should keep the highest number of active sessions seen in the day")
+        void shouldTrackPeak() {
+            when(dashboardRepository.countDay(TODAY)).thenReturn(counts(TODAY, 2, 2, 0, 0, 0, "0.00"));
+            counters.reconcile();
+
+            counters.sessionStarted(NOW);
+            counters.sessionStarted(NOW);
+            counters.sessionEnded(NOW.minusHours(1), NOW);
+
+            assertThat(counters.snapshot().activeSessions()).isEqualTo(3);
+            assertThat(counters.snapshot().peakOccupancy()).isEqualTo(4);
+            assertThat(counters.snapshot().toOccupancyReport().getOccupiedSpaces()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Should wait for the commit before counting")
+        void shouldCountOnlyAfterCommit() {
+            counters.reconcile();
+
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                counters.sessionStarted(NOW);
+                counters.paymentCollected(NOW, new BigDecimal("2000.00"));
+                assertThat(counters.snapshot().entries()).isZero();
+                assertThat(counters.snapshot().payments()).isZero();
+
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            assertThat(counters.snapshot().entries()).isEqualTo(1);
+            assertThat(counters.snapshot().payments()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Midnight Tests")
+    class MidnightTests {
+
+        @Test
+        @DisplayName("Should reset day totals at local midnight and keep active sessions")
+        void shouldResetAtMidnight() {
+            counters.reconcile();
+            counters.sessionStarted(NOW);
+            counters.paymentCollected(NOW, new BigDecimal("2000.00"));
+
+            clock.advance(Duration.ofDays(1));
+
+            DashboardCounts snapshot = counters.snapshot();
+            assertThat(snapshot.day()).isEqualTo(TODAY.plusDays(1));
+            assertThat(snapshot.activeSessions()).isEqualTo(1);
+            assertThat(snapshot.peakOccupancy()).isEqualTo(1);
+            assertThat(snapshot.entries()).isZero();
+            assertThat(snapshot.payments()).isZero();
+            assertThat(snapshot.revenue()).isEqualByComparingTo("0.00");
+        }
+
+        @Test
+        @DisplayName("Should not add facts from the previous day committed after midnight")
+        void shouldDropPreviousDayFacts() {
+            counters.reconcile();
+            clock.advance(Duration.ofDays(1));
+
+            counters.paymentCollected(NOW, new BigDecimal("2000.00"));
+
+            assertThat(counters.snapshot().payments()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Reconciliation Tests")
+    class ReconciliationTests {
+
+        @Test
+        @DisplayName("Should load from the database on first use when the application is not ready yet")
+        void shouldLoadOnFirstUse() {
+            when(dashboardRepository.countDay(TODAY)).thenReturn(counts(TODAY, 7, 12, 5, 18_000, 4, "8000.00"));
+
+            DashboardCounts snapshot = counters.snapshot();
+
+            assertThat(snapshot.activeSessions()).isEqualTo(7);
+            assertThat(snapshot.entries()).isEqualTo(12);
+            assertThat(snapshot.revenue()).isEqualByComparingTo("8000.00");
+            assertThat(meterRegistry.get(InMemoryDashboardCounters.METRIC_PREFIX + ".corrections").counter().count())
+                    .isZero();
+        }
+
+        @Test
+        @DisplayName("Should correct drift against the database")
+        void shouldCorrectDrift() {
+            counters.reconcile();
+            counters.sessionStarted(NOW);
+            counters.sessionStarted(NOW);
+            when(dashboardRepository.countDay(TODAY)).thenReturn(counts(TODAY, 1, 1, 0, 0, 0, "0.00"));
+
+            counters.reconcile();
+
+            assertThat(counters.snapshot().activeSessions()).isEqualTo(1);
+            assertThat(counters.snapshot().entries()).isEqualTo(1);
+            assertThat(meterRegistry.get(InMemoryDashboardCounters.METRIC_PREFIX + ".corrections").counter().count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should keep facts applied while the reconciliation query runs")
+        void shouldKeepFactsAppliedDuringQuery() {
+            counters.reconcile();
+            when(dashboardRepository.countDay(TODAY)).thenAnswer(invocation -> {
+                // Llega una entrada mientras corre la consulta, que ya no la ve
+                counters.sessionStarted(NOW);
+                return counts(TODAY, 3, 3, 0, 0, 0, "0.00");
+            });
+
+            counters.reconcile();
+
+            assertThat(counters.snapshot().activeSessions()).isEqualTo(4);
+            assertThat(counters.snapshot().entries()).isEqualTo(4);
+        }
+    }
+
+    private static DashboardCounts counts(LocalDate day, long active, long entries, long exits, long staySeconds,
+                                          long payments, String revenue) {
+        return new DashboardCounts(day, 50, active, entries, exits, staySeconds, active, payments, new BigDecimal(revenue));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.ironslayer.spring_boot_starter_template.integration;
+
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpace;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpaceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica contra PostgreSQL real que el claim atómico de espacios nunca asigna
+ * el mismo espacio a dos vehículos, aunque muchas entradas compitan a la vez.
+ */
+@SpringBootTest
+@Testcontainers
+@DisplayName("Integration Tests - Concurrent Parking Space Claims")
+class ParkingSpaceClaimConcurrencyIntegrationTest {
+
+    private static final int SPACES = 50;
+    private static final int THREADS = 16;
+    private static final Long CAR = 1L;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("parking_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine")
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> String.valueOf(THREADS + 4));
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private ParkingSpaceRepository parkingSpaceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setupSpaces() {
+        jdbcTemplate.execute("DELETE FROM parking_spaces");
+        for (int i = 1; i <= SPACES; i++) {
+            jdbcTemplate.update("INSERT INTO parking_spaces (space_number, vehicle_type_id, is_occupied, is_active, created_at, updated_at) " +
+                    "VALUES (?, ?, false, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", String.format("C-%03d", i), CAR);
+        }
+    }
+
+    @Test
+    @DisplayName("Should never assign the same space twice when claiming the first available concurrently")
+    void shouldNeverAssignSameSpaceTwiceWithClaimFirstAvailable() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        AtomicInteger plateSequence = new AtomicInteger();
+        Map<Long, String> assignments = new ConcurrentHashMap<>();
+        AtomicInteger duplicates = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(() -> {
+            while (true) {
+                String plate = String.format("CAR%03d", plateSequence.incrementAndGet());
+                Optional<ParkingSpace> claimed = tx.execute(status -> parkingSpaceRepository.claimFirstAvailable(CAR, plate));
+                if (claimed.isEmpty()) {
+                    rejected.incrementAndGet();
+                    return null;
+                }
+                if (assignments.putIfAbsent(claimed.get().getId(), plate) != null) {
+                    duplicates.incrementAndGet();
+                }
+            }
+        });
+
+        assertThat(duplicates).hasValue(0);
+        assertThat(assignments).hasSize(SPACES);
+        assertThat(rejected).hasValue(THREADS);
+        assertOccupiedRowsMatch(assignments);
+    }
+
+    @Test
+    @DisplayName("Should let exactly one of many concurrent claims on the same space win")
+    void shouldLetExactlyOneConcurrentClaimOnSameSpaceWin() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long spaceId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM parking_spaces", Long.class);
+        AtomicInteger plateSequence = new AtomicInteger();
+        Map<Long, String> assignments = new ConcurrentHashMap<>();
+        AtomicInteger winners = new AtomicInteger();
+
+        runConcurrently(() -> {
+            String plate = String.format("CAR%03d", plateSequence.incrementAndGet());
+            Optional<ParkingSpace> claimed = tx.execute(status -> parkingSpaceRepository.claim(spaceId, CAR, plate));
+            claimed.ifPresent(space -> {
+                winners.incrementAndGet();
+                assignments.put(space.getId(), plate);
+            });
+            return null;
+        });
+
+        assertThat(winners).hasValue(1);
+        assertOccupiedRowsMatch(assignments);
+    }
+
+    private void runConcurrently(Callable<Void> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    private void assertOccupiedRowsMatch(Map<Long, String> assignments) {
+        List<Map<String, Object>> occupied = jdbcTemplate.queryForList(
+                "SELECT id, occupied_by_vehicle_plate FROM parking_spaces WHERE is_occupied = true");
+        assertThat(occupied).hasSize(assignments.size());
+        occupied.forEach(row -> assertThat(assignments.get(((Number) row.get("id")).longValue()))
+                .isEqualTo(row.get("occupied_by_vehicle_plate")));
+    }
+}
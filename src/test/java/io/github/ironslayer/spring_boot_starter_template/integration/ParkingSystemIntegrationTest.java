@@ -65,7 +65,7 @@ class ParkingSystemIntegrationTest {
         registry.add("spring.data.redis.port", redis::getFirstMappedPort);
         
         // JPA configuration for testing
-        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
         registry.add("spring.jpa.show-sql", () -> "true");
     }
 
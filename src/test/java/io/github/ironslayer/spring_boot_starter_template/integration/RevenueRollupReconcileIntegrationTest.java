@@ -0,0 +1,163 @@
+package io.github.ironslayer.spring_boot_starter_template.integration;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.application.cache.ReportCache;
+import io.github.ironslayer.spring_boot_starter_template.dashboard.application.cache.ReportType;
+import io.github.ironslayer.spring_boot_starter_template.payment.infrastructure.persistence.repository.DailyRevenueRollupJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Verifica contra PostgreSQL real que la conciliación del resumen de recaudación lo recalcula
+ * cuando la cantidad o el monto no coinciden con los pagos cobrados, y que solo entonces
+ * se descartan los reportes de recaudación guardados.
+ */
+@SpringBootTest
+@Testcontainers
+@DisplayName("Integration Tests - Revenue Rollup Reconciliation")
+class RevenueRollupReconcileIntegrationTest {
+
+    private static final LocalDate PAID_DAY = LocalDate.now().minusDays(3);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("parking_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine")
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private DailyRevenueRollupJdbcRepository rollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private ReportCache reportCache;
+
+    @BeforeEach
+    void setupPaidPayments() {
+        jdbcTemplate.execute("DELETE FROM daily_revenue_rollup");
+        jdbcTemplate.execute("DELETE FROM payments");
+        jdbcTemplate.execute("DELETE FROM parking_sessions");
+        jdbcTemplate.execute("DELETE FROM vehicles");
+
+        insertVehicle(1L, "CAR001", 1L);
+        insertVehicle(2L, "MOTO01", 2L);
+        insertSession(1L, 1L);
+        insertSession(2L, 2L);
+        insertSession(3L, 1L);
+        insertPayment(1L, "10.00", "CASH", "PAID");
+        insertPayment(2L, "25.50", "CARD", "PAID");
+        insertPayment(3L, "7.00", "CASH", "PENDING");
+
+        // Deja el resumen en línea con los pagos antes de cada caso
+        rollupRepository.reconcile();
+        clearInvocations(reportCache);
+    }
+
+    @Test
+    @DisplayName("Should leave the rollup alone and keep cached reports when it is in sync")
+    void shouldKeepRollupInSync() {
+        rollupRepository.reconcile();
+
+        assertThat(rollupRows()).containsExactly(
+                new RollupRow(PAID_DAY, 1L, "CASH", new BigDecimal("10.00"), 1),
+                new RollupRow(PAID_DAY, 2L, "CARD", new BigDecimal("25.50"), 1));
+        verify(reportCache, never()).invalidate(any());
+    }
+
+    @Test
+    @DisplayName("Should rebuild the rollup and invalidate revenue reports when the payment count drifted")
+    void shouldRebuildOnCountDrift() {
+        jdbcTemplate.update("UPDATE daily_revenue_rollup SET payment_count = payment_count + 1 WHERE vehicle_type_id = 1");
+
+        rollupRepository.reconcile();
+
+        assertThat(rollupRows()).containsExactly(
+                new RollupRow(PAID_DAY, 1L, "CASH", new BigDecimal("10.00"), 1),
+                new RollupRow(PAID_DAY, 2L, "CARD", new BigDecimal("25.50"), 1));
+        verify(reportCache).invalidate(ReportType.REVENUE);
+    }
+
+    @Test
+    @DisplayName("Should rebuild the rollup and invalidate revenue reports when the amount drifted")
+    void shouldRebuildOnAmountDrift() {
+        jdbcTemplate.update("UPDATE daily_revenue_rollup SET total_amount = total_amount + 1.00 WHERE vehicle_type_id = 2");
+
+        rollupRepository.reconcile();
+
+        assertThat(rollupRows()).containsExactly(
+                new RollupRow(PAID_DAY, 1L, "CASH", new BigDecimal("10.00"), 1),
+                new RollupRow(PAID_DAY, 2L, "CARD", new BigDecimal("25.50"), 1));
+        verify(reportCache).invalidate(ReportType.REVENUE);
+    }
+
+    private void insertVehicle(Long id, String licensePlate, Long vehicleTypeId) {
+        jdbcTemplate.update("INSERT INTO vehicles (id, license_plate, vehicle_type_id, is_active, created_at, updated_at) " +
+                "VALUES (?, ?, ?, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", id, licensePlate, vehicleTypeId);
+    }
+
+    private void insertSession(Long id, Long vehicleId) {
+        Timestamp entry = Timestamp.valueOf(PAID_DAY.atTime(9, 0));
+        Timestamp exit = Timestamp.valueOf(PAID_DAY.atTime(11, 0));
+        jdbcTemplate.update("INSERT INTO parking_sessions (id, vehicle_id, parking_space_id, entry_time, exit_time, " +
+                "operator_entry_id, operator_exit_id, is_active, ticket_code, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, 1, 1, false, ?, ?, ?)", id, vehicleId, id, entry, exit, "T-IT" + id, entry, exit);
+    }
+
+    private void insertPayment(Long sessionId, String amount, String method, String status) {
+        LocalDateTime paidAt = PAID_DAY.atTime(11, 5);
+        jdbcTemplate.update("INSERT INTO payments (parking_session_id, total_amount, hours_parked, rate_applied, " +
+                        "payment_method, payment_status, paid_at, operator_id, created_at) VALUES (?, ?, 2.00, 5.00, ?, ?, ?, 1, ?)",
+                sessionId, new BigDecimal(amount), method, status,
+                "PAID".equals(status) ? Timestamp.valueOf(paidAt) : null, Timestamp.valueOf(paidAt));
+    }
+
+    private List<RollupRow> rollupRows() {
+        return jdbcTemplate.query("""
+                SELECT rollup_date, vehicle_type_id, payment_method, total_amount, payment_count
+                FROM daily_revenue_rollup ORDER BY vehicle_type_id, payment_method
+                """, (rs, rowNum) -> new RollupRow(rs.getDate(1).toLocalDate(), rs.getLong(2), rs.getString(3),
+                rs.getBigDecimal(4), rs.getLong(5)));
+    }
+
+    private record RollupRow(LocalDate date, Long vehicleTypeId, String paymentMethod,
+                             BigDecimal totalAmount, long paymentCount) {
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.ironslayer.spring_boot_starter_template.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que una base creada antes con ddl-auto: update se actualiza con las migraciones de Flyway
+ * (baseline en la versión 0) y que después arranca con ddl-auto: validate sin perder datos.
+ */
+@SpringBootTest
+@Testcontainers
+@DisplayName("Integration Tests - Schema Upgrade From ddl-auto Databases")
+class SchemaUpgradeIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("parking_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine")
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        // El esquema viejo tiene que existir antes de que arranque el contexto (y con él Flyway)
+        createBaselineEraSchema();
+
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should baseline the existing schema and apply every migration")
+    void shouldBaselineAndApplyMigrations() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM flyway_schema_history WHERE success ORDER BY installed_rank", String.class);
+
+        assertThat(versions).containsExactly("0", "1", "1.1", "2");
+    }
+
+    @Test
+    @DisplayName("Should add the new rate config columns and keep the existing rates")
+    void shouldAddRateConfigColumnsKeepingData() {
+        List<String> columns = jdbcTemplate.queryForList("""
+                SELECT column_name FROM information_schema.columns
+                WHERE table_name = 'rate_configs'
+                """, String.class);
+        BigDecimal ratePerHour = jdbcTemplate.queryForObject(
+                "SELECT rate_per_hour FROM rate_configs WHERE vehicle_type_id = 1", BigDecimal.class);
+
+        assertThat(columns).contains("night_rate_per_hour", "night_start_hour", "night_end_hour",
+                "weekend_rate_per_hour", "effective_from");
+        assertThat(ratePerHour).isEqualByComparingTo("3000.00");
+    }
+
+    @Test
+    @DisplayName("Should create the tables that did not exist before the migrations")
+    void shouldCreateMissingTables() {
+        List<String> tables = jdbcTemplate.queryForList("""
+                SELECT table_name FROM information_schema.tables
+                WHERE table_schema = 'public'
+                """, String.class);
+
+        assertThat(tables).contains("daily_revenue_rollup", "daily_occupancy_stats");
+    }
+
+    @Test
+    @DisplayName("Should build the unique indexes for active sessions and payments")
+    void shouldBuildUniqueIndexes() {
+        List<String> uniqueIndexes = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_index i
+                JOIN pg_class c ON c.oid = i.indexrelid
+                WHERE i.indisunique AND i.indisvalid
+                """, String.class);
+
+        assertThat(uniqueIndexes).contains("idx_parking_sessions_active_vehicle", "idx_payments_parking_session_id");
+    }
+
+    private static void createBaselineEraSchema() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        new ResourceDatabasePopulator(new ClassPathResource("db/baseline-era-schema.sql")).execute(dataSource);
+    }
+}
@@ -1,14 +1,18 @@
 package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.endSession;
 
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.port.DashboardCounters;
 import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ActiveSessionSummary;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.exception.NoActiveSessionException;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.exception.ParkingSessionNotFoundException;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ActiveSessionRegistry;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.service.TicketCodeCodec;
 import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpace;
 import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpaceRepository;
-import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.entity.RateConfig;
-import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.port.RateConfigRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.Tariff;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableCache;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.entity.User;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.exception.UserNotFoundException;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.port.UserRepository;
@@ -43,6 +47,9 @@ class EndSessionHandlerTest {
     @Mock
     private ParkingSessionRepository parkingSessionRepository;
     
+    @Mock
+    private ActiveSessionRegistry activeSessionRegistry;
+
     @Mock
     private VehicleRepository vehicleRepository;
     
@@ -56,7 +63,10 @@ class EndSessionHandlerTest {
     private VehicleTypeRepository vehicleTypeRepository;
     
     @Mock
-    private RateConfigRepository rateConfigRepository;
+    private RateTableCache rateTableCache;
+
+    @Mock
+    private DashboardCounters dashboardCounters;
 
     @InjectMocks
     private EndSessionHandler endSessionHandler;
@@ -77,7 +87,7 @@ class EndSessionHandlerTest {
                     .hasMessage("Bad Request Exception (400). Operator ID is required");
 
             verifyNoInteractions(parkingSessionRepository, vehicleRepository, 
-                                parkingSpaceRepository, userRepository, vehicleTypeRepository, rateConfigRepository);
+                                parkingSpaceRepository, userRepository, vehicleTypeRepository, rateTableCache);
         }
 
         @Test
@@ -92,7 +102,7 @@ class EndSessionHandlerTest {
                     .hasMessage("Bad Request Exception (400). Provide exactly one of: license plate, session ID, or ticket code");
 
             verifyNoInteractions(parkingSessionRepository, vehicleRepository, 
-                                parkingSpaceRepository, userRepository, vehicleTypeRepository, rateConfigRepository);
+                                parkingSpaceRepository, userRepository, vehicleTypeRepository, rateTableCache);
         }
 
         @Test
@@ -107,7 +117,7 @@ class EndSessionHandlerTest {
                     .hasMessage("Bad Request Exception (400). Provide exactly one of: license plate, session ID, or ticket code");
 
             verifyNoInteractions(parkingSessionRepository, vehicleRepository, 
-                                parkingSpaceRepository, userRepository, vehicleTypeRepository, rateConfigRepository);
+                                parkingSpaceRepository, userRepository, vehicleTypeRepository, rateTableCache);
         }
     }
 
@@ -128,9 +138,10 @@ class EndSessionHandlerTest {
             assertThatThrownBy(() -> endSessionHandler.handle(request))
                     .isInstanceOf(VehicleNotFoundException.class);
 
+            verify(activeSessionRegistry).findByLicensePlate("INVALID123");
             verify(vehicleRepository).findByLicensePlate("INVALID123");
             verifyNoInteractions(parkingSessionRepository, parkingSpaceRepository, 
-                                userRepository, vehicleTypeRepository, rateConfigRepository);
+                                userRepository, vehicleTypeRepository, rateTableCache);
         }
 
         @Test
@@ -149,9 +160,74 @@ class EndSessionHandlerTest {
             assertThatThrownBy(() -> endSessionHandler.handle(request))
                     .isInstanceOf(NoActiveSessionException.class);
 
-            verify(vehicleRepository).findByLicensePlate("ABC123");
+            verify(activeSessionRegistry).findByLicensePlate("ABC123");
+            verify(parkingSessionRepository).findActiveSessionByVehicleId(1L);
+            verifyNoInteractions(parkingSpaceRepository, userRepository, vehicleTypeRepository, rateTableCache);
+        }
+
+        @Test
+        @DisplayName("Should fall back to the database when the registry does not know the session")
+        void shouldFallBackToDatabaseOnRegistryMiss() {
+            // Given: la sesión se abrió desde otra instancia
+            EndSessionRequest request = new EndSessionRequest("ABC123", null, null, 999L);
+            Vehicle vehicle = createMockVehicle(1L, "ABC123", 1L);
+            ParkingSession activeSession = createMockParkingSession(7L, true);
+            
+            when(vehicleRepository.findByLicensePlate("ABC123"))
+                    .thenReturn(Optional.of(vehicle));
+            when(parkingSessionRepository.findActiveSessionByVehicleId(1L))
+                    .thenReturn(Optional.of(activeSession));
+            when(userRepository.findById(999L))
+                    .thenReturn(Optional.empty());
+
+            // When & Then: la sesión se encontró y se sigue con la validación del operador
+            assertThatThrownBy(() -> endSessionHandler.handle(request))
+                    .isInstanceOf(UserNotFoundException.class);
+
             verify(parkingSessionRepository).findActiveSessionByVehicleId(1L);
-            verifyNoInteractions(parkingSpaceRepository, userRepository, vehicleTypeRepository, rateConfigRepository);
+            verify(userRepository).findById(999L);
+        }
+
+        @Test
+        @DisplayName("Should evict a registry entry whose session was closed elsewhere and look it up in the database")
+        void shouldEvictStaleRegistryEntry() {
+            // Given: el registro apunta a una sesión ya cerrada desde otra instancia
+            EndSessionRequest request = new EndSessionRequest("ABC123", null, null, 1L);
+            Vehicle vehicle = createMockVehicle(1L, "ABC123", 1L);
+            ParkingSession closedSession = createMockParkingSession(7L, false);
+            
+            givenActiveSessionInRegistry("ABC123", closedSession);
+            when(vehicleRepository.findByLicensePlate("ABC123"))
+                    .thenReturn(Optional.of(vehicle));
+            when(parkingSessionRepository.findActiveSessionByVehicleId(1L))
+                    .thenReturn(Optional.empty());
+
+            // When & Then
+            assertThatThrownBy(() -> endSessionHandler.handle(request))
+                    .isInstanceOf(NoActiveSessionException.class);
+
+            verify(activeSessionRegistry).evict(argThat(summary -> summary.sessionId().equals(7L)));
+            verify(parkingSessionRepository).findActiveSessionByVehicleId(1L);
+        }
+
+        @Test
+        @DisplayName("Should fetch the session by primary key using the active session registry")
+        void shouldFetchSessionByIdFromRegistry() {
+            // Given
+            EndSessionRequest request = new EndSessionRequest("abc123", null, null, 999L);
+            ParkingSession activeSession = createMockParkingSession(7L, true);
+            
+            givenActiveSessionInRegistry("ABC123", activeSession);
+            when(userRepository.findById(999L))
+                    .thenReturn(Optional.empty());
+
+            // When & Then
+            assertThatThrownBy(() -> endSessionHandler.handle(request))
+                    .isInstanceOf(UserNotFoundException.class);
+
+            verify(parkingSessionRepository).findById(7L);
+            verify(parkingSessionRepository, never()).findActiveSessionByVehicleId(anyLong());
+            verifyNoInteractions(vehicleRepository);
         }
     }
 
@@ -174,7 +250,7 @@ class EndSessionHandlerTest {
 
             verify(parkingSessionRepository).findById(999L);
             verifyNoInteractions(vehicleRepository, parkingSpaceRepository, 
-                                userRepository, vehicleTypeRepository, rateConfigRepository);
+                                userRepository, vehicleTypeRepository, rateTableCache);
         }
 
         @Test
@@ -196,7 +272,7 @@ class EndSessionHandlerTest {
             verify(parkingSessionRepository).findById(1L);
             verify(inactiveSession).canRegisterExit();
             verifyNoInteractions(vehicleRepository, parkingSpaceRepository, 
-                                userRepository, vehicleTypeRepository, rateConfigRepository);
+                                userRepository, vehicleTypeRepository, rateTableCache);
         }
     }
 
@@ -219,7 +295,25 @@ class EndSessionHandlerTest {
 
             verify(parkingSessionRepository).findByTicketCode("T-INVALID");
             verifyNoInteractions(vehicleRepository, parkingSpaceRepository, 
-                                userRepository, vehicleTypeRepository, rateConfigRepository);
+                                userRepository, vehicleTypeRepository, rateTableCache);
+        }
+
+        @Test
+        @DisplayName("Should look up session by primary key when ticket code encodes the session ID")
+        void shouldLookUpSessionByIdWhenTicketEncodesSessionId() {
+            // Given
+            EndSessionRequest request = EndSessionRequest.byTicketCode(TicketCodeCodec.encode(42L), 1L);
+            ParkingSession closedSession = createMockParkingSession(42L, false);
+            
+            when(parkingSessionRepository.findById(42L))
+                    .thenReturn(Optional.of(closedSession));
+
+            // When & Then
+            assertThatThrownBy(() -> endSessionHandler.handle(request))
+                    .isInstanceOf(ParkingSessionNotFoundException.class);
+
+            verify(parkingSessionRepository).findById(42L);
+            verify(parkingSessionRepository, never()).findByTicketCode(anyString());
         }
     }
 
@@ -232,13 +326,9 @@ class EndSessionHandlerTest {
         void shouldThrowUserNotFoundExceptionWhenOperatorDoesNotExist() {
             // Given
             EndSessionRequest request = new EndSessionRequest("ABC123", null, null, 999L);
-            Vehicle vehicle = createMockVehicle(1L, "ABC123", 1L);
             ParkingSession activeSession = createMockParkingSession(1L, true);
             
-            when(vehicleRepository.findByLicensePlate("ABC123"))
-                    .thenReturn(Optional.of(vehicle));
-            when(parkingSessionRepository.findActiveSessionByVehicleId(1L))
-                    .thenReturn(Optional.of(activeSession));
+            givenActiveSessionInRegistry("ABC123", activeSession);
             when(userRepository.findById(999L))
                     .thenReturn(Optional.empty());
 
@@ -247,10 +337,10 @@ class EndSessionHandlerTest {
                     .isInstanceOf(UserNotFoundException.class)
                     .hasMessage("User with ID '999' not found");
 
-            verify(vehicleRepository).findByLicensePlate("ABC123");
-            verify(parkingSessionRepository).findActiveSessionByVehicleId(1L);
+            verify(activeSessionRegistry).findByLicensePlate("ABC123");
+            verify(parkingSessionRepository).findById(1L);
             verify(userRepository).findById(999L);
-            verifyNoInteractions(parkingSpaceRepository, vehicleTypeRepository, rateConfigRepository);
+            verifyNoInteractions(parkingSpaceRepository, vehicleTypeRepository, rateTableCache);
         }
     }
 
@@ -268,27 +358,24 @@ class EndSessionHandlerTest {
             User operator = createMockUser(1L, "John", "Doe");
             ParkingSpace parkingSpace = createMockParkingSpace(1L, "A01");
             VehicleType vehicleType = createMockVehicleType(1L, "CAR");
-            RateConfig rateConfig = createMockRateConfig();
+            Tariff tariff = new Tariff(500, 1, 4000); // $5.00/h, mínimo 1 h, tope $40.00
             
-            when(vehicleRepository.findByLicensePlate("ABC123"))
-                    .thenReturn(Optional.of(vehicle));
-            when(parkingSessionRepository.findActiveSessionByVehicleId(1L))
-                    .thenReturn(Optional.of(activeSession));
+            givenActiveSessionInRegistry("ABC123", activeSession);
             when(userRepository.findById(1L))
                     .thenReturn(Optional.of(operator));
             when(activeSession.getVehicleId()).thenReturn(1L);
             when(activeSession.getParkingSpaceId()).thenReturn(1L);
-            when(activeSession.calculateParkedHours()).thenReturn(2.5);
+            when(activeSession.calculateParkedMinutes()).thenReturn(150L);
             when(vehicleRepository.findById(1L))
                     .thenReturn(Optional.of(vehicle));
             when(parkingSpaceRepository.findById(1L))
                     .thenReturn(Optional.of(parkingSpace));
             when(vehicleTypeRepository.findById(1L))
                     .thenReturn(Optional.of(vehicleType));
-            when(rateConfigRepository.findActiveByVehicleTypeId(1L))
-                    .thenReturn(Optional.of(rateConfig));
-            when(parkingSessionRepository.save(any(ParkingSession.class)))
-                    .thenReturn(activeSession);
+            when(rateTableCache.findTariffAt(eq(1L), any()))
+                    .thenReturn(Optional.of(tariff));
+            when(parkingSessionRepository.closeActiveSession(eq(1L), eq(1L), any(LocalDateTime.class)))
+                    .thenReturn(Optional.of(activeSession));
             when(parkingSpaceRepository.save(any(ParkingSpace.class)))
                     .thenReturn(parkingSpace);
             when(activeSession.getId()).thenReturn(1L);
@@ -307,16 +394,55 @@ class EndSessionHandlerTest {
             assertThat(response.operatorName()).isEqualTo("John Doe");
             assertThat(response.entryTime()).isNotBlank();
             assertThat(response.exitTime()).isNotBlank();
+            assertThat(response.hoursParked()).isEqualByComparingTo("2.50");
+            assertThat(response.totalAmount()).isEqualByComparingTo("15.00"); // 2.5 h se cobran como 3 h
 
             // Verify interactions
-            verify(vehicleRepository).findByLicensePlate("ABC123");
-            verify(parkingSessionRepository).findActiveSessionByVehicleId(1L);
+            verify(activeSessionRegistry).findByLicensePlate("ABC123");
+            verify(parkingSessionRepository).findById(1L);
             verify(userRepository).findById(1L);
-            verify(activeSession).markExit(1L);
+            verify(parkingSessionRepository).closeActiveSession(eq(1L), eq(1L), any(LocalDateTime.class));
+            verify(parkingSessionRepository, never()).save(any(ParkingSession.class));
             verify(parkingSpace).free();
-            verify(parkingSessionRepository).save(activeSession);
+            verify(activeSessionRegistry).unregister(activeSession);
+            verify(dashboardCounters).sessionEnded(activeSession.getEntryTime(), activeSession.getExitTime());
             verify(parkingSpaceRepository).save(parkingSpace);
         }
+
+        @Test
+        @DisplayName("Should not count or free anything when a concurrent exit closed the session first")
+        void shouldRejectExitWhenSessionWasClosedConcurrently() {
+            // Given: la sesión estaba activa al leerla, pero el UPDATE condicional no devuelve fila
+            EndSessionRequest request = new EndSessionRequest("ABC123", null, null, 1L);
+            Vehicle vehicle = createMockVehicle(1L, "ABC123", 1L);
+            ParkingSession activeSession = createMockParkingSession(1L, true);
+            User operator = createMockUser(1L, "John", "Doe");
+            ParkingSpace parkingSpace = createMockParkingSpace(1L, "A01");
+            VehicleType vehicleType = createMockVehicleType(1L, "CAR");
+            
+            givenActiveSessionInRegistry("ABC123", activeSession);
+            when(userRepository.findById(1L))
+                    .thenReturn(Optional.of(operator));
+            when(activeSession.getVehicleId()).thenReturn(1L);
+            when(activeSession.getParkingSpaceId()).thenReturn(1L);
+            when(vehicleRepository.findById(1L))
+                    .thenReturn(Optional.of(vehicle));
+            when(parkingSpaceRepository.findById(1L))
+                    .thenReturn(Optional.of(parkingSpace));
+            when(vehicleTypeRepository.findById(1L))
+                    .thenReturn(Optional.of(vehicleType));
+            when(parkingSessionRepository.closeActiveSession(eq(1L), eq(1L), any(LocalDateTime.class)))
+                    .thenReturn(Optional.empty());
+
+            // When & Then
+            assertThatThrownBy(() -> endSessionHandler.handle(request))
+                    .isInstanceOf(NoActiveSessionException.class);
+
+            verify(parkingSpace, never()).free();
+            verify(parkingSpaceRepository, never()).save(any(ParkingSpace.class));
+            verify(activeSessionRegistry, never()).unregister(any());
+            verifyNoInteractions(dashboardCounters);
+        }
     }
 
     // Helper methods for creating test objects
@@ -328,11 +454,20 @@ class EndSessionHandlerTest {
         return vehicle;
     }
 
+    private void givenActiveSessionInRegistry(String licensePlate, ParkingSession session) {
+        ActiveSessionSummary summary = new ActiveSessionSummary(session.getId(), 1L, licensePlate, 1L, 1L,
+                "A01", "T-1Y", LocalDateTime.now(), 1L);
+        when(activeSessionRegistry.findByLicensePlate(licensePlate))
+                .thenReturn(Optional.of(summary));
+        when(parkingSessionRepository.findById(session.getId()))
+                .thenReturn(Optional.of(session));
+    }
+
     private ParkingSession createMockParkingSession(Long id, boolean canRegisterExit) {
         ParkingSession session = mock(ParkingSession.class);
         when(session.getId()).thenReturn(id);
         when(session.canRegisterExit()).thenReturn(canRegisterExit);
-        when(session.calculateParkedHours()).thenReturn(2.0);
+        when(session.calculateParkedMinutes()).thenReturn(120L);
         return session;
     }
 
@@ -357,12 +492,4 @@ class EndSessionHandlerTest {
         when(type.getName()).thenReturn(name);
         return type;
     }
-
-    private RateConfig createMockRateConfig() {
-        RateConfig config = mock(RateConfig.class);
-        when(config.getRatePerHour()).thenReturn(BigDecimal.valueOf(5.0));
-        when(config.getMinimumChargeHours()).thenReturn(1);
-        when(config.getMaximumDailyRate()).thenReturn(BigDecimal.valueOf(40.0));
-        return config;
-    }
 }
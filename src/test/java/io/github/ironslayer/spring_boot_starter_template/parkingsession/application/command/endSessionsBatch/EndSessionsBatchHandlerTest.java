@@ -0,0 +1,281 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.endSessionsBatch;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.port.DashboardCounters;
+import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.endSessionsBatch.EndSessionsBatchResponse.ItemResult;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.endSessionsBatch.EndSessionsBatchResponse.Status;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ActiveSessionRegistry;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpace;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpaceRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.Payment;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentMethod;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentStatus;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.PaymentRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.RevenueRollupRepository;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableCache;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableSnapshot;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.entity.RateConfig;
+import io.github.ironslayer.spring_boot_starter_template.user.application.cache.UserNameCache;
+import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.entity.Vehicle;
+import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.port.VehicleRepository;
+import io.github.ironslayer.spring_boot_starter_template.vehicletype.application.cache.VehicleTypeNameCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("EndSessionsBatchHandler Tests")
+class EndSessionsBatchHandlerTest {
+
+    private static final LocalDateTime ENTRY_TIME = LocalDateTime.of(2025, 7, 17, 10, 0);
+
+    @Mock
+    private ParkingSessionRepository parkingSessionRepository;
+
+    @Mock
+    private ActiveSessionRegistry activeSessionRegistry;
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @Mock
+    private ParkingSpaceRepository parkingSpaceRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private RevenueRollupRepository revenueRollupRepository;
+
+    @Mock
+    private RateTableCache rateTableCache;
+
+    @Mock
+    private UserNameCache userNameCache;
+
+    @Mock
+    private VehicleTypeNameCache vehicleTypeNameCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DashboardCounters dashboardCounters;
+
+    @InjectMocks
+    private EndSessionsBatchHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        AtomicLong paymentIds = new AtomicLong(500);
+        when(userNameCache.getFullName(1L)).thenReturn(Optional.of("John Doe"));
+        when(vehicleTypeNameCache.getName(1L)).thenReturn(Optional.of("CAR"));
+        // Solo hay tarifa activa para el tipo 1
+        when(rateTableCache.snapshot()).thenReturn(new RateTableSnapshot(1, Instant.now(), Map.of(1L, RateConfig.builder()
+                .vehicleTypeId(1L)
+                .ratePerHour(new BigDecimal("2000.00"))
+                .minimumChargeHours(1)
+                .maximumDailyRate(new BigDecimal("15000.00"))
+                .isActive(true)
+                .build())));
+        when(paymentRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Payment> payments = invocation.getArgument(0);
+            payments.forEach(payment -> payment.setId(paymentIds.incrementAndGet()));
+            return payments;
+        });
+    }
+
+    @Nested
+    @DisplayName("Request Validation Tests")
+    class RequestValidationTests {
+
+        @Test
+        @DisplayName("Should throw BadRequestException when no plates or tickets are given")
+        void shouldThrowBadRequestExceptionWhenNothingToEnd() {
+            EndSessionsBatchRequest request = new EndSessionsBatchRequest(List.of(), null, PaymentMethod.CASH, 1L);
+
+            assertThatThrownBy(() -> handler.handle(request))
+                    .isInstanceOf(BadRequestException.class);
+
+            verifyNoInteractions(parkingSessionRepository, paymentRepository, transactionManager);
+        }
+
+        @Test
+        @DisplayName("Should throw BadRequestException when payment method is missing")
+        void shouldThrowBadRequestExceptionWhenPaymentMethodIsMissing() {
+            EndSessionsBatchRequest request = new EndSessionsBatchRequest(List.of("ABC123"), null, null, 1L);
+
+            assertThatThrownBy(() -> handler.handle(request))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("Payment method is required");
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch Exit Tests")
+    class BatchExitTests {
+
+        @Test
+        @DisplayName("Should close, free and charge sessions found by plate and by ticket with one write per table")
+        @SuppressWarnings("unchecked")
+        void shouldEndSessionsWithSetBasedWrites() {
+            Vehicle car = createMockVehicle(1L, "CAR001");
+            Vehicle other = createMockVehicle(2L, "CAR002");
+            ParkingSession byPlate = activeSession(10L, 1L, 100L, "T-1");
+            ParkingSession byTicket = activeSession(11L, 2L, 101L, "T-2");
+            ParkingSpace firstSpace = createMockParkingSpace(100L, "A01");
+            ParkingSpace secondSpace = createMockParkingSpace(101L, "A02");
+            when(vehicleRepository.findAllByLicensePlates(List.of("CAR001"))).thenReturn(List.of(car));
+            when(vehicleRepository.findAllByIds(anyCollection())).thenReturn(List.of(other));
+            when(parkingSessionRepository.findActiveSessionsByVehicleIds(List.of(1L))).thenReturn(List.of(byPlate));
+            when(parkingSessionRepository.findActiveSessionsByTicketCodes(List.of("T-2"))).thenReturn(List.of(byTicket));
+            when(parkingSessionRepository.closeActiveSessions(anyCollection(), eq(1L), any(LocalDateTime.class)))
+                    .thenReturn(List.of(closed(byPlate, 90), closed(byTicket, 30)));
+            when(parkingSpaceRepository.releaseAll(anyCollection())).thenReturn(List.of(firstSpace, secondSpace));
+            ArgumentCaptor<List<Payment>> inserted = ArgumentCaptor.forClass(List.class);
+
+            EndSessionsBatchResponse response = handler.handle(new EndSessionsBatchRequest(
+                    List.of("car001"), List.of("T-2"), PaymentMethod.CARD, 1L));
+
+            assertThat(response.completed()).isEqualTo(2);
+            assertThat(response.failed()).isZero();
+            verify(parkingSessionRepository).closeActiveSessions(anyCollection(), eq(1L), any(LocalDateTime.class));
+            verify(parkingSpaceRepository).releaseAll(anyCollection());
+            verify(paymentRepository).insertAll(inserted.capture());
+            verify(paymentRepository, never()).save(any(Payment.class));
+            verify(parkingSessionRepository, never()).save(any(ParkingSession.class));
+            verify(activeSessionRegistry, times(2)).unregister(any(ParkingSession.class));
+
+            assertThat(inserted.getValue()).extracting(Payment::getPaymentStatus).containsOnly(PaymentStatus.PAID);
+            assertThat(inserted.getValue()).extracting(Payment::getPaymentMethod).containsOnly(PaymentMethod.CARD);
+
+            ItemResult first = response.results().get(0);
+            assertThat(first.status()).isEqualTo(Status.COMPLETED);
+            assertThat(first.licensePlate()).isEqualTo("CAR001");
+            assertThat(first.parkingSpace()).isEqualTo("A01");
+            assertThat(first.hoursParked()).isEqualByComparingTo("1.50");
+            assertThat(first.totalAmount()).isEqualByComparingTo("4000.00");
+            assertThat(first.paymentId()).isEqualTo(501L);
+
+            ItemResult second = response.results().get(1);
+            assertThat(second.licensePlate()).isEqualTo("CAR002");
+            assertThat(second.totalAmount()).isEqualByComparingTo("2000.00");
+            assertThat(response.totalCollected()).isEqualByComparingTo("6000.00");
+        }
+
+        @Test
+        @DisplayName("Should report a result per item without closing sessions that cannot be charged")
+        void shouldReportFailuresPerItem() {
+            Vehicle car = createMockVehicle(1L, "CAR001");
+            Vehicle noRate = mock(Vehicle.class);
+            when(noRate.getId()).thenReturn(3L);
+            when(noRate.getLicensePlate()).thenReturn("MOTO01");
+            when(noRate.getVehicleTypeId()).thenReturn(2L);
+            ParkingSession session = activeSession(10L, 1L, 100L, "T-1");
+            ParkingSession motoSession = activeSession(12L, 3L, 102L, "T-3");
+            ParkingSpace space = createMockParkingSpace(100L, "A01");
+            when(vehicleRepository.findAllByLicensePlates(anyCollection())).thenReturn(List.of(car, noRate));
+            when(parkingSessionRepository.findActiveSessionsByVehicleIds(anyCollection()))
+                    .thenReturn(List.of(session, motoSession));
+            when(parkingSessionRepository.findActiveSessionsByTicketCodes(anyCollection())).thenReturn(List.of(session));
+            when(parkingSessionRepository.closeActiveSessions(anyCollection(), eq(1L), any(LocalDateTime.class)))
+                    .thenReturn(List.of(closed(session, 60)));
+            when(parkingSpaceRepository.releaseAll(anyCollection())).thenReturn(List.of(space));
+
+            EndSessionsBatchResponse response = handler.handle(new EndSessionsBatchRequest(
+                    List.of("CAR001", "UNKNOWN", "MOTO01", "CAR001", ""), List.of("T-1", "T-404"),
+                    PaymentMethod.CASH, 1L));
+
+            assertThat(response.requested()).isEqualTo(7);
+            assertThat(response.completed()).isEqualTo(1);
+            assertThat(response.results()).extracting(ItemResult::errorType).containsExactly(
+                    null, "VEHICLE_NOT_FOUND", "RATE_NOT_CONFIGURED", "DUPLICATE_IN_BATCH",
+                    "INVALID_IDENTIFIER", "DUPLICATE_IN_BATCH", "SESSION_NOT_FOUND");
+            verify(parkingSessionRepository).closeActiveSessions(eq(List.of(10L)), eq(1L), any(LocalDateTime.class));
+        }
+
+        @Test
+        @DisplayName("Should fail only the items whose session was closed concurrently")
+        void shouldFailItemsClosedConcurrently() {
+            Vehicle car = createMockVehicle(1L, "CAR001");
+            ParkingSession session = activeSession(10L, 1L, 100L, "T-1");
+            when(vehicleRepository.findAllByLicensePlates(anyCollection())).thenReturn(List.of(car));
+            when(parkingSessionRepository.findActiveSessionsByVehicleIds(anyCollection())).thenReturn(List.of(session));
+            when(parkingSessionRepository.closeActiveSessions(anyCollection(), eq(1L), any(LocalDateTime.class)))
+                    .thenReturn(List.of());
+
+            EndSessionsBatchResponse response = handler.handle(new EndSessionsBatchRequest(
+                    List.of("CAR001"), null, PaymentMethod.CASH, 1L));
+
+            assertThat(response.results().get(0).errorType()).isEqualTo("NO_ACTIVE_SESSION");
+            verify(paymentRepository).insertAll(List.of());
+        }
+
+        @Test
+        @DisplayName("Should split the batch into chunks with their own transaction")
+        void shouldProcessChunksInSeparateTransactions() {
+            List<String> plates = new ArrayList<>();
+            for (int i = 0; i < EndSessionsBatchHandler.CHUNK_SIZE + 1; i++) {
+                plates.add(String.format("CAR%03d", i));
+            }
+            when(vehicleRepository.findAllByLicensePlates(anyCollection())).thenReturn(List.of());
+
+            EndSessionsBatchResponse response = handler.handle(new EndSessionsBatchRequest(
+                    plates, null, PaymentMethod.CASH, 1L));
+
+            assertThat(response.failed()).isEqualTo(plates.size());
+            verify(transactionManager, times(2)).commit(any());
+        }
+    }
+
+    private ParkingSession activeSession(Long id, Long vehicleId, Long spaceId, String ticketCode) {
+        return new ParkingSession(id, vehicleId, spaceId, ENTRY_TIME, null, 1L, null, true, ticketCode,
+                ENTRY_TIME, ENTRY_TIME);
+    }
+
+    private ParkingSession closed(ParkingSession session, int minutesParked) {
+        LocalDateTime exitTime = ENTRY_TIME.plusMinutes(minutesParked);
+        return new ParkingSession(session.getId(), session.getVehicleId(), session.getParkingSpaceId(),
+                ENTRY_TIME, exitTime, 1L, 1L, false, session.getTicketCode(), ENTRY_TIME, exitTime);
+    }
+
+    private Vehicle createMockVehicle(Long id, String licensePlate) {
+        Vehicle vehicle = mock(Vehicle.class);
+        when(vehicle.getId()).thenReturn(id);
+        when(vehicle.getLicensePlate()).thenReturn(licensePlate);
+        when(vehicle.getVehicleTypeId()).thenReturn(1L);
+        return vehicle;
+    }
+
+    private ParkingSpace createMockParkingSpace(Long id, String spaceNumber) {
+        ParkingSpace space = mock(ParkingSpace.class);
+        when(space.getId()).thenReturn(id);
+        when(space.getSpaceNumber()).thenReturn(spaceNumber);
+        return space;
+    }
+}
@@ -1,24 +1,27 @@
 package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.startSession;
 
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.port.DashboardCounters;
 import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ActiveSessionSummary;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.exception.NoAvailableSpaceException;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.exception.VehicleAlreadyParkedException;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ActiveSessionRegistry;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.FreeSpaceAllocator;
 import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpace;
 import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpaceRepository;
-import io.github.ironslayer.spring_boot_starter_template.user.domain.entity.User;
+import io.github.ironslayer.spring_boot_starter_template.user.application.cache.UserNameCache;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.exception.UserNotFoundException;
-import io.github.ironslayer.spring_boot_starter_template.user.domain.port.UserRepository;
 import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.entity.Vehicle;
 import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.exception.VehicleNotFoundException;
 import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.port.VehicleRepository;
-import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.entity.VehicleType;
-import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.port.VehicleTypeRepository;
+import io.github.ironslayer.spring_boot_starter_template.vehicletype.application.cache.VehicleTypeNameCache;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -26,7 +29,6 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -41,6 +43,9 @@ class StartSessionHandlerTest {
     @Mock
     private ParkingSessionRepository parkingSessionRepository;
     
+    @Mock
+    private ActiveSessionRegistry activeSessionRegistry;
+    
     @Mock
     private VehicleRepository vehicleRepository;
     
@@ -48,10 +53,16 @@ class StartSessionHandlerTest {
     private ParkingSpaceRepository parkingSpaceRepository;
     
     @Mock
-    private UserRepository userRepository;
+    private FreeSpaceAllocator freeSpaceAllocator;
+    
+    @Mock
+    private UserNameCache userNameCache;
     
     @Mock
-    private VehicleTypeRepository vehicleTypeRepository;
+    private VehicleTypeNameCache vehicleTypeNameCache;
+
+    @Mock
+    private DashboardCounters dashboardCounters;
 
     @InjectMocks
     private StartSessionHandler startSessionHandler;
@@ -72,7 +83,7 @@ class StartSessionHandlerTest {
                     .hasMessage("Bad Request Exception (400). Operator ID is required");
 
             verifyNoInteractions(parkingSessionRepository, vehicleRepository, 
-                                parkingSpaceRepository, userRepository, vehicleTypeRepository);
+                                parkingSpaceRepository, userNameCache, vehicleTypeNameCache);
         }
 
         @Test
@@ -87,7 +98,7 @@ class StartSessionHandlerTest {
                     .hasMessage("Bad Request Exception (400). License plate is required");
 
             verifyNoInteractions(parkingSessionRepository, vehicleRepository, 
-                                parkingSpaceRepository, userRepository, vehicleTypeRepository);
+                                parkingSpaceRepository, userNameCache, vehicleTypeNameCache);
         }
 
         @Test
@@ -102,7 +113,7 @@ class StartSessionHandlerTest {
                     .hasMessage("Bad Request Exception (400). License plate is required");
 
             verifyNoInteractions(parkingSessionRepository, vehicleRepository, 
-                                parkingSpaceRepository, userRepository, vehicleTypeRepository);
+                                parkingSpaceRepository, userNameCache, vehicleTypeNameCache);
         }
     }
 
@@ -125,7 +136,7 @@ class StartSessionHandlerTest {
 
             verify(vehicleRepository).findByLicensePlate("INVALID123");
             verifyNoInteractions(parkingSessionRepository, parkingSpaceRepository, 
-                                userRepository, vehicleTypeRepository);
+                                userNameCache, vehicleTypeNameCache);
         }
 
         @Test
@@ -158,6 +169,7 @@ class StartSessionHandlerTest {
             
             when(vehicleRepository.findByLicensePlate("ABC123"))
                     .thenReturn(Optional.of(vehicle));
+            givenRegisteredSession(1L);
             when(parkingSessionRepository.hasActiveSession(1L))
                     .thenReturn(true);
 
@@ -166,41 +178,57 @@ class StartSessionHandlerTest {
                     .isInstanceOf(VehicleAlreadyParkedException.class);
 
             verify(vehicleRepository).findByLicensePlate("ABC123");
+            verify(activeSessionRegistry).findByVehicleId(1L);
             verify(parkingSessionRepository).hasActiveSession(1L);
-            verifyNoInteractions(parkingSpaceRepository, userRepository, vehicleTypeRepository);
+            verify(activeSessionRegistry, never()).evict(any());
+            verifyNoInteractions(parkingSpaceRepository, userNameCache, vehicleTypeNameCache);
         }
-    }
-
-    @Nested
-    @DisplayName("Parking Space Availability Tests")
-    class ParkingSpaceAvailabilityTests {
 
         @Test
-        @DisplayName("Should throw NoAvailableSpaceException when no spaces available")
-        void shouldThrowNoAvailableSpaceExceptionWhenNoSpacesAvailable() {
-            // Given
+        @DisplayName("Should evict a registered session closed elsewhere and start a new one")
+        void shouldEvictStaleRegistryEntryAndStartSession() {
+            // Given: el registro local no sabe que otra instancia ya cerró la sesión
             StartSessionRequest request = new StartSessionRequest("ABC123", 1L);
             Vehicle vehicle = createMockVehicle(1L, "ABC123", 1L);
-            VehicleType vehicleType = createMockVehicleType(1L, "CAR");
-            
-            when(vehicleRepository.findByLicensePlate("ABC123"))
-                    .thenReturn(Optional.of(vehicle));
+            ParkingSpace parkingSpace = createMockParkingSpace(1L, "A01");
+
+            givenVehicleWithoutActiveSession(vehicle);
+            ActiveSessionSummary stale = givenRegisteredSession(1L);
             when(parkingSessionRepository.hasActiveSession(1L))
                     .thenReturn(false);
-            when(parkingSpaceRepository.findAllAvailableByVehicleType(1L))
-                    .thenReturn(List.of()); // No spaces available
-            when(vehicleTypeRepository.findById(1L))
-                    .thenReturn(Optional.of(vehicleType));
+            when(parkingSpaceRepository.claimFirstAvailable(1L, "ABC123"))
+                    .thenReturn(Optional.of(parkingSpace));
+            givenSessionInsert();
+
+            // When
+            StartSessionResponse response = startSessionHandler.handle(request);
+
+            // Then
+            assertThat(response.sessionId()).isEqualTo(42L);
+            verify(activeSessionRegistry).evict(stale);
+            verify(activeSessionRegistry).register(any(ActiveSessionSummary.class));
+        }
+
+        @Test
+        @DisplayName("Should propagate VehicleAlreadyParkedException when the insert hits a concurrent entry")
+        void shouldPropagateVehicleAlreadyParkedExceptionFromInsert() {
+            // Given: el registro local no conoce la sesión abierta por otra instancia
+            StartSessionRequest request = new StartSessionRequest("ABC123", 1L);
+            Vehicle vehicle = createMockVehicle(1L, "ABC123", 1L);
+            ParkingSpace parkingSpace = createMockParkingSpace(1L, "A01");
+
+            givenVehicleWithoutActiveSession(vehicle);
+            when(parkingSpaceRepository.claimFirstAvailable(1L, "ABC123"))
+                    .thenReturn(Optional.of(parkingSpace));
+            when(parkingSessionRepository.nextId()).thenReturn(42L);
+            when(parkingSessionRepository.insert(any(ParkingSession.class)))
+                    .thenThrow(new VehicleAlreadyParkedException(1L));
 
             // When & Then
             assertThatThrownBy(() -> startSessionHandler.handle(request))
-                    .isInstanceOf(NoAvailableSpaceException.class);
+                    .isInstanceOf(VehicleAlreadyParkedException.class);
 
-            verify(vehicleRepository).findByLicensePlate("ABC123");
-            verify(parkingSessionRepository).hasActiveSession(1L);
-            verify(parkingSpaceRepository).findAllAvailableByVehicleType(1L);
-            verify(vehicleTypeRepository).findById(1L);
-            verifyNoInteractions(userRepository);
+            verify(activeSessionRegistry, never()).register(any());
         }
     }
 
@@ -214,15 +242,10 @@ class StartSessionHandlerTest {
             // Given
             StartSessionRequest request = new StartSessionRequest("ABC123", 999L);
             Vehicle vehicle = createMockVehicle(1L, "ABC123", 1L);
-            ParkingSpace parkingSpace = createMockParkingSpace(1L, "A01");
             
             when(vehicleRepository.findByLicensePlate("ABC123"))
                     .thenReturn(Optional.of(vehicle));
-            when(parkingSessionRepository.hasActiveSession(1L))
-                    .thenReturn(false);
-            when(parkingSpaceRepository.findAllAvailableByVehicleType(1L))
-                    .thenReturn(List.of(parkingSpace));
-            when(userRepository.findById(999L))
+            when(userNameCache.getFullName(999L))
                     .thenReturn(Optional.empty());
 
             // When & Then
@@ -231,10 +254,88 @@ class StartSessionHandlerTest {
                     .hasMessage("User with ID '999' not found");
 
             verify(vehicleRepository).findByLicensePlate("ABC123");
-            verify(parkingSessionRepository).hasActiveSession(1L);
-            verify(parkingSpaceRepository).findAllAvailableByVehicleType(1L);
-            verify(userRepository).findById(999L);
-            verifyNoInteractions(vehicleTypeRepository);
+            verify(activeSessionRegistry).findByVehicleId(1L);
+            verify(userNameCache).getFullName(999L);
+            verifyNoInteractions(freeSpaceAllocator, parkingSpaceRepository, vehicleTypeNameCache);
+        }
+    }
+
+    @Nested
+    @DisplayName("Parking Space Availability Tests")
+    class ParkingSpaceAvailabilityTests {
+
+        @Test
+        @DisplayName("Should throw NoAvailableSpaceException when no spaces available")
+        void shouldThrowNoAvailableSpaceExceptionWhenNoSpacesAvailable() {
+            // Given
+            StartSessionRequest request = new StartSessionRequest("ABC123", 1L);
+            Vehicle vehicle = createMockVehicle(1L, "ABC123", 1L);
+            
+            givenVehicleWithoutActiveSession(vehicle);
+            when(freeSpaceAllocator.reserve(1L))
+                    .thenReturn(Optional.empty());
+            when(parkingSpaceRepository.claimFirstAvailable(1L, "ABC123"))
+                    .thenReturn(Optional.empty()); // No spaces available
+
+            // When & Then
+            assertThatThrownBy(() -> startSessionHandler.handle(request))
+                    .isInstanceOf(NoAvailableSpaceException.class);
+
+            verify(freeSpaceAllocator).reserve(1L);
+            verify(parkingSpaceRepository).claimFirstAvailable(1L, "ABC123");
+            verify(vehicleTypeNameCache).getName(1L);
+            verify(parkingSessionRepository, never()).insert(any(ParkingSession.class));
+        }
+
+        @Test
+        @DisplayName("Should skip a candidate claimed by someone else and use the next one")
+        void shouldSkipStaleCandidateAndUseNextOne() {
+            // Given
+            StartSessionRequest request = new StartSessionRequest("ABC123", 1L);
+            Vehicle vehicle = createMockVehicle(1L, "ABC123", 1L);
+            ParkingSpace freeSpace = createMockParkingSpace(2L, "A02");
+
+            givenVehicleWithoutActiveSession(vehicle);
+            when(freeSpaceAllocator.reserve(1L))
+                    .thenReturn(Optional.of(1L), Optional.of(2L));
+            when(parkingSpaceRepository.claim(1L, 1L, "ABC123"))
+                    .thenReturn(Optional.empty());
+            when(parkingSpaceRepository.claim(2L, 1L, "ABC123"))
+                    .thenReturn(Optional.of(freeSpace));
+            givenSessionInsert();
+
+            // When
+            StartSessionResponse response = startSessionHandler.handle(request);
+
+            // Then
+            assertThat(response.assignedSpace()).isEqualTo("A02");
+            verify(parkingSpaceRepository).claim(1L, 1L, "ABC123");
+            verify(parkingSpaceRepository).claim(2L, 1L, "ABC123");
+            verify(parkingSpaceRepository, never()).claimFirstAvailable(anyLong(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should claim the first available space in the database when the pool is empty")
+        void shouldClaimFromDatabaseWhenPoolIsEmpty() {
+            // Given
+            StartSessionRequest request = new StartSessionRequest("ABC123", 1L);
+            Vehicle vehicle = createMockVehicle(1L, "ABC123", 1L);
+            ParkingSpace freeSpace = createMockParkingSpace(3L, "A03");
+
+            givenVehicleWithoutActiveSession(vehicle);
+            when(freeSpaceAllocator.reserve(1L))
+                    .thenReturn(Optional.empty());
+            when(parkingSpaceRepository.claimFirstAvailable(1L, "ABC123"))
+                    .thenReturn(Optional.of(freeSpace));
+            givenSessionInsert();
+
+            // When
+            StartSessionResponse response = startSessionHandler.handle(request);
+
+            // Then
+            assertThat(response.assignedSpace()).isEqualTo("A03");
+            verify(parkingSpaceRepository).claimFirstAvailable(1L, "ABC123");
+            verify(parkingSpaceRepository, never()).findAllAvailableByVehicleType(anyLong());
         }
     }
 
@@ -249,31 +350,20 @@ class StartSessionHandlerTest {
             StartSessionRequest request = new StartSessionRequest("ABC123", 1L);
             Vehicle vehicle = createMockVehicle(1L, "ABC123", 1L);
             ParkingSpace parkingSpace = createMockParkingSpace(1L, "A01");
-            User operator = createMockUser(1L, "John", "Doe");
-            VehicleType vehicleType = createMockVehicleType(1L, "CAR");
-            ParkingSession savedSession = createMockParkingSession(1L);
             
-            when(vehicleRepository.findByLicensePlate("ABC123"))
-                    .thenReturn(Optional.of(vehicle));
-            when(parkingSessionRepository.hasActiveSession(1L))
-                    .thenReturn(false);
-            when(parkingSpaceRepository.findAllAvailableByVehicleType(1L))
-                    .thenReturn(List.of(parkingSpace));
-            when(userRepository.findById(1L))
-                    .thenReturn(Optional.of(operator));
-            when(parkingSessionRepository.save(any(ParkingSession.class)))
-                    .thenReturn(savedSession);
-            when(parkingSpaceRepository.save(any(ParkingSpace.class)))
-                    .thenReturn(parkingSpace);
-            when(vehicleTypeRepository.findById(1L))
-                    .thenReturn(Optional.of(vehicleType));
+            givenVehicleWithoutActiveSession(vehicle);
+            when(freeSpaceAllocator.reserve(1L))
+                    .thenReturn(Optional.of(1L));
+            when(parkingSpaceRepository.claim(1L, 1L, "ABC123"))
+                    .thenReturn(Optional.of(parkingSpace));
+            givenSessionInsert();
 
             // When
             StartSessionResponse response = startSessionHandler.handle(request);
 
             // Then
             assertThat(response).isNotNull();
-            assertThat(response.sessionId()).isEqualTo(1L);
+            assertThat(response.sessionId()).isEqualTo(42L);
             assertThat(response.licensePlate()).isEqualTo("ABC123");
             assertThat(response.vehicleType()).isEqualTo("CAR");
             assertThat(response.assignedSpace()).isEqualTo("A01");
@@ -283,16 +373,98 @@ class StartSessionHandlerTest {
 
             // Verify interactions
             verify(vehicleRepository).findByLicensePlate("ABC123");
-            verify(parkingSessionRepository).hasActiveSession(1L);
-            verify(parkingSpaceRepository).findAllAvailableByVehicleType(1L);
-            verify(userRepository).findById(1L);
-            verify(parkingSessionRepository, times(2)).save(any(ParkingSession.class));
-            verify(parkingSpaceRepository).save(parkingSpace);
-            verify(vehicleTypeRepository).findById(1L);
+            verify(activeSessionRegistry).findByVehicleId(1L);
+            verify(freeSpaceAllocator).reserve(1L);
+            verify(parkingSpaceRepository).claim(1L, 1L, "ABC123");
+            verify(userNameCache).getFullName(1L);
+            verify(vehicleTypeNameCache).getName(1L);
+            verify(parkingSpaceRepository, never()).save(any(ParkingSpace.class));
+        }
+
+        @Test
+        @DisplayName("Should insert the session once with id and ticket code already assigned")
+        void shouldInsertSessionOnceWithTicketCode() {
+            // Given
+            StartSessionRequest request = new StartSessionRequest("ABC123", 1L);
+            Vehicle vehicle = createMockVehicle(1L, "ABC123", 1L);
+            ParkingSpace parkingSpace = createMockParkingSpace(1L, "A01");
+            
+            givenVehicleWithoutActiveSession(vehicle);
+            when(freeSpaceAllocator.reserve(1L))
+                    .thenReturn(Optional.of(1L));
+            when(parkingSpaceRepository.claim(1L, 1L, "ABC123"))
+                    .thenReturn(Optional.of(parkingSpace));
+            givenSessionInsert();
+            ArgumentCaptor<ParkingSession> inserted = ArgumentCaptor.forClass(ParkingSession.class);
+
+            // When
+            StartSessionResponse response = startSessionHandler.handle(request);
+
+            // Then
+            verify(parkingSessionRepository).insert(inserted.capture());
+            verify(parkingSessionRepository, never()).save(any(ParkingSession.class));
+            assertThat(inserted.getValue().getId()).isEqualTo(42L);
+            assertThat(inserted.getValue().getTicketCode()).isNotBlank();
+            assertThat(inserted.getValue().getParkingSpaceId()).isEqualTo(1L);
+            assertThat(inserted.getValue().getOperatorEntryId()).isEqualTo(1L);
+            assertThat(response.ticketCode()).isEqualTo(inserted.getValue().getTicketCode());
+        }
+
+        @Test
+        @DisplayName("Should register the new session in the active session registry")
+        void shouldRegisterNewSessionInRegistry() {
+            // Given
+            StartSessionRequest request = new StartSessionRequest("ABC123", 1L);
+            Vehicle vehicle = createMockVehicle(1L, "ABC123", 1L);
+            ParkingSpace parkingSpace = createMockParkingSpace(1L, "A01");
+            
+            givenVehicleWithoutActiveSession(vehicle);
+            when(parkingSpaceRepository.claimFirstAvailable(1L, "ABC123"))
+                    .thenReturn(Optional.of(parkingSpace));
+            givenSessionInsert();
+            ArgumentCaptor<ActiveSessionSummary> registered = ArgumentCaptor.forClass(ActiveSessionSummary.class);
+
+            // When
+            StartSessionResponse response = startSessionHandler.handle(request);
+
+            // Then
+            verify(activeSessionRegistry).register(registered.capture());
+            assertThat(registered.getValue().sessionId()).isEqualTo(42L);
+            assertThat(registered.getValue().vehicleId()).isEqualTo(1L);
+            assertThat(registered.getValue().licensePlate()).isEqualTo("ABC123");
+            assertThat(registered.getValue().spaceNumber()).isEqualTo("A01");
+            assertThat(registered.getValue().ticketCode()).isEqualTo(response.ticketCode());
+            verify(parkingSessionRepository, never()).hasActiveSession(anyLong());
         }
     }
 
     // Helper methods for creating test objects
+    private void givenVehicleWithoutActiveSession(Vehicle vehicle) {
+        when(vehicleRepository.findByLicensePlate(vehicle.getLicensePlate()))
+                .thenReturn(Optional.of(vehicle));
+        when(activeSessionRegistry.findByVehicleId(vehicle.getId()))
+                .thenReturn(Optional.empty());
+        when(userNameCache.getFullName(1L))
+                .thenReturn(Optional.of("John Doe"));
+        when(vehicleTypeNameCache.getName(vehicle.getVehicleTypeId()))
+                .thenReturn(Optional.of("CAR"));
+    }
+
+    private ActiveSessionSummary givenRegisteredSession(Long vehicleId) {
+        ActiveSessionSummary summary = new ActiveSessionSummary(7L, vehicleId, "ABC123", 1L, 1L,
+                "A01", "T-7", LocalDateTime.now(), 1L);
+        when(activeSessionRegistry.findByVehicleId(vehicleId))
+                .thenReturn(Optional.of(summary));
+        return summary;
+    }
+
+    private void givenSessionInsert() {
+        when(parkingSessionRepository.nextId())
+                .thenReturn(42L);
+        when(parkingSessionRepository.insert(any(ParkingSession.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
     private Vehicle createMockVehicle(Long id, String licensePlate, Long vehicleTypeId) {
         Vehicle vehicle = mock(Vehicle.class);
         when(vehicle.getId()).thenReturn(id);
@@ -307,27 +479,4 @@ class StartSessionHandlerTest {
         when(space.getSpaceNumber()).thenReturn(spaceNumber);
         return space;
     }
-
-    private User createMockUser(Long id, String firstName, String lastName) {
-        User user = mock(User.class);
-        when(user.getId()).thenReturn(id);
-        when(user.getFirstname()).thenReturn(firstName);
-        when(user.getLastname()).thenReturn(lastName);
-        return user;
-    }
-
-    private VehicleType createMockVehicleType(Long id, String name) {
-        VehicleType type = mock(VehicleType.class);
-        when(type.getId()).thenReturn(id);
-        when(type.getName()).thenReturn(name);
-        return type;
-    }
-
-    private ParkingSession createMockParkingSession(Long id) {
-        ParkingSession session = mock(ParkingSession.class);
-        when(session.getId()).thenReturn(id);
-        when(session.getTicketCode()).thenReturn("T-202501311200-001");
-        when(session.getEntryTime()).thenReturn(LocalDateTime.now());
-        return session;
-    }
 }
@@ -0,0 +1,270 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.startSessionsBatch;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.port.DashboardCounters;
+import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.startSessionsBatch.StartSessionsBatchResponse.PlateResult;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.command.startSessionsBatch.StartSessionsBatchResponse.Status;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ActiveSessionSummary;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.exception.VehicleAlreadyParkedException;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ActiveSessionRegistry;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpace;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpaceRepository;
+import io.github.ironslayer.spring_boot_starter_template.user.application.cache.UserNameCache;
+import io.github.ironslayer.spring_boot_starter_template.user.domain.exception.UserNotFoundException;
+import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.entity.Vehicle;
+import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.port.VehicleRepository;
+import io.github.ironslayer.spring_boot_starter_template.vehicletype.application.cache.VehicleTypeNameCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("StartSessionsBatchHandler Tests")
+class StartSessionsBatchHandlerTest {
+
+    @Mock
+    private ParkingSessionRepository parkingSessionRepository;
+
+    @Mock
+    private ActiveSessionRegistry activeSessionRegistry;
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @Mock
+    private ParkingSpaceRepository parkingSpaceRepository;
+
+    @Mock
+    private UserNameCache userNameCache;
+
+    @Mock
+    private VehicleTypeNameCache vehicleTypeNameCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DashboardCounters dashboardCounters;
+
+    @InjectMocks
+    private StartSessionsBatchHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        AtomicLong ids = new AtomicLong(100);
+        when(parkingSessionRepository.nextId()).thenAnswer(invocation -> ids.incrementAndGet());
+        when(userNameCache.getFullName(1L)).thenReturn(Optional.of("John Doe"));
+        when(vehicleTypeNameCache.getName(1L)).thenReturn(Optional.of("CAR"));
+        when(vehicleTypeNameCache.getName(2L)).thenReturn(Optional.of("MOTORCYCLE"));
+    }
+
+    @Nested
+    @DisplayName("Request Validation Tests")
+    class RequestValidationTests {
+
+        @Test
+        @DisplayName("Should throw BadRequestException when plate list is empty")
+        void shouldThrowBadRequestExceptionWhenPlateListIsEmpty() {
+            StartSessionsBatchRequest request = new StartSessionsBatchRequest(List.of(), 1L);
+
+            assertThatThrownBy(() -> handler.handle(request))
+                    .isInstanceOf(BadRequestException.class);
+
+            verifyNoInteractions(vehicleRepository, parkingSpaceRepository, transactionManager);
+        }
+
+        @Test
+        @DisplayName("Should throw BadRequestException when batch exceeds the maximum size")
+        void shouldThrowBadRequestExceptionWhenBatchIsTooLarge() {
+            List<String> plates = new ArrayList<>();
+            for (int i = 0; i <= StartSessionsBatchHandler.MAX_BATCH_SIZE; i++) {
+                plates.add("P" + i);
+            }
+
+            assertThatThrownBy(() -> handler.handle(new StartSessionsBatchRequest(plates, 1L)))
+                    .isInstanceOf(BadRequestException.class);
+        }
+
+        @Test
+        @DisplayName("Should throw UserNotFoundException when operator does not exist")
+        void shouldThrowUserNotFoundExceptionWhenOperatorDoesNotExist() {
+            when(userNameCache.getFullName(99L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> handler.handle(new StartSessionsBatchRequest(List.of("ABC123"), 99L)))
+                    .isInstanceOf(UserNotFoundException.class);
+
+            verifyNoInteractions(vehicleRepository, parkingSpaceRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Per-Plate Outcome Tests")
+    class PerPlateOutcomeTests {
+
+        @Test
+        @DisplayName("Should start sessions and report each failure with its error type, in request order")
+        void shouldReportOutcomePerPlateInRequestOrder() {
+            Vehicle car = createMockVehicle(1L, "CAR001", 1L);
+            Vehicle parked = createMockVehicle(2L, "CAR002", 1L);
+            Vehicle moto = createMockVehicle(3L, "MOTO01", 2L);
+            when(vehicleRepository.findAllByLicensePlates(anyCollection())).thenReturn(List.of(car, parked, moto));
+            givenRegisteredSession(2L, "CAR002");
+            when(parkingSessionRepository.findVehicleIdsWithActiveSession(anyCollection())).thenReturn(Set.of(2L));
+            ParkingSpace space = createMockParkingSpace(10L, "A10", "CAR001");
+            when(parkingSpaceRepository.claimAvailable(1L, List.of("CAR001"))).thenReturn(List.of(space));
+            when(parkingSpaceRepository.claimAvailable(2L, List.of("MOTO01"))).thenReturn(List.of());
+
+            StartSessionsBatchResponse response = handler.handle(new StartSessionsBatchRequest(
+                    List.of("car001", "CAR002", "UNKNOWN", "MOTO01", " ", "CAR001"), 1L));
+
+            assertThat(response.requested()).isEqualTo(6);
+            assertThat(response.started()).isEqualTo(1);
+            assertThat(response.failed()).isEqualTo(5);
+            assertThat(response.results()).extracting(PlateResult::errorType).containsExactly(
+                    null, "VEHICLE_ALREADY_PARKED", "VEHICLE_NOT_FOUND", "NO_AVAILABLE_SPACE",
+                    "INVALID_LICENSE_PLATE", "DUPLICATE_IN_BATCH");
+
+            PlateResult started = response.results().get(0);
+            assertThat(started.status()).isEqualTo(Status.STARTED);
+            assertThat(started.licensePlate()).isEqualTo("CAR001");
+            assertThat(started.assignedSpace()).isEqualTo("A10");
+            assertThat(started.vehicleType()).isEqualTo("CAR");
+            assertThat(started.sessionId()).isEqualTo(101L);
+            assertThat(started.ticketCode()).isNotBlank();
+        }
+
+        @Test
+        @DisplayName("Should insert all started sessions of a chunk in a single batch")
+        @SuppressWarnings("unchecked")
+        void shouldInsertStartedSessionsInSingleBatch() {
+            Vehicle first = createMockVehicle(1L, "CAR001", 1L);
+            Vehicle second = createMockVehicle(2L, "CAR002", 1L);
+            ParkingSpace firstSpace = createMockParkingSpace(10L, "A10", "CAR001");
+            ParkingSpace secondSpace = createMockParkingSpace(11L, "A11", "CAR002");
+            when(vehicleRepository.findAllByLicensePlates(anyCollection())).thenReturn(List.of(first, second));
+            when(parkingSpaceRepository.claimAvailable(1L, List.of("CAR001", "CAR002")))
+                    .thenReturn(List.of(firstSpace, secondSpace));
+            ArgumentCaptor<List<ParkingSession>> inserted = ArgumentCaptor.forClass(List.class);
+
+            StartSessionsBatchResponse response = handler.handle(
+                    new StartSessionsBatchRequest(List.of("CAR001", "CAR002"), 1L));
+
+            assertThat(response.started()).isEqualTo(2);
+            verify(parkingSessionRepository).insertAll(inserted.capture());
+            verify(parkingSessionRepository, never()).insert(any(ParkingSession.class));
+            assertThat(inserted.getValue()).extracting(ParkingSession::getParkingSpaceId).containsExactly(10L, 11L);
+            assertThat(inserted.getValue()).extracting(ParkingSession::getTicketCode).doesNotContainNull();
+
+            ArgumentCaptor<ActiveSessionSummary> registered = ArgumentCaptor.forClass(ActiveSessionSummary.class);
+            verify(activeSessionRegistry, times(2)).register(registered.capture());
+            assertThat(registered.getAllValues()).extracting(ActiveSessionSummary::licensePlate)
+                    .containsExactly("CAR001", "CAR002");
+            assertThat(registered.getAllValues()).extracting(ActiveSessionSummary::spaceNumber)
+                    .containsExactly("A10", "A11");
+        }
+
+        @Test
+        @DisplayName("Should split the batch into chunks and fail only the chunk whose transaction rolls back")
+        void shouldFailOnlyTheChunkThatRollsBack() {
+            List<String> plates = new ArrayList<>();
+            for (int i = 0; i < StartSessionsBatchHandler.CHUNK_SIZE + 1; i++) {
+                plates.add(String.format("CAR%03d", i));
+            }
+            String lastPlate = plates.get(plates.size() - 1);
+            Vehicle last = createMockVehicle(1L, lastPlate, 1L);
+            ParkingSpace space = createMockParkingSpace(10L, "A10", lastPlate);
+            when(vehicleRepository.findAllByLicensePlates(anyCollection()))
+                    .thenThrow(new IllegalStateException("connection reset"))
+                    .thenReturn(List.of(last));
+            when(parkingSpaceRepository.claimAvailable(eq(1L), anyList()))
+                    .thenReturn(List.of(space));
+
+            StartSessionsBatchResponse response = handler.handle(new StartSessionsBatchRequest(plates, 1L));
+
+            assertThat(response.started()).isEqualTo(1);
+            assertThat(response.failed()).isEqualTo(StartSessionsBatchHandler.CHUNK_SIZE);
+            assertThat(response.results().get(0).errorType()).isEqualTo("INTERNAL_ERROR");
+            verify(transactionManager).rollback(any());
+            verify(transactionManager).commit(any());
+        }
+
+        @Test
+        @DisplayName("Should evict a registered session closed elsewhere and start the vehicle")
+        void shouldEvictStaleRegistryEntryAndStartVehicle() {
+            Vehicle vehicle = createMockVehicle(1L, "CAR001", 1L);
+            ParkingSpace space = createMockParkingSpace(10L, "A10", "CAR001");
+            ActiveSessionSummary stale = givenRegisteredSession(1L, "CAR001");
+            when(vehicleRepository.findAllByLicensePlates(anyCollection())).thenReturn(List.of(vehicle));
+            when(parkingSessionRepository.findVehicleIdsWithActiveSession(anyCollection())).thenReturn(Set.of());
+            when(parkingSpaceRepository.claimAvailable(1L, List.of("CAR001"))).thenReturn(List.of(space));
+
+            StartSessionsBatchResponse response = handler.handle(new StartSessionsBatchRequest(List.of("CAR001"), 1L));
+
+            assertThat(response.started()).isEqualTo(1);
+            verify(activeSessionRegistry).evict(stale);
+        }
+
+        @Test
+        @DisplayName("Should report a concurrent entry when the active-session index rejects the chunk")
+        void shouldReportConcurrentEntryWhenInsertViolatesActiveSessionIndex() {
+            Vehicle vehicle = createMockVehicle(1L, "CAR001", 1L);
+            ParkingSpace space = createMockParkingSpace(10L, "A10", "CAR001");
+            when(vehicleRepository.findAllByLicensePlates(anyCollection())).thenReturn(List.of(vehicle));
+            when(parkingSpaceRepository.claimAvailable(1L, List.of("CAR001"))).thenReturn(List.of(space));
+            doThrow(new VehicleAlreadyParkedException()).when(parkingSessionRepository).insertAll(anyList());
+
+            StartSessionsBatchResponse response = handler.handle(new StartSessionsBatchRequest(List.of("CAR001"), 1L));
+
+            assertThat(response.started()).isZero();
+            assertThat(response.results().get(0).errorType()).isEqualTo("CONCURRENT_ENTRY");
+            verify(activeSessionRegistry, never()).register(any());
+            verify(transactionManager).rollback(any());
+        }
+    }
+
+    private ActiveSessionSummary givenRegisteredSession(Long vehicleId, String licensePlate) {
+        ActiveSessionSummary summary = new ActiveSessionSummary(50L + vehicleId, vehicleId, licensePlate, 1L, 1L,
+                "A01", "T-1", LocalDateTime.now(), 1L);
+        when(activeSessionRegistry.findByVehicleId(vehicleId)).thenReturn(Optional.of(summary));
+        return summary;
+    }
+
+    private Vehicle createMockVehicle(Long id, String licensePlate, Long vehicleTypeId) {
+        Vehicle vehicle = mock(Vehicle.class);
+        when(vehicle.getId()).thenReturn(id);
+        when(vehicle.getLicensePlate()).thenReturn(licensePlate);
+        when(vehicle.getVehicleTypeId()).thenReturn(vehicleTypeId);
+        return vehicle;
+    }
+
+    private ParkingSpace createMockParkingSpace(Long id, String spaceNumber, String plate) {
+        ParkingSpace space = mock(ParkingSpace.class);
+        when(space.getId()).thenReturn(id);
+        when(space.getSpaceNumber()).thenReturn(spaceNumber);
+        when(space.getOccupiedByVehiclePlate()).thenReturn(plate);
+        return space;
+    }
+}
@@ -1,15 +1,8 @@
 package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.query.getActiveSessions;
 
-import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
+import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ActiveSessionView;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
-import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpace;
-import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpaceRepository;
-import io.github.ironslayer.spring_boot_starter_template.user.domain.entity.User;
-import io.github.ironslayer.spring_boot_starter_template.user.domain.port.UserRepository;
-import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.entity.Vehicle;
-import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.port.VehicleRepository;
-import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.entity.VehicleType;
-import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.port.VehicleTypeRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -21,10 +14,11 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,18 +28,6 @@ class GetActiveSessionsHandlerTest {
 
     @Mock
     private ParkingSessionRepository parkingSessionRepository;
-    
-    @Mock
-    private VehicleRepository vehicleRepository;
-    
-    @Mock
-    private VehicleTypeRepository vehicleTypeRepository;
-    
-    @Mock
-    private ParkingSpaceRepository parkingSpaceRepository;
-    
-    @Mock
-    private UserRepository userRepository;
 
     @InjectMocks
     private GetActiveSessionsHandler getActiveSessionsHandler;
@@ -60,7 +42,7 @@ class GetActiveSessionsHandlerTest {
             // Given
             GetActiveSessionsRequest request = new GetActiveSessionsRequest();
             
-            when(parkingSessionRepository.findAllActiveSessions())
+            when(parkingSessionRepository.findActiveSessionViews())
                     .thenReturn(List.of());
 
             // When
@@ -71,47 +53,21 @@ class GetActiveSessionsHandlerTest {
             assertThat(response.activeSessions()).isEmpty();
             assertThat(response.totalCount()).isEqualTo(0);
 
-            verify(parkingSessionRepository).findAllActiveSessions();
-            verifyNoInteractions(vehicleRepository, vehicleTypeRepository, parkingSpaceRepository, userRepository);
+            verify(parkingSessionRepository).findActiveSessionViews();
         }
 
         @Test
-        @DisplayName("Should return active sessions with complete information")
+        @DisplayName("Should return active sessions with complete information from a single query")
         void shouldReturnActiveSessionsWithCompleteInformation() {
             // Given
             GetActiveSessionsRequest request = new GetActiveSessionsRequest();
+            LocalDateTime entryTime = LocalDateTime.now().minusMinutes(150);
             
-            ParkingSession session1 = createMockParkingSession(1L, 1L, 1L, 1L);
-            ParkingSession session2 = createMockParkingSession(2L, 2L, 2L, 2L);
-            List<ParkingSession> activeSessions = List.of(session1, session2);
-            
-            Vehicle vehicle1 = createMockVehicle(1L, "ABC123", 1L);
-            Vehicle vehicle2 = createMockVehicle(2L, "XYZ789", 2L);
-            VehicleType vehicleType1 = createMockVehicleType(1L, "CAR");
-            VehicleType vehicleType2 = createMockVehicleType(2L, "MOTORCYCLE");
-            ParkingSpace space1 = createMockParkingSpace(1L, "A01");
-            ParkingSpace space2 = createMockParkingSpace(2L, "B02");
-            User operator1 = createMockUser(1L, "John", "Doe");
-            User operator2 = createMockUser(2L, "Jane", "Smith");
-            
-            when(parkingSessionRepository.findAllActiveSessions())
-                    .thenReturn(activeSessions);
-            
-            // Mock vehicle lookups
-            when(vehicleRepository.findById(1L)).thenReturn(Optional.of(vehicle1));
-            when(vehicleRepository.findById(2L)).thenReturn(Optional.of(vehicle2));
-            
-            // Mock vehicle type lookups
-            when(vehicleTypeRepository.findById(1L)).thenReturn(Optional.of(vehicleType1));
-            when(vehicleTypeRepository.findById(2L)).thenReturn(Optional.of(vehicleType2));
-            
-            // Mock parking space lookups
-            when(parkingSpaceRepository.findById(1L)).thenReturn(Optional.of(space1));
-            when(parkingSpaceRepository.findById(2L)).thenReturn(Optional.of(space2));
-            
-            // Mock operator lookups
-            when(userRepository.findById(1L)).thenReturn(Optional.of(operator1));
-            when(userRepository.findById(2L)).thenReturn(Optional.of(operator2));
+            when(parkingSessionRepository.findActiveSessionViews())
+                    .thenReturn(List.of(
+                            new ActiveSessionView(1L, "ABC123", "CAR", "A01", entryTime, "John Doe"),
+                            new ActiveSessionView(2L, "XYZ789", "MOTORCYCLE", "B02", entryTime, "Jane Smith")
+                    ));
 
             // When
             GetActiveSessionsResponse response = getActiveSessionsHandler.handle(request);
@@ -129,7 +85,7 @@ class GetActiveSessionsHandlerTest {
             assertThat(firstSession.parkingSpace()).isEqualTo("A01");
             assertThat(firstSession.operatorName()).isEqualTo("John Doe");
             assertThat(firstSession.entryTime()).isNotBlank();
-            assertThat(firstSession.hoursParked()).isNotBlank();
+            assertThat(firstSession.hoursParked()).isEqualTo("2.50 hours");
 
             // Verify second session
             GetActiveSessionsResponse.ActiveSessionDTO secondSession = response.activeSessions().get(1);
@@ -139,16 +95,8 @@ class GetActiveSessionsHandlerTest {
             assertThat(secondSession.parkingSpace()).isEqualTo("B02");
             assertThat(secondSession.operatorName()).isEqualTo("Jane Smith");
 
-            // Verify all repository interactions
-            verify(parkingSessionRepository).findAllActiveSessions();
-            verify(vehicleRepository).findById(1L);
-            verify(vehicleRepository).findById(2L);
-            verify(vehicleTypeRepository).findById(1L);
-            verify(vehicleTypeRepository).findById(2L);
-            verify(parkingSpaceRepository).findById(1L);
-            verify(parkingSpaceRepository).findById(2L);
-            verify(userRepository).findById(1L);
-            verify(userRepository).findById(2L);
+            verify(parkingSessionRepository).findActiveSessionViews();
+            verify(parkingSessionRepository, never()).findAllActiveSessions();
         }
 
         @Test
@@ -157,17 +105,8 @@ class GetActiveSessionsHandlerTest {
             // Given
             GetActiveSessionsRequest request = new GetActiveSessionsRequest();
             
-            ParkingSession session = createMockParkingSession(1L, 1L, 1L, 1L);
-            List<ParkingSession> activeSessions = List.of(session);
-            
-            when(parkingSessionRepository.findAllActiveSessions())
-                    .thenReturn(activeSessions);
-            
-            // Mock missing entities (return empty optionals)
-            when(vehicleRepository.findById(1L)).thenReturn(Optional.empty());
-            when(vehicleTypeRepository.findById(1L)).thenReturn(Optional.empty());
-            when(parkingSpaceRepository.findById(1L)).thenReturn(Optional.empty());
-            when(userRepository.findById(1L)).thenReturn(Optional.empty());
+            when(parkingSessionRepository.findActiveSessionViews())
+                    .thenReturn(List.of(new ActiveSessionView(1L, null, null, null, LocalDateTime.now(), null)));
 
             // When
             GetActiveSessionsResponse response = getActiveSessionsHandler.handle(request);
@@ -183,12 +122,65 @@ class GetActiveSessionsHandlerTest {
             assertThat(sessionDTO.vehicleType()).isEqualTo("Unknown");
             assertThat(sessionDTO.parkingSpace()).isEqualTo("Unknown");
             assertThat(sessionDTO.operatorName()).isEqualTo("Unknown");
+        }
+    }
+
+    @Nested
+    @DisplayName("Keyset Pagination Tests")
+    class KeysetPaginationTests {
+
+        @Test
+        @DisplayName("Should return the first page and a cursor pointing after its last session")
+        void shouldReturnFirstPageWithNextCursor() {
+            // Given
+            LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0, 0, 123_456_000);
+            when(parkingSessionRepository.findActiveSessionViewsPage(null, null, 3))
+                    .thenReturn(views(base, 3));
+            when(parkingSessionRepository.countActiveSessions()).thenReturn(10L);
+
+            // When
+            GetActiveSessionsResponse response = getActiveSessionsHandler.handle(new GetActiveSessionsRequest(null, 2));
 
-            verify(parkingSessionRepository).findAllActiveSessions();
-            verify(vehicleRepository).findById(1L);
-            verify(parkingSpaceRepository).findById(1L);
-            verify(userRepository).findById(1L);
-            // vehicleTypeRepository is not called because vehicle is null
+            // Then
+            assertThat(response.activeSessions()).extracting(GetActiveSessionsResponse.ActiveSessionDTO::sessionId)
+                    .containsExactly(1L, 2L);
+            assertThat(response.totalCount()).isEqualTo(10L);
+            assertThat(response.nextCursor()).isNotBlank();
+            verify(parkingSessionRepository, never()).findActiveSessionViews();
+        }
+
+        @Test
+        @DisplayName("Should resume exactly after the cursor position, keeping sub-second precision")
+        void shouldResumeAfterCursorPosition() {
+            // Given
+            LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0, 0, 123_456_000);
+            when(parkingSessionRepository.findActiveSessionViewsPage(null, null, 3))
+                    .thenReturn(views(base, 3));
+            String cursor = getActiveSessionsHandler.handle(new GetActiveSessionsRequest(null, 2)).nextCursor();
+            when(parkingSessionRepository.findActiveSessionViewsPage(base.minusMinutes(1), 2L, 3))
+                    .thenReturn(List.of(new ActiveSessionView(3L, "P3", "CAR", "A3", base.minusMinutes(2), "John Doe")));
+
+            // When
+            GetActiveSessionsResponse response = getActiveSessionsHandler.handle(new GetActiveSessionsRequest(cursor, 2));
+
+            // Then
+            assertThat(response.activeSessions()).extracting(GetActiveSessionsResponse.ActiveSessionDTO::sessionId)
+                    .containsExactly(3L);
+            assertThat(response.nextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should reject malformed cursors and out of range limits")
+        void shouldRejectInvalidPagingParameters() {
+            assertThatThrownBy(() -> getActiveSessionsHandler.handle(new GetActiveSessionsRequest("not-a-cursor", 10)))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> getActiveSessionsHandler.handle(new GetActiveSessionsRequest(null, 0)))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> getActiveSessionsHandler.handle(
+                    new GetActiveSessionsRequest(null, GetActiveSessionsHandler.MAX_PAGE_SIZE + 1)))
+                    .isInstanceOf(BadRequestException.class);
+
+            verify(parkingSessionRepository, never()).findActiveSessionViewsPage(any(), any(), anyInt());
         }
     }
 
@@ -207,45 +199,12 @@ class GetActiveSessionsHandlerTest {
         }
     }
 
-    // Helper methods for creating test objects
-    private ParkingSession createMockParkingSession(Long id, Long vehicleId, Long spaceId, Long operatorId) {
-        ParkingSession session = mock(ParkingSession.class);
-        when(session.getId()).thenReturn(id);
-        when(session.getVehicleId()).thenReturn(vehicleId);
-        when(session.getParkingSpaceId()).thenReturn(spaceId);
-        when(session.getOperatorEntryId()).thenReturn(operatorId);
-        when(session.getEntryTime()).thenReturn(LocalDateTime.of(2024, 1, 1, 10, 0));
-        when(session.calculateParkedHours()).thenReturn(2.5);
-        return session;
-    }
-
-    private Vehicle createMockVehicle(Long id, String licensePlate, Long vehicleTypeId) {
-        Vehicle vehicle = mock(Vehicle.class);
-        when(vehicle.getId()).thenReturn(id);
-        when(vehicle.getLicensePlate()).thenReturn(licensePlate);
-        when(vehicle.getVehicleTypeId()).thenReturn(vehicleTypeId);
-        return vehicle;
-    }
-
-    private VehicleType createMockVehicleType(Long id, String name) {
-        VehicleType type = mock(VehicleType.class);
-        when(type.getId()).thenReturn(id);
-        when(type.getName()).thenReturn(name);
-        return type;
-    }
-
-    private ParkingSpace createMockParkingSpace(Long id, String spaceNumber) {
-        ParkingSpace space = mock(ParkingSpace.class);
-        when(space.getId()).thenReturn(id);
-        when(space.getSpaceNumber()).thenReturn(spaceNumber);
-        return space;
-    }
-
-    private User createMockUser(Long id, String firstName, String lastName) {
-        User user = mock(User.class);
-        when(user.getId()).thenReturn(id);
-        when(user.getFirstname()).thenReturn(firstName);
-        when(user.getLastname()).thenReturn(lastName);
-        return user;
+    // Sesiones con entrada cada minuto hacia atrás desde base (orden descendente como en la BD)
+    private List<ActiveSessionView> views(LocalDateTime base, int count) {
+        List<ActiveSessionView> views = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            views.add(new ActiveSessionView(id, "P" + id, "CAR", "A" + id, base.minusMinutes(id - 1), "John Doe"));
+        }
+        return views;
     }
 }
@@ -1,20 +1,15 @@
 package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.query.getSessionByVehicle;
 
 import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
-import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ActiveSessionSummary;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.exception.NoActiveSessionException;
-import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
-import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpace;
-import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpaceRepository;
-import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.entity.RateConfig;
-import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.port.RateConfigRepository;
-import io.github.ironslayer.spring_boot_starter_template.user.domain.entity.User;
-import io.github.ironslayer.spring_boot_starter_template.user.domain.port.UserRepository;
-import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.entity.Vehicle;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ActiveSessionRegistry;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.Tariff;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableCache;
+import io.github.ironslayer.spring_boot_starter_template.user.application.cache.UserNameCache;
 import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.exception.VehicleNotFoundException;
 import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.port.VehicleRepository;
-import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.entity.VehicleType;
-import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.port.VehicleTypeRepository;
+import io.github.ironslayer.spring_boot_starter_template.vehicletype.application.cache.VehicleTypeNameCache;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -30,6 +25,7 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,22 +34,19 @@ import static org.mockito.Mockito.*;
 class GetSessionByVehicleHandlerTest {
 
     @Mock
-    private ParkingSessionRepository parkingSessionRepository;
+    private ActiveSessionRegistry activeSessionRegistry;
     
     @Mock
     private VehicleRepository vehicleRepository;
     
     @Mock
-    private VehicleTypeRepository vehicleTypeRepository;
+    private RateTableCache rateTableCache;
     
     @Mock
-    private ParkingSpaceRepository parkingSpaceRepository;
+    private UserNameCache userNameCache;
     
     @Mock
-    private UserRepository userRepository;
-    
-    @Mock
-    private RateConfigRepository rateConfigRepository;
+    private VehicleTypeNameCache vehicleTypeNameCache;
 
     @InjectMocks
     private GetSessionByVehicleHandler getSessionByVehicleHandler;
@@ -73,8 +66,7 @@ class GetSessionByVehicleHandlerTest {
                     .isInstanceOf(BadRequestException.class)
                     .hasMessage("Bad Request Exception (400). License plate is required");
 
-            verifyNoInteractions(parkingSessionRepository, vehicleRepository, 
-                                vehicleTypeRepository, parkingSpaceRepository, userRepository, rateConfigRepository);
+            verifyNoInteractions(activeSessionRegistry, vehicleRepository, rateTableCache);
         }
 
         @Test
@@ -88,8 +80,7 @@ class GetSessionByVehicleHandlerTest {
                     .isInstanceOf(BadRequestException.class)
                     .hasMessage("Bad Request Exception (400). License plate is required");
 
-            verifyNoInteractions(parkingSessionRepository, vehicleRepository, 
-                                vehicleTypeRepository, parkingSpaceRepository, userRepository, rateConfigRepository);
+            verifyNoInteractions(activeSessionRegistry, vehicleRepository, rateTableCache);
         }
     }
 
@@ -103,17 +94,17 @@ class GetSessionByVehicleHandlerTest {
             // Given
             GetSessionByVehicleRequest request = new GetSessionByVehicleRequest("INVALID123");
             
-            when(vehicleRepository.findByLicensePlate("INVALID123"))
-                    .thenReturn(Optional.empty());
+            when(vehicleRepository.existsByLicensePlate("INVALID123"))
+                    .thenReturn(false);
 
             // When & Then
             assertThatThrownBy(() -> getSessionByVehicleHandler.handle(request))
                     .isInstanceOf(VehicleNotFoundException.class)
                     .hasMessage("INVALID123");
 
-            verify(vehicleRepository).findByLicensePlate("INVALID123");
-            verifyNoInteractions(parkingSessionRepository, vehicleTypeRepository, 
-                                parkingSpaceRepository, userRepository, rateConfigRepository);
+            verify(activeSessionRegistry).findByLicensePlate("INVALID123");
+            verify(vehicleRepository).existsByLicensePlate("INVALID123");
+            verifyNoInteractions(rateTableCache);
         }
 
         @Test
@@ -121,15 +112,13 @@ class GetSessionByVehicleHandlerTest {
         void shouldNormalizeLicensePlateToUppercase() {
             // Given
             GetSessionByVehicleRequest request = new GetSessionByVehicleRequest("abc123");
-            
-            when(vehicleRepository.findByLicensePlate("ABC123"))
-                    .thenReturn(Optional.empty());
 
             // When & Then
             assertThatThrownBy(() -> getSessionByVehicleHandler.handle(request))
                     .isInstanceOf(VehicleNotFoundException.class);
 
-            verify(vehicleRepository).findByLicensePlate("ABC123");
+            verify(activeSessionRegistry).findByLicensePlate("ABC123");
+            verify(vehicleRepository).existsByLicensePlate("ABC123");
         }
     }
 
@@ -142,21 +131,17 @@ class GetSessionByVehicleHandlerTest {
         void shouldThrowNoActiveSessionExceptionWhenVehicleHasNoActiveSession() {
             // Given
             GetSessionByVehicleRequest request = new GetSessionByVehicleRequest("ABC123");
-            Vehicle vehicle = createMockVehicle(1L, "ABC123", 1L);
             
-            when(vehicleRepository.findByLicensePlate("ABC123"))
-                    .thenReturn(Optional.of(vehicle));
-            when(parkingSessionRepository.findActiveSessionByVehicleId(1L))
-                    .thenReturn(Optional.empty());
+            when(vehicleRepository.existsByLicensePlate("ABC123"))
+                    .thenReturn(true);
 
             // When & Then
             assertThatThrownBy(() -> getSessionByVehicleHandler.handle(request))
                     .isInstanceOf(NoActiveSessionException.class)
                     .hasMessage("No active parking session found for vehicle with license plate 'ABC123'");
 
-            verify(vehicleRepository).findByLicensePlate("ABC123");
-            verify(parkingSessionRepository).findActiveSessionByVehicleId(1L);
-            verifyNoInteractions(vehicleTypeRepository, parkingSpaceRepository, userRepository, rateConfigRepository);
+            verify(activeSessionRegistry).findByLicensePlate("ABC123");
+            verifyNoInteractions(rateTableCache, userNameCache, vehicleTypeNameCache);
         }
     }
 
@@ -165,31 +150,21 @@ class GetSessionByVehicleHandlerTest {
     class SuccessfulQueryTests {
 
         @Test
-        @DisplayName("Should return session information successfully with all data")
+        @DisplayName("Should return session information from the registry without touching the vehicle table")
         void shouldReturnSessionInformationSuccessfullyWithAllData() {
             // Given
             GetSessionByVehicleRequest request = new GetSessionByVehicleRequest("ABC123");
-            Vehicle vehicle = createMockVehicle(1L, "ABC123", 1L);
-            ParkingSession activeSession = createMockParkingSession(1L, 1L, 1L, 1L);
-            VehicleType vehicleType = createMockVehicleType(1L, "CAR");
-            ParkingSpace parkingSpace = createMockParkingSpace(1L, "A01");
-            User operator = createMockUser(1L, "John", "Doe");
-            RateConfig rateConfig = createMockRateConfig();
+            ActiveSessionSummary session = createSummary("A01", LocalDateTime.now().minusMinutes(150));
+            Tariff tariff = new Tariff(500, 1, 4000); // $5.00/h, mínimo 1 h, tope $40.00
             
-            when(vehicleRepository.findByLicensePlate("ABC123"))
-                    .thenReturn(Optional.of(vehicle));
-            when(parkingSessionRepository.findActiveSessionByVehicleId(1L))
-                    .thenReturn(Optional.of(activeSession));
-            when(vehicleTypeRepository.findById(1L))
-                    .thenReturn(Optional.of(vehicleType));
-            when(parkingSpaceRepository.findById(1L))
-                    .thenReturn(Optional.of(parkingSpace));
-            when(userRepository.findById(1L))
-                    .thenReturn(Optional.of(operator));
-            when(rateConfigRepository.findActiveByVehicleTypeId(1L))
-                    .thenReturn(Optional.of(rateConfig));
-            when(activeSession.calculateParkedHours()).thenReturn(2.5);
-            when(activeSession.generateTicketCode()).thenReturn("T-202401011200-001");
+            when(activeSessionRegistry.findByLicensePlate("ABC123"))
+                    .thenReturn(Optional.of(session));
+            when(vehicleTypeNameCache.getName(1L))
+                    .thenReturn(Optional.of("CAR"));
+            when(userNameCache.getFullName(1L))
+                    .thenReturn(Optional.of("John Doe"));
+            when(rateTableCache.findTariffAt(eq(1L), any()))
+                    .thenReturn(Optional.of(tariff));
 
             // When
             GetSessionByVehicleResponse response = getSessionByVehicleHandler.handle(request);
@@ -203,40 +178,28 @@ class GetSessionByVehicleHandlerTest {
             assertThat(response.operatorName()).isEqualTo("John Doe");
             assertThat(response.entryTime()).isNotBlank();
             assertThat(response.hoursParked()).isEqualTo(BigDecimal.valueOf(2.5).setScale(2));
-            assertThat(response.estimatedAmount()).isNotNull();
-            assertThat(response.ticketCode()).isEqualTo("T-202401011200-001");
-
-            verify(vehicleRepository).findByLicensePlate("ABC123");
-            verify(parkingSessionRepository).findActiveSessionByVehicleId(1L);
-            verify(vehicleTypeRepository).findById(1L);
-            verify(parkingSpaceRepository).findById(1L);
-            verify(userRepository).findById(1L);
-            verify(rateConfigRepository).findActiveByVehicleTypeId(1L);
+            assertThat(response.estimatedAmount()).isEqualByComparingTo("15.00"); // 2.5 h se cobran como 3 h
+            assertThat(response.ticketCode()).isEqualTo("T-1Y");
+
+            verify(rateTableCache).findTariffAt(eq(1L), any());
+            verifyNoInteractions(vehicleRepository);
         }
 
         @Test
-        @DisplayName("Should handle missing optional entities gracefully")
+        @DisplayName("Should handle missing optional data gracefully")
         void shouldHandleMissingOptionalEntitiesGracefully() {
             // Given
             GetSessionByVehicleRequest request = new GetSessionByVehicleRequest("ABC123");
-            Vehicle vehicle = createMockVehicle(1L, "ABC123", 1L);
-            ParkingSession activeSession = createMockParkingSession(1L, 1L, 1L, 1L);
-            RateConfig rateConfig = createMockRateConfig();
+            ActiveSessionSummary session = createSummary(null, LocalDateTime.now().minusMinutes(90));
             
-            when(vehicleRepository.findByLicensePlate("ABC123"))
-                    .thenReturn(Optional.of(vehicle));
-            when(parkingSessionRepository.findActiveSessionByVehicleId(1L))
-                    .thenReturn(Optional.of(activeSession));
-            when(vehicleTypeRepository.findById(1L))
+            when(activeSessionRegistry.findByLicensePlate("ABC123"))
+                    .thenReturn(Optional.of(session));
+            when(vehicleTypeNameCache.getName(anyLong()))
                     .thenReturn(Optional.empty()); // Missing vehicle type
-            when(parkingSpaceRepository.findById(1L))
-                    .thenReturn(Optional.empty()); // Missing parking space
-            when(userRepository.findById(1L))
+            when(userNameCache.getFullName(anyLong()))
                     .thenReturn(Optional.empty()); // Missing operator
-            when(rateConfigRepository.findActiveByVehicleTypeId(1L))
-                    .thenReturn(Optional.of(rateConfig));
-            when(activeSession.calculateParkedHours()).thenReturn(1.5);
-            when(activeSession.generateTicketCode()).thenReturn("T-202401011200-001");
+            when(rateTableCache.findTariffAt(eq(1L), any()))
+                    .thenReturn(Optional.empty());
 
             // When
             GetSessionByVehicleResponse response = getSessionByVehicleHandler.handle(request);
@@ -244,20 +207,11 @@ class GetSessionByVehicleHandlerTest {
             // Then
             assertThat(response).isNotNull();
             assertThat(response.sessionId()).isEqualTo(1L);
-            assertThat(response.licensePlate()).isEqualTo("ABC123");
             assertThat(response.vehicleType()).isEqualTo("Unknown");
             assertThat(response.parkingSpace()).isEqualTo("Unknown");
             assertThat(response.operatorName()).isEqualTo("Unknown");
             assertThat(response.hoursParked()).isEqualTo(BigDecimal.valueOf(1.5).setScale(2));
-            assertThat(response.estimatedAmount()).isNotNull();
-            assertThat(response.ticketCode()).isEqualTo("T-202401011200-001");
-
-            verify(vehicleRepository).findByLicensePlate("ABC123");
-            verify(parkingSessionRepository).findActiveSessionByVehicleId(1L);
-            verify(vehicleTypeRepository).findById(1L);
-            verify(parkingSpaceRepository).findById(1L);
-            verify(userRepository).findById(1L);
-            verify(rateConfigRepository).findActiveByVehicleTypeId(1L);
+            assertThat(response.estimatedAmount()).isEqualByComparingTo(BigDecimal.ZERO);
         }
     }
 
@@ -277,51 +231,7 @@ class GetSessionByVehicleHandlerTest {
     }
 
     // Helper methods for creating test objects
-    private Vehicle createMockVehicle(Long id, String licensePlate, Long vehicleTypeId) {
-        Vehicle vehicle = mock(Vehicle.class);
-        when(vehicle.getId()).thenReturn(id);
-        when(vehicle.getLicensePlate()).thenReturn(licensePlate);
-        when(vehicle.getVehicleTypeId()).thenReturn(vehicleTypeId);
-        return vehicle;
-    }
-
-    private ParkingSession createMockParkingSession(Long id, Long vehicleId, Long spaceId, Long operatorId) {
-        ParkingSession session = mock(ParkingSession.class);
-        when(session.getId()).thenReturn(id);
-        when(session.getVehicleId()).thenReturn(vehicleId);
-        when(session.getParkingSpaceId()).thenReturn(spaceId);
-        when(session.getOperatorEntryId()).thenReturn(operatorId);
-        when(session.getEntryTime()).thenReturn(LocalDateTime.of(2024, 1, 1, 10, 0));
-        return session;
-    }
-
-    private VehicleType createMockVehicleType(Long id, String name) {
-        VehicleType type = mock(VehicleType.class);
-        when(type.getId()).thenReturn(id);
-        when(type.getName()).thenReturn(name);
-        return type;
-    }
-
-    private ParkingSpace createMockParkingSpace(Long id, String spaceNumber) {
-        ParkingSpace space = mock(ParkingSpace.class);
-        when(space.getId()).thenReturn(id);
-        when(space.getSpaceNumber()).thenReturn(spaceNumber);
-        return space;
-    }
-
-    private User createMockUser(Long id, String firstName, String lastName) {
-        User user = mock(User.class);
-        when(user.getId()).thenReturn(id);
-        when(user.getFirstname()).thenReturn(firstName);
-        when(user.getLastname()).thenReturn(lastName);
-        return user;
-    }
-
-    private RateConfig createMockRateConfig() {
-        RateConfig config = mock(RateConfig.class);
-        when(config.getRatePerHour()).thenReturn(BigDecimal.valueOf(5.0));
-        when(config.getMinimumChargeHours()).thenReturn(1);
-        when(config.getMaximumDailyRate()).thenReturn(BigDecimal.valueOf(40.0));
-        return config;
+    private ActiveSessionSummary createSummary(String spaceNumber, LocalDateTime entryTime) {
+        return new ActiveSessionSummary(1L, 1L, "ABC123", 1L, 1L, spaceNumber, "T-1Y", entryTime, 1L);
     }
 }
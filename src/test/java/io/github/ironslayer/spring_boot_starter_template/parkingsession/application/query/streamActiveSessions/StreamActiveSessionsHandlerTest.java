@@ -0,0 +1,53 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.application.query.streamActiveSessions;
+
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.application.query.getActiveSessions.GetActiveSessionsResponse.ActiveSessionDTO;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ActiveSessionView;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StreamActiveSessionsHandler Tests")
+class StreamActiveSessionsHandlerTest {
+
+    @Mock
+    private ParkingSessionRepository parkingSessionRepository;
+
+    @InjectMocks
+    private StreamActiveSessionsHandler handler;
+
+    @Test
+    @DisplayName("Should hand each row to the consumer as it is read and return the count")
+    @SuppressWarnings("unchecked")
+    void shouldForwardRowsToConsumer() {
+        // Given
+        doAnswer(invocation -> {
+            Consumer<ActiveSessionView> action = invocation.getArgument(0);
+            action.accept(new ActiveSessionView(1L, "ABC123", "CAR", "A01", LocalDateTime.now(), "John Doe"));
+            action.accept(new ActiveSessionView(2L, null, null, null, LocalDateTime.now(), null));
+            return null;
+        }).when(parkingSessionRepository).streamActiveSessionViews(any(Consumer.class));
+        List<ActiveSessionDTO> received = new ArrayList<>();
+
+        // When
+        Long count = handler.handle(new StreamActiveSessionsRequest(received::add));
+
+        // Then
+        assertThat(count).isEqualTo(2L);
+        assertThat(received).extracting(ActiveSessionDTO::licensePlate).containsExactly("ABC123", "Unknown");
+        verify(parkingSessionRepository, never()).findActiveSessionViews();
+    }
+}
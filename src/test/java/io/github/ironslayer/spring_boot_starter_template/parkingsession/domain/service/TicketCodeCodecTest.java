@@ -0,0 +1,93 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TicketCodeCodec Tests")
+class TicketCodeCodecTest {
+
+    @Nested
+    @DisplayName("Encoding Tests")
+    class EncodingTests {
+
+        @Test
+        @DisplayName("Should produce compact codes with prefix, base 32 id and check character")
+        void shouldProduceCompactCodes() {
+            assertThat(TicketCodeCodec.encode(1L)).isEqualTo("T-1Y");
+            assertThat(TicketCodeCodec.encode(1000L)).isEqualTo("T-Z8H");
+            assertThat(TicketCodeCodec.encode(1234567L)).isEqualTo("T-15NM7C");
+            assertThat(TicketCodeCodec.encode(Long.MAX_VALUE)).hasSize(16);
+        }
+
+        @Test
+        @DisplayName("Should generate distinct codes for sessions started in the same minute")
+        void shouldGenerateDistinctCodes() {
+            Set<String> codes = new HashSet<>();
+            for (long id = 1; id <= 5_000; id++) {
+                codes.add(TicketCodeCodec.encode(id));
+            }
+
+            assertThat(codes).hasSize(5_000);
+        }
+
+        @Test
+        @DisplayName("Should reject non-positive session IDs")
+        void shouldRejectNonPositiveIds() {
+            assertThatThrownBy(() -> TicketCodeCodec.encode(0L))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Decoding Tests")
+    class DecodingTests {
+
+        @Test
+        @DisplayName("Should decode back the session ID")
+        void shouldRoundTrip() {
+            for (long id : new long[]{1L, 31L, 32L, 42L, 999_999L, 1L << 40, Long.MAX_VALUE}) {
+                assertThat(TicketCodeCodec.decode(TicketCodeCodec.encode(id))).hasValue(id);
+            }
+        }
+
+        @Test
+        @DisplayName("Should accept lowercase, surrounding spaces and Crockford aliases")
+        void shouldBeLenientWithTyping() {
+            assertThat(TicketCodeCodec.decode(" t-15nm7c ")).hasValue(1234567L);
+            // 32 = "T-10Z": la O se lee como 0
+            assertThat(TicketCodeCodec.decode("T-1OZ")).hasValue(32L);
+        }
+
+        @Test
+        @DisplayName("Should detect every single mistyped character")
+        void shouldDetectSingleCharacterErrors() {
+            String code = TicketCodeCodec.encode(987_654_321L);
+            String alphabet = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+            for (int i = TicketCodeCodec.PREFIX.length(); i < code.length(); i++) {
+                for (char replacement : alphabet.toCharArray()) {
+                    if (replacement == code.charAt(i)) {
+                        continue;
+                    }
+                    String mistyped = code.substring(0, i) + replacement + code.substring(i + 1);
+                    assertThat(TicketCodeCodec.decode(mistyped)).as(mistyped).isEmpty();
+                }
+            }
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"", "T-", "T-1", "X-1Y", "T-INVALID", "T-202507171030-001", "T-01Y", "T-ZZZZZZZZZZZZZZ"})
+        @DisplayName("Should not decode legacy or malformed codes")
+        void shouldNotDecodeLegacyOrMalformedCodes(String ticketCode) {
+            assertThat(TicketCodeCodec.decode(ticketCode)).isEmpty();
+        }
+    }
+}
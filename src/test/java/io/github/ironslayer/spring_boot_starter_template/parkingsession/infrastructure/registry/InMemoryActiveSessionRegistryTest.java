@@ -0,0 +1,153 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingsession.infrastructure.registry;
+
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ActiveSessionSummary;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpace;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpaceRepository;
+import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.entity.Vehicle;
+import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.port.VehicleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("InMemoryActiveSessionRegistry Tests")
+class InMemoryActiveSessionRegistryTest {
+
+    @Mock
+    private ParkingSessionRepository parkingSessionRepository;
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @Mock
+    private ParkingSpaceRepository parkingSpaceRepository;
+
+    private MeterRegistry meterRegistry;
+    private InMemoryActiveSessionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new InMemoryActiveSessionRegistry(
+                parkingSessionRepository, vehicleRepository, parkingSpaceRepository, meterRegistry);
+
+        ParkingSession session = new ParkingSession(10L, 1L, 100L, LocalDateTime.now().minusHours(1), null,
+                5L, null, true, "T-A1", null, null);
+        Vehicle vehicle = mock(Vehicle.class);
+        when(vehicle.getId()).thenReturn(1L);
+        when(vehicle.getLicensePlate()).thenReturn("ABC123");
+        when(vehicle.getVehicleTypeId()).thenReturn(2L);
+        ParkingSpace space = mock(ParkingSpace.class);
+        when(space.getId()).thenReturn(100L);
+        when(space.getSpaceNumber()).thenReturn("A01");
+
+        when(parkingSessionRepository.findAllActiveSessions()).thenReturn(List.of(session));
+        when(vehicleRepository.findAllByIds(anyCollection())).thenReturn(List.of(vehicle));
+        when(parkingSpaceRepository.findAllOccupied()).thenReturn(List.of(space));
+        registry.rebuild();
+    }
+
+    @Nested
+    @DisplayName("Rebuild Tests")
+    class RebuildTests {
+
+        @Test
+        @DisplayName("Should index active sessions by plate and by vehicle id")
+        void shouldIndexActiveSessionsByPlateAndVehicleId() {
+            ActiveSessionSummary byPlate = registry.findByLicensePlate(" abc123 ").orElseThrow();
+
+            assertThat(byPlate.sessionId()).isEqualTo(10L);
+            assertThat(byPlate.vehicleTypeId()).isEqualTo(2L);
+            assertThat(byPlate.spaceNumber()).isEqualTo("A01");
+            assertThat(registry.findByVehicleId(1L)).contains(byPlate);
+            assertThat(registry.size()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Tests")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("Should add registered sessions and drop unregistered ones")
+        void shouldAddAndRemoveSessions() {
+            ParkingSession session = new ParkingSession(7L, 200L, 1L);
+            session.setId(20L);
+            registry.register(ActiveSessionSummary.of(session, "XYZ789", 1L, "B02"));
+
+            assertThat(registry.isParked(7L)).isTrue();
+            assertThat(registry.findByLicensePlate("XYZ789")).isPresent();
+
+            registry.unregister(session);
+
+            assertThat(registry.isParked(7L)).isFalse();
+            assertThat(registry.findByLicensePlate("XYZ789")).isEmpty();
+            assertThat(registry.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should ignore the end of a session that is no longer the vehicle's active one")
+        void shouldIgnoreUnregisterOfStaleSession() {
+            ParkingSession stale = new ParkingSession(1L, 100L, 5L);
+            stale.setId(9L);
+
+            registry.unregister(stale);
+
+            assertThat(registry.findByLicensePlate("ABC123")).isPresent();
+        }
+
+        @Test
+        @DisplayName("Should evict a stale entry right away, but not a newer one for the same vehicle")
+        void shouldEvictOnlyTheGivenEntry() {
+            ActiveSessionSummary stale = registry.findByVehicleId(1L).orElseThrow();
+            ParkingSession newer = new ParkingSession(1L, 100L, 5L);
+            newer.setId(11L);
+            registry.register(ActiveSessionSummary.of(newer, "ABC123", 2L, "A01"));
+
+            registry.evict(stale);
+            assertThat(registry.findByVehicleId(1L)).map(ActiveSessionSummary::sessionId).contains(11L);
+
+            registry.evict(registry.findByVehicleId(1L).orElseThrow());
+            assertThat(registry.isParked(1L)).isFalse();
+            assertThat(registry.findByLicensePlate("ABC123")).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Metrics Tests")
+    class MetricsTests {
+
+        @Test
+        @DisplayName("Should expose registry size and lookup hit ratio")
+        void shouldExposeSizeAndHitRatio() {
+            registry.findByLicensePlate("ABC123");
+            registry.findByLicensePlate("ABC123");
+            registry.findByLicensePlate("ABC123");
+            registry.findByVehicleId(99L);
+
+            assertThat(meterRegistry.get("parking.sessions.registry.size").gauge().value()).isEqualTo(1.0);
+            assertThat(meterRegistry.get("parking.sessions.registry.hit.ratio").gauge().value()).isEqualTo(0.75);
+            assertThat(meterRegistry.get("parking.sessions.registry.lookups").tag("result", "miss")
+                    .counter().count()).isEqualTo(1.0);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package io.github.ironslayer.spring_boot_starter_template.parkingspace.infrastructure.allocator;
+
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.domain.ParkingSpace;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.infrastructure.repository.FreeSpaceRef;
+import io.github.ironslayer.spring_boot_starter_template.parkingspace.infrastructure.repository.ParkingSpaceJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InMemoryFreeSpaceAllocator Tests")
+class InMemoryFreeSpaceAllocatorTest {
+
+    private static final Long CAR = 1L;
+    private static final Long MOTORCYCLE = 2L;
+
+    @Mock
+    private ParkingSpaceJpaRepository jpaRepository;
+
+    @InjectMocks
+    private InMemoryFreeSpaceAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        when(jpaRepository.findAllFreeSpaceRefs()).thenReturn(List.of(
+                new FreeSpaceRef(1L, CAR),
+                new FreeSpaceRef(2L, CAR),
+                new FreeSpaceRef(3L, MOTORCYCLE)
+        ));
+        allocator.rebuild();
+    }
+
+    @Nested
+    @DisplayName("Reserve Tests")
+    class ReserveTests {
+
+        @Test
+        @DisplayName("Should hand out free spaces of the requested type in order")
+        void shouldHandOutFreeSpacesInOrder() {
+            assertThat(allocator.reserve(CAR)).contains(1L);
+            assertThat(allocator.reserve(CAR)).contains(2L);
+            assertThat(allocator.reserve(CAR)).isEmpty();
+            assertThat(allocator.reserve(MOTORCYCLE)).contains(3L);
+        }
+
+        @Test
+        @DisplayName("Should return empty for an unknown vehicle type")
+        void shouldReturnEmptyForUnknownVehicleType() {
+            assertThat(allocator.reserve(99L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should never hand out the same space twice under concurrency")
+        void shouldNeverHandOutSameSpaceTwice() throws Exception {
+            // Given
+            List<FreeSpaceRef> refs = new ArrayList<>();
+            for (long id = 1; id <= 1_000; id++) {
+                refs.add(new FreeSpaceRef(id, CAR));
+            }
+            when(jpaRepository.findAllFreeSpaceRefs()).thenReturn(refs);
+            allocator.rebuild();
+
+            int threads = 8;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            Set<Long> reserved = ConcurrentHashMap.newKeySet();
+            AtomicInteger duplicates = new AtomicInteger();
+            List<Future<?>> futures = new ArrayList<>();
+
+            // When
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    Optional<Long> spaceId;
+                    while ((spaceId = allocator.reserve(CAR)).isPresent()) {
+                        if (!reserved.add(spaceId.get())) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            // Then
+            assertThat(duplicates).hasValue(0);
+            assertThat(reserved).hasSize(1_000);
+        }
+    }
+
+    @Nested
+    @DisplayName("Sync Tests")
+    class SyncTests {
+
+        @Test
+        @DisplayName("Should remove a space from the pool when it becomes occupied")
+        void shouldRemoveOccupiedSpace() {
+            allocator.sync(space(1L, CAR, true, true));
+
+            assertThat(allocator.availableCount(CAR)).isEqualTo(1);
+            assertThat(allocator.reserve(CAR)).contains(2L);
+        }
+
+        @Test
+        @DisplayName("Should add a space back to the pool when it is freed")
+        void shouldAddFreedSpace() {
+            assertThat(allocator.reserve(CAR)).contains(1L);
+
+            allocator.sync(space(1L, CAR, false, true));
+
+            assertThat(allocator.availableCount(CAR)).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should remove a deactivated space from the pool")
+        void shouldRemoveDeactivatedSpace() {
+            allocator.sync(space(3L, MOTORCYCLE, false, false));
+
+            assertThat(allocator.reserve(MOTORCYCLE)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should move a space between pools when its vehicle type changes")
+        void shouldMoveSpaceWhenVehicleTypeChanges() {
+            allocator.sync(space(2L, MOTORCYCLE, false, true));
+
+            assertThat(allocator.availableCount(CAR)).isEqualTo(1);
+            assertThat(allocator.availableCount(MOTORCYCLE)).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should drop an evicted space from the pool")
+        void shouldDropEvictedSpace() {
+            allocator.evict(1L);
+
+            assertThat(allocator.reserve(CAR)).contains(2L);
+            assertThat(allocator.reserve(CAR)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Rebuild Tests")
+    class RebuildTests {
+
+        @Test
+        @DisplayName("Should give back a rolled back reservation to the pool after a rebuild")
+        void shouldKeepRollbackAfterRebuild() {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                assertThat(allocator.reserve(CAR)).contains(1L);
+
+                // La BD todavía no ve el espacio ocupado: sigue libre
+                when(jpaRepository.findAllFreeSpaceRefs()).thenReturn(List.of(new FreeSpaceRef(2L, CAR)));
+                allocator.rebuild();
+
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            assertThat(allocator.availableCount(CAR)).isEqualTo(2);
+            assertThat(allocator.reserve(CAR)).contains(2L);
+            assertThat(allocator.reserve(CAR)).contains(1L);
+        }
+
+        @Test
+        @DisplayName("Should empty the pool of vehicle types without free spaces")
+        void shouldEmptyMissingVehicleTypes() {
+            when(jpaRepository.findAllFreeSpaceRefs()).thenReturn(List.of(new FreeSpaceRef(1L, CAR)));
+
+            allocator.rebuild();
+
+            assertThat(allocator.availableCount(CAR)).isEqualTo(1);
+            assertThat(allocator.reserve(MOTORCYCLE)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Free List Tests")
+    class FreeListTests {
+
+        @Test
+        @DisplayName("Should keep the order queue bounded when spaces cycle without polls")
+        void shouldCompactOrderQueue() {
+            InMemoryFreeSpaceAllocator.FreeList freeList = new InMemoryFreeSpaceAllocator.FreeList();
+            freeList.add(1L);
+            freeList.add(2L);
+
+            for (int i = 0; i < 10_000; i++) {
+                freeList.remove(1L);
+                freeList.add(1L);
+            }
+
+            assertThat(freeList.size()).isEqualTo(2);
+            assertThat(freeList.queuedEntries())
+                    .isLessThanOrEqualTo(InMemoryFreeSpaceAllocator.FreeList.COMPACT_FACTOR * 2
+                            + InMemoryFreeSpaceAllocator.FreeList.COMPACT_SLACK);
+            assertThat(freeList.poll()).isEqualTo(1L);
+            assertThat(freeList.poll()).isEqualTo(2L);
+            assertThat(freeList.poll()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should keep the queued entry count exact while compaction races with adds and polls")
+        void shouldKeepQueuedCountExactUnderConcurrency() throws Exception {
+            // Given
+            InMemoryFreeSpaceAllocator.FreeList freeList = new InMemoryFreeSpaceAllocator.FreeList();
+            int threads = 8;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+
+            // When: pocos espacios que entran, salen y se reservan sin parar fuerzan compactaciones
+            for (int t = 0; t < threads; t++) {
+                long offset = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 20_000; i++) {
+                        Long spaceId = (offset + i) % 16;
+                        freeList.add(spaceId);
+                        freeList.remove(spaceId);
+                        freeList.add(spaceId);
+                        if (i % 3 == 0) {
+                            freeList.poll();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            // Then: al vaciar la lista el contador vuelve exactamente a cero
+            int polled = 0;
+            while (freeList.poll() != null) {
+                polled++;
+            }
+            assertThat(polled).isLessThanOrEqualTo(16);
+            assertThat(freeList.size()).isZero();
+            assertThat(freeList.queuedEntries()).isZero();
+        }
+    }
+
+    private ParkingSpace space(Long id, Long vehicleTypeId, boolean occupied, boolean active) {
+        return new ParkingSpace(id, "S" + id, vehicleTypeId, occupied, active,
+                LocalDateTime.now(), LocalDateTime.now(), occupied ? "ABC123" : null, null);
+    }
+}
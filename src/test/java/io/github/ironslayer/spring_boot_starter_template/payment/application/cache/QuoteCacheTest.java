@@ -0,0 +1,103 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.application.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("QuoteCache Tests")
+class QuoteCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private QuoteCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new QuoteCache(meterRegistry, 2);
+    }
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should calculate once per session and rate version")
+        void shouldCalculateOncePerKey() {
+            AtomicInteger calculations = new AtomicInteger();
+
+            SessionQuote first = cache.getOrCompute(1L, 1, () -> quote(1L, calculations.incrementAndGet()));
+            SessionQuote second = cache.getOrCompute(1L, 1, () -> quote(1L, calculations.incrementAndGet()));
+            SessionQuote newVersion = cache.getOrCompute(1L, 2, () -> quote(1L, calculations.incrementAndGet()));
+
+            assertThat(second).isSameAs(first);
+            assertThat(newVersion.totalAmount()).isEqualTo(new BigDecimal("2"));
+            assertThat(calculations).hasValue(2);
+        }
+
+        @Test
+        @DisplayName("Should not store anything when the calculation fails")
+        void shouldNotStoreFailedCalculations() {
+            assertThatThrownBy(() -> cache.getOrCompute(1L, 1, () -> {
+                throw new IllegalStateException("boom");
+            })).isInstanceOf(IllegalStateException.class);
+
+            assertThat(cache.size()).isZero();
+            assertThat(cache.find(1L, 1)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Eviction Tests")
+    class EvictionTests {
+
+        @Test
+        @DisplayName("Should evict the least recently used quote when full")
+        void shouldEvictLeastRecentlyUsed() {
+            cache.put(1L, 1, quote(1L, 1));
+            cache.put(2L, 1, quote(2L, 2));
+            // Usar la 1 hace que la 2 sea la más vieja
+            cache.find(1L, 1);
+
+            cache.put(3L, 1, quote(3L, 3));
+
+            assertThat(cache.size()).isEqualTo(2);
+            assertThat(cache.find(1L, 1)).isPresent();
+            assertThat(cache.find(2L, 1)).isEmpty();
+            assertThat(cache.find(3L, 1)).isPresent();
+        }
+
+        @Test
+        @DisplayName("Should reject a non positive size")
+        void shouldRejectInvalidSize() {
+            assertThatThrownBy(() -> new QuoteCache(meterRegistry, 0)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Metrics Tests")
+    class MetricsTests {
+
+        @Test
+        @DisplayName("Should count hits and misses and publish the size")
+        void shouldPublishMetrics() {
+            cache.getOrCompute(1L, 1, () -> quote(1L, 1));
+            cache.getOrCompute(1L, 1, () -> quote(1L, 1));
+
+            assertThat(meterRegistry.get(QuoteCache.METRIC_PREFIX + ".hits").counter().count()).isEqualTo(1.0);
+            assertThat(meterRegistry.get(QuoteCache.METRIC_PREFIX + ".misses").counter().count()).isEqualTo(1.0);
+            assertThat(meterRegistry.get(QuoteCache.METRIC_PREFIX + ".size").gauge().value()).isEqualTo(1.0);
+        }
+    }
+
+    private SessionQuote quote(Long sessionId, int amount) {
+        return new SessionQuote(sessionId, 1L, new BigDecimal(amount), BigDecimal.ONE, BigDecimal.ONE, 1, null);
+    }
+}
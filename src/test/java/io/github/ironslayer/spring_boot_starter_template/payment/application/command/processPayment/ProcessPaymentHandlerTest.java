@@ -1,35 +1,46 @@
 package io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPayment;
 
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.port.DashboardCounters;
 import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.exception.ParkingSessionNotFoundException;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
-import io.github.ironslayer.spring_boot_starter_template.payment.application.command.calculateAmount.CalculateAmountHandler;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.cache.QuoteCache;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.cache.SessionQuote;
 import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.Payment;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.RevenueRollupEntry;
 import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentMethod;
 import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentStatus;
 import io.github.ironslayer.spring_boot_starter_template.payment.domain.exception.PaymentAlreadyExistsException;
 import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.PaymentRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.RevenueRollupRepository;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableCache;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableSnapshot;
 import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.entity.RateConfig;
-import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.port.RateConfigRepository;
+import io.github.ironslayer.spring_boot_starter_template.user.domain.entity.User;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.port.UserRepository;
 import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.entity.Vehicle;
 import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.port.VehicleRepository;
-import io.github.ironslayer.spring_boot_starter_template.vehicletype.domain.entity.VehicleType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -44,75 +55,69 @@ import static org.mockito.Mockito.*;
 @DisplayName("ProcessPaymentHandler Tests")
 class ProcessPaymentHandlerTest {
 
+    private static final LocalDateTime ENTRY_TIME = LocalDateTime.of(2025, 7, 17, 10, 0);
+    private static final long RATE_VERSION = 1;
+
     @Mock
     private PaymentRepository paymentRepository;
-    
+
     @Mock
     private ParkingSessionRepository parkingSessionRepository;
-    
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
     @Mock
-    private CalculateAmountHandler calculateAmountHandler;
-    
+    private RateTableCache rateTableCache;
+
+    @Spy
+    private QuoteCache quoteCache = new QuoteCache(new SimpleMeterRegistry(), 100);
+
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private RevenueRollupRepository revenueRollupRepository;
+
+    @Mock
+    private DashboardCounters dashboardCounters;
+
     @InjectMocks
     private ProcessPaymentHandler processPaymentHandler;
 
     private ParkingSession completedSession;
-    private Payment payment;
     private ProcessPaymentRequest request;
 
     @BeforeEach
     void setUp() {
-        // Crear VehicleType usando builder
-        VehicleType vehicleType = VehicleType.builder()
-                .id(1L)
-                .name("Car")
-                .description("Standard car")
-                .build();
-
-        // Crear Vehicle usando setters
+        // Sesión completada de 2 horas (isActive = false, exitTime establecido)
+        completedSession = new ParkingSession(1L, 10L, 1L, ENTRY_TIME, ENTRY_TIME.plusHours(2), 1L, 1L, false,
+                null, ENTRY_TIME, ENTRY_TIME.plusHours(2));
+
         Vehicle vehicle = new Vehicle();
-        vehicle.setId(1L);
-        vehicle.setLicensePlate("ABC123");
-        vehicle.setVehicleType(vehicleType);
-
-        // Crear RateConfig usando builder
-        RateConfig rateConfig = RateConfig.builder()
-                .id(1L)
-                .hourlyRate(BigDecimal.valueOf(10.00))
-                .vehicleType(vehicleType)
-                .build();
-
-        // Crear ParkingSession completada (isActive = false, exitTime establecido)
-        completedSession = new ParkingSession();
-        completedSession.setId(1L);
-        completedSession.setVehicle(vehicle);
-        completedSession.setStartTime(LocalDateTime.now().minusHours(2));
-        completedSession.setExitTime(LocalDateTime.now());
-        completedSession.setIsActive(false); // Sesión completada
-        completedSession.setTotalAmount(BigDecimal.valueOf(20.00));
-
-        // Crear Payment
-        payment = Payment.builder()
-                .id(1L)
-                .parkingSessionId(1L)
-                .totalAmount(BigDecimal.valueOf(20.00))
-                .hoursParked(BigDecimal.valueOf(2.0))
-                .rateApplied(BigDecimal.valueOf(10.00))
-                .paymentMethod(PaymentMethod.CASH)
-                .paymentStatus(PaymentStatus.PAID)
-                .operatorId(1L)
-                .createdAt(LocalDateTime.now())
-                .paidAt(LocalDateTime.now())
-                .build();
-
-        // Crear request
-        request = ProcessPaymentRequest.builder()
-                .sessionId(1L)
-                .paymentMethod(PaymentMethod.CASH)
-                .build();
+        vehicle.setId(10L);
+        vehicle.setVehicleTypeId(1L);
+
+        // Tarifa activa para el tipo 1: 2000 por hora, mínimo 1 hora, tope diario 15000
+        when(rateTableCache.snapshot()).thenReturn(new RateTableSnapshot(RATE_VERSION, Instant.now(), Map.of(1L,
+                RateConfig.builder()
+                        .vehicleTypeId(1L)
+                        .ratePerHour(new BigDecimal("2000.00"))
+                        .minimumChargeHours(1)
+                        .maximumDailyRate(new BigDecimal("15000.00"))
+                        .isActive(true)
+                        .build())));
+        when(parkingSessionRepository.findById(1L)).thenReturn(Optional.of(completedSession));
+        when(paymentRepository.existsByParkingSessionId(1L)).thenReturn(false);
+        when(vehicleRepository.findById(10L)).thenReturn(Optional.of(vehicle));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(mock(User.class)));
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> {
+            Payment payment = invocation.getArgument(0);
+            payment.setId(100L);
+            return payment;
+        });
+
+        request = new ProcessPaymentRequest(1L, PaymentMethod.CASH, 1L, null);
     }
 
     @Nested
@@ -120,53 +125,52 @@ class ProcessPaymentHandlerTest {
     class ProcessPaymentSuccessScenarios {
 
         @Test
-        @DisplayName("Should process payment successfully for completed session")
-        void shouldProcessPaymentSuccessfully() {
-            // Given
-            when(parkingSessionRepository.findById(1L)).thenReturn(Optional.of(completedSession));
-            when(paymentRepository.findByParkingSession(completedSession)).thenReturn(Optional.empty());
-            when(calculateAmountHandler.handle(any())).thenReturn(BigDecimal.valueOf(20.00));
-            when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+        @DisplayName("Should insert the payment once, already PAID with paidAt set")
+        void shouldInsertPaidPaymentOnce() {
+            // When
+            ProcessPaymentResponse response = processPaymentHandler.handle(request);
 
+            // Then
+            ArgumentCaptor<Payment> saved = ArgumentCaptor.forClass(Payment.class);
+            verify(paymentRepository, times(1)).save(saved.capture());
+            assertEquals(PaymentStatus.PAID, saved.getValue().getPaymentStatus());
+            assertNotNull(saved.getValue().getPaidAt());
+            assertEquals(1L, saved.getValue().getParkingSessionId());
+            assertEquals(1L, saved.getValue().getOperatorId());
+            assertEquals(PaymentMethod.CASH, saved.getValue().getPaymentMethod());
+            assertEquals(0, new BigDecimal("4000.00").compareTo(saved.getValue().getTotalAmount()));
+            assertEquals(100L, response.getPayment().getId());
+        }
+
+        @Test
+        @DisplayName("Should add the payment to the revenue rollup and the dashboard counters")
+        @SuppressWarnings("unchecked")
+        void shouldRecordRevenue() {
             // When
-            Payment result = processPaymentHandler.handle(request);
+            ProcessPaymentResponse response = processPaymentHandler.handle(request);
 
             // Then
-            assertNotNull(result);
-            assertEquals(BigDecimal.valueOf(20.00), result.getAmount());
-            assertEquals(PaymentMethod.CASH, result.getPaymentMethod());
-            assertEquals(PaymentStatus.COMPLETED, result.getPaymentStatus());
-            
-            verify(parkingSessionRepository).findById(1L);
-            verify(paymentRepository).findByParkingSession(completedSession);
-            verify(calculateAmountHandler).handle(any());
-            verify(paymentRepository).save(any(Payment.class));
+            ArgumentCaptor<List<RevenueRollupEntry>> entries = ArgumentCaptor.forClass(List.class);
+            verify(revenueRollupRepository).add(entries.capture());
+            assertEquals(1, entries.getValue().size());
+            assertEquals(1L, entries.getValue().get(0).vehicleTypeId());
+            assertEquals(1L, entries.getValue().get(0).paymentCount());
+            verify(dashboardCounters).paymentCollected(response.getPayment().getPaidAt(),
+                    response.getPayment().getTotalAmount());
         }
 
         @Test
-        @DisplayName("Should process payment with CREDIT_CARD method")
-        void shouldProcessPaymentWithCreditCard() {
+        @DisplayName("Should process payment with CARD method")
+        void shouldProcessPaymentWithCardMethod() {
             // Given
-            ProcessPaymentRequest creditCardRequest = ProcessPaymentRequest.builder()
-                    .sessionId(1L)
-                    .paymentMethod(PaymentMethod.CREDIT_CARD)
-                    .build();
-
-            when(parkingSessionRepository.findById(1L)).thenReturn(Optional.of(completedSession));
-            when(paymentRepository.findByParkingSession(completedSession)).thenReturn(Optional.empty());
-            when(calculateAmountHandler.handle(any())).thenReturn(BigDecimal.valueOf(20.00));
-            when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+            request.setPaymentMethod(PaymentMethod.CARD);
 
             // When
-            Payment result = processPaymentHandler.handle(creditCardRequest);
+            ProcessPaymentResponse response = processPaymentHandler.handle(request);
 
             // Then
-            assertNotNull(result);
-            assertEquals(PaymentMethod.CREDIT_CARD, creditCardRequest.getPaymentMethod());
-            
-            verify(paymentRepository).save(argThat(p -> 
-                p.getPaymentMethod() == PaymentMethod.CREDIT_CARD
-            ));
+            assertEquals(PaymentMethod.CARD, response.getPayment().getPaymentMethod());
+            assertEquals("Payment processed successfully", response.getMessage());
         }
     }
 
@@ -181,84 +185,55 @@ class ProcessPaymentHandlerTest {
             when(parkingSessionRepository.findById(1L)).thenReturn(Optional.empty());
 
             // When & Then
-            assertThrows(ParkingSessionNotFoundException.class, 
-                () -> processPaymentHandler.handle(request));
-            
-            verify(parkingSessionRepository).findById(1L);
-            verifyNoInteractions(paymentRepository);
+            assertThrows(ParkingSessionNotFoundException.class, () -> processPaymentHandler.handle(request));
+            verify(paymentRepository, never()).save(any());
         }
 
         @Test
         @DisplayName("Should throw exception when session is still active")
         void shouldThrowExceptionWhenSessionIsActive() {
             // Given
-            ParkingSession activeSession = new ParkingSession();
-            activeSession.setId(1L);
-            activeSession.setIsActive(true); // Sesión activa
-            
+            ParkingSession activeSession = new ParkingSession(1L, 10L, 1L, ENTRY_TIME, null, 1L, null, true,
+                    null, ENTRY_TIME, ENTRY_TIME);
             when(parkingSessionRepository.findById(1L)).thenReturn(Optional.of(activeSession));
 
             // When & Then
-            assertThrows(BadRequestException.class, 
-                () -> processPaymentHandler.handle(request));
-            
-            verify(parkingSessionRepository).findById(1L);
-            verifyNoInteractions(paymentRepository);
+            assertThrows(BadRequestException.class, () -> processPaymentHandler.handle(request));
+            verify(paymentRepository, never()).save(any());
         }
 
         @Test
-        @DisplayName("Should throw exception when payment already exists")
-        void shouldThrowExceptionWhenPaymentAlreadyExists() {
+        @DisplayName("Should reject a second payment for the same session")
+        void shouldRejectDuplicatePayment() {
             // Given
-            when(parkingSessionRepository.findById(1L)).thenReturn(Optional.of(completedSession));
-            when(paymentRepository.findByParkingSession(completedSession)).thenReturn(Optional.of(payment));
+            when(paymentRepository.existsByParkingSessionId(1L)).thenReturn(true);
 
             // When & Then
-            assertThrows(PaymentAlreadyExistsException.class, 
-                () -> processPaymentHandler.handle(request));
-            
-            verify(parkingSessionRepository).findById(1L);
-            verify(paymentRepository).findByParkingSession(completedSession);
-            verifyNoMoreInteractions(paymentRepository);
-        }
-
-        @Test
-        @DisplayName("Should throw exception when request is null")
-        void shouldThrowExceptionWhenRequestIsNull() {
-            // When & Then
-            assertThrows(BadRequestException.class, 
-                () -> processPaymentHandler.handle(null));
-            
-            verifyNoInteractions(parkingSessionRepository);
-            verifyNoInteractions(paymentRepository);
+            assertThrows(PaymentAlreadyExistsException.class, () -> processPaymentHandler.handle(request));
+            verify(paymentRepository, never()).save(any());
+            verifyNoInteractions(revenueRollupRepository, dashboardCounters);
         }
 
         @Test
         @DisplayName("Should throw exception when session ID is null")
         void shouldThrowExceptionWhenSessionIdIsNull() {
             // Given
-            ProcessPaymentRequest invalidRequest = ProcessPaymentRequest.builder()
-                    .sessionId(null)
-                    .paymentMethod(PaymentMethod.CASH)
-                    .build();
+            request.setParkingSessionId(null);
 
             // When & Then
-            assertThrows(BadRequestException.class, 
-                () -> processPaymentHandler.handle(invalidRequest));
+            assertThrows(BadRequestException.class, () -> processPaymentHandler.handle(request));
+            verifyNoInteractions(parkingSessionRepository);
         }
 
         @Test
         @DisplayName("Should throw exception when payment method is null")
         void shouldThrowExceptionWhenPaymentMethodIsNull() {
             // Given
-            ProcessPaymentRequest invalidRequest = ProcessPaymentRequest.builder()
-                    .sessionId(1L)
-                    .paymentMethod(null)
-                    .build();
+            request.setPaymentMethod(null);
 
             // When & Then
-            assertThrows(BadRequestException.class, 
-                () -> processPaymentHandler.handle(invalidRequest));
+            assertThrows(BadRequestException.class, () -> processPaymentHandler.handle(request));
+            verifyNoInteractions(parkingSessionRepository);
         }
     }
 
@@ -267,94 +242,55 @@ class ProcessPaymentHandlerTest {
     class PaymentAmountCalculation {
 
         @Test
-        @DisplayName("Should use calculated amount from CalculateAmountHandler")
-        void shouldUseCalculatedAmount() {
-            // Given
-            BigDecimal expectedAmount = BigDecimal.valueOf(35.50);
-            
-            when(parkingSessionRepository.findById(1L)).thenReturn(Optional.of(completedSession));
-            when(paymentRepository.findByParkingSession(completedSession)).thenReturn(Optional.empty());
-            when(calculateAmountHandler.handle(any())).thenReturn(expectedAmount);
-            when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+        @DisplayName("Should reuse the cached quote when totalAmount is omitted")
+        void shouldReuseCachedQuote() {
+            // Given: la cotización que dejó /calculate para esta sesión y versión de tarifas
+            quoteCache.put(1L, RATE_VERSION, new SessionQuote(1L, 1L, new BigDecimal("1234.00"),
+                    new BigDecimal("2.00"), new BigDecimal("2000.00"), 1, new BigDecimal("15000.00")));
 
             // When
-            processPaymentHandler.handle(request);
+            ProcessPaymentResponse response = processPaymentHandler.handle(request);
 
             // Then
-            verify(calculateAmountHandler).handle(argThat(req -> 
-                req.getSessionId().equals(1L)
-            ));
-            
-            verify(paymentRepository).save(argThat(p -> 
-                p.getAmount().equals(expectedAmount)
-            ));
+            assertEquals(0, new BigDecimal("1234.00").compareTo(response.getPayment().getTotalAmount()));
+            verify(vehicleRepository, never()).findById(any());
         }
 
         @Test
-        @DisplayName("Should handle zero amount calculation")
-        void shouldHandleZeroAmount() {
-            // Given
-            BigDecimal zeroAmount = BigDecimal.ZERO;
-            
-            when(parkingSessionRepository.findById(1L)).thenReturn(Optional.of(completedSession));
-            when(paymentRepository.findByParkingSession(completedSession)).thenReturn(Optional.empty());
-            when(calculateAmountHandler.handle(any())).thenReturn(zeroAmount);
-            when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
-
+        @DisplayName("Should calculate the quote and cache it when none is cached")
+        void shouldCalculateAndCacheQuote() {
             // When
-            Payment result = processPaymentHandler.handle(request);
+            ProcessPaymentResponse response = processPaymentHandler.handle(request);
 
             // Then
-            verify(paymentRepository).save(argThat(p -> 
-                p.getAmount().equals(BigDecimal.ZERO)
-            ));
+            assertEquals(0, new BigDecimal("4000.00").compareTo(response.getPayment().getTotalAmount()));
+            assertEquals(0, new BigDecimal("2.00").compareTo(response.getPayment().getHoursParked()));
+            assertTrue(quoteCache.find(1L, RATE_VERSION).isPresent());
         }
-    }
-
-    @Nested
-    @DisplayName("Payment Status and Method Validation")
-    class PaymentStatusAndMethodValidation {
 
         @Test
-        @DisplayName("Should set payment status to COMPLETED for CASH payment")
-        void shouldSetStatusCompletedForCash() {
+        @DisplayName("Should use the amount from the request when it is provided")
+        void shouldUseRequestAmount() {
             // Given
-            when(parkingSessionRepository.findById(1L)).thenReturn(Optional.of(completedSession));
-            when(paymentRepository.findByParkingSession(completedSession)).thenReturn(Optional.empty());
-            when(calculateAmountHandler.handle(any())).thenReturn(BigDecimal.valueOf(20.00));
-            when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+            request.setTotalAmount(new BigDecimal("3500.00"));
 
             // When
-            processPaymentHandler.handle(request);
+            ProcessPaymentResponse response = processPaymentHandler.handle(request);
 
             // Then
-            verify(paymentRepository).save(argThat(p -> 
-                p.getPaymentStatus() == PaymentStatus.COMPLETED
-            ));
+            assertEquals(0, new BigDecimal("3500.00").compareTo(response.getPayment().getTotalAmount()));
+            assertEquals(0, new BigDecimal("2000.00").compareTo(response.getPayment().getRateApplied()));
         }
 
         @Test
-        @DisplayName("Should set payment status to COMPLETED for CREDIT_CARD payment")
-        void shouldSetStatusCompletedForCreditCard() {
+        @DisplayName("Should reject a negative amount")
+        void shouldRejectNegativeAmount() {
             // Given
-            ProcessPaymentRequest creditCardRequest = ProcessPaymentRequest.builder()
-                    .sessionId(1L)
-                    .paymentMethod(PaymentMethod.CREDIT_CARD)
-                    .build();
-
-            when(parkingSessionRepository.findById(1L)).thenReturn(Optional.of(completedSession));
-            when(paymentRepository.findByParkingSession(completedSession)).thenReturn(Optional.empty());
-            when(calculateAmountHandler.handle(any())).thenReturn(BigDecimal.valueOf(20.00));
-            when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+            request.setTotalAmount(new BigDecimal("-1.00"));
 
-            // When
-            processPaymentHandler.handle(creditCardRequest);
-
-            // Then
-            verify(paymentRepository).save(argThat(p -> 
-                p.getPaymentStatus() == PaymentStatus.COMPLETED &&
-                p.getPaymentMethod() == PaymentMethod.CREDIT_CARD
-            ));
+            // When & Then
+            assertThrows(BadRequestException.class, () -> processPaymentHandler.handle(request));
+            verify(paymentRepository, never()).save(any());
         }
     }
 }
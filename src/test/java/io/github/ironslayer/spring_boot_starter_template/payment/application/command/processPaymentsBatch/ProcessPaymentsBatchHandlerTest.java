@@ -0,0 +1,276 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPaymentsBatch;
+
+import io.github.ironslayer.spring_boot_starter_template.dashboard.domain.port.DashboardCounters;
+import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
+import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.cache.QuoteCache;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.cache.SessionQuote;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPaymentsBatch.ProcessPaymentsBatchResponse.ItemResult;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPaymentsBatch.ProcessPaymentsBatchResponse.Status;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.Payment;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.RevenueRollupEntry;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentMethod;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentStatus;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.exception.PaymentAlreadyExistsException;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.PaymentRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.RevenueRollupRepository;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableCache;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableSnapshot;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.entity.RateConfig;
+import io.github.ironslayer.spring_boot_starter_template.user.application.cache.UserNameCache;
+import io.github.ironslayer.spring_boot_starter_template.user.domain.exception.UserNotFoundException;
+import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.entity.Vehicle;
+import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.port.VehicleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ProcessPaymentsBatchHandler Tests")
+class ProcessPaymentsBatchHandlerTest {
+
+    private static final LocalDateTime ENTRY_TIME = LocalDateTime.of(2025, 7, 17, 10, 0);
+
+    @Mock
+    private ParkingSessionRepository parkingSessionRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @Mock
+    private RateTableCache rateTableCache;
+
+    @Spy
+    private QuoteCache quoteCache = new QuoteCache(new SimpleMeterRegistry(), 100);
+
+    @Mock
+    private UserNameCache userNameCache;
+
+    @Mock
+    private RevenueRollupRepository revenueRollupRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DashboardCounters dashboardCounters;
+
+    @InjectMocks
+    private ProcessPaymentsBatchHandler handler;
+
+    private final List<ParkingSession> sessions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        AtomicLong paymentIds = new AtomicLong(500);
+        when(userNameCache.getFullName(1L)).thenReturn(Optional.of("John Doe"));
+        // Solo hay tarifa activa para el tipo 1
+        when(rateTableCache.snapshot()).thenReturn(new RateTableSnapshot(1, Instant.now(), Map.of(1L, RateConfig.builder()
+                .vehicleTypeId(1L)
+                .ratePerHour(new BigDecimal("2000.00"))
+                .minimumChargeHours(1)
+                .maximumDailyRate(new BigDecimal("15000.00"))
+                .isActive(true)
+                .build())));
+        when(parkingSessionRepository.findAllByIds(anyCollection())).thenAnswer(invocation -> sessions);
+        when(paymentRepository.findParkingSessionIdsWithPayment(anyCollection())).thenReturn(Set.of());
+        when(vehicleRepository.findAllByIds(anyCollection())).thenReturn(List.of(vehicle(10L, 1L), vehicle(20L, 2L)));
+        when(paymentRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Payment> payments = invocation.getArgument(0);
+            payments.forEach(payment -> payment.setId(paymentIds.incrementAndGet()));
+            return payments;
+        });
+    }
+
+    @Nested
+    @DisplayName("Request Validation Tests")
+    class RequestValidationTests {
+
+        @Test
+        @DisplayName("Should throw BadRequestException when no sessions are given")
+        void shouldThrowBadRequestExceptionWhenNothingToPay() {
+            ProcessPaymentsBatchRequest request = new ProcessPaymentsBatchRequest(List.of(), PaymentMethod.CASH, 1L);
+
+            assertThatThrownBy(() -> handler.handle(request))
+                    .isInstanceOf(BadRequestException.class);
+
+            verifyNoInteractions(parkingSessionRepository, paymentRepository, transactionManager);
+        }
+
+        @Test
+        @DisplayName("Should throw BadRequestException when the batch is too large")
+        void shouldThrowBadRequestExceptionWhenBatchIsTooLarge() {
+            Long[] ids = new Long[ProcessPaymentsBatchHandler.MAX_BATCH_SIZE + 1];
+            Arrays.setAll(ids, i -> (long) i + 1);
+            ProcessPaymentsBatchRequest request = new ProcessPaymentsBatchRequest(List.of(ids), PaymentMethod.CASH, 1L);
+
+            assertThatThrownBy(() -> handler.handle(request))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("at most");
+        }
+
+        @Test
+        @DisplayName("Should throw UserNotFoundException when the operator does not exist")
+        void shouldThrowWhenOperatorDoesNotExist() {
+            ProcessPaymentsBatchRequest request = new ProcessPaymentsBatchRequest(List.of(1L), PaymentMethod.CASH, 99L);
+
+            assertThatThrownBy(() -> handler.handle(request))
+                    .isInstanceOf(UserNotFoundException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch Processing Tests")
+    class BatchProcessingTests {
+
+        @Test
+        @DisplayName("Should insert every payment already paid in a single batch")
+        void shouldInsertPaidPaymentsInOneBatch() {
+            sessions.add(closedSession(1L, 10L, 120));
+            sessions.add(closedSession(2L, 10L, 30));
+
+            ProcessPaymentsBatchResponse response = handler.handle(
+                    new ProcessPaymentsBatchRequest(List.of(1L, 2L), PaymentMethod.CARD, 1L));
+
+            assertThat(response.completed()).isEqualTo(2);
+            assertThat(response.failed()).isZero();
+            assertThat(response.totalCollected()).isEqualByComparingTo("6000.00");
+            assertThat(response.results()).extracting(ItemResult::parkingSessionId).containsExactly(1L, 2L);
+            assertThat(response.results()).extracting(ItemResult::totalAmount)
+                    .containsExactly(new BigDecimal("4000.00"), new BigDecimal("2000.00"));
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<Payment>> inserted = ArgumentCaptor.forClass(List.class);
+            verify(paymentRepository).insertAll(inserted.capture());
+            assertThat(inserted.getValue()).extracting(Payment::getPaymentStatus).containsOnly(PaymentStatus.PAID);
+            assertThat(inserted.getValue()).allSatisfy(payment -> {
+                assertThat(payment.getPaidAt()).isNotNull();
+                assertThat(payment.getPaymentMethod()).isEqualTo(PaymentMethod.CARD);
+                assertThat(payment.getOperatorId()).isEqualTo(1L);
+            });
+            verify(paymentRepository, never()).save(any());
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<RevenueRollupEntry>> revenue = ArgumentCaptor.forClass(List.class);
+            verify(revenueRollupRepository).add(revenue.capture());
+            assertThat(revenue.getValue()).allSatisfy(entry -> {
+                assertThat(entry.vehicleTypeId()).isEqualTo(1L);
+                assertThat(entry.paymentMethod()).isEqualTo(PaymentMethod.CARD);
+                assertThat(entry.paymentCount()).isEqualTo(1);
+            });
+            assertThat(revenue.getValue()).extracting(RevenueRollupEntry::totalAmount)
+                    .containsExactly(new BigDecimal("4000.00"), new BigDecimal("2000.00"));
+        }
+
+        @Test
+        @DisplayName("Should report each failure and still pay the rest of the batch")
+        void shouldReportFailuresPerSession() {
+            sessions.add(closedSession(1L, 10L, 60));
+            sessions.add(closedSession(2L, 10L, 60));
+            ParkingSession active = closedSession(3L, 10L, 60);
+            active.setExitTime(null);
+            active.setIsActive(true);
+            sessions.add(active);
+            sessions.add(closedSession(4L, 20L, 60));
+            when(paymentRepository.findParkingSessionIdsWithPayment(anyCollection())).thenReturn(Set.of(2L));
+
+            ProcessPaymentsBatchResponse response = handler.handle(new ProcessPaymentsBatchRequest(
+                    Arrays.asList(1L, 2L, 3L, 4L, 5L, 1L, null), PaymentMethod.CASH, 1L));
+
+            assertThat(response.requested()).isEqualTo(7);
+            assertThat(response.completed()).isEqualTo(1);
+            assertThat(response.results()).extracting(ItemResult::status, ItemResult::errorType).containsExactly(
+                    tuple(Status.COMPLETED, null),
+                    tuple(Status.FAILED, "PAYMENT_ALREADY_EXISTS"),
+                    tuple(Status.FAILED, "SESSION_STILL_ACTIVE"),
+                    tuple(Status.FAILED, "RATE_NOT_CONFIGURED"),
+                    tuple(Status.FAILED, "SESSION_NOT_FOUND"),
+                    tuple(Status.FAILED, "DUPLICATE_IN_BATCH"),
+                    tuple(Status.FAILED, "INVALID_SESSION_ID"));
+        }
+
+        @Test
+        @DisplayName("Should use cached quotes without loading their vehicles")
+        void shouldUseCachedQuotes() {
+            sessions.add(closedSession(1L, 10L, 60));
+            quoteCache.put(1L, 1, new SessionQuote(1L, 1L, new BigDecimal("1234.00"), new BigDecimal("1.00"),
+                    new BigDecimal("2000.00"), 1, new BigDecimal("15000.00")));
+
+            ProcessPaymentsBatchResponse response = handler.handle(
+                    new ProcessPaymentsBatchRequest(List.of(1L), PaymentMethod.CASH, 1L));
+
+            assertThat(response.results()).extracting(ItemResult::totalAmount).containsExactly(new BigDecimal("1234.00"));
+            verify(vehicleRepository).findAllByIds(argThat(ids -> ids.isEmpty()));
+        }
+
+        @Test
+        @DisplayName("Should fail only the chunk whose insert fails")
+        void shouldFailChunkWhenInsertFails() {
+            sessions.add(closedSession(1L, 10L, 60));
+            when(paymentRepository.insertAll(anyList())).thenThrow(new IllegalStateException("duplicate key"));
+
+            ProcessPaymentsBatchResponse response = handler.handle(
+                    new ProcessPaymentsBatchRequest(List.of(1L), PaymentMethod.CASH, 1L));
+
+            assertThat(response.failed()).isEqualTo(1);
+            assertThat(response.results()).extracting(ItemResult::errorType).containsExactly("INTERNAL_ERROR");
+        }
+
+        @Test
+        @DisplayName("Should report a concurrent payment when the unique index rejects the chunk")
+        void shouldReportConcurrentPaymentWhenInsertViolatesUniqueIndex() {
+            sessions.add(closedSession(1L, 10L, 60));
+            when(paymentRepository.insertAll(anyList()))
+                    .thenThrow(new PaymentAlreadyExistsException("Payment already exists for a parking session in the batch"));
+
+            ProcessPaymentsBatchResponse response = handler.handle(
+                    new ProcessPaymentsBatchRequest(List.of(1L), PaymentMethod.CASH, 1L));
+
+            assertThat(response.failed()).isEqualTo(1);
+            assertThat(response.results()).extracting(ItemResult::errorType).containsExactly("CONCURRENT_PAYMENT");
+        }
+    }
+
+    private ParkingSession closedSession(Long id, Long vehicleId, int minutesParked) {
+        LocalDateTime exitTime = ENTRY_TIME.plusMinutes(minutesParked);
+        return new ParkingSession(id, vehicleId, 1L, ENTRY_TIME, exitTime, 1L, 1L, false, null, ENTRY_TIME, exitTime);
+    }
+
+    private Vehicle vehicle(Long id, Long vehicleTypeId) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(id);
+        vehicle.setVehicleTypeId(vehicleTypeId);
+        return vehicle;
+    }
+}
@@ -0,0 +1,178 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.application.idempotency;
+
+import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPayment.ProcessPaymentRequest;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPayment.ProcessPaymentResponse;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.Payment;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("IdempotentPaymentExecutor Tests")
+class IdempotentPaymentExecutorTest {
+
+    private MapProcessedPaymentStore store;
+    private IdempotentPaymentExecutor executor;
+    private AtomicInteger processed;
+
+    @BeforeEach
+    void setUp() {
+        store = new MapProcessedPaymentStore();
+        executor = new IdempotentPaymentExecutor(store);
+        processed = new AtomicInteger();
+    }
+
+    @Nested
+    @DisplayName("Replay Tests")
+    class ReplayTests {
+
+        @Test
+        @DisplayName("Should process once and replay the stored response for the same key")
+        void shouldReplayStoredResponse() {
+            ProcessPaymentResponse first = executor.execute("key-1", request(1L, 10L), this::process);
+            ProcessPaymentResponse retry = executor.execute("key-1", request(1L, 10L), this::process);
+
+            assertThat(retry).isSameAs(first);
+            assertThat(processed).hasValue(1);
+            assertThat(store.payments).containsKey("10:key-1");
+        }
+
+        @Test
+        @DisplayName("Should process every request when no key is sent")
+        void shouldProcessWithoutKey() {
+            executor.execute(null, request(1L, 10L), this::process);
+            executor.execute(null, request(1L, 10L), this::process);
+
+            assertThat(processed).hasValue(2);
+            assertThat(store.payments).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should not share keys between operators")
+        void shouldScopeKeysByOperator() {
+            executor.execute("key-1", request(1L, 10L), this::process);
+            executor.execute("key-1", request(1L, 20L), this::process);
+
+            assertThat(processed).hasValue(2);
+        }
+
+        @Test
+        @DisplayName("Should reject a key reused for a different payment")
+        void shouldRejectKeyReusedForAnotherPayment() {
+            executor.execute("key-1", request(1L, 10L), this::process);
+
+            assertThatThrownBy(() -> executor.execute("key-1", request(2L, 10L), this::process))
+                    .isInstanceOf(BadRequestException.class);
+            assertThat(processed).hasValue(1);
+        }
+
+        @Test
+        @DisplayName("Should reject blank or too long keys")
+        void shouldRejectInvalidKeys() {
+            assertThatThrownBy(() -> executor.execute(" ", request(1L, 10L), this::process))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> executor.execute("k".repeat(IdempotentPaymentExecutor.MAX_KEY_LENGTH + 1), request(1L, 10L), this::process))
+                    .isInstanceOf(BadRequestException.class);
+            assertThat(processed).hasValue(0);
+        }
+
+        @Test
+        @DisplayName("Should not store failures so the next retry processes again")
+        void shouldNotStoreFailures() {
+            assertThatThrownBy(() -> executor.execute("key-1", request(1L, 10L), () -> {
+                throw new IllegalStateException("database unavailable");
+            })).isInstanceOf(IllegalStateException.class);
+
+            executor.execute("key-1", request(1L, 10L), this::process);
+
+            assertThat(processed).hasValue(1);
+        }
+
+        private ProcessPaymentResponse process() {
+            return IdempotentPaymentExecutorTest.this.process();
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrency Tests")
+    class ConcurrencyTests {
+
+        @Test
+        @DisplayName("Should collapse concurrent duplicates onto one execution")
+        void shouldCollapseConcurrentDuplicates() throws Exception {
+            CountDownLatch processing = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            ExecutorService threads = Executors.newFixedThreadPool(4);
+            try {
+                Future<ProcessPaymentResponse> first = threads.submit(() -> executor.execute("key-1", request(1L, 10L), () -> {
+                    processing.countDown();
+                    await(release);
+                    return process();
+                }));
+                assertThat(processing.await(5, TimeUnit.SECONDS)).isTrue();
+
+                Future<ProcessPaymentResponse> second = threads.submit(() -> executor.execute("key-1", request(1L, 10L), IdempotentPaymentExecutorTest.this::process));
+                Future<ProcessPaymentResponse> third = threads.submit(() -> executor.execute("key-1", request(1L, 10L), IdempotentPaymentExecutorTest.this::process));
+                release.countDown();
+
+                ProcessPaymentResponse response = first.get(5, TimeUnit.SECONDS);
+                assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(response);
+                assertThat(third.get(5, TimeUnit.SECONDS)).isSameAs(response);
+                assertThat(processed).hasValue(1);
+            } finally {
+                threads.shutdownNow();
+            }
+        }
+    }
+
+    private ProcessPaymentResponse process() {
+        Payment payment = Payment.builder()
+                .id((long) processed.incrementAndGet())
+                .parkingSessionId(1L)
+                .totalAmount(new BigDecimal("4000.00"))
+                .build();
+        return ProcessPaymentResponse.success(payment);
+    }
+
+    private ProcessPaymentRequest request(Long parkingSessionId, Long operatorId) {
+        return new ProcessPaymentRequest(parkingSessionId, PaymentMethod.CASH, operatorId, null);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class MapProcessedPaymentStore implements ProcessedPaymentStore {
+
+        private final Map<String, ProcessedPayment> payments = new ConcurrentHashMap<>();
+
+        @Override
+        public Optional<ProcessedPayment> find(String key) {
+            return Optional.ofNullable(payments.get(key));
+        }
+
+        @Override
+        public void save(String key, ProcessedPayment processedPayment) {
+            payments.put(key, processedPayment);
+        }
+    }
+}
@@ -4,23 +4,28 @@ import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadReq
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.entity.ParkingSession;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.exception.ParkingSessionNotFoundException;
 import io.github.ironslayer.spring_boot_starter_template.parkingsession.domain.port.ParkingSessionRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.cache.QuoteCache;
 import io.github.ironslayer.spring_boot_starter_template.payment.domain.exception.PaymentCalculationException;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableCache;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache.RateTableSnapshot;
 import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.entity.RateConfig;
-import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.port.RateConfigRepository;
 import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.entity.Vehicle;
 import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.exception.VehicleNotFoundException;
 import io.github.ironslayer.spring_boot_starter_template.vehicle.domain.port.VehicleRepository;
-
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -41,7 +46,10 @@ class CalculateAmountHandlerTest {
     private VehicleRepository vehicleRepository;
     
     @Mock
-    private RateConfigRepository rateConfigRepository;
+    private RateTableCache rateTableCache;
+
+    @Spy
+    private QuoteCache quoteCache = new QuoteCache(new SimpleMeterRegistry(), 100);
 
     @InjectMocks
     private CalculateAmountHandler handler;
@@ -80,6 +88,8 @@ class CalculateAmountHandlerTest {
             .maximumDailyRate(new BigDecimal("50.00"))
             .isActive(true)
             .build();
+
+        lenient().when(rateTableCache.snapshot()).thenReturn(new RateTableSnapshot(1, Instant.now(), Map.of(1L, testRateConfig)));
     }
 
     @Test
@@ -148,7 +158,7 @@ class CalculateAmountHandlerTest {
         // Given
         when(parkingSessionRepository.findById(1L)).thenReturn(Optional.of(completedSession));
         when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
-        when(rateConfigRepository.findActiveByVehicleTypeId(1L)).thenReturn(Optional.empty());
+        when(rateTableCache.snapshot()).thenReturn(new RateTableSnapshot(1, Instant.now(), Map.of()));
 
         // When & Then
         PaymentCalculationException exception = assertThrows(
@@ -164,7 +174,6 @@ class CalculateAmountHandlerTest {
         // Given
         when(parkingSessionRepository.findById(1L)).thenReturn(Optional.of(completedSession));
         when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
-        when(rateConfigRepository.findActiveByVehicleTypeId(1L)).thenReturn(Optional.of(testRateConfig));
 
         // When
         CalculateAmountResponse response = handler.handle(validRequest);
@@ -196,7 +205,6 @@ class CalculateAmountHandlerTest {
 
         when(parkingSessionRepository.findById(1L)).thenReturn(Optional.of(shortSession));
         when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
-        when(rateConfigRepository.findActiveByVehicleTypeId(1L)).thenReturn(Optional.of(testRateConfig));
 
         // When
         CalculateAmountResponse response = handler.handle(validRequest);
@@ -224,7 +232,6 @@ class CalculateAmountHandlerTest {
 
         when(parkingSessionRepository.findById(1L)).thenReturn(Optional.of(longSession));
         when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
-        when(rateConfigRepository.findActiveByVehicleTypeId(1L)).thenReturn(Optional.of(testRateConfig));
 
         // When
         CalculateAmountResponse response = handler.handle(validRequest);
@@ -252,7 +259,6 @@ class CalculateAmountHandlerTest {
 
         when(parkingSessionRepository.findById(1L)).thenReturn(Optional.of(fractionalSession));
         when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
-        when(rateConfigRepository.findActiveByVehicleTypeId(1L)).thenReturn(Optional.of(testRateConfig));
 
         // When
         CalculateAmountResponse response = handler.handle(validRequest);
@@ -281,7 +287,6 @@ class CalculateAmountHandlerTest {
 
         when(parkingSessionRepository.findById(1L)).thenReturn(Optional.of(zeroSession));
         when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
-        when(rateConfigRepository.findActiveByVehicleTypeId(1L)).thenReturn(Optional.of(testRateConfig));
 
         // When
         CalculateAmountResponse response = handler.handle(validRequest);
@@ -291,4 +296,55 @@ class CalculateAmountHandlerTest {
         assertEquals(new BigDecimal("5.00"), response.getTotalAmount());
         assertEquals(new BigDecimal("0.00"), response.getHoursParked());
     }
+
+    @Test
+    @DisplayName("Should answer repeated quotes for the same session without reloading it")
+    void shouldReuseQuoteForSameSessionAndRateVersion() {
+        // Given
+        when(parkingSessionRepository.findById(1L)).thenReturn(Optional.of(completedSession));
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
+
+        // When
+        CalculateAmountResponse first = handler.handle(validRequest);
+        CalculateAmountResponse second = handler.handle(validRequest);
+
+        // Then
+        assertEquals(first, second);
+        verify(parkingSessionRepository, times(1)).findById(1L);
+        verify(vehicleRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should quote again when the rate table changes")
+    void shouldQuoteAgainWhenRateVersionChanges() {
+        // Given
+        when(parkingSessionRepository.findById(1L)).thenReturn(Optional.of(completedSession));
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
+        handler.handle(validRequest);
+
+        testRateConfig.setRatePerHour(new BigDecimal("7.00"));
+        when(rateTableCache.snapshot()).thenReturn(new RateTableSnapshot(2, Instant.now(), Map.of(1L, testRateConfig)));
+
+        // When
+        CalculateAmountResponse response = handler.handle(validRequest);
+
+        // Then
+        assertEquals(new BigDecimal("14.00"), response.getTotalAmount());
+        verify(parkingSessionRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should not keep a quote for an active session")
+    void shouldNotCacheActiveSession() {
+        // Given
+        ParkingSession activeSession = new ParkingSession(1L, 1L, 2L);
+        activeSession.setId(1L);
+        when(parkingSessionRepository.findById(1L)).thenReturn(Optional.of(activeSession));
+
+        // When
+        assertThrows(BadRequestException.class, () -> handler.handle(validRequest));
+
+        // Then
+        assertEquals(0, quoteCache.size());
+    }
 }
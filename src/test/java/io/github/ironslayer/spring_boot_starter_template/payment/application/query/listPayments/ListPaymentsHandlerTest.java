@@ -0,0 +1,140 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.application.query.listPayments;
+
+import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.query.getPayment.GetPaymentResponse;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.Payment;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentMethod;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentStatus;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.PaymentRepository;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.PaymentRepository.PaymentFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ListPaymentsHandler Tests")
+class ListPaymentsHandlerTest {
+
+    private static final PaymentFilter PAID = new PaymentFilter(PaymentStatus.PAID, null, null, null);
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @InjectMocks
+    private ListPaymentsHandler listPaymentsHandler;
+
+    @Nested
+    @DisplayName("Keyset Pagination Tests")
+    class KeysetPaginationTests {
+
+        @Test
+        @DisplayName("Should return the first page of paid payments and a cursor after its last payment")
+        void shouldReturnFirstPageWithNextCursor() {
+            // Given
+            LocalDateTime base = LocalDateTime.of(2025, 7, 17, 10, 0, 0, 123_456_000);
+            when(paymentRepository.findPage(PAID, null, null, 3)).thenReturn(payments(base, 3));
+
+            // When
+            ListPaymentsResponse response = listPaymentsHandler.handle(request(null, 2));
+
+            // Then
+            assertThat(response.payments()).extracting(GetPaymentResponse::getId).containsExactly(1L, 2L);
+            assertThat(response.nextCursor()).isNotBlank();
+        }
+
+        @Test
+        @DisplayName("Should resume exactly after the cursor position, keeping sub-second precision")
+        void shouldResumeAfterCursorPosition() {
+            // Given
+            LocalDateTime base = LocalDateTime.of(2025, 7, 17, 10, 0, 0, 123_456_000);
+            when(paymentRepository.findPage(PAID, null, null, 3)).thenReturn(payments(base, 3));
+            String cursor = listPaymentsHandler.handle(request(null, 2)).nextCursor();
+            when(paymentRepository.findPage(PAID, base.minusMinutes(1), 2L, 3))
+                    .thenReturn(List.of(payment(3L, base.minusMinutes(2))));
+
+            // When
+            ListPaymentsResponse response = listPaymentsHandler.handle(request(cursor, 2));
+
+            // Then
+            assertThat(response.payments()).extracting(GetPaymentResponse::getId).containsExactly(3L);
+            assertThat(response.nextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should filter by status, operator and whole days")
+        void shouldBuildFilterFromRequest() {
+            // Given
+            ListPaymentsRequest request = new ListPaymentsRequest(PaymentStatus.CANCELLED, 7L,
+                    LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 31), null, null);
+
+            // When
+            listPaymentsHandler.handle(request);
+
+            // Then
+            verify(paymentRepository).findPage(
+                    new PaymentFilter(PaymentStatus.CANCELLED, 7L,
+                            LocalDateTime.of(2025, 7, 1, 0, 0), LocalDateTime.of(2025, 8, 1, 0, 0)),
+                    null, null, ListPaymentsHandler.DEFAULT_PAGE_SIZE + 1);
+        }
+
+        @Test
+        @DisplayName("Should reject malformed cursors, out of range limits and inverted ranges")
+        void shouldRejectInvalidParameters() {
+            assertThatThrownBy(() -> listPaymentsHandler.handle(request("not-a-cursor", 10)))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> listPaymentsHandler.handle(request(null, 0)))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> listPaymentsHandler.handle(request(null, ListPaymentsHandler.MAX_PAGE_SIZE + 1)))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> listPaymentsHandler.handle(new ListPaymentsRequest(null, null,
+                    LocalDate.of(2025, 7, 2), LocalDate.of(2025, 7, 1), null, null)))
+                    .isInstanceOf(BadRequestException.class);
+
+            verify(paymentRepository, never()).findPage(any(), any(), any(), anyInt());
+        }
+    }
+
+    private ListPaymentsRequest request(String cursor, Integer limit) {
+        return new ListPaymentsRequest(null, null, null, null, cursor, limit);
+    }
+
+    private List<Payment> payments(LocalDateTime newest, int count) {
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            payments.add(payment(i, newest.minusMinutes(i - 1)));
+        }
+        return payments;
+    }
+
+    private Payment payment(long id, LocalDateTime paidAt) {
+        return Payment.builder()
+                .id(id)
+                .parkingSessionId(100 + id)
+                .totalAmount(new BigDecimal("2000.00"))
+                .hoursParked(new BigDecimal("1.00"))
+                .rateApplied(new BigDecimal("2000.00"))
+                .paymentMethod(PaymentMethod.CASH)
+                .paymentStatus(PaymentStatus.PAID)
+                .paidAt(paidAt)
+                .operatorId(1L)
+                .createdAt(paidAt)
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.application.timeout;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("HashedTimingWheel Tests")
+class HashedTimingWheelTest {
+
+    @Nested
+    @DisplayName("Expiration Tests")
+    class ExpirationTests {
+
+        @Test
+        @DisplayName("Should expire each item exactly on its deadline tick")
+        void shouldExpireOnDeadline() {
+            HashedTimingWheel<String> wheel = new HashedTimingWheel<>(8);
+            wheel.schedule("a", 3);
+            wheel.schedule("b", 3);
+            wheel.schedule("c", 5);
+
+            assertThat(wheel.advanceThrough(2)).isEmpty();
+            assertThat(wheel.advance()).containsExactly("a", "b");
+            assertThat(wheel.advance()).isEmpty();
+            assertThat(wheel.advance()).containsExactly("c");
+            assertThat(wheel.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should keep items that need more than one turn of the wheel")
+        void shouldHandleSeveralRounds() {
+            HashedTimingWheel<String> wheel = new HashedTimingWheel<>(4);
+            wheel.schedule("later", 9);
+            wheel.schedule("soon", 1);
+
+            assertThat(wheel.advanceThrough(8)).containsExactly("soon");
+            assertThat(wheel.size()).isEqualTo(1);
+            assertThat(wheel.advance()).containsExactly("later");
+        }
+
+        @Test
+        @DisplayName("Should expire past deadlines on the next advance")
+        void shouldExpirePastDeadlinesImmediately() {
+            HashedTimingWheel<String> wheel = new HashedTimingWheel<>(4);
+            wheel.advanceThrough(10);
+
+            wheel.schedule("late", 2);
+
+            assertThat(wheel.advance()).containsExactly("late");
+        }
+
+        @Test
+        @DisplayName("Should match a sorted list of deadlines for random schedules")
+        void shouldMatchReferenceForRandomDeadlines() {
+            HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>(16);
+            Random random = new Random(42);
+            int[] deadlines = new int[2_000];
+            for (int i = 0; i < deadlines.length; i++) {
+                deadlines[i] = random.nextInt(200);
+                wheel.schedule(i, deadlines[i]);
+            }
+
+            for (int tick = 0; tick < 200; tick++) {
+                List<Integer> expected = new ArrayList<>();
+                for (int i = 0; i < deadlines.length; i++) {
+                    if (deadlines[i] == tick) {
+                        expected.add(i);
+                    }
+                }
+                assertThat(wheel.advance()).containsExactlyInAnyOrderElementsOf(expected);
+            }
+            assertThat(wheel.size()).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("Should require a power of two number of slots")
+    void shouldRejectInvalidSlotCount() {
+        assertThatThrownBy(() -> new HashedTimingWheel<>(10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HashedTimingWheel<>(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,219 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.application.timeout;
+
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.Payment;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.enums.PaymentStatus;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.repository.PaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("PendingPaymentTimeoutScheduler Tests")
+class PendingPaymentTimeoutSchedulerTest {
+
+    private static final Instant START = Instant.parse("2025-07-17T10:00:00Z");
+    private static final LocalDateTime NOW = LocalDateTime.ofInstant(START, ZoneOffset.UTC);
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MutableClock clock;
+    private MeterRegistry meterRegistry;
+    private PendingPaymentTimeoutScheduler scheduler;
+    private final List<List<Long>> cancelledBatches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START);
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new PendingPaymentTimeoutScheduler(paymentRepository, transactionManager, meterRegistry, clock);
+        when(paymentRepository.findByPaymentStatus(PaymentStatus.PENDING)).thenReturn(List.of());
+        when(paymentRepository.cancelPendingPayments(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            cancelledBatches.add(List.copyOf(ids));
+            return ids.size();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    @Nested
+    @DisplayName("Timeout Tests")
+    class TimeoutTests {
+
+        @Test
+        @DisplayName("Should cancel a pending payment within a second of its 15 minute deadline")
+        void shouldCancelAtDeadline() {
+            givenPendingAtStartup(pending(1L, NOW));
+
+            clock.advance(Duration.ofMinutes(15).minusMillis(1));
+            assertThat(scheduler.tick()).isZero();
+
+            clock.advance(Duration.ofSeconds(1));
+            assertThat(scheduler.tick()).isEqualTo(1);
+            assertThat(cancelledBatches).containsExactly(List.of(1L));
+            assertThat(meterRegistry.get(PendingPaymentTimeoutScheduler.METRIC_PREFIX + ".cancelled").counter().count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should not query the database while nothing expires")
+        void shouldNotScanWhileNothingExpires() {
+            givenPendingAtStartup(pending(1L, NOW));
+
+            for (int second = 0; second < 60; second++) {
+                clock.advance(Duration.ofSeconds(1));
+                scheduler.tick();
+            }
+
+            verify(paymentRepository, never()).cancelPendingPayments(anyCollection());
+            // Los pendientes se leen una sola vez, al arrancar
+            verify(paymentRepository, times(1)).findByPaymentStatus(PaymentStatus.PENDING);
+        }
+
+        @Test
+        @DisplayName("Should cancel expired payments in batched updates")
+        void shouldCancelInBatches() {
+            int count = PendingPaymentTimeoutScheduler.BATCH_SIZE + 10;
+            givenPendingAtStartup(LongStream.rangeClosed(1, count).mapToObj(id -> pending(id, NOW)).toArray(Payment[]::new));
+
+            clock.advance(Duration.ofMinutes(15));
+            assertThat(scheduler.tick()).isEqualTo(count);
+
+            assertThat(cancelledBatches).extracting(List::size)
+                    .containsExactly(PendingPaymentTimeoutScheduler.BATCH_SIZE, 10);
+        }
+
+        @Test
+        @DisplayName("Should retry on the next tick when the update fails")
+        void shouldRetryFailedBatches() {
+            givenPendingAtStartup(pending(1L, NOW));
+            clock.advance(Duration.ofMinutes(15));
+            when(paymentRepository.cancelPendingPayments(anyCollection()))
+                    .thenThrow(new IllegalStateException("database unavailable"))
+                    .thenReturn(1);
+
+            assertThat(scheduler.tick()).isZero();
+            clock.advance(Duration.ofSeconds(1));
+            assertThat(scheduler.tick()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Startup Tests")
+    class StartupTests {
+
+        @Test
+        @DisplayName("Should rebuild from pending payments and cancel the already expired ones first")
+        void shouldRebuildFromDatabase() {
+            when(paymentRepository.findByPaymentStatus(PaymentStatus.PENDING)).thenReturn(List.of(
+                    pending(1L, NOW.minusMinutes(20)),
+                    pending(2L, NOW.minusMinutes(5))));
+
+            scheduler.rebuild();
+
+            assertThat(scheduler.tick()).isEqualTo(1);
+            assertThat(cancelledBatches).containsExactly(List.of(1L));
+
+            clock.advance(Duration.ofMinutes(10));
+            scheduler.tick();
+            assertThat(cancelledBatches).containsExactly(List.of(1L), List.of(2L));
+        }
+
+        @Test
+        @DisplayName("Should not start the timeout thread when there is no pending backlog")
+        void shouldNotStartWithoutBacklog() {
+            scheduler.start();
+
+            assertThat(scheduler.isRunning()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should stop the timeout thread once the backlog is drained")
+        void shouldStopWhenBacklogIsDrained() {
+            when(paymentRepository.findByPaymentStatus(PaymentStatus.PENDING)).thenReturn(List.of(pending(1L, NOW)));
+            scheduler.start();
+            assertThat(scheduler.isRunning()).isTrue();
+
+            clock.advance(Duration.ofMinutes(15));
+            scheduler.tickSafely();
+
+            assertThat(cancelledBatches).containsExactly(List.of(1L));
+            assertThat(scheduler.isRunning()).isFalse();
+        }
+    }
+
+    private void givenPendingAtStartup(Payment... payments) {
+        when(paymentRepository.findByPaymentStatus(PaymentStatus.PENDING)).thenReturn(List.of(payments));
+        scheduler.rebuild();
+    }
+
+    private Payment pending(Long id, LocalDateTime createdAt) {
+        return Payment.builder()
+                .id(id)
+                .paymentStatus(PaymentStatus.PENDING)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
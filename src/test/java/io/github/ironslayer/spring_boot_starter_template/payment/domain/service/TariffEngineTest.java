@@ -0,0 +1,159 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.domain.service;
+
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.entity.RateConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("TariffEngine Tests")
+class TariffEngineTest {
+
+    @Nested
+    @DisplayName("Golden Value Tests")
+    class GoldenValueTests {
+
+        /**
+         * Valores de referencia: cualquier cambio aquí cambia lo que se le cobra al cliente.
+         * Columnas: minutos, tarifa por hora, mínimo de horas, tope diario (vacío = sin tope), monto esperado
+         */
+        @ParameterizedTest(name = "{0} min at {1}/h, min {2} h, cap {3} -> {4}")
+        @CsvSource({
+                // Horas empezadas se cobran completas
+                "0,     2000.00, 1, 15000.00, 2000.00",
+                "1,     2000.00, 1, 15000.00, 2000.00",
+                "60,    2000.00, 1, 15000.00, 2000.00",
+                "61,    2000.00, 1, 15000.00, 4000.00",
+                "150,   2000.00, 1, 15000.00, 6000.00",
+                "420,   2000.00, 1, 15000.00, 14000.00",
+                // Tope diario
+                "421,   2000.00, 1, 15000.00, 15000.00",
+                "1440,  2000.00, 1, 15000.00, 15000.00",
+                "1441,  2000.00, 1, 15000.00, 17000.00",
+                "1920,  2000.00, 1, 15000.00, 30000.00",
+                "2880,  2000.00, 1, 15000.00, 30000.00",
+                "10080, 2000.00, 1, 15000.00, 105000.00",
+                // Sin tope
+                "1441,  2000.00, 1,         , 50000.00",
+                // Mínimo de horas
+                "61,    2000.00, 3,         , 6000.00",
+                "200,   2000.00, 3,         , 8000.00",
+                // Tarifas con centavos
+                "59,    0.01,    1,         , 0.01",
+                "30,    1234.56, 2, 5000.00,  2469.12",
+                "181,   1234.56, 2, 5000.00,  4938.24",
+                "241,   1234.56, 2, 5000.00,  5000.00",
+                "1501,  1234.56, 2, 5000.00,  7469.12"
+        })
+        void shouldMatchGoldenValues(long minutes, String ratePerHour, int minimumHours, String maximumDaily, String expected) {
+            Tariff tariff = Tariff.of(RateConfig.builder()
+                    .vehicleTypeId(1L)
+                    .ratePerHour(new BigDecimal(ratePerHour))
+                    .minimumChargeHours(minimumHours)
+                    .maximumDailyRate(maximumDaily != null ? new BigDecimal(maximumDaily) : null)
+                    .build());
+
+            assertThat(tariff.price(minutes)).isEqualTo(new BigDecimal(expected));
+        }
+
+        @Test
+        @DisplayName("Should price RateConfig.calculateAmount with the same rules")
+        void shouldPriceRateConfigWithSameRules() {
+            RateConfig rateConfig = RateConfig.builder()
+                    .vehicleTypeId(1L)
+                    .ratePerHour(new BigDecimal("2000.00"))
+                    .minimumChargeHours(1)
+                    .maximumDailyRate(new BigDecimal("15000.00"))
+                    .build();
+
+            assertThat(rateConfig.calculateAmount(2.5)).isEqualTo(new BigDecimal("6000.00"));
+            assertThat(rateConfig.calculateAmount(25.0)).isEqualTo(new BigDecimal("17000.00"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Conversion Tests")
+    class ConversionTests {
+
+        @Test
+        @DisplayName("Should convert between amounts and minor units")
+        void shouldConvertMinorUnits() {
+            assertThat(TariffEngine.toMinorUnits(new BigDecimal("1234.56"))).isEqualTo(123456L);
+            assertThat(TariffEngine.toMinorUnits(new BigDecimal("2000.005"))).isEqualTo(200001L);
+            assertThat(TariffEngine.toMinorUnits(new BigDecimal("15000"))).isEqualTo(1500000L);
+            assertThat(TariffEngine.toAmount(123456L)).isEqualTo(new BigDecimal("1234.56"));
+        }
+
+        @Test
+        @DisplayName("Should count whole minutes and never return negative durations")
+        void shouldCountWholeMinutes() {
+            LocalDateTime entry = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+            assertThat(TariffEngine.minutesBetween(entry, entry.plusMinutes(90).plusSeconds(59))).isEqualTo(90L);
+            assertThat(TariffEngine.minutesBetween(entry, entry.minusMinutes(5))).isZero();
+            assertThat(TariffEngine.toHours(90)).isEqualTo(new BigDecimal("1.50"));
+            assertThat(TariffEngine.toHours(1)).isEqualTo(new BigDecimal("0.02"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Validation Tests")
+    class ValidationTests {
+
+        @Test
+        @DisplayName("Should reject invalid rate configurations")
+        void shouldRejectInvalidRateConfigurations() {
+            assertThatThrownBy(() -> Tariff.of(RateConfig.builder()
+                    .ratePerHour(BigDecimal.ZERO).minimumChargeHours(1).build()))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> Tariff.of(RateConfig.builder()
+                    .ratePerHour(new BigDecimal("2000.00")).minimumChargeHours(1)
+                    .maximumDailyRate(new BigDecimal("1000.00")).build()))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new Tariff(200_000, 0, TariffEngine.NO_DAILY_CAP))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Should fail instead of wrapping around on overflow")
+        void shouldFailOnOverflow() {
+            Tariff tariff = new Tariff(Long.MAX_VALUE / 2, 1, TariffEngine.NO_DAILY_CAP);
+
+            assertThatThrownBy(() -> tariff.priceMinor(180))
+                    .isInstanceOf(ArithmeticException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Allocation Tests")
+    class AllocationTests {
+
+        @Test
+        @DisplayName("Should price without allocating on the heap")
+        void shouldPriceWithoutAllocating() {
+            assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+            Tariff tariff = new Tariff(200_000, 1, 1_500_000);
+            long checksum = 0;
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (long minutes = 0; minutes < 100_000; minutes++) {
+                checksum += tariff.priceMinor(minutes);
+            }
+            long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+            assertThat(checksum).isPositive();
+            // Margen para lo que pueda asignar la propia medición
+            assertThat(allocated).isLessThan(1024);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.domain.service;
+
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.entity.RateConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TariffSchedule Tests")
+class TariffScheduleTest {
+
+    @Nested
+    @DisplayName("Golden Value Tests")
+    class GoldenValueTests {
+
+        /**
+         * Base 2000/h, noche 1000/h de 22 a 6, fin de semana 1500/h.
+         * El 2025-01-06 es lunes; el 2025-01-11 es sábado.
+         * Columnas: entrada, minutos, tope diario (vacío = sin tope), monto esperado
+         */
+        @ParameterizedTest(name = "{0} + {1} min, cap {2} -> {3}")
+        @CsvSource({
+                // Día de semana
+                "2025-01-06T10:00, 120,   ,         4000.00",
+                // Cada hora se cobra con la tarifa que rige cuando empieza
+                "2025-01-06T21:30, 120,   ,         3000.00",
+                "2025-01-06T23:00, 480,   ,         9000.00",
+                // Fin de semana, y la noche tiene prioridad sobre el fin de semana
+                "2025-01-11T10:00, 180,   ,         4500.00",
+                "2025-01-11T23:00, 60,    ,         1000.00",
+                // Domingo 23:30 con el mínimo de 1 hora
+                "2025-01-12T23:30, 20,    ,         1000.00",
+                // Viernes 20:00 durante 3 días: 33000 + 32000 + 39000
+                "2025-01-10T20:00, 4320,  ,         104000.00",
+                // Tope por cada día de 24 h
+                "2025-01-10T20:00, 4320,  15000.00, 45000.00",
+                "2025-01-10T20:00, 4320,  35000.00, 100000.00",
+                // Tres semanas completas
+                "2025-01-06T10:00, 30240, ,         792000.00",
+                "2025-01-06T10:00, 30240, 15000.00, 315000.00"
+        })
+        void shouldMatchGoldenValues(String entryTime, long minutes, String maximumDaily, String expected) {
+            Tariff tariff = Tariff.of(RateConfig.builder()
+                    .vehicleTypeId(1L)
+                    .ratePerHour(new BigDecimal("2000.00"))
+                    .minimumChargeHours(1)
+                    .maximumDailyRate(maximumDaily != null ? new BigDecimal(maximumDaily) : null)
+                    .nightRatePerHour(new BigDecimal("1000.00"))
+                    .nightStartHour(22)
+                    .nightEndHour(6)
+                    .weekendRatePerHour(new BigDecimal("1500.00"))
+                    .build());
+
+            assertThat(tariff.hasSchedule()).isTrue();
+            assertThat(tariff.price(LocalDateTime.parse(entryTime), minutes)).isEqualTo(new BigDecimal(expected));
+        }
+
+        @Test
+        @DisplayName("Should price like TariffEngine when every hour has the base rate")
+        void shouldMatchFlatPricingWithUniformSchedule() {
+            TariffSchedule uniform = TariffSchedule.compile(200_000, 200_000, 22, 6, 200_000);
+            LocalDateTime entry = LocalDateTime.of(2025, 1, 9, 13, 17);
+
+            for (long minutes = 0; minutes < 20_000; minutes += 7) {
+                long hours = TariffEngine.billableHours(minutes, 1);
+                assertThat(uniform.priceMinor(TariffSchedule.minuteOfWeek(entry), hours, 1_500_000))
+                        .isEqualTo(TariffEngine.priceMinor(minutes, 200_000, 1, 1_500_000));
+            }
+        }
+
+        @Test
+        @DisplayName("Should keep flat pricing for tariffs without schedule")
+        void shouldKeepFlatPricingWithoutSchedule() {
+            Tariff tariff = new Tariff(200_000, 1, 1_500_000);
+
+            assertThat(tariff.hasSchedule()).isFalse();
+            assertThat(tariff.price(LocalDateTime.of(2025, 1, 11, 23, 0), 150)).isEqualTo(new BigDecimal("6000.00"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Table Tests")
+    class TableTests {
+
+        @Test
+        @DisplayName("Should map times to minutes of the week starting on Monday")
+        void shouldComputeMinuteOfWeek() {
+            assertThat(TariffSchedule.minuteOfWeek(LocalDateTime.of(2025, 1, 6, 0, 0))).isZero();
+            assertThat(TariffSchedule.minuteOfWeek(LocalDateTime.of(2025, 1, 6, 10, 0))).isEqualTo(600);
+            assertThat(TariffSchedule.minuteOfWeek(LocalDateTime.of(2025, 1, 12, 23, 59)))
+                    .isEqualTo(TariffSchedule.MINUTES_PER_WEEK - 1);
+        }
+
+        @Test
+        @DisplayName("Should resolve the rate in force at every minute of the week")
+        void shouldResolveRatePerMinute() {
+            TariffSchedule schedule = TariffSchedule.compile(200_000, 100_000, 22, 6, 150_000);
+
+            assertThat(schedule.ratePerHourMinorAt(TariffSchedule.minuteOfWeek(LocalDateTime.of(2025, 1, 6, 21, 59)))).isEqualTo(200_000);
+            assertThat(schedule.ratePerHourMinorAt(TariffSchedule.minuteOfWeek(LocalDateTime.of(2025, 1, 6, 22, 0)))).isEqualTo(100_000);
+            assertThat(schedule.ratePerHourMinorAt(TariffSchedule.minuteOfWeek(LocalDateTime.of(2025, 1, 7, 5, 59)))).isEqualTo(100_000);
+            assertThat(schedule.ratePerHourMinorAt(TariffSchedule.minuteOfWeek(LocalDateTime.of(2025, 1, 11, 6, 0)))).isEqualTo(150_000);
+            assertThat(schedule.ratePerHourMinorAt(TariffSchedule.minuteOfWeek(LocalDateTime.of(2025, 1, 12, 23, 0)))).isEqualTo(100_000);
+        }
+
+        @Test
+        @DisplayName("Should support night windows that do not cross midnight")
+        void shouldSupportSameDayNightWindow() {
+            TariffSchedule schedule = TariffSchedule.compile(200_000, 100_000, 1, 5, TariffSchedule.NO_RATE);
+
+            assertThat(schedule.ratePerHourMinorAt(TariffSchedule.minuteOfWeek(LocalDateTime.of(2025, 1, 6, 0, 59)))).isEqualTo(200_000);
+            assertThat(schedule.ratePerHourMinorAt(TariffSchedule.minuteOfWeek(LocalDateTime.of(2025, 1, 6, 4, 59)))).isEqualTo(100_000);
+            assertThat(schedule.ratePerHourMinorAt(TariffSchedule.minuteOfWeek(LocalDateTime.of(2025, 1, 11, 12, 0)))).isEqualTo(200_000);
+        }
+    }
+
+    @Nested
+    @DisplayName("Validation Tests")
+    class ValidationTests {
+
+        @Test
+        @DisplayName("Should reject incomplete or inconsistent schedules")
+        void shouldRejectInvalidSchedules() {
+            assertThatThrownBy(() -> TariffSchedule.compile(200_000, 100_000, 22, 22, TariffSchedule.NO_RATE))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> TariffSchedule.compile(200_000, 100_000, 22, 24, TariffSchedule.NO_RATE))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> TariffSchedule.compile(200_000, TariffSchedule.NO_RATE, 0, 0, 0))
+                    .isInstanceOf(IllegalArgumentException.class);
+
+            RateConfig nightWithoutHours = RateConfig.builder()
+                    .vehicleTypeId(1L)
+                    .ratePerHour(new BigDecimal("2000.00"))
+                    .minimumChargeHours(1)
+                    .nightRatePerHour(new BigDecimal("1000.00"))
+                    .build();
+            assertThat(nightWithoutHours.isValidSchedule()).isFalse();
+            assertThatThrownBy(() -> Tariff.of(nightWithoutHours)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
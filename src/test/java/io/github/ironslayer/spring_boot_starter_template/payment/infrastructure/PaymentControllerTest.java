@@ -5,6 +5,7 @@ import io.github.ironslayer.spring_boot_starter_template.common.mediator.Mediato
 import io.github.ironslayer.spring_boot_starter_template.common.security.AuthenticatedUserService;
 import io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPayment.ProcessPaymentRequest;
 import io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPayment.ProcessPaymentResponse;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.idempotency.IdempotentPaymentExecutor;
 import io.github.ironslayer.spring_boot_starter_template.payment.application.query.calculateAmount.CalculateAmountRequest;
 import io.github.ironslayer.spring_boot_starter_template.payment.application.query.calculateAmount.CalculateAmountResponse;
 import io.github.ironslayer.spring_boot_starter_template.payment.application.query.getPayment.GetPaymentRequest;
@@ -26,9 +27,15 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -51,11 +58,19 @@ class PaymentControllerTest {
     @MockBean
     private AuthenticatedUserService authenticatedUserService;
 
+    @MockBean
+    private IdempotentPaymentExecutor idempotentPaymentExecutor;
+
     private ProcessPaymentResponse processPaymentResponse;
     private CalculateAmountResponse calculateAmountResponse;
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     void setUp() {
+        // El executor real solo envuelve el procesamiento; aquí lo ejecuta directamente
+        when(idempotentPaymentExecutor.execute(any(), any(), any()))
+            .thenAnswer(invocation -> ((Supplier<ProcessPaymentResponse>) invocation.getArgument(2)).get());
+
         // Setup test payment
         Payment testPayment = Payment.builder()
             .id(1L)
@@ -106,6 +121,62 @@ class PaymentControllerTest {
                 .andExpect(jsonPath("$.status").value("PAID"));
     }
 
+    @Test
+    @DisplayName("Should pass the Idempotency-Key header to the idempotent executor")
+    @WithMockUser(authorities = {"OPERATOR"})
+    void shouldPassIdempotencyKeyToExecutor() throws Exception {
+        // Given
+        when(authenticatedUserService.getCurrentUserId()).thenReturn(7L);
+        when(mediator.dispatch(any(ProcessPaymentRequest.class))).thenReturn(processPaymentResponse);
+
+        String requestJson = """
+            {
+                "parking_session_id": 1,
+                "payment_method": "CASH"
+            }
+        """;
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/payments/process")
+                .with(csrf())
+                .header("Idempotency-Key", "terminal-3-0042")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(idempotentPaymentExecutor).execute(eq("terminal-3-0042"),
+                argThat(request -> request.getParkingSessionId().equals(1L)
+                        && request.getOperatorId().equals(7L)
+                        && request.getPaymentMethod() == PaymentMethod.CASH),
+                any());
+    }
+
+    @Test
+    @DisplayName("Should call the idempotent executor without key when the header is absent")
+    @WithMockUser(authorities = {"OPERATOR"})
+    void shouldCallExecutorWithoutKeyWhenHeaderIsAbsent() throws Exception {
+        // Given
+        when(authenticatedUserService.getCurrentUserId()).thenReturn(1L);
+        when(mediator.dispatch(any(ProcessPaymentRequest.class))).thenReturn(processPaymentResponse);
+
+        String requestJson = """
+            {
+                "parking_session_id": 1,
+                "payment_method": "CASH"
+            }
+        """;
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/payments/process")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestJson))
+                .andExpect(status().isOk());
+
+        verify(idempotentPaymentExecutor).execute(isNull(), any(ProcessPaymentRequest.class), any());
+    }
+
     @Test
     @DisplayName("Should calculate amount successfully")
     @WithMockUser(authorities = {"OPERATOR"})
@@ -0,0 +1,100 @@
+package io.github.ironslayer.spring_boot_starter_template.payment.infrastructure.idempotency;
+
+import io.github.ironslayer.spring_boot_starter_template.payment.application.command.processPayment.ProcessPaymentResponse;
+import io.github.ironslayer.spring_boot_starter_template.payment.application.idempotency.ProcessedPayment;
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.entity.Payment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("InMemoryProcessedPaymentStore Tests")
+class InMemoryProcessedPaymentStoreTest {
+
+    private MutableClock clock;
+    private InMemoryProcessedPaymentStore store;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-06T10:00:00Z"));
+        store = new InMemoryProcessedPaymentStore(2, Duration.ofHours(24), clock);
+    }
+
+    @Nested
+    @DisplayName("Bound Tests")
+    class BoundTests {
+
+        @Test
+        @DisplayName("Should drop the oldest response when full")
+        void shouldEvictOldest() {
+            store.save("a", processed(1L));
+            store.save("b", processed(2L));
+            store.find("a");
+            store.save("c", processed(3L));
+
+            // Se descarta por antigüedad, no por uso: una clave solo se reintenta por un tiempo
+            assertThat(store.find("a")).isEmpty();
+            assertThat(store.find("b")).isPresent();
+            assertThat(store.find("c")).isPresent();
+        }
+
+        @Test
+        @DisplayName("Should forget responses once the TTL is over")
+        void shouldExpireEntries() {
+            store.save("a", processed(1L));
+
+            clock.advance(Duration.ofHours(24));
+            assertThat(store.find("a")).get().extracting(p -> p.response().getPayment().getId()).isEqualTo(1L);
+
+            clock.advance(Duration.ofSeconds(1));
+            assertThat(store.find("a")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should reject a non positive max size")
+        void shouldRejectInvalidMaxSize() {
+            assertThatThrownBy(() -> new InMemoryProcessedPaymentStore(0, Duration.ofHours(1), clock))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private ProcessedPayment processed(Long paymentId) {
+        return new ProcessedPayment("1|CASH|", ProcessPaymentResponse.success(Payment.builder().id(paymentId).build()));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
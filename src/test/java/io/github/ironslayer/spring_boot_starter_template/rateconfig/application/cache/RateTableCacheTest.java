@@ -0,0 +1,236 @@
+package io.github.ironslayer.spring_boot_starter_template.rateconfig.application.cache;
+
+import io.github.ironslayer.spring_boot_starter_template.payment.domain.service.Tariff;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.entity.RateConfig;
+import io.github.ironslayer.spring_boot_starter_template.rateconfig.domain.port.RateConfigRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("RateTableCache Tests")
+class RateTableCacheTest {
+
+    @Mock
+    private RateConfigRepository rateConfigRepository;
+
+    private MeterRegistry meterRegistry;
+    private RateTableCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new RateTableCache(rateConfigRepository, meterRegistry);
+        when(rateConfigRepository.findAllVersions()).thenReturn(List.of(rate(1L, 1L, "2000.00")));
+    }
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should answer lookups from the loaded snapshot without querying again")
+        void shouldAnswerLookupsFromSnapshot() {
+            cache.reload();
+
+            assertThat(cache.findActiveByVehicleTypeId(1L)).get()
+                    .extracting(RateConfig::getRatePerHour).isEqualTo(new BigDecimal("2000.00"));
+            assertThat(cache.findActiveByVehicleTypeId(2L)).isEmpty();
+            assertThat(cache.findActiveByVehicleTypeId(null)).isEmpty();
+            assertThat(cache.findTariffByVehicleTypeId(1L)).contains(new Tariff(200_000, 1, 1_500_000));
+            verify(rateConfigRepository, times(1)).findAllVersions();
+        }
+
+        @Test
+        @DisplayName("Should load the snapshot on first use when it was never loaded")
+        void shouldLoadOnFirstUse() {
+            assertThat(cache.findActiveByVehicleTypeId(1L)).isPresent();
+            assertThat(cache.snapshot().version()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should keep the newest rate when two are active for the same vehicle type")
+        void shouldKeepNewestRateForDuplicatedVehicleType() {
+            when(rateConfigRepository.findAllVersions())
+                    .thenReturn(List.of(rate(3L, 1L, "2500.00"), rate(1L, 1L, "2000.00")));
+
+            cache.reload();
+
+            assertThat(cache.findActiveByVehicleTypeId(1L)).get().extracting(RateConfig::getId).isEqualTo(3L);
+        }
+
+        @Test
+        @DisplayName("Should not be affected by later changes to the loaded entities")
+        void shouldCopyLoadedRates() {
+            RateConfig loaded = rate(1L, 1L, "2000.00");
+            when(rateConfigRepository.findAllVersions()).thenReturn(List.of(loaded));
+            cache.reload();
+
+            loaded.setRatePerHour(new BigDecimal("9999.00"));
+
+            assertThat(cache.findActiveByVehicleTypeId(1L)).get()
+                    .extracting(RateConfig::getRatePerHour).isEqualTo(new BigDecimal("2000.00"));
+        }
+
+        @Test
+        @DisplayName("Should leave out rates that cannot be priced")
+        void shouldSkipInvalidRates() {
+            RateConfig invalid = rate(2L, 2L, "2000.00");
+            invalid.setMinimumChargeHours(0);
+            when(rateConfigRepository.findAllVersions()).thenReturn(List.of(rate(1L, 1L, "2000.00"), invalid));
+
+            cache.reload();
+
+            assertThat(cache.findActiveByVehicleTypeId(2L)).isEmpty();
+            assertThat(cache.findTariffByVehicleTypeId(2L)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("History Tests")
+    class HistoryTests {
+
+        private final LocalDateTime march = LocalDateTime.of(2025, 3, 1, 0, 0);
+        private final LocalDateTime june = LocalDateTime.of(2025, 6, 1, 0, 0);
+
+        @BeforeEach
+        void loadVersions() {
+            RateConfig legacy = rate(1L, 1L, "1000.00");
+            legacy.setIsActive(false);
+            legacy.setEffectiveFrom(null);
+            RateConfig first = version(2L, 1L, "2000.00", march, false);
+            RateConfig second = version(3L, 1L, "3000.00", june, true);
+            when(rateConfigRepository.findAllVersions()).thenReturn(List.of(legacy, second, first));
+            cache.reload();
+        }
+
+        @Test
+        @DisplayName("Should price with the version in force at the given time")
+        void shouldFindVersionInForce() {
+            assertThat(cache.findTariffAt(1L, march.plusDays(10))).contains(new Tariff(200_000, 1, 1_500_000));
+            assertThat(cache.findTariffAt(1L, june)).contains(new Tariff(300_000, 1, 1_500_000));
+            assertThat(cache.findTariffAt(1L, june.minusSeconds(1))).contains(new Tariff(200_000, 1, 1_500_000));
+            assertThat(cache.findTariffByVehicleTypeId(1L)).contains(new Tariff(300_000, 1, 1_500_000));
+        }
+
+        @Test
+        @DisplayName("Should fall back to the first version for times before any version")
+        void shouldFallBackToFirstVersion() {
+            // La tarifa inactiva sin vigencia nunca cobró: no cuenta como versión
+            assertThat(cache.findTariffAt(1L, march.minusYears(1))).contains(new Tariff(200_000, 1, 1_500_000));
+            assertThat(cache.findTariffAt(1L, null)).contains(new Tariff(300_000, 1, 1_500_000));
+        }
+
+        @Test
+        @DisplayName("Should not price with old versions when the vehicle type has no active rate")
+        void shouldNotPriceWithoutActiveRate() {
+            when(rateConfigRepository.findAllVersions()).thenReturn(List.of(version(2L, 1L, "2000.00", march, false)));
+            cache.reload();
+
+            assertThat(cache.findTariffAt(1L, march.plusDays(1))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should treat active rates without effective date as in force since always")
+        void shouldTreatLegacyActiveRatesAsAlwaysInForce() {
+            when(rateConfigRepository.findAllVersions()).thenReturn(List.of(rate(1L, 1L, "2000.00")));
+            cache.reload();
+
+            assertThat(cache.findTariffAt(1L, LocalDateTime.of(2000, 1, 1, 0, 0))).contains(new Tariff(200_000, 1, 1_500_000));
+        }
+    }
+
+    @Nested
+    @DisplayName("Swap Tests")
+    class SwapTests {
+
+        @Test
+        @DisplayName("Should swap in a new version when reloaded outside a transaction")
+        void shouldSwapImmediatelyWithoutTransaction() {
+            cache.reload();
+            RateTableSnapshot before = cache.snapshot();
+            when(rateConfigRepository.findAllVersions()).thenReturn(List.of(rate(2L, 1L, "3000.00")));
+
+            cache.reloadAfterCommit();
+
+            assertThat(cache.snapshot().version()).isEqualTo(before.version() + 1);
+            assertThat(cache.findActiveByVehicleTypeId(1L)).get()
+                    .extracting(RateConfig::getRatePerHour).isEqualTo(new BigDecimal("3000.00"));
+            // Quien ya tenía la foto anterior sigue viendo las tarifas con las que empezó
+            assertThat(before.findByVehicleTypeId(1L)).get()
+                    .extracting(RateConfig::getRatePerHour).isEqualTo(new BigDecimal("2000.00"));
+        }
+
+        @Test
+        @DisplayName("Should wait for the commit before swapping the snapshot")
+        void shouldSwapOnlyAfterCommit() {
+            cache.reload();
+            when(rateConfigRepository.findAllVersions()).thenReturn(List.of(rate(2L, 1L, "3000.00")));
+
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                cache.reloadAfterCommit();
+                assertThat(cache.snapshot().version()).isEqualTo(1);
+
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            assertThat(cache.snapshot().version()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Metrics Tests")
+    class MetricsTests {
+
+        @Test
+        @DisplayName("Should publish snapshot version and age")
+        void shouldPublishVersionAndAge() {
+            cache.reload();
+            cache.reload();
+
+            assertThat(meterRegistry.get(RateTableCache.METRIC_PREFIX + ".version").gauge().value()).isEqualTo(2.0);
+            assertThat(meterRegistry.get(RateTableCache.METRIC_PREFIX + ".age").gauge().value()).isGreaterThanOrEqualTo(0.0);
+        }
+    }
+
+    private RateConfig rate(Long id, Long vehicleTypeId, String ratePerHour) {
+        return RateConfig.builder()
+                .id(id)
+                .vehicleTypeId(vehicleTypeId)
+                .ratePerHour(new BigDecimal(ratePerHour))
+                .minimumChargeHours(1)
+                .maximumDailyRate(new BigDecimal("15000.00"))
+                .isActive(true)
+                .build();
+    }
+
+    private RateConfig version(Long id, Long vehicleTypeId, String ratePerHour, LocalDateTime effectiveFrom, boolean active) {
+        RateConfig rate = rate(id, vehicleTypeId, ratePerHour);
+        rate.setEffectiveFrom(effectiveFrom);
+        rate.setIsActive(active);
+        return rate;
+    }
+}
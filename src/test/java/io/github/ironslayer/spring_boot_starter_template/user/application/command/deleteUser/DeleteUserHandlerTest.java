@@ -1,5 +1,6 @@
 package io.github.ironslayer.spring_boot_starter_template.user.application.command.deleteUser;
 
+import io.github.ironslayer.spring_boot_starter_template.user.application.cache.UserNameCache;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.port.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +17,9 @@ class DeleteUserHandlerTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserNameCache userNameCache;
+
     @InjectMocks
     private DeleteUserHandler handler;
 
@@ -27,6 +31,7 @@ class DeleteUserHandlerTest {
         handler.handle(request);
 
         verify(userRepository).deleteById(request.userId());
+        verify(userNameCache).evict(request.userId());
     }
 
     @Test
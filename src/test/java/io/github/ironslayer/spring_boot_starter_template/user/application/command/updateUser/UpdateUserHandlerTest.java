@@ -1,5 +1,6 @@
 package io.github.ironslayer.spring_boot_starter_template.user.application.command.updateUser;
 
+import io.github.ironslayer.spring_boot_starter_template.user.application.cache.UserNameCache;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.entity.User;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.port.UserRepository;
 import org.junit.jupiter.api.Test;
@@ -21,6 +22,9 @@ class UpdateUserHandlerTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserNameCache userNameCache;
+
     @InjectMocks
     private UpdateUserHandler handler;
 
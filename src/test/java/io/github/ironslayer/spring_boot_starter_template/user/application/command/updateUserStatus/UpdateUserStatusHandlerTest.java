@@ -1,6 +1,7 @@
 package io.github.ironslayer.spring_boot_starter_template.user.application.command.updateUserStatus;
 
 import io.github.ironslayer.spring_boot_starter_template.exception.domain.BadRequestException;
+import io.github.ironslayer.spring_boot_starter_template.user.application.cache.UserNameCache;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.entity.Role;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.entity.User;
 import io.github.ironslayer.spring_boot_starter_template.user.domain.exception.UserNotFoundException;
@@ -30,6 +31,9 @@ class UpdateUserStatusHandlerTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserNameCache userNameCache;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -0,0 +1,94 @@
+-- Esquema que generaba Hibernate con ddl-auto: update antes de las migraciones de Flyway
+-- (sin historial de Flyway, sin columnas nuevas de tarifas y con IDENTITY en parking_sessions).
+-- Lo usa SchemaUpgradeIntegrationTest.
+
+CREATE TABLE users (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    firstname   VARCHAR(255),
+    lastname    VARCHAR(255),
+    email       VARCHAR(255) UNIQUE,
+    password    VARCHAR(255),
+    role        VARCHAR(255) CHECK (role IN ('ADMIN', 'OPERATOR')),
+    is_active   BOOLEAN,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6)
+);
+
+CREATE TABLE vehicle_types (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(50)  NOT NULL UNIQUE,
+    description VARCHAR(200),
+    is_active   BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6)
+);
+
+CREATE TABLE vehicles (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    license_plate   VARCHAR(15)  NOT NULL UNIQUE,
+    vehicle_type_id BIGINT       NOT NULL,
+    brand           VARCHAR(50),
+    model           VARCHAR(50),
+    color           VARCHAR(30),
+    owner_name      VARCHAR(100),
+    owner_phone     VARCHAR(20),
+    is_active       BOOLEAN      NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    updated_at      TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE parking_spaces (
+    id                        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    space_number              VARCHAR(10)  NOT NULL UNIQUE,
+    vehicle_type_id           BIGINT       NOT NULL,
+    is_occupied               BOOLEAN      NOT NULL,
+    is_active                 BOOLEAN      NOT NULL,
+    created_at                TIMESTAMP(6) NOT NULL,
+    updated_at                TIMESTAMP(6) NOT NULL,
+    occupied_by_vehicle_plate VARCHAR(15),
+    occupied_at               TIMESTAMP(6)
+);
+
+CREATE TABLE parking_sessions (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    vehicle_id        BIGINT       NOT NULL,
+    parking_space_id  BIGINT       NOT NULL,
+    entry_time        TIMESTAMP(6) NOT NULL,
+    exit_time         TIMESTAMP(6),
+    operator_entry_id BIGINT       NOT NULL,
+    operator_exit_id  BIGINT,
+    is_active         BOOLEAN      NOT NULL,
+    ticket_code       VARCHAR(255) UNIQUE,
+    created_at        TIMESTAMP(6) NOT NULL,
+    updated_at        TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE payments (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    parking_session_id BIGINT         NOT NULL,
+    total_amount       NUMERIC(10, 2) NOT NULL,
+    hours_parked       NUMERIC(10, 2) NOT NULL,
+    rate_applied       NUMERIC(10, 2) NOT NULL,
+    payment_method     VARCHAR(20)    NOT NULL CHECK (payment_method IN ('CASH', 'CARD', 'TRANSFER')),
+    payment_status     VARCHAR(20)    NOT NULL CHECK (payment_status IN ('PENDING', 'PAID', 'CANCELLED')),
+    paid_at            TIMESTAMP(6),
+    operator_id        BIGINT         NOT NULL,
+    created_at         TIMESTAMP(6)   NOT NULL
+);
+
+CREATE TABLE rate_configs (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    vehicle_type_id      BIGINT         NOT NULL,
+    rate_per_hour        NUMERIC(10, 2) NOT NULL,
+    minimum_charge_hours INTEGER        NOT NULL,
+    maximum_daily_rate   NUMERIC(10, 2),
+    is_active            BOOLEAN        NOT NULL,
+    created_at           TIMESTAMP(6),
+    updated_at           TIMESTAMP(6)
+);
+
+INSERT INTO vehicle_types (name, description, is_active, created_at)
+VALUES ('CAR', 'Automóvil', true, CURRENT_TIMESTAMP);
+
+INSERT INTO rate_configs (vehicle_type_id, rate_per_hour, minimum_charge_hours, maximum_daily_rate, is_active, created_at)
+VALUES (1, 3000.00, 1, 25000.00, true, CURRENT_TIMESTAMP);